@@ -0,0 +1,20 @@
+package com.example.jobdispatcher.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation for routing a job class to a named thread pool from the thread_pools table.
+ * A thread pool name given on the job request takes precedence.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExecutorPool {
+    
+    /**
+     * Name of the thread pool the job should run on.
+     */
+    String value();
+}
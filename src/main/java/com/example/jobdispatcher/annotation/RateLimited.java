@@ -27,6 +27,12 @@ public @interface RateLimited {
      */
     String jobType() default "";
     
+    /**
+     * Also charge one token per element of the collection request body to the caller's batch bucket
+     * (rate-limiting.batch.jobs-per-minute).
+     */
+    boolean perItem() default false;
+    
     /**
      * Custom error message when rate limit is exceeded.
      */
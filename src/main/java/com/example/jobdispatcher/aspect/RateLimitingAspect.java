@@ -15,6 +15,7 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Collection;
 
 /**
  * Aspect for handling rate limiting annotations.
@@ -45,41 +46,51 @@ public class RateLimitingAspect {
         // Extract JWT information from request attributes (set by JwtAuthenticationFilter)
         String appServerId = (String) request.getAttribute("appServerId");
         String apiKeyId = (String) request.getAttribute("apiKeyId");
+        long batchJobs = rateLimited.perItem() ? getItemCount(joinPoint.getArgs()) : 0;
+        
+        // Retrying would not help a batch that never fits in the batch bucket
+        if (rateLimitingService.exceedsBatchLimit(batchJobs)) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(new RateLimitExceededResponse(
+                            "Batch of " + batchJobs + " jobs exceeds the batch rate limit",
+                            rateLimitingService.getRemainingBatchJobs(
+                                    rateLimitingService.getBatchCaller(appServerId, apiKeyId, clientIp, userId))));
+        }
         
         boolean allowed = false;
         
         switch (rateLimited.value()) {
             case IP:
-                allowed = rateLimitingService.isAllowedByIp(clientIp);
+                allowed = rateLimitingService.isAllowedByIp(clientIp, batchJobs);
                 break;
             case USER:
                 if (userId != null && !userId.trim().isEmpty()) {
-                    allowed = rateLimitingService.isAllowedByUser(userId, userTier);
+                    allowed = rateLimitingService.isAllowedByUser(userId, userTier, batchJobs);
                 } else {
                     logger.warn("User ID not provided for user-based rate limiting");
                     allowed = true; // Allow if no user ID provided
                 }
                 break;
             case JOB_TYPE:
-                allowed = rateLimitingService.isAllowedByJobType(jobType);
+                allowed = rateLimitingService.isAllowedByJobType(jobType, batchJobs);
                 break;
             case CUSTOM:
                 if (!rateLimited.key().isEmpty()) {
                     // For custom key, we could implement additional logic
-                    allowed = rateLimitingService.isAllowedByIp(clientIp);
+                    allowed = rateLimitingService.isAllowedByIp(clientIp, batchJobs);
                 } else {
                     allowed = true;
                 }
                 break;
             case JWT:
-                allowed = rateLimitingService.isAllowedByJwt(appServerId, apiKeyId, jobType);
+                allowed = rateLimitingService.isAllowedByJwt(appServerId, apiKeyId, jobType, batchJobs);
                 break;
             case COMBINED:
                 // Use JWT-based rate limiting if available, otherwise fall back to traditional method
                 if (appServerId != null && apiKeyId != null) {
-                    allowed = rateLimitingService.isAllowedByJwt(appServerId, apiKeyId, jobType);
+                    allowed = rateLimitingService.isAllowedByJwt(appServerId, apiKeyId, jobType, batchJobs);
                 } else {
-                    allowed = rateLimitingService.isAllowed(clientIp, userId, userTier, jobType);
+                    allowed = rateLimitingService.isAllowed(clientIp, userId, userTier, jobType, batchJobs);
                 }
                 break;
             default:
@@ -87,7 +98,7 @@ public class RateLimitingAspect {
         }
         
         if (!allowed) {
-            logger.warn("Rate limit exceeded for IP: {}, User: {}, JobType: {}", clientIp, userId, jobType);
+            logger.warn("Rate limit exceeded for IP: {}, User: {}, JobType: {}, Batch jobs: {}", clientIp, userId, jobType, batchJobs);
             
             // Return rate limit exceeded response
             return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
@@ -100,6 +111,18 @@ public class RateLimitingAspect {
         return joinPoint.proceed();
     }
     
+    /**
+     * Get the number of items in the first collection argument, charged to the caller's batch bucket.
+     */
+    private long getItemCount(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Collection) {
+                return ((Collection<?>) arg).size();
+            }
+        }
+        return 0;
+    }
+    
     /**
      * Get current HTTP request from context.
      */
@@ -0,0 +1,87 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the local acceptance journal.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.acceptance-journal")
+public class AcceptanceJournalConfig {
+    
+    private boolean enabled = false;
+    private String directory = "data/acceptance-journal";
+    private int segmentSizeBytes = 64 * 1024 * 1024;
+    private long groupCommitDelayMicros = 0; // Extra wait before an fsync so more appends share it
+    private int replicationBatchSize = 500; // Journal entries inserted into scheduled_jobs per batch
+    private long replicationIntervalMillis = 20; // Poll interval of the replicator when the journal is drained
+    private long replicationRetryMillis = 1000; // Wait before retrying a batch after a database error
+    private long maxPendingEntries = 100000; // Unreplicated entries above which submissions bypass the journal
+    
+    public AcceptanceJournalConfig() {}
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public String getDirectory() {
+        return directory;
+    }
+    
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+    
+    public int getSegmentSizeBytes() {
+        return segmentSizeBytes;
+    }
+    
+    public void setSegmentSizeBytes(int segmentSizeBytes) {
+        this.segmentSizeBytes = segmentSizeBytes;
+    }
+    
+    public long getGroupCommitDelayMicros() {
+        return groupCommitDelayMicros;
+    }
+    
+    public void setGroupCommitDelayMicros(long groupCommitDelayMicros) {
+        this.groupCommitDelayMicros = groupCommitDelayMicros;
+    }
+    
+    public int getReplicationBatchSize() {
+        return replicationBatchSize;
+    }
+    
+    public void setReplicationBatchSize(int replicationBatchSize) {
+        this.replicationBatchSize = replicationBatchSize;
+    }
+    
+    public long getReplicationIntervalMillis() {
+        return replicationIntervalMillis;
+    }
+    
+    public void setReplicationIntervalMillis(long replicationIntervalMillis) {
+        this.replicationIntervalMillis = replicationIntervalMillis;
+    }
+    
+    public long getReplicationRetryMillis() {
+        return replicationRetryMillis;
+    }
+    
+    public void setReplicationRetryMillis(long replicationRetryMillis) {
+        this.replicationRetryMillis = replicationRetryMillis;
+    }
+    
+    public long getMaxPendingEntries() {
+        return maxPendingEntries;
+    }
+    
+    public void setMaxPendingEntries(long maxPendingEntries) {
+        this.maxPendingEntries = maxPendingEntries;
+    }
+}
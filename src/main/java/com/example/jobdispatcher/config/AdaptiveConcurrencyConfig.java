@@ -0,0 +1,104 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for adaptive executor pool resizing.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.adaptive-concurrency")
+public class AdaptiveConcurrencyConfig {
+    
+    private String mode = "ADVISOR"; // OFF, ADVISOR (recommend only), ACTIVE (apply resizes)
+    private long sampleIntervalMillis = 5000;
+    private long queueWaitSloMillis = 500; // Target time a job waits in the queue before it starts
+    private int minPoolSize = 1;
+    private int maxPoolSize = 64;
+    private int additiveIncrease = 2; // Threads added per sample while the SLO is missed
+    private double multiplicativeDecrease = 0.75; // Core size factor applied when the pool is underused
+    private double lowUtilization = 0.5; // Busy thread ratio below which the pool may shrink
+    private long decreaseCooldownMillis = 30000; // Minimum time between two decreases of the same pool
+    
+    public AdaptiveConcurrencyConfig() {}
+    
+    public boolean isActive() {
+        return "ACTIVE".equalsIgnoreCase(mode);
+    }
+    
+    public boolean isOff() {
+        return "OFF".equalsIgnoreCase(mode);
+    }
+    
+    public String getMode() {
+        return mode;
+    }
+    
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+    
+    public long getSampleIntervalMillis() {
+        return sampleIntervalMillis;
+    }
+    
+    public void setSampleIntervalMillis(long sampleIntervalMillis) {
+        this.sampleIntervalMillis = sampleIntervalMillis;
+    }
+    
+    public long getQueueWaitSloMillis() {
+        return queueWaitSloMillis;
+    }
+    
+    public void setQueueWaitSloMillis(long queueWaitSloMillis) {
+        this.queueWaitSloMillis = queueWaitSloMillis;
+    }
+    
+    public int getMinPoolSize() {
+        return minPoolSize;
+    }
+    
+    public void setMinPoolSize(int minPoolSize) {
+        this.minPoolSize = minPoolSize;
+    }
+    
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+    
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+    
+    public int getAdditiveIncrease() {
+        return additiveIncrease;
+    }
+    
+    public void setAdditiveIncrease(int additiveIncrease) {
+        this.additiveIncrease = additiveIncrease;
+    }
+    
+    public double getMultiplicativeDecrease() {
+        return multiplicativeDecrease;
+    }
+    
+    public void setMultiplicativeDecrease(double multiplicativeDecrease) {
+        this.multiplicativeDecrease = multiplicativeDecrease;
+    }
+    
+    public double getLowUtilization() {
+        return lowUtilization;
+    }
+    
+    public void setLowUtilization(double lowUtilization) {
+        this.lowUtilization = lowUtilization;
+    }
+    
+    public long getDecreaseCooldownMillis() {
+        return decreaseCooldownMillis;
+    }
+    
+    public void setDecreaseCooldownMillis(long decreaseCooldownMillis) {
+        this.decreaseCooldownMillis = decreaseCooldownMillis;
+    }
+}
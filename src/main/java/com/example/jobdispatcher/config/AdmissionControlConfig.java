@@ -0,0 +1,78 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for job admission control and the overflow queue.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.admission")
+public class AdmissionControlConfig {
+    
+    private boolean enabled = true;
+    private boolean overflowEnabled = false; // Park jobs as OVERFLOW rows instead of rejecting them
+    private long overflowCapacity = 10000; // Maximum number of OVERFLOW rows
+    private long refillIntervalMillis = 1000; // How often capacity is sampled and overflow jobs are refilled
+    private int refillBatchSize = 100; // Maximum overflow jobs read per refill pass
+    private long minRetryAfterSeconds = 1;
+    private long maxRetryAfterSeconds = 60;
+    
+    public AdmissionControlConfig() {}
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public boolean isOverflowEnabled() {
+        return overflowEnabled;
+    }
+    
+    public void setOverflowEnabled(boolean overflowEnabled) {
+        this.overflowEnabled = overflowEnabled;
+    }
+    
+    public long getOverflowCapacity() {
+        return overflowCapacity;
+    }
+    
+    public void setOverflowCapacity(long overflowCapacity) {
+        this.overflowCapacity = overflowCapacity;
+    }
+    
+    public long getRefillIntervalMillis() {
+        return refillIntervalMillis;
+    }
+    
+    public void setRefillIntervalMillis(long refillIntervalMillis) {
+        this.refillIntervalMillis = refillIntervalMillis;
+    }
+    
+    public int getRefillBatchSize() {
+        return refillBatchSize;
+    }
+    
+    public void setRefillBatchSize(int refillBatchSize) {
+        this.refillBatchSize = refillBatchSize;
+    }
+    
+    public long getMinRetryAfterSeconds() {
+        return minRetryAfterSeconds;
+    }
+    
+    public void setMinRetryAfterSeconds(long minRetryAfterSeconds) {
+        this.minRetryAfterSeconds = minRetryAfterSeconds;
+    }
+    
+    public long getMaxRetryAfterSeconds() {
+        return maxRetryAfterSeconds;
+    }
+    
+    public void setMaxRetryAfterSeconds(long maxRetryAfterSeconds) {
+        this.maxRetryAfterSeconds = maxRetryAfterSeconds;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for archiving finished jobs into scheduled_jobs_history.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.archive")
+public class ArchiveConfig {
+    
+    private boolean enabled = true;
+    private int archiveAfterHours = 24; // Age of a finished job, by completion time, before it is archived
+    private int batchSize = 1000; // Jobs moved per transaction
+    private int maxBatchesPerRun = 100; // Limits the work done by a single run
+    
+    public ArchiveConfig() {}
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getArchiveAfterHours() {
+        return archiveAfterHours;
+    }
+    
+    public void setArchiveAfterHours(int archiveAfterHours) {
+        this.archiveAfterHours = archiveAfterHours;
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    
+    public int getMaxBatchesPerRun() {
+        return maxBatchesPerRun;
+    }
+    
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+}
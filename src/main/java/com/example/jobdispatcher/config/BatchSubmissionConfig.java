@@ -0,0 +1,24 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for bulk job submission.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.batch")
+public class BatchSubmissionConfig {
+    
+    private int maxBatchSize = 1000; // Maximum number of jobs accepted in one batch request
+    
+    public BatchSubmissionConfig() {}
+    
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+    
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+}
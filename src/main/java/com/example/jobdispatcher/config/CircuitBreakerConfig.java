@@ -0,0 +1,79 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the per-job-class circuit breakers.
+ * A class's breaker opens when its failure rate over the sliding window reaches the threshold.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.circuit-breaker")
+public class CircuitBreakerConfig {
+    
+    private boolean enabled = true;
+    private long windowMillis = 60000; // Sliding window length
+    private int windowBuckets = 12; // Buckets the window is split into
+    private int minimumCalls = 20; // Executions in the window before the failure rate is evaluated
+    private int failureRateThreshold = 50; // Percent
+    private long openDurationMillis = 30000; // Time an open breaker parks jobs before letting probes through
+    private int halfOpenCalls = 5; // Probe executions that must succeed to close the breaker
+    
+    public CircuitBreakerConfig() {}
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+    
+    public void setWindowMillis(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+    
+    public int getWindowBuckets() {
+        return windowBuckets;
+    }
+    
+    public void setWindowBuckets(int windowBuckets) {
+        this.windowBuckets = windowBuckets;
+    }
+    
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+    
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+    
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+    
+    public void setFailureRateThreshold(int failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+    
+    public long getOpenDurationMillis() {
+        return openDurationMillis;
+    }
+    
+    public void setOpenDurationMillis(long openDurationMillis) {
+        this.openDurationMillis = openDurationMillis;
+    }
+    
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+    
+    public void setHalfOpenCalls(int halfOpenCalls) {
+        this.halfOpenCalls = halfOpenCalls;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.jobdispatcher.config;
 
+import com.example.jobdispatcher.executor.PriorityTaskQueue;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,6 +15,7 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Configuration class for setting up thread pools and scheduling with separate queues.
@@ -26,12 +28,21 @@ public class ExecutorConfig implements AsyncConfigurer {
     @Autowired
     private ThreadPoolConfig threadPoolConfig;
     
+    @Autowired
+    private JobPriorityConfig jobPriorityConfig;
+    
     /**
      * Thread pool executor for one-time jobs with dedicated queue.
      */
     @Bean(name = "oneTimeJobExecutor")
     public Executor oneTimeJobExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        ThreadPoolTaskExecutor executor = jobPriorityConfig.isEnabled() ? new ThreadPoolTaskExecutor() {
+            @Override
+            protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+                // Per-priority sub-queues sharing queue-capacity by the job-priority queue shares
+                return new PriorityTaskQueue(jobPriorityConfig, queueCapacity);
+            }
+        } : new ThreadPoolTaskExecutor();
         ThreadPoolConfig.ThreadPoolSettings settings = threadPoolConfig.getOneTimeJob();
         
         executor.setCorePoolSize(settings.getCorePoolSize());
@@ -50,7 +61,8 @@ public class ExecutorConfig implements AsyncConfigurer {
     }
     
     /**
-     * Thread pool scheduler for repetitive jobs with dedicated queue.
+     * Thread pool scheduler for repetitive jobs and grouping timers.
+     * Its threads only trigger executions, repetitive jobs run on the repetitiveJobWorkerExecutor.
      */
     @Bean(name = "repetitiveJobScheduler")
     public ThreadPoolTaskScheduler repetitiveJobScheduler() {
@@ -66,6 +78,48 @@ public class ExecutorConfig implements AsyncConfigurer {
         return scheduler;
     }
     
+    /**
+     * Worker pool that runs repetitive job executions handed over by the schedulers.
+     */
+    @Bean(name = "repetitiveJobWorkerExecutor")
+    public ThreadPoolTaskExecutor repetitiveJobWorkerExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        ThreadPoolConfig.ThreadPoolSettings settings = threadPoolConfig.getRepetitiveJobWorker();
+        
+        executor.setCorePoolSize(settings.getCorePoolSize());
+        executor.setMaxPoolSize(settings.getMaxPoolSize());
+        executor.setQueueCapacity(settings.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) settings.getKeepAliveTime());
+        executor.setThreadNamePrefix(settings.getThreadNamePrefix() + "repetitive-worker-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * Bounded pool that runs job retries, so a retry wave does not compete with fresh work.
+     * When it is saturated the dispatching thread runs the retry, which slows down claiming further retries.
+     */
+    @Bean(name = "retryJobExecutor")
+    public ThreadPoolTaskExecutor retryJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        ThreadPoolConfig.ThreadPoolSettings settings = threadPoolConfig.getRetryJob();
+        
+        executor.setCorePoolSize(settings.getCorePoolSize());
+        executor.setMaxPoolSize(settings.getMaxPoolSize());
+        executor.setQueueCapacity(settings.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) settings.getKeepAliveTime());
+        executor.setThreadNamePrefix(settings.getThreadNamePrefix() + "retry-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        
+        executor.initialize();
+        return executor;
+    }
+    
     /**
      * Default async executor for @Async methods with dedicated queue.
      */
@@ -89,8 +143,10 @@ public class ExecutorConfig implements AsyncConfigurer {
     /**
      * Create a blocking queue based on the specified type.
      */
-    private BlockingQueue<Runnable> createQueue(String queueType, int capacity) {
+    public BlockingQueue<Runnable> createQueue(String queueType, int capacity) {
         switch (queueType.toUpperCase()) {
+            case "PRIORITY_QUEUE":
+                return new PriorityTaskQueue(jobPriorityConfig, capacity);
             case "ARRAY_BLOCKING_QUEUE":
                 return new ArrayBlockingQueue<>(capacity);
             case "SYNCHRONOUS_QUEUE":
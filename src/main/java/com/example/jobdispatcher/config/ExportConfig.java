@@ -0,0 +1,51 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the streaming job export.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.export")
+public class ExportConfig {
+    
+    private int fetchSize = 0; // 0 streams rows one at a time; with useCursorFetch=true in the JDBC URL, rows per round trip
+    private int queryTimeoutSeconds = 0; // 0 = no timeout
+    private int maxRangeDays = 366; // Longest from/to range accepted
+    private boolean includeHistory = true; // Also export archived jobs from scheduled_jobs_history
+    
+    public ExportConfig() {}
+    
+    public int getFetchSize() {
+        return fetchSize;
+    }
+    
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+    
+    public int getQueryTimeoutSeconds() {
+        return queryTimeoutSeconds;
+    }
+    
+    public void setQueryTimeoutSeconds(int queryTimeoutSeconds) {
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+    }
+    
+    public int getMaxRangeDays() {
+        return maxRangeDays;
+    }
+    
+    public void setMaxRangeDays(int maxRangeDays) {
+        this.maxRangeDays = maxRangeDays;
+    }
+    
+    public boolean isIncludeHistory() {
+        return includeHistory;
+    }
+    
+    public void setIncludeHistory(boolean includeHistory) {
+        this.includeHistory = includeHistory;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Configuration properties for the job factory registry.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.job-factory")
+public class JobFactoryConfig {
+    
+    private List<String> scanPackages = Arrays.asList("com.example.jobdispatcher.job");
+    private boolean springBeansEnabled = true; // Use prototype beans when a job class is registered as one
+    private boolean lazyResolutionEnabled = true; // Resolve classes outside the scanned packages on first use
+    private int maxCachedMisses = 1000;
+    
+    public JobFactoryConfig() {}
+    
+    public List<String> getScanPackages() {
+        return scanPackages;
+    }
+    
+    public void setScanPackages(List<String> scanPackages) {
+        this.scanPackages = scanPackages;
+    }
+    
+    public boolean isSpringBeansEnabled() {
+        return springBeansEnabled;
+    }
+    
+    public void setSpringBeansEnabled(boolean springBeansEnabled) {
+        this.springBeansEnabled = springBeansEnabled;
+    }
+    
+    public boolean isLazyResolutionEnabled() {
+        return lazyResolutionEnabled;
+    }
+    
+    public void setLazyResolutionEnabled(boolean lazyResolutionEnabled) {
+        this.lazyResolutionEnabled = lazyResolutionEnabled;
+    }
+    
+    public int getMaxCachedMisses() {
+        return maxCachedMisses;
+    }
+    
+    public void setMaxCachedMisses(int maxCachedMisses) {
+        this.maxCachedMisses = maxCachedMisses;
+    }
+}
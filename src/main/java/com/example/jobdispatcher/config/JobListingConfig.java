@@ -0,0 +1,33 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for paginated job listings.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.listing")
+public class JobListingConfig {
+    
+    private int defaultPageSize = 100;
+    private int maxPageSize = 500; // Larger requested page sizes are capped to this
+    
+    public JobListingConfig() {}
+    
+    public int getDefaultPageSize() {
+        return defaultPageSize;
+    }
+    
+    public void setDefaultPageSize(int defaultPageSize) {
+        this.defaultPageSize = defaultPageSize;
+    }
+    
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+    
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+}
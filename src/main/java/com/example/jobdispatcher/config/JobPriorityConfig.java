@@ -0,0 +1,247 @@
+package com.example.jobdispatcher.config;
+
+import com.example.jobdispatcher.enums.JobPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration for priority-ordered job execution.
+ * The per-priority queue shares bound how much of the executor's queue capacity jobs of each priority
+ * may take, the weights control the share of dequeues each priority gets while several are backlogged.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-priority")
+public class JobPriorityConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobPriorityConfig.class);
+    
+    private boolean enabled = true;
+    private String defaultPriority = "NORMAL";
+    
+    // Percentage of the executor queue capacity each priority level may fill; the rest is kept for higher levels
+    private int criticalQueueShare = 100;
+    private int highQueueShare = 100;
+    private int normalQueueShare = 80;
+    private int lowQueueShare = 50;
+    private int backgroundQueueShare = 25;
+    
+    // Deprecated absolute queue limits (job-priority.*-limit); a limit that is set replaces the level's share
+    private final Map<JobPriority, Integer> legacyLimits = new EnumMap<>(JobPriority.class);
+    
+    // Dequeue weight per priority level
+    private int criticalWeight = 16;
+    private int highWeight = 8;
+    private int normalWeight = 4;
+    private int lowWeight = 2;
+    private int backgroundWeight = 1;
+    
+    // Jobs waiting longer than this are dequeued ahead of higher priorities
+    private long agingThresholdMillis = 30000;
+    
+    public JobPriorityConfig() {}
+    
+    @PostConstruct
+    public void warnDeprecatedLimits() {
+        legacyLimits.forEach((priority, limit) -> logger.warn(
+                "job-priority.{}-limit is deprecated, use job-priority.{}-queue-share (percent of queue-capacity); "
+                + "keeping an absolute limit of {} for now", priority.name().toLowerCase(), priority.name().toLowerCase(), limit));
+    }
+    
+    /**
+     * Get how many queued jobs a priority level may hold in a queue of the given capacity.
+     */
+    public int getQueueLimit(JobPriority priority, int capacity) {
+        Integer legacyLimit = legacyLimits.get(priority);
+        if (legacyLimit != null) {
+            return Math.min(Math.max(legacyLimit, 0), capacity);
+        }
+        int share = Math.min(Math.max(getQueueShare(priority), 0), 100);
+        return (int) ((long) capacity * share / 100);
+    }
+    
+    /**
+     * Get the percentage of the executor queue capacity a priority level may fill.
+     */
+    public int getQueueShare(JobPriority priority) {
+        switch (priority) {
+            case CRITICAL:
+                return criticalQueueShare;
+            case HIGH:
+                return highQueueShare;
+            case LOW:
+                return lowQueueShare;
+            case BACKGROUND:
+                return backgroundQueueShare;
+            case NORMAL:
+            default:
+                return normalQueueShare;
+        }
+    }
+    
+    /**
+     * Get the dequeue weight for a priority level.
+     */
+    public int getWeight(JobPriority priority) {
+        switch (priority) {
+            case CRITICAL:
+                return criticalWeight;
+            case HIGH:
+                return highWeight;
+            case LOW:
+                return lowWeight;
+            case BACKGROUND:
+                return backgroundWeight;
+            case NORMAL:
+            default:
+                return normalWeight;
+        }
+    }
+    
+    /**
+     * Resolve the priority to use when a request does not specify one.
+     */
+    public JobPriority resolveDefaultPriority() {
+        return JobPriority.fromName(defaultPriority);
+    }
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public String getDefaultPriority() {
+        return defaultPriority;
+    }
+    
+    public void setDefaultPriority(String defaultPriority) {
+        this.defaultPriority = defaultPriority;
+    }
+    
+    public int getCriticalQueueShare() {
+        return criticalQueueShare;
+    }
+    
+    public void setCriticalQueueShare(int criticalQueueShare) {
+        this.criticalQueueShare = criticalQueueShare;
+    }
+    
+    public int getHighQueueShare() {
+        return highQueueShare;
+    }
+    
+    public void setHighQueueShare(int highQueueShare) {
+        this.highQueueShare = highQueueShare;
+    }
+    
+    public int getNormalQueueShare() {
+        return normalQueueShare;
+    }
+    
+    public void setNormalQueueShare(int normalQueueShare) {
+        this.normalQueueShare = normalQueueShare;
+    }
+    
+    public int getLowQueueShare() {
+        return lowQueueShare;
+    }
+    
+    public void setLowQueueShare(int lowQueueShare) {
+        this.lowQueueShare = lowQueueShare;
+    }
+    
+    public int getBackgroundQueueShare() {
+        return backgroundQueueShare;
+    }
+    
+    public void setBackgroundQueueShare(int backgroundQueueShare) {
+        this.backgroundQueueShare = backgroundQueueShare;
+    }
+    
+    /** @deprecated use {@link #setCriticalQueueShare(int)} */
+    @Deprecated
+    public void setCriticalLimit(int criticalLimit) {
+        legacyLimits.put(JobPriority.CRITICAL, criticalLimit);
+    }
+    
+    /** @deprecated use {@link #setHighQueueShare(int)} */
+    @Deprecated
+    public void setHighLimit(int highLimit) {
+        legacyLimits.put(JobPriority.HIGH, highLimit);
+    }
+    
+    /** @deprecated use {@link #setNormalQueueShare(int)} */
+    @Deprecated
+    public void setNormalLimit(int normalLimit) {
+        legacyLimits.put(JobPriority.NORMAL, normalLimit);
+    }
+    
+    /** @deprecated use {@link #setLowQueueShare(int)} */
+    @Deprecated
+    public void setLowLimit(int lowLimit) {
+        legacyLimits.put(JobPriority.LOW, lowLimit);
+    }
+    
+    /** @deprecated use {@link #setBackgroundQueueShare(int)} */
+    @Deprecated
+    public void setBackgroundLimit(int backgroundLimit) {
+        legacyLimits.put(JobPriority.BACKGROUND, backgroundLimit);
+    }
+    
+    public int getCriticalWeight() {
+        return criticalWeight;
+    }
+    
+    public void setCriticalWeight(int criticalWeight) {
+        this.criticalWeight = criticalWeight;
+    }
+    
+    public int getHighWeight() {
+        return highWeight;
+    }
+    
+    public void setHighWeight(int highWeight) {
+        this.highWeight = highWeight;
+    }
+    
+    public int getNormalWeight() {
+        return normalWeight;
+    }
+    
+    public void setNormalWeight(int normalWeight) {
+        this.normalWeight = normalWeight;
+    }
+    
+    public int getLowWeight() {
+        return lowWeight;
+    }
+    
+    public void setLowWeight(int lowWeight) {
+        this.lowWeight = lowWeight;
+    }
+    
+    public int getBackgroundWeight() {
+        return backgroundWeight;
+    }
+    
+    public void setBackgroundWeight(int backgroundWeight) {
+        this.backgroundWeight = backgroundWeight;
+    }
+    
+    public long getAgingThresholdMillis() {
+        return agingThresholdMillis;
+    }
+    
+    public void setAgingThresholdMillis(long agingThresholdMillis) {
+        this.agingThresholdMillis = agingThresholdMillis;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for job execution timeouts.
+ * A job's own timeoutMillis wins over its class timeout, which wins over the default; 0 means no timeout.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.timeout")
+public class JobTimeoutConfig {
+    
+    private boolean enabled = true;
+    private long defaultTimeoutMillis = 0;
+    private Map<String, Long> classTimeouts = new HashMap<>(); // Job class name -> timeout in milliseconds
+    private boolean interruptOnTimeout = true;
+    private boolean retryOnTimeout = true; // Hand timed out jobs to the retry service
+    private long tickMillis = 100; // Watchdog timer resolution
+    private int wheelSize = 512;
+    private long flushIntervalMillis = 200; // Interval of the bulk TIMED_OUT status update
+    
+    public JobTimeoutConfig() {}
+    
+    /**
+     * Resolve the execution timeout of a job, 0 if it has none.
+     */
+    public long resolveTimeoutMillis(String jobClassName, Long jobTimeoutMillis) {
+        if (jobTimeoutMillis != null && jobTimeoutMillis > 0) {
+            return jobTimeoutMillis;
+        }
+        Long classTimeout = jobClassName != null ? classTimeouts.get(jobClassName) : null;
+        if (classTimeout != null && classTimeout > 0) {
+            return classTimeout;
+        }
+        return Math.max(defaultTimeoutMillis, 0);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public long getDefaultTimeoutMillis() {
+        return defaultTimeoutMillis;
+    }
+    
+    public void setDefaultTimeoutMillis(long defaultTimeoutMillis) {
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+    
+    public Map<String, Long> getClassTimeouts() {
+        return classTimeouts;
+    }
+    
+    public void setClassTimeouts(Map<String, Long> classTimeouts) {
+        this.classTimeouts = classTimeouts;
+    }
+    
+    public boolean isInterruptOnTimeout() {
+        return interruptOnTimeout;
+    }
+    
+    public void setInterruptOnTimeout(boolean interruptOnTimeout) {
+        this.interruptOnTimeout = interruptOnTimeout;
+    }
+    
+    public boolean isRetryOnTimeout() {
+        return retryOnTimeout;
+    }
+    
+    public void setRetryOnTimeout(boolean retryOnTimeout) {
+        this.retryOnTimeout = retryOnTimeout;
+    }
+    
+    public long getTickMillis() {
+        return tickMillis;
+    }
+    
+    public void setTickMillis(long tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+    
+    public int getWheelSize() {
+        return wheelSize;
+    }
+    
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+    
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+    
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+}
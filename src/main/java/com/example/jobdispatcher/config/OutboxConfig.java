@@ -0,0 +1,96 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the job lifecycle event outbox and its relay.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.outbox")
+public class OutboxConfig {
+    
+    private boolean enabled = true;
+    private long pollIntervalMillis = 200;
+    private int batchSize = 500; // Events read per query and delivered per listener call
+    private long gapTimeoutMillis = 2000; // How long a missing id may hold back later events before it is skipped
+    private long lateEventWindowMillis = 600000; // How long a skipped id is still delivered if its transaction commits late
+    private String instanceName = "default"; // Prefix of this instance's listener offsets
+    private int retentionHours = 24; // Events are kept at least this long, and until every durable listener has them
+    private int purgeChunkSize = 5000;
+    private long purgeIntervalMillis = 600000;
+    
+    public OutboxConfig() {}
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+    
+    public void setPollIntervalMillis(long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    
+    public long getGapTimeoutMillis() {
+        return gapTimeoutMillis;
+    }
+    
+    public void setGapTimeoutMillis(long gapTimeoutMillis) {
+        this.gapTimeoutMillis = gapTimeoutMillis;
+    }
+    
+    public long getLateEventWindowMillis() {
+        return lateEventWindowMillis;
+    }
+    
+    public void setLateEventWindowMillis(long lateEventWindowMillis) {
+        this.lateEventWindowMillis = lateEventWindowMillis;
+    }
+    
+    public String getInstanceName() {
+        return instanceName;
+    }
+    
+    public void setInstanceName(String instanceName) {
+        this.instanceName = instanceName;
+    }
+    
+    public int getRetentionHours() {
+        return retentionHours;
+    }
+    
+    public void setRetentionHours(int retentionHours) {
+        this.retentionHours = retentionHours;
+    }
+    
+    public int getPurgeChunkSize() {
+        return purgeChunkSize;
+    }
+    
+    public void setPurgeChunkSize(int purgeChunkSize) {
+        this.purgeChunkSize = purgeChunkSize;
+    }
+    
+    public long getPurgeIntervalMillis() {
+        return purgeIntervalMillis;
+    }
+    
+    public void setPurgeIntervalMillis(long purgeIntervalMillis) {
+        this.purgeIntervalMillis = purgeIntervalMillis;
+    }
+}
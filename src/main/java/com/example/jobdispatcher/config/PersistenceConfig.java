@@ -0,0 +1,98 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the scheduled job store backend.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.persistence")
+public class PersistenceConfig {
+    
+    public static final String BACKEND_MYSQL = "mysql";
+    public static final String BACKEND_MEMORY = "memory";
+    public static final String BACKEND_FILE = "file";
+    
+    private String backend = BACKEND_MYSQL; // mysql, memory or file
+    private String fileDirectory = "data/job-store";
+    private int fileSegmentSizeBytes = 64 * 1024 * 1024;
+    private boolean fileSyncOnWrite = true; // Wait for the fsync of each change; false leaves flushing to the OS
+    private long groupCommitDelayMicros = 0; // Extra wait before an fsync so more changes share it
+    private long compactionIntervalMillis = 60000;
+    private long compactionMinEntries = 100000; // Log entries since the last snapshot before compacting
+    private double compactionRatio = 2.0; // Log entries per live job before compacting
+    
+    public PersistenceConfig() {}
+    
+    /**
+     * Whether scheduled jobs are stored in MySQL, so SQL-only features (partitions, archive, export) apply.
+     */
+    public boolean isDatabaseBackend() {
+        return BACKEND_MYSQL.equals(backend);
+    }
+    
+    public String getBackend() {
+        return backend;
+    }
+    
+    public void setBackend(String backend) {
+        this.backend = backend;
+    }
+    
+    public String getFileDirectory() {
+        return fileDirectory;
+    }
+    
+    public void setFileDirectory(String fileDirectory) {
+        this.fileDirectory = fileDirectory;
+    }
+    
+    public int getFileSegmentSizeBytes() {
+        return fileSegmentSizeBytes;
+    }
+    
+    public void setFileSegmentSizeBytes(int fileSegmentSizeBytes) {
+        this.fileSegmentSizeBytes = fileSegmentSizeBytes;
+    }
+    
+    public boolean isFileSyncOnWrite() {
+        return fileSyncOnWrite;
+    }
+    
+    public void setFileSyncOnWrite(boolean fileSyncOnWrite) {
+        this.fileSyncOnWrite = fileSyncOnWrite;
+    }
+    
+    public long getGroupCommitDelayMicros() {
+        return groupCommitDelayMicros;
+    }
+    
+    public void setGroupCommitDelayMicros(long groupCommitDelayMicros) {
+        this.groupCommitDelayMicros = groupCommitDelayMicros;
+    }
+    
+    public long getCompactionIntervalMillis() {
+        return compactionIntervalMillis;
+    }
+    
+    public void setCompactionIntervalMillis(long compactionIntervalMillis) {
+        this.compactionIntervalMillis = compactionIntervalMillis;
+    }
+    
+    public long getCompactionMinEntries() {
+        return compactionMinEntries;
+    }
+    
+    public void setCompactionMinEntries(long compactionMinEntries) {
+        this.compactionMinEntries = compactionMinEntries;
+    }
+    
+    public double getCompactionRatio() {
+        return compactionRatio;
+    }
+    
+    public void setCompactionRatio(double compactionRatio) {
+        this.compactionRatio = compactionRatio;
+    }
+}
@@ -99,12 +99,22 @@ public class RateLimitingConfig {
     @Value("${rate-limiting.enterprise-tier.burst-capacity:20}")
     private int enterpriseTierBurstCapacity;
     
+    // Jobs per minute submitted through the batch and stream endpoints, per caller
+    @Value("${rate-limiting.batch.jobs-per-minute:5000}")
+    private int batchJobsPerMinute;
+    
     // Cache for storing buckets
     private final Cache<String, Bucket> bucketCache = Caffeine.newBuilder()
             .maximumSize(10000)
             .expireAfterAccess(Duration.ofMinutes(10))
             .build();
     
+    // Cache for storing batch job buckets
+    private final Cache<String, Bucket> batchBucketCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+    
     /**
      * Default bucket for general rate limiting.
      */
@@ -170,6 +180,13 @@ public class RateLimitingConfig {
         return bucketCache.get(key, k -> createBucket(defaultRequestsPerMinute, burstCapacity));
     }
     
+    /**
+     * Get or create the batch job bucket for a caller.
+     */
+    public Bucket getBatchBucket(String key) {
+        return batchBucketCache.get(key, k -> createBucket(batchJobsPerMinute, batchJobsPerMinute));
+    }
+    
     /**
      * Get bucket for specific job type.
      */
@@ -231,6 +248,8 @@ public class RateLimitingConfig {
     public int getEnterpriseTierRequestsPerDay() { return enterpriseTierRequestsPerDay; }
     public int getEnterpriseTierBurstCapacity() { return enterpriseTierBurstCapacity; }
     
+    public int getBatchJobsPerMinute() { return batchJobsPerMinute; }
+    
     /**
      * Get rate limiting configuration as a map.
      */
@@ -247,6 +266,7 @@ public class RateLimitingConfig {
         config.put("freeTierRequestsPerMinute", freeTierRequestsPerMinute);
         config.put("premiumTierRequestsPerMinute", premiumTierRequestsPerMinute);
         config.put("enterpriseTierRequestsPerMinute", enterpriseTierRequestsPerMinute);
+        config.put("batchJobsPerMinute", batchJobsPerMinute);
         return config;
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the thread pool, app server and API key reference data cache.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.reference-cache")
+public class ReferenceCacheConfig {
+    
+    private boolean enabled = true;
+    private long expireAfterWriteSeconds = 300; // Bounds staleness of changes made through other instances
+    private long apiKeyExpireAfterWriteSeconds = 5; // Short, so keys revoked on another instance stop working soon
+    private long maximumSize = 10000; // Entries per cache
+    private long usageFlushIntervalMillis = 10000; // How often API key usage counts are written back
+    
+    public ReferenceCacheConfig() {}
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public long getExpireAfterWriteSeconds() {
+        return expireAfterWriteSeconds;
+    }
+    
+    public void setExpireAfterWriteSeconds(long expireAfterWriteSeconds) {
+        this.expireAfterWriteSeconds = expireAfterWriteSeconds;
+    }
+    
+    public long getApiKeyExpireAfterWriteSeconds() {
+        return apiKeyExpireAfterWriteSeconds;
+    }
+    
+    public void setApiKeyExpireAfterWriteSeconds(long apiKeyExpireAfterWriteSeconds) {
+        this.apiKeyExpireAfterWriteSeconds = apiKeyExpireAfterWriteSeconds;
+    }
+    
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+    
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+    
+    public long getUsageFlushIntervalMillis() {
+        return usageFlushIntervalMillis;
+    }
+    
+    public void setUsageFlushIntervalMillis(long usageFlushIntervalMillis) {
+        this.usageFlushIntervalMillis = usageFlushIntervalMillis;
+    }
+}
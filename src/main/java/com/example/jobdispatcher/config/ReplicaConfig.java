@@ -0,0 +1,87 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for routing read-only transactions to a MySQL read replica.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.replica")
+public class ReplicaConfig {
+    
+    private boolean enabled = false;
+    private String url;
+    private String username; // Defaults to spring.datasource.username
+    private String password; // Defaults to spring.datasource.password
+    private int maximumPoolSize = 10;
+    private long maxLagSeconds = 5; // Reads go to the primary while the replica lags further behind
+    private long lagCheckIntervalMillis = 5000;
+    private String lagQuery = "SHOW REPLICA STATUS"; // Seconds_Behind_Source, or else the first column
+    
+    public ReplicaConfig() {}
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public String getUrl() {
+        return url;
+    }
+    
+    public void setUrl(String url) {
+        this.url = url;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getPassword() {
+        return password;
+    }
+    
+    public void setPassword(String password) {
+        this.password = password;
+    }
+    
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+    
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+    
+    public long getMaxLagSeconds() {
+        return maxLagSeconds;
+    }
+    
+    public void setMaxLagSeconds(long maxLagSeconds) {
+        this.maxLagSeconds = maxLagSeconds;
+    }
+    
+    public long getLagCheckIntervalMillis() {
+        return lagCheckIntervalMillis;
+    }
+    
+    public void setLagCheckIntervalMillis(long lagCheckIntervalMillis) {
+        this.lagCheckIntervalMillis = lagCheckIntervalMillis;
+    }
+    
+    public String getLagQuery() {
+        return lagQuery;
+    }
+    
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+}
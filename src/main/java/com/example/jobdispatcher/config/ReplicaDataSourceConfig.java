@@ -0,0 +1,55 @@
+package com.example.jobdispatcher.config;
+
+import com.example.jobdispatcher.persistence.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the auto-configured datasource with a primary and a replica pool when
+ * job-dispatcher.replica.enabled=true. Read-only transactions use the replica; see {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "job-dispatcher.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+    
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReplicaConfig replicaConfig, Environment environment) {
+        if (replicaConfig.getUrl() == null || replicaConfig.getUrl().isEmpty()) {
+            throw new IllegalStateException("job-dispatcher.replica.url must be set when the replica is enabled");
+        }
+        
+        // Same pool the auto-configuration would have built, including spring.datasource.hikari.* settings
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(replicaConfig.getUrl());
+        replica.setUsername(replicaConfig.getUsername() != null ? replicaConfig.getUsername() : dataSourceProperties.determineUsername());
+        replica.setPassword(replicaConfig.getPassword() != null ? replicaConfig.getPassword() : dataSourceProperties.determinePassword());
+        replica.setMaximumPoolSize(replicaConfig.getMaximumPoolSize());
+        replica.setReadOnly(true);
+        // Start without the replica if it is down; reads fall back to the primary until a lag check passes
+        replica.setInitializationFailTimeout(-1);
+        
+        return new ReplicaRoutingDataSource(primary, replica, replicaConfig);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for scheduled_jobs partition maintenance and retention.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.retention")
+public class RetentionConfig {
+    
+    private boolean enabled = false; // Remove finished jobs older than retentionDays
+    private int retentionDays = 30;
+    private String partitionInterval = "DAILY"; // DAILY or WEEKLY
+    private int precreatePartitions = 7; // Partitions kept ready ahead of the current one
+    private int deleteChunkSize = 5000; // Rows per DELETE when the table is not partitioned
+    private long chunkPauseMillis = 0; // Pause between delete chunks to limit replication lag
+    
+    public RetentionConfig() {}
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+    
+    public void setRetentionDays(int retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+    
+    public String getPartitionInterval() {
+        return partitionInterval;
+    }
+    
+    public void setPartitionInterval(String partitionInterval) {
+        this.partitionInterval = partitionInterval;
+    }
+    
+    public int getPrecreatePartitions() {
+        return precreatePartitions;
+    }
+    
+    public void setPrecreatePartitions(int precreatePartitions) {
+        this.precreatePartitions = precreatePartitions;
+    }
+    
+    public int getDeleteChunkSize() {
+        return deleteChunkSize;
+    }
+    
+    public void setDeleteChunkSize(int deleteChunkSize) {
+        this.deleteChunkSize = deleteChunkSize;
+    }
+    
+    public long getChunkPauseMillis() {
+        return chunkPauseMillis;
+    }
+    
+    public void setChunkPauseMillis(long chunkPauseMillis) {
+        this.chunkPauseMillis = chunkPauseMillis;
+    }
+}
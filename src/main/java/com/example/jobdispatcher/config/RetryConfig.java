@@ -4,7 +4,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration for job retry settings with exponential backoff.
@@ -19,6 +21,13 @@ public class RetryConfig {
     private double defaultMultiplier = 2.0;
     private long defaultMaxDelay = 30000; // 30 seconds
     private double defaultJitter = 0.1; // 10% jitter
+    private long sweepIntervalMillis = 30000; // Fallback sweep for due retries not in the in-memory queue
+    private int claimBatchSize = 100; // Due retries claimed per sweep query
+    private int maxQueuedRetries = 100000; // In-memory queue limit, further retries wait for the sweep
+    private int defaultClassConcurrency = 0; // Concurrent retries per job class, 0 for no limit
+    private Map<String, Integer> classConcurrency = new HashMap<>();
+    private int budgetPercent = 20; // Retries allowed as a percentage of fresh executions, 0 for no budget
+    private int budgetMinRetries = 10; // Retries always allowed per circuit breaker window
     private List<String> retryableExceptions = Arrays.asList(
         "java.lang.RuntimeException",
         "java.lang.Exception"
@@ -150,6 +159,17 @@ public class RetryConfig {
         return true;
     }
     
+    /**
+     * Get the maximum number of concurrent retries for a job class, 0 for no limit.
+     */
+    public int resolveClassConcurrency(String jobClassName) {
+        Integer limit = jobClassName != null ? classConcurrency.get(jobClassName) : null;
+        if (limit != null) {
+            return Math.max(limit, 0);
+        }
+        return Math.max(defaultClassConcurrency, 0);
+    }
+    
     /**
      * Check if a job should be retried based on attempt count.
      */
@@ -206,6 +226,62 @@ public class RetryConfig {
         this.defaultJitter = defaultJitter;
     }
     
+    public long getSweepIntervalMillis() {
+        return sweepIntervalMillis;
+    }
+    
+    public void setSweepIntervalMillis(long sweepIntervalMillis) {
+        this.sweepIntervalMillis = sweepIntervalMillis;
+    }
+    
+    public int getClaimBatchSize() {
+        return claimBatchSize;
+    }
+    
+    public void setClaimBatchSize(int claimBatchSize) {
+        this.claimBatchSize = claimBatchSize;
+    }
+    
+    public int getMaxQueuedRetries() {
+        return maxQueuedRetries;
+    }
+    
+    public void setMaxQueuedRetries(int maxQueuedRetries) {
+        this.maxQueuedRetries = maxQueuedRetries;
+    }
+    
+    public int getDefaultClassConcurrency() {
+        return defaultClassConcurrency;
+    }
+    
+    public void setDefaultClassConcurrency(int defaultClassConcurrency) {
+        this.defaultClassConcurrency = defaultClassConcurrency;
+    }
+    
+    public Map<String, Integer> getClassConcurrency() {
+        return classConcurrency;
+    }
+    
+    public void setClassConcurrency(Map<String, Integer> classConcurrency) {
+        this.classConcurrency = classConcurrency;
+    }
+    
+    public int getBudgetPercent() {
+        return budgetPercent;
+    }
+    
+    public void setBudgetPercent(int budgetPercent) {
+        this.budgetPercent = budgetPercent;
+    }
+    
+    public int getBudgetMinRetries() {
+        return budgetMinRetries;
+    }
+    
+    public void setBudgetMinRetries(int budgetMinRetries) {
+        this.budgetMinRetries = budgetMinRetries;
+    }
+    
     public List<String> getRetryableExceptions() {
         return retryableExceptions;
     }
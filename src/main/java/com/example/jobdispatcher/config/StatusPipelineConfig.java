@@ -0,0 +1,78 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the write-behind job status pipeline.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.status-pipeline")
+public class StatusPipelineConfig {
+    
+    private boolean enabled = true;
+    private int capacity = 10000; // Maximum number of buffered status events
+    private int batchSize = 500; // Maximum number of rows per batched UPDATE
+    private long flushIntervalMillis = 200; // Maximum time an event waits before being written
+    private long publishTimeoutMillis = 50; // Time a worker waits for ring space before writing synchronously
+    private long awaitTimeoutMillis = 5000; // Time a worker waits for a failure/cancel transition to be written
+    private long shutdownTimeoutMillis = 30000;
+    
+    public StatusPipelineConfig() {}
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+    
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+    
+    public long getPublishTimeoutMillis() {
+        return publishTimeoutMillis;
+    }
+    
+    public void setPublishTimeoutMillis(long publishTimeoutMillis) {
+        this.publishTimeoutMillis = publishTimeoutMillis;
+    }
+    
+    public long getAwaitTimeoutMillis() {
+        return awaitTimeoutMillis;
+    }
+    
+    public void setAwaitTimeoutMillis(long awaitTimeoutMillis) {
+        this.awaitTimeoutMillis = awaitTimeoutMillis;
+    }
+    
+    public long getShutdownTimeoutMillis() {
+        return shutdownTimeoutMillis;
+    }
+    
+    public void setShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for NDJSON streaming job ingestion.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.stream-ingestion")
+public class StreamIngestionConfig {
+    
+    private int chunkSize = 500; // Jobs read, persisted and acknowledged together (capped at the max batch size)
+    private long backpressurePollMillis = 50; // Pause between capacity or rate limit checks while the stream is held
+    private long backpressureTimeoutMillis = 30000; // Longest a chunk waits for capacity or rate limit tokens
+    
+    public StreamIngestionConfig() {}
+    
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+    
+    public long getBackpressurePollMillis() {
+        return backpressurePollMillis;
+    }
+    
+    public void setBackpressurePollMillis(long backpressurePollMillis) {
+        this.backpressurePollMillis = backpressurePollMillis;
+    }
+    
+    public long getBackpressureTimeoutMillis() {
+        return backpressureTimeoutMillis;
+    }
+    
+    public void setBackpressureTimeoutMillis(long backpressureTimeoutMillis) {
+        this.backpressureTimeoutMillis = backpressureTimeoutMillis;
+    }
+}
@@ -12,6 +12,8 @@ public class ThreadPoolConfig {
     
     private ThreadPoolSettings oneTimeJob = new ThreadPoolSettings();
     private ThreadPoolSettings repetitiveJob = new ThreadPoolSettings();
+    private ThreadPoolSettings repetitiveJobWorker = new ThreadPoolSettings();
+    private ThreadPoolSettings retryJob = new ThreadPoolSettings();
     private ThreadPoolSettings asyncJob = new ThreadPoolSettings();
     
     public ThreadPoolConfig() {}
@@ -32,6 +34,22 @@ public class ThreadPoolConfig {
         this.repetitiveJob = repetitiveJob;
     }
     
+    public ThreadPoolSettings getRepetitiveJobWorker() {
+        return repetitiveJobWorker;
+    }
+    
+    public void setRepetitiveJobWorker(ThreadPoolSettings repetitiveJobWorker) {
+        this.repetitiveJobWorker = repetitiveJobWorker;
+    }
+    
+    public ThreadPoolSettings getRetryJob() {
+        return retryJob;
+    }
+    
+    public void setRetryJob(ThreadPoolSettings retryJob) {
+        this.retryJob = retryJob;
+    }
+    
     public ThreadPoolSettings getAsyncJob() {
         return asyncJob;
     }
@@ -0,0 +1,42 @@
+package com.example.jobdispatcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the hashed timing wheel used for repetitive job and grouping timers.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "job-dispatcher.timing-wheel")
+public class TimingWheelConfig {
+    
+    private boolean enabled = false; // When disabled, timers are scheduled on the pool's ThreadPoolTaskScheduler
+    private long tickMillis = 10; // Timer resolution
+    private int wheelSize = 512; // Buckets per level, rounded up to a power of two
+    
+    public TimingWheelConfig() {}
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public long getTickMillis() {
+        return tickMillis;
+    }
+    
+    public void setTickMillis(long tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+    
+    public int getWheelSize() {
+        return wheelSize;
+    }
+    
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+}
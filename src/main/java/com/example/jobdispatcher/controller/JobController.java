@@ -1,5 +1,6 @@
 package com.example.jobdispatcher.controller;
 
+import com.example.jobdispatcher.model.BatchSubmissionResponse;
 import com.example.jobdispatcher.model.JobSubmissionResponse;
 import com.example.jobdispatcher.model.OneTimeJobRequest;
 import com.example.jobdispatcher.model.RepetitiveJobRequest;
@@ -7,16 +8,28 @@ import com.example.jobdispatcher.service.JobDispatcherService;
 import com.example.jobdispatcher.service.ThreadPoolMonitorService;
 import com.example.jobdispatcher.service.JobGroupingService;
 import com.example.jobdispatcher.service.DatabasePersistenceService;
+import com.example.jobdispatcher.service.AdmissionControlService;
 import com.example.jobdispatcher.annotation.RateLimited;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongUnaryOperator;
+import java.util.zip.GZIPOutputStream;
+
 /**
  * REST controller for job submission and management.
  */
@@ -48,6 +61,55 @@ public class JobController {
     @Autowired
     private com.example.jobdispatcher.service.ApiKeyService apiKeyService;
     
+    @Autowired
+    private com.example.jobdispatcher.service.JobStatusPipeline jobStatusPipeline;
+    
+    @Autowired
+    private com.example.jobdispatcher.service.ExecutorRegistry executorRegistry;
+    
+    @Autowired
+    private com.example.jobdispatcher.service.AdaptiveConcurrencyService adaptiveConcurrencyService;
+    
+    @Autowired
+    private AdmissionControlService admissionControlService;
+    
+    @Autowired
+    private com.example.jobdispatcher.service.JobStreamIngestionService jobStreamIngestionService;
+    
+    @Autowired
+    private com.example.jobdispatcher.service.AcceptanceJournalService acceptanceJournalService;
+    
+    @Autowired
+    private com.example.jobdispatcher.service.JobTimerService jobTimerService;
+    
+    @Autowired
+    private com.example.jobdispatcher.service.RepetitiveJobExecutionService repetitiveJobExecutionService;
+    
+    @Autowired
+    private com.example.jobdispatcher.service.JobTimeoutWatchdog jobTimeoutWatchdog;
+    
+    @Autowired
+    private com.example.jobdispatcher.service.CircuitBreakerService circuitBreakerService;
+    
+    @Autowired
+    private com.example.jobdispatcher.service.JobRetentionService jobRetentionService;
+    
+    @Autowired
+    private com.example.jobdispatcher.service.JobArchiveService jobArchiveService;
+    
+    @Autowired
+    private com.example.jobdispatcher.service.JobExportService jobExportService;
+    
+    @Autowired
+    private com.example.jobdispatcher.service.ReferenceDataCache referenceDataCache;
+    
+    // Only present with job-dispatcher.replica.enabled=true
+    @Autowired(required = false)
+    private com.example.jobdispatcher.persistence.ReplicaRoutingDataSource replicaRoutingDataSource;
+    
+    @Autowired
+    private com.example.jobdispatcher.service.JobEventRelay jobEventRelay;
+    
     /**
      * Submit a one-time job for execution.
      */
@@ -74,6 +136,17 @@ public class JobController {
             
             return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
             
+        } catch (AdmissionControlService.AdmissionRejectedException e) {
+            JobSubmissionResponse response = new JobSubmissionResponse(
+                request.getJobId(),
+                "REJECTED",
+                "Job dispatcher is at capacity: " + e.getMessage()
+            );
+            
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(response);
+        
         } catch (Exception e) {
             logger.error("Error submitting one-time job: {}", request.getJobId(), e);
             
@@ -126,6 +199,94 @@ public class JobController {
         }
     }
     
+    /**
+     * Submit a batch of one-time jobs. The request is charged one rate limit token and each job one batch token.
+     */
+    @PostMapping("/onetime/batch")
+    @RateLimited(value = RateLimited.RateLimitType.COMBINED, jobType = "ONE_TIME", perItem = true,
+                 message = "Rate limit exceeded for one-time job submissions. Please try again later.")
+    public ResponseEntity<Object> submitOneTimeJobs(
+            @RequestBody List<OneTimeJobRequest> requests,
+            HttpServletRequest httpRequest) {
+        try {
+            logger.info("Received batch of {} one-time jobs from app server: {}",
+                       requests.size(), httpRequest.getAttribute("appServerId"));
+            
+            BatchSubmissionResponse response = new BatchSubmissionResponse(jobDispatcherService.dispatchOneTimeJobs(requests));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid batch", "message", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error submitting one-time job batch", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to submit one-time job batch", "message", String.valueOf(e.getMessage())));
+        }
+    }
+    
+    /**
+     * Submit one-time jobs as an NDJSON stream (one job per line).
+     * Jobs are persisted and dispatched in chunks while the upload is read, and one acknowledgement
+     * line is written per chunk. The stream is charged one rate limit token and each job one batch token.
+     */
+    @PostMapping(value = "/onetime/stream", consumes = "application/x-ndjson", produces = "application/x-ndjson")
+    public void streamOneTimeJobs(HttpServletRequest httpRequest, HttpServletResponse httpResponse) throws IOException {
+        String clientIp = rateLimitingService.getClientIp(httpRequest);
+        String userId = rateLimitingService.getUserId(httpRequest);
+        String userTier = rateLimitingService.getUserTier(httpRequest);
+        String appServerId = (String) httpRequest.getAttribute("appServerId");
+        String apiKeyId = (String) httpRequest.getAttribute("apiKeyId");
+        
+        logger.info("Received NDJSON one-time job stream from app server: {} (API key: {})", appServerId, apiKeyId);
+        
+        boolean jwt = appServerId != null && apiKeyId != null;
+        boolean allowed = jwt
+                ? rateLimitingService.isAllowedByJwt(appServerId, apiKeyId, "ONE_TIME")
+                : rateLimitingService.isAllowed(clientIp, userId, userTier, "ONE_TIME");
+        if (!allowed) {
+            httpResponse.sendError(HttpStatus.TOO_MANY_REQUESTS.value(),
+                                   "Rate limit exceeded for one-time job submissions. Please try again later.");
+            return;
+        }
+        
+        String batchCaller = jwt
+                ? rateLimitingService.getBatchCaller(appServerId, apiKeyId, clientIp, userId)
+                : rateLimitingService.getBatchCaller(null, null, clientIp, userId);
+        LongUnaryOperator rateLimiter = jobs -> rateLimitingService.acquireBatchJobs(batchCaller, jobs);
+        
+        httpResponse.setStatus(HttpStatus.OK.value());
+        httpResponse.setContentType("application/x-ndjson");
+        httpResponse.setCharacterEncoding("UTF-8");
+        jobStreamIngestionService.ingestOneTimeJobs(httpRequest.getInputStream(), httpResponse.getOutputStream(), rateLimiter);
+    }
+    
+    /**
+     * Submit a batch of repetitive jobs. The request is charged one rate limit token and each job one batch token.
+     */
+    @PostMapping("/repetitive/batch")
+    @RateLimited(value = RateLimited.RateLimitType.COMBINED, jobType = "REPETITIVE", perItem = true,
+                 message = "Rate limit exceeded for repetitive job submissions. Please try again later.")
+    public ResponseEntity<Object> submitRepetitiveJobs(
+            @RequestBody List<RepetitiveJobRequest> requests,
+            HttpServletRequest httpRequest) {
+        try {
+            logger.info("Received batch of {} repetitive jobs from app server: {}",
+                       requests.size(), httpRequest.getAttribute("appServerId"));
+            
+            BatchSubmissionResponse response = new BatchSubmissionResponse(jobDispatcherService.dispatchRepetitiveJobs(requests));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid batch", "message", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error submitting repetitive job batch", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to submit repetitive job batch", "message", String.valueOf(e.getMessage())));
+        }
+    }
+    
     /**
      * Cancel a scheduled repetitive job.
      */
@@ -234,6 +395,90 @@ public class JobController {
         }
     }
     
+    /**
+     * Get per-priority queue statistics.
+     */
+    @GetMapping("/priority-queue-stats")
+    public ResponseEntity<Object> getPriorityQueueStats() {
+        try {
+            return ResponseEntity.ok(threadPoolMonitorService.getPriorityQueueStats());
+        } catch (Exception e) {
+            logger.error("Error getting priority queue statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving priority queue statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get admission control and overflow queue statistics.
+     */
+    @GetMapping("/admission-stats")
+    public ResponseEntity<Object> getAdmissionStats() {
+        try {
+            return ResponseEntity.ok(admissionControlService.getAdmissionStats());
+        } catch (Exception e) {
+            logger.error("Error getting admission statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving admission statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get acceptance journal and replication statistics.
+     */
+    @GetMapping("/journal-stats")
+    public ResponseEntity<Object> getJournalStats() {
+        try {
+            return ResponseEntity.ok(acceptanceJournalService.getJournalStats());
+        } catch (Exception e) {
+            logger.error("Error getting acceptance journal statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving acceptance journal statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get repetitive job trigger, overlap and trigger-to-start lag statistics.
+     */
+    @GetMapping("/repetitive-execution-stats")
+    public ResponseEntity<Object> getRepetitiveExecutionStats() {
+        try {
+            return ResponseEntity.ok(repetitiveJobExecutionService.getExecutionStats());
+        } catch (Exception e) {
+            logger.error("Error getting repetitive execution statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving repetitive execution statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get execution timeout statistics and stuck threads per pool.
+     */
+    @GetMapping("/timeout-stats")
+    public ResponseEntity<Object> getTimeoutStats() {
+        try {
+            return ResponseEntity.ok(jobTimeoutWatchdog.getTimeoutStats());
+        } catch (Exception e) {
+            logger.error("Error getting timeout statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving timeout statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get repetitive job and grouping timer statistics.
+     */
+    @GetMapping("/timer-stats")
+    public ResponseEntity<Object> getTimerStats() {
+        try {
+            return ResponseEntity.ok(jobTimerService.getTimerStats());
+        } catch (Exception e) {
+            logger.error("Error getting timer statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving timer statistics: " + e.getMessage());
+        }
+    }
+    
     /**
      * Get job grouping statistics.
      */
@@ -263,12 +508,31 @@ public class JobController {
     }
     
     /**
-     * Get scheduled jobs by status.
+     * Get job status pipeline statistics.
+     */
+    @GetMapping("/status-pipeline-stats")
+    public ResponseEntity<Object> getStatusPipelineStats() {
+        try {
+            return ResponseEntity.ok(jobStatusPipeline.getPipelineStats());
+        } catch (Exception e) {
+            logger.error("Error getting status pipeline statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving status pipeline statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get a page of scheduled jobs by status, newest first. Pass the returned nextCursor to get the next page.
      */
     @GetMapping("/jobs/status/{status}")
-    public ResponseEntity<Object> getJobsByStatus(@PathVariable String status) {
+    public ResponseEntity<Object> getJobsByStatus(@PathVariable String status,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit) {
         try {
-            return ResponseEntity.ok(databasePersistenceService.findScheduledJobsByStatus(status));
+            return ResponseEntity.ok(databasePersistenceService.findJobSummariesByStatus(status, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid cursor", "message", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error getting jobs by status: {}", status, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -277,12 +541,17 @@ public class JobController {
     }
     
     /**
-     * Get scheduled jobs by job type.
+     * Get a page of scheduled jobs by job type, newest first. Pass the returned nextCursor to get the next page.
      */
     @GetMapping("/jobs/type/{jobType}")
-    public ResponseEntity<Object> getJobsByType(@PathVariable String jobType) {
+    public ResponseEntity<Object> getJobsByType(@PathVariable String jobType,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
         try {
-            return ResponseEntity.ok(databasePersistenceService.findScheduledJobsByJobType(jobType));
+            return ResponseEntity.ok(databasePersistenceService.findJobSummariesByJobType(jobType, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid cursor", "message", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error getting jobs by type: {}", jobType, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -290,14 +559,68 @@ public class JobController {
         }
     }
     
+    /**
+     * Export jobs submitted in [from, to) as NDJSON or CSV, optionally gzip-compressed.
+     * Rows are streamed from a database cursor straight into the response.
+     */
+    @GetMapping("/export")
+    public void exportJobs(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                           @RequestParam(defaultValue = "ndjson") String format,
+                           @RequestParam(defaultValue = "false") boolean gzip,
+                           HttpServletResponse httpResponse) throws IOException {
+        try {
+            jobExportService.validate(from, to, format);
+        } catch (IllegalArgumentException e) {
+            httpResponse.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+        
+        String fileName = "jobs-export." + format + (gzip ? ".gz" : "");
+        httpResponse.setStatus(HttpStatus.OK.value());
+        httpResponse.setContentType(gzip ? "application/gzip" : "ndjson".equals(format) ? "application/x-ndjson" : "text/csv");
+        httpResponse.setCharacterEncoding("UTF-8");
+        httpResponse.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        
+        ExportGzipStream gzipOutput = gzip ? new ExportGzipStream(httpResponse.getOutputStream()) : null;
+        OutputStream output = gzip ? gzipOutput : httpResponse.getOutputStream();
+        try {
+            jobExportService.export(from, to, format, output);
+        } catch (IOException | RuntimeException e) {
+            // Headers are already committed: leave the body unfinished and rethrow, so the container
+            // aborts the connection and the client sees a failed rather than a complete download
+            logger.error("Error exporting jobs submitted between {} and {}", from, to, e);
+            if (gzipOutput != null) {
+                gzipOutput.abort();
+            }
+            throw e;
+        }
+        output.close();
+    }
+
+    
+    /**
+     * Get streaming export statistics.
+     */
+    @GetMapping("/export-stats")
+    public ResponseEntity<Object> getExportStats() {
+        try {
+            return ResponseEntity.ok(jobExportService.getExportStats());
+        } catch (Exception e) {
+            logger.error("Error getting export statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving export statistics: " + e.getMessage());
+        }
+    }
+    
     /**
      * Get scheduled job by job ID.
      */
     @GetMapping("/jobs/{jobId}")
     public ResponseEntity<Object> getJobById(@PathVariable String jobId) {
         try {
-            return databasePersistenceService.findScheduledJobByJobId(jobId)
-                    .map(job -> ResponseEntity.ok(job))
+            return databasePersistenceService.findScheduledOrArchivedJobByJobId(jobId)
+                    .<ResponseEntity<Object>>map(job -> ResponseEntity.ok(job))
                     .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             logger.error("Error getting job by ID: {}", jobId, e);
@@ -320,6 +643,49 @@ public class JobController {
         }
     }
     
+    /**
+     * Get statistics for the named thread pools.
+     */
+    @GetMapping("/thread-pools/stats")
+    public ResponseEntity<Object> getNamedThreadPoolStats() {
+        try {
+            return ResponseEntity.ok(threadPoolMonitorService.getNamedPoolStats());
+        } catch (Exception e) {
+            logger.error("Error getting named thread pool statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving named thread pool statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get the latest adaptive pool sizing decisions.
+     */
+    @GetMapping("/thread-pools/adaptive")
+    public ResponseEntity<Object> getAdaptiveConcurrencyStats() {
+        try {
+            return ResponseEntity.ok(adaptiveConcurrencyService.getAdaptiveStats());
+        } catch (Exception e) {
+            logger.error("Error getting adaptive concurrency statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving adaptive concurrency statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Reload the named thread pools from the thread_pools table.
+     */
+    @PostMapping("/thread-pools/refresh")
+    public ResponseEntity<Object> refreshThreadPools() {
+        try {
+            executorRegistry.refresh();
+            return ResponseEntity.ok(threadPoolMonitorService.getNamedPoolStats());
+        } catch (Exception e) {
+            logger.error("Error refreshing thread pools", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error refreshing thread pools: " + e.getMessage());
+        }
+    }
+    
     /**
      * Get all app servers.
      */
@@ -362,6 +728,126 @@ public class JobController {
         }
     }
     
+    /**
+     * Get circuit breaker states and the retry budget.
+     */
+    @GetMapping("/circuit-breakers")
+    public ResponseEntity<Object> getCircuitBreakers() {
+        try {
+            return ResponseEntity.ok(circuitBreakerService.getCircuitBreakerStats());
+        } catch (Exception e) {
+            logger.error("Error getting circuit breaker statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving circuit breaker statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get scheduled_jobs partition and retention statistics.
+     */
+    @GetMapping("/retention-stats")
+    public ResponseEntity<Object> getRetentionStats() {
+        try {
+            return ResponseEntity.ok(jobRetentionService.getRetentionStats());
+        } catch (Exception e) {
+            logger.error("Error getting retention statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving retention statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get statistics of finished jobs archived to the history table.
+     */
+    @GetMapping("/archive-stats")
+    public ResponseEntity<Object> getArchiveStats() {
+        try {
+            return ResponseEntity.ok(jobArchiveService.getArchiveStats());
+        } catch (Exception e) {
+            logger.error("Error getting archive statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving archive statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get statistics of the scheduled job store backend.
+     */
+    @GetMapping("/store-stats")
+    public ResponseEntity<Object> getStoreStats() {
+        try {
+            return ResponseEntity.ok(databasePersistenceService.getStoreStats());
+        } catch (Exception e) {
+            logger.error("Error getting job store statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving job store statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get read replica lag and connection routing statistics.
+     */
+    @GetMapping("/replica-stats")
+    public ResponseEntity<Object> getReplicaStats() {
+        try {
+            if (replicaRoutingDataSource == null) {
+                return ResponseEntity.ok(Map.of("enabled", false));
+            }
+            return ResponseEntity.ok(replicaRoutingDataSource.getRoutingStats());
+        } catch (Exception e) {
+            logger.error("Error getting replica statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving replica statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get job lifecycle events with an id greater than after, in id order.
+     * Pass the returned nextOffset as after to get the next page.
+     */
+    @GetMapping("/events")
+    public ResponseEntity<Object> getJobEvents(@RequestParam(defaultValue = "0") long after,
+                                               @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(jobEventRelay.readEvents(after, limit));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Job events unavailable", "message", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error getting job events after: {}", after, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving job events: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get job event relay offsets, listener backlogs and event counts.
+     */
+    @GetMapping("/outbox-stats")
+    public ResponseEntity<Object> getOutboxStats() {
+        try {
+            return ResponseEntity.ok(jobEventRelay.getRelayStats());
+        } catch (Exception e) {
+            logger.error("Error getting outbox statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving outbox statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get hit and miss counts of the reference data cache.
+     */
+    @GetMapping("/reference-cache-stats")
+    public ResponseEntity<Object> getReferenceCacheStats() {
+        try {
+            return ResponseEntity.ok(referenceDataCache.getCacheStats());
+        } catch (Exception e) {
+            logger.error("Error getting reference cache statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving reference cache statistics: " + e.getMessage());
+        }
+    }
+    
     /**
      * Cancel retries for a specific job.
      */
@@ -389,8 +875,9 @@ public class JobController {
     public ResponseEntity<Object> resetRetries(@PathVariable String jobId) {
         try {
             jobRetryService.resetRetryCount(jobId);
+            final String finalJobId = jobId;
             return ResponseEntity.ok(new Object() {
-                public final String jobId = jobId;
+                public final String jobId = finalJobId;
                 public final String message = "Retry count reset successfully";
                 public final long timestamp = System.currentTimeMillis();
             });
@@ -407,10 +894,12 @@ public class JobController {
     @PostMapping("/jobs/{jobId}/retry")
     public ResponseEntity<Object> triggerRetry(@PathVariable String jobId) {
         try {
-            jobRetryService.executeRetry(jobId);
+            final boolean claimed = jobRetryService.executeRetry(jobId);
+            final String finalJobId = jobId;
             return ResponseEntity.ok(new Object() {
-                public final String jobId = jobId;
-                public final String message = "Retry triggered successfully";
+                public final String jobId = finalJobId;
+                public final boolean triggered = claimed;
+                public final String message = claimed ? "Retry triggered successfully" : "No due retry to trigger";
                 public final long timestamp = System.currentTimeMillis();
             });
         } catch (Exception e) {
@@ -431,4 +920,17 @@ public class JobController {
             public final long timestamp = System.currentTimeMillis();
         });
     }
+    
+    /**
+     * Gzip stream for exports that can be abandoned without writing the gzip trailer.
+     */
+    private static class ExportGzipStream extends GZIPOutputStream {
+        ExportGzipStream(OutputStream output) throws IOException {
+            super(output, 64 * 1024);
+        }
+        
+        void abort() {
+            def.end();
+        }
+    }
 }
@@ -54,8 +54,11 @@ public class ScheduledJob {
     @Column(name = "cron_expression")
     private String cronExpression; // Used when repetitionType == CRON
     
+    @Column(name = "overlap_policy")
+    private String overlapPolicy; // SKIP, QUEUE_ONE, ALLOW_CONCURRENT
+    
     @Column(name = "status", nullable = false)
-    private String status = "PENDING"; // PENDING, RUNNING, COMPLETED, FAILED, CANCELLED
+    private String status = "PENDING"; // PENDING, OVERFLOW, PARKED, RUNNING, COMPLETED, FAILED, TIMED_OUT, CANCELLED
     
     @Column(name = "submitted_at", nullable = false)
     private LocalDateTime submittedAt;
@@ -85,7 +88,8 @@ public class ScheduledJob {
     @Column(name = "job_priority")
     private JobPriority jobPriority = JobPriority.NORMAL; // All jobs have equal priority (NORMAL)
     
-    // Timeout handling removed - jobs can run as long as needed
+    @Column(name = "timeout_millis")
+    private Long timeoutMillis; // Execution timeout, null falls back to the class or default timeout
     
     @Column(name = "retry_enabled", nullable = false)
     private Boolean retryEnabled = true;
@@ -239,6 +243,14 @@ public class ScheduledJob {
         this.cronExpression = cronExpression;
     }
     
+    public String getOverlapPolicy() {
+        return overlapPolicy;
+    }
+    
+    public void setOverlapPolicy(String overlapPolicy) {
+        this.overlapPolicy = overlapPolicy;
+    }
+    
     public String getStatus() {
         return status;
     }
@@ -319,7 +331,13 @@ public class ScheduledJob {
         this.jobPriority = jobPriority;
     }
     
-    // Timeout handling removed - jobs can run as long as needed
+    public Long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+    
+    public void setTimeoutMillis(Long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
     
     public Boolean getRetryEnabled() {
         return retryEnabled;
@@ -431,6 +449,8 @@ public class ScheduledJob {
     }
     
     // Helper methods
+    // The mark* helpers only change this instance. Persisted transitions go through
+    // JobStatusTransitionDao, which updates the row only if its current status allows the transition.
     public void markAsStarted() {
         this.status = "RUNNING";
         this.startedAt = LocalDateTime.now();
@@ -461,7 +481,7 @@ public class ScheduledJob {
     public boolean canRetry() {
         return this.retryEnabled && 
                this.retryCount < this.maxRetryAttempts && 
-               "FAILED".equals(this.status);
+               ("FAILED".equals(this.status) || "TIMED_OUT".equals(this.status));
     }
     
     public void incrementRetryCount() {
@@ -484,6 +504,4 @@ public class ScheduledJob {
     public boolean isRetryDue() {
         return this.nextRetryAt != null && this.nextRetryAt.isBefore(LocalDateTime.now());
     }
-    
-    // Timeout handling removed - jobs can run as long as needed
 }
@@ -52,7 +52,7 @@ public class ThreadPool {
     
     @NotBlank
     @Column(name = "queue_type", nullable = false)
-    private String queueType; // LINKED_BLOCKING_QUEUE, ARRAY_BLOCKING_QUEUE, SYNCHRONOUS_QUEUE
+    private String queueType; // LINKED_BLOCKING_QUEUE, ARRAY_BLOCKING_QUEUE, SYNCHRONOUS_QUEUE, PRIORITY_QUEUE
     
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
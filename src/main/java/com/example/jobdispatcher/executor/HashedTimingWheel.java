@@ -0,0 +1,483 @@
+package com.example.jobdispatcher.executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hierarchical hashed timing wheel.
+ * Each level is a ring of buckets; a bucket of level n covers wheelSize^n ticks, and timers in a higher
+ * level are cascaded down when the lower level wraps. Scheduling and cancelling only enqueue the timer,
+ * which is O(1); a single ticker thread owns the buckets, places new timers, unlinks cancelled ones and
+ * hands expired tasks to the executor given at scheduling time.
+ */
+public class HashedTimingWheel {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HashedTimingWheel.class);
+    
+    private static final int LEVELS = 4;
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+    
+    private final long tickNanos;
+    private final int bits;
+    private final int mask;
+    private final Bucket[][] wheels;
+    private final Bucket overflow = new Bucket(); // Beyond the range of the top level
+    
+    private final ConcurrentLinkedQueue<WheelTimeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    
+    private final Thread ticker;
+    private final long startNanos;
+    private volatile long currentTick;
+    private volatile boolean running;
+    
+    // Metrics
+    private final AtomicLong activeTimers = new AtomicLong();
+    private final AtomicLong expiredTimers = new AtomicLong();
+    private final AtomicLong cancelledTimers = new AtomicLong();
+    
+    public HashedTimingWheel(long tickMillis, int wheelSize, String threadName) {
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(tickMillis, 1));
+        this.bits = Integer.numberOfTrailingZeros(size);
+        this.mask = size - 1;
+        this.wheels = new Bucket[LEVELS][size];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < size; slot++) {
+                wheels[level][slot] = new Bucket();
+            }
+        }
+        
+        this.startNanos = System.nanoTime();
+        this.ticker = new Thread(this::runTicker, threadName);
+        this.ticker.setDaemon(true);
+    }
+    
+    public void start() {
+        running = true;
+        ticker.start();
+    }
+    
+    /**
+     * Stop the ticker. Timers that have not expired are dropped.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(ticker);
+        try {
+            ticker.join(TimeUnit.NANOSECONDS.toMillis(tickNanos) * 10 + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // Scheduling
+    
+    public ScheduledFuture<?> schedule(Runnable task, long delayMillis, Executor executor) {
+        return enqueue(new WheelTimeout(this, task, executor, deadlineAfter(delayMillis), 0, null));
+    }
+    
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis, Executor executor) {
+        return enqueue(new WheelTimeout(this, task, executor, deadlineAfter(initialDelayMillis),
+                                        TimeUnit.MILLISECONDS.toNanos(periodMillis), null));
+    }
+    
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long initialDelayMillis, long delayMillis, Executor executor) {
+        return enqueue(new WheelTimeout(this, task, executor, deadlineAfter(initialDelayMillis),
+                                        -TimeUnit.MILLISECONDS.toNanos(delayMillis), null));
+    }
+    
+    /**
+     * Schedule a task by a trigger such as a cron expression. Returns null if the trigger never fires.
+     */
+    public ScheduledFuture<?> schedule(Runnable task, Trigger trigger, Executor executor) {
+        SimpleTriggerContext context = new SimpleTriggerContext();
+        Date next = trigger.nextExecutionTime(context);
+        if (next == null) {
+            return null;
+        }
+        WheelTimeout timeout = new WheelTimeout(this, task, executor, deadlineAt(next), 0, trigger);
+        timeout.triggerContext = context;
+        timeout.scheduledAt = next;
+        return enqueue(timeout);
+    }
+    
+    private long deadlineAfter(long delayMillis) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(delayMillis, 0));
+    }
+    
+    private long deadlineAt(Date date) {
+        return deadlineAfter(date.getTime() - System.currentTimeMillis());
+    }
+    
+    private WheelTimeout enqueue(WheelTimeout timeout) {
+        if (!running) {
+            throw new RejectedExecutionException("Timing wheel is not running");
+        }
+        activeTimers.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+    
+    // Ticker
+    
+    private void runTicker() {
+        while (running) {
+            long nextTickAt = startNanos + (currentTick + 1) * tickNanos;
+            long sleepNanos = nextTickAt - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(sleepNanos);
+                continue;
+            }
+            
+            try {
+                advance();
+            } catch (Throwable t) {
+                logger.error("Error advancing timing wheel", t);
+            }
+        }
+    }
+    
+    /**
+     * Move to the next tick: apply cancellations, place new timers, cascade higher levels and expire
+     * the timers of the current level-0 bucket.
+     */
+    private void advance() {
+        long tick = currentTick + 1;
+        currentTick = tick;
+        
+        WheelTimeout cancelled;
+        while ((cancelled = cancelledTimeouts.poll()) != null) {
+            if (cancelled.bucket != null) {
+                cancelled.bucket.remove(cancelled);
+            }
+        }
+        
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            WheelTimeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                break;
+            }
+            if (!timeout.isCancelled()) {
+                place(timeout, tick);
+            }
+        }
+        
+        // Cascade from the highest level that wrapped on this tick down to level 1
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            if ((tick & ((1L << (bits * level)) - 1)) == 0) {
+                if (level == LEVELS - 1 && (tick & ((1L << (bits * LEVELS)) - 1)) == 0) {
+                    cascade(overflow, tick);
+                }
+                cascade(wheels[level][(int) ((tick >>> (bits * level)) & mask)], tick);
+            }
+        }
+        
+        List<WheelTimeout> expired = wheels[0][(int) (tick & mask)].removeAll();
+        for (WheelTimeout timeout : expired) {
+            timeout.expire();
+        }
+    }
+    
+    private void cascade(Bucket bucket, long tick) {
+        for (WheelTimeout timeout : bucket.removeAll()) {
+            place(timeout, tick);
+        }
+    }
+    
+    /**
+     * Put a timer in the lowest level whose higher digits match the current tick, so it is cascaded
+     * or expired before its deadline passes.
+     */
+    private void place(WheelTimeout timeout, long tick) {
+        long deadlineTick = Math.max((timeout.deadlineNanos - startNanos + tickNanos - 1) / tickNanos, 0);
+        if (deadlineTick <= tick) {
+            // Due now, expire with this tick's bucket
+            wheels[0][(int) (tick & mask)].add(timeout);
+            return;
+        }
+        
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = bits * (level + 1);
+            if ((deadlineTick >>> shift) == (tick >>> shift)) {
+                wheels[level][(int) ((deadlineTick >>> (bits * level)) & mask)].add(timeout);
+                return;
+            }
+        }
+        overflow.add(timeout);
+    }
+    
+    private void cancel(WheelTimeout timeout) {
+        activeTimers.decrementAndGet();
+        cancelledTimers.incrementAndGet();
+        cancelledTimeouts.add(timeout);
+    }
+    
+    /**
+     * Re-enter a periodic timer after it ran.
+     */
+    private void reschedule(WheelTimeout timeout) {
+        if (running) {
+            pendingTimeouts.add(timeout);
+        }
+    }
+    
+    public long getActiveTimers() {
+        return activeTimers.get();
+    }
+    
+    public long getExpiredTimers() {
+        return expiredTimers.get();
+    }
+    
+    public long getCancelledTimers() {
+        return cancelledTimers.get();
+    }
+    
+    public long getTickMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(tickNanos);
+    }
+    
+    public int getWheelSize() {
+        return mask + 1;
+    }
+    
+    /**
+     * Doubly linked list of timers, only modified by the ticker thread.
+     */
+    private static class Bucket {
+        private WheelTimeout head;
+        private WheelTimeout tail;
+        
+        void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+        
+        void remove(WheelTimeout timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+        
+        List<WheelTimeout> removeAll() {
+            List<WheelTimeout> timeouts = new ArrayList<>();
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                timeout.prev = null;
+                timeout.next = null;
+                timeout.bucket = null;
+                timeouts.add(timeout);
+                timeout = next;
+            }
+            head = null;
+            tail = null;
+            return timeouts;
+        }
+    }
+    
+    /**
+     * A timer in the wheel. Periodic timers are re-entered after each run; period is positive for
+     * fixed rate, negative for fixed delay and zero for one-shot and trigger based timers.
+     */
+    private static class WheelTimeout implements ScheduledFuture<Object> {
+        private static final int WAITING = 0;
+        private static final int RUNNING = 1;
+        private static final int CANCELLED = 2;
+        private static final int DONE = 3;
+        private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "state");
+        
+        private final HashedTimingWheel wheel;
+        private final Runnable task;
+        private final Executor executor;
+        private final long period;
+        private final Trigger trigger;
+        private volatile int state = WAITING;
+        private Throwable failure;
+        private volatile long deadlineNanos;
+        private SimpleTriggerContext triggerContext;
+        private Date scheduledAt;
+        
+        // Bucket links, owned by the ticker thread
+        private Bucket bucket;
+        private WheelTimeout prev;
+        private WheelTimeout next;
+        
+        WheelTimeout(HashedTimingWheel wheel, Runnable task, Executor executor, long deadlineNanos, long period, Trigger trigger) {
+            this.wheel = wheel;
+            this.task = task;
+            this.executor = executor;
+            this.deadlineNanos = deadlineNanos;
+            this.period = period;
+            this.trigger = trigger;
+        }
+        
+        void expire() {
+            if (!STATE.compareAndSet(this, WAITING, RUNNING)) {
+                return;
+            }
+            wheel.expiredTimers.incrementAndGet();
+            
+            try {
+                executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Executor rejected expired timer task", e);
+                finish(e);
+            }
+        }
+        
+        private void run() {
+            Date startedAt = new Date();
+            Throwable failure = null;
+            try {
+                task.run();
+            } catch (Throwable t) {
+                failure = t;
+                logger.error("Error running scheduled task", t);
+            }
+            
+            long now = System.nanoTime();
+            long nextDeadline;
+            if (period > 0) {
+                nextDeadline = deadlineNanos + period;
+            } else if (period < 0) {
+                nextDeadline = now - period;
+            } else if (trigger != null) {
+                triggerContext.update(scheduledAt, startedAt, new Date());
+                Date next = trigger.nextExecutionTime(triggerContext);
+                if (next == null) {
+                    finish(failure);
+                    return;
+                }
+                scheduledAt = next;
+                nextDeadline = wheel.deadlineAt(next);
+            } else {
+                finish(failure);
+                return;
+            }
+            
+            deadlineNanos = nextDeadline;
+            if (STATE.compareAndSet(this, RUNNING, WAITING)) {
+                wheel.reschedule(this);
+            }
+        }
+        
+        private void finish(Throwable failure) {
+            synchronized (this) {
+                this.failure = failure;
+                if (STATE.compareAndSet(this, RUNNING, DONE)) {
+                    wheel.activeTimers.decrementAndGet();
+                    notifyAll();
+                }
+            }
+        }
+        
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            int current;
+            while ((current = state) == WAITING || current == RUNNING) {
+                if (STATE.compareAndSet(this, current, CANCELLED)) {
+                    wheel.cancel(this);
+                    synchronized (this) {
+                        notifyAll();
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+        
+        @Override
+        public boolean isDone() {
+            int current = state;
+            return current == CANCELLED || current == DONE;
+        }
+        
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            synchronized (this) {
+                while (!isDone()) {
+                    wait();
+                }
+            }
+            return result();
+        }
+        
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (this) {
+                long remaining;
+                while (!isDone()) {
+                    if ((remaining = deadline - System.nanoTime()) <= 0) {
+                        throw new TimeoutException();
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+            return result();
+        }
+        
+        private Object result() throws ExecutionException {
+            if (isCancelled()) {
+                throw new CancellationException();
+            }
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+            return null;
+        }
+        
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.jobdispatcher.executor;
+
+import com.example.jobdispatcher.enums.JobPriority;
+
+/**
+ * Runnable wrapper that carries the job priority into the executor queue.
+ */
+public class PrioritizedTask implements Runnable {
+    
+    private final Runnable delegate;
+    private final JobPriority priority;
+    private final String jobId;
+    private volatile long enqueuedAtNanos;
+    
+    public PrioritizedTask(JobPriority priority, String jobId, Runnable delegate) {
+        this.delegate = delegate;
+        this.priority = priority != null ? priority : JobPriority.NORMAL;
+        this.jobId = jobId;
+        this.enqueuedAtNanos = System.nanoTime();
+    }
+    
+    @Override
+    public void run() {
+        delegate.run();
+    }
+    
+    public JobPriority getPriority() {
+        return priority;
+    }
+    
+    public String getJobId() {
+        return jobId;
+    }
+    
+    Runnable getDelegate() {
+        return delegate;
+    }
+    
+    public long getEnqueuedAtNanos() {
+        return enqueuedAtNanos;
+    }
+    
+    void markEnqueued() {
+        this.enqueuedAtNanos = System.nanoTime();
+    }
+}
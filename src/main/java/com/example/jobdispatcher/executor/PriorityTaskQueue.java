@@ -0,0 +1,377 @@
+package com.example.jobdispatcher.executor;
+
+import com.example.jobdispatcher.config.JobPriorityConfig;
+import com.example.jobdispatcher.enums.JobPriority;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Executor work queue with one sub-queue per job priority.
+ * The queue holds at most its capacity in total, and each priority at most its share of it.
+ * Sub-queues are lock-free; a semaphore counts queued tasks so idle workers can block.
+ * Dequeues follow a smooth weighted round robin across priorities, and a task that has waited
+ * longer than the aging threshold is served first so low priorities cannot starve.
+ */
+public class PriorityTaskQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+    
+    private static final JobPriority[] PRIORITIES = JobPriority.values();
+    
+    private final ConcurrentLinkedQueue<PrioritizedTask>[] lanes;
+    private final AtomicIntegerArray laneSizes;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int[] limits;
+    private final int[] weights;
+    private final int[] slotToLane;
+    private final int totalCapacity;
+    private final long agingThresholdNanos;
+    private final JobPriority defaultPriority;
+    
+    private final Semaphore available = new Semaphore(0);
+    private final AtomicLong dispatchTick = new AtomicLong();
+    
+    // Metrics
+    private final LongAdder[] dequeued;
+    private final LongAdder[] rejected;
+    private final LongAdder[] totalWaitNanos;
+    private final AtomicLongArray maxWaitNanos;
+    private final LongAdder agedDequeues = new LongAdder();
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PriorityTaskQueue(JobPriorityConfig config, int capacity) {
+        int levels = PRIORITIES.length;
+        this.lanes = new ConcurrentLinkedQueue[levels];
+        this.laneSizes = new AtomicIntegerArray(levels);
+        this.limits = new int[levels];
+        this.weights = new int[levels];
+        this.dequeued = new LongAdder[levels];
+        this.rejected = new LongAdder[levels];
+        this.totalWaitNanos = new LongAdder[levels];
+        this.maxWaitNanos = new AtomicLongArray(levels);
+        
+        for (JobPriority priority : PRIORITIES) {
+            int lane = priority.ordinal();
+            lanes[lane] = new ConcurrentLinkedQueue<>();
+            limits[lane] = config.getQueueLimit(priority, capacity);
+            weights[lane] = Math.max(config.getWeight(priority), 1);
+            dequeued[lane] = new LongAdder();
+            rejected[lane] = new LongAdder();
+            totalWaitNanos[lane] = new LongAdder();
+        }
+        
+        this.totalCapacity = capacity;
+        this.slotToLane = buildSchedule(weights);
+        this.agingThresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getAgingThresholdMillis());
+        this.defaultPriority = config.resolveDefaultPriority();
+    }
+    
+    /**
+     * Build a smooth weighted round robin schedule so that priorities are interleaved
+     * rather than served in long runs.
+     */
+    private static int[] buildSchedule(int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        
+        int[] schedule = new int[total];
+        int[] current = new int[weights.length];
+        for (int slot = 0; slot < total; slot++) {
+            int best = 0;
+            for (int i = 0; i < weights.length; i++) {
+                current[i] += weights[i];
+                if (current[i] > current[best]) {
+                    best = i;
+                }
+            }
+            current[best] -= total;
+            schedule[slot] = best;
+        }
+        return schedule;
+    }
+    
+    // Enqueue
+    
+    @Override
+    public boolean offer(Runnable runnable) {
+        if (runnable == null) {
+            throw new NullPointerException();
+        }
+        
+        PrioritizedTask task = runnable instanceof PrioritizedTask
+                ? (PrioritizedTask) runnable
+                : new PrioritizedTask(defaultPriority, null, runnable);
+        int lane = task.getPriority().ordinal();
+        
+        // Reserve a slot in the sub-queue without locking
+        while (true) {
+            int size = laneSizes.get(lane);
+            if (size >= limits[lane]) {
+                rejected[lane].increment();
+                return false;
+            }
+            if (laneSizes.compareAndSet(lane, size, size + 1)) {
+                break;
+            }
+        }
+        
+        // Then a slot of the shared capacity, giving the sub-queue slot back if the queue is full
+        while (true) {
+            int size = queued.get();
+            if (size >= totalCapacity) {
+                laneSizes.decrementAndGet(lane);
+                rejected[lane].increment();
+                return false;
+            }
+            if (queued.compareAndSet(size, size + 1)) {
+                break;
+            }
+        }
+        
+        task.markEnqueued();
+        lanes[lane].add(task);
+        available.release();
+        return true;
+    }
+    
+    @Override
+    public boolean offer(Runnable runnable, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(runnable)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+    
+    @Override
+    public void put(Runnable runnable) throws InterruptedException {
+        while (!offer(runnable)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+    
+    // Dequeue
+    
+    @Override
+    public Runnable take() throws InterruptedException {
+        available.acquire();
+        return dequeue();
+    }
+    
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!available.tryAcquire(timeout, unit)) {
+            return null;
+        }
+        return dequeue();
+    }
+    
+    @Override
+    public Runnable poll() {
+        if (!available.tryAcquire()) {
+            return null;
+        }
+        return dequeue();
+    }
+    
+    /**
+     * Remove the next task. The caller must already hold a permit, which guarantees a task exists.
+     */
+    private PrioritizedTask dequeue() {
+        while (true) {
+            int lane = selectLane();
+            PrioritizedTask task = lanes[lane].poll();
+            if (task != null) {
+                laneSizes.decrementAndGet(lane);
+                queued.decrementAndGet();
+                recordWait(lane, task);
+                return task;
+            }
+        }
+    }
+    
+    private int selectLane() {
+        long now = System.nanoTime();
+        
+        // Aging: the oldest overdue head among the lower priorities goes first
+        int agedLane = -1;
+        long oldest = Long.MAX_VALUE;
+        for (int lane = lanes.length - 1; lane > 0; lane--) {
+            PrioritizedTask head = lanes[lane].peek();
+            if (head != null && now - head.getEnqueuedAtNanos() >= agingThresholdNanos
+                    && head.getEnqueuedAtNanos() < oldest) {
+                agedLane = lane;
+                oldest = head.getEnqueuedAtNanos();
+            }
+        }
+        if (agedLane >= 0) {
+            agedDequeues.increment();
+            return agedLane;
+        }
+        
+        int preferred = slotToLane[(int) (dispatchTick.getAndIncrement() % slotToLane.length)];
+        if (!lanes[preferred].isEmpty()) {
+            return preferred;
+        }
+        
+        // Preferred priority has nothing queued, give the slot to the highest non-empty priority
+        for (int lane = 0; lane < lanes.length; lane++) {
+            if (!lanes[lane].isEmpty()) {
+                return lane;
+            }
+        }
+        return preferred;
+    }
+    
+    private void recordWait(int lane, PrioritizedTask task) {
+        long wait = System.nanoTime() - task.getEnqueuedAtNanos();
+        dequeued[lane].increment();
+        totalWaitNanos[lane].add(wait);
+        
+        long max;
+        while (wait > (max = maxWaitNanos.get(lane))) {
+            if (maxWaitNanos.compareAndSet(lane, max, wait)) {
+                break;
+            }
+        }
+    }
+    
+    @Override
+    public int drainTo(Collection<? super Runnable> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+    
+    @Override
+    public int drainTo(Collection<? super Runnable> collection, int maxElements) {
+        int drained = 0;
+        while (drained < maxElements && available.tryAcquire()) {
+            collection.add(dequeue());
+            drained++;
+        }
+        return drained;
+    }
+    
+    @Override
+    public boolean remove(Object o) {
+        if (o == null || !available.tryAcquire()) {
+            return false;
+        }
+        
+        for (int lane = 0; lane < lanes.length; lane++) {
+            for (PrioritizedTask task : lanes[lane]) {
+                if ((task == o || task.getDelegate() == o) && lanes[lane].remove(task)) {
+                    laneSizes.decrementAndGet(lane);
+                    queued.decrementAndGet();
+                    return true;
+                }
+            }
+        }
+        
+        available.release();
+        return false;
+    }
+    
+    // Inspection
+    
+    @Override
+    public Runnable peek() {
+        for (ConcurrentLinkedQueue<PrioritizedTask> lane : lanes) {
+            PrioritizedTask head = lane.peek();
+            if (head != null) {
+                return head;
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public int size() {
+        return queued.get();
+    }
+    
+    @Override
+    public int remainingCapacity() {
+        return Math.max(totalCapacity - size(), 0);
+    }
+    
+    /**
+     * Snapshot iterator over all queued tasks in priority order.
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        List<Runnable> snapshot = new ArrayList<>();
+        for (ConcurrentLinkedQueue<PrioritizedTask> lane : lanes) {
+            snapshot.addAll(lane);
+        }
+        return snapshot.iterator();
+    }
+    
+    /**
+     * Get the number of queued tasks for a priority level.
+     */
+    public int getDepth(JobPriority priority) {
+        return laneSizes.get(priority.ordinal());
+    }
+    
+    /**
+     * Get the number of free slots for a priority level, within both its share and the total capacity.
+     */
+    public int getRemainingCapacity(JobPriority priority) {
+        int lane = priority.ordinal();
+        return Math.max(Math.min(limits[lane] - laneSizes.get(lane), remainingCapacity()), 0);
+    }
+    
+    /**
+     * Get per-priority queue depth and wait time statistics.
+     */
+    public Map<String, Object> getPriorityStats() {
+        Map<String, Object> stats = new HashMap<>();
+        for (JobPriority priority : PRIORITIES) {
+            int lane = priority.ordinal();
+            long count = dequeued[lane].sum();
+            
+            Map<String, Object> laneStats = new HashMap<>();
+            laneStats.put("queueDepth", laneSizes.get(lane));
+            laneStats.put("queueLimit", limits[lane]);
+            laneStats.put("weight", weights[lane]);
+            laneStats.put("dequeuedCount", count);
+            laneStats.put("rejectedCount", rejected[lane].sum());
+            laneStats.put("averageWaitMillis", count > 0 ? TimeUnit.NANOSECONDS.toMillis(totalWaitNanos[lane].sum() / count) : 0);
+            laneStats.put("maxWaitMillis", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get(lane)));
+            
+            PrioritizedTask head = lanes[lane].peek();
+            laneStats.put("oldestWaitMillis", head != null
+                    ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - head.getEnqueuedAtNanos()) : 0);
+            
+            stats.put(priority.name(), laneStats);
+        }
+        stats.put("agedDequeues", agedDequeues.sum());
+        stats.put("totalCapacity", totalCapacity);
+        return stats;
+    }
+}
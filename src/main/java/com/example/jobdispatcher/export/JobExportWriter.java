@@ -0,0 +1,163 @@
+package com.example.jobdispatcher.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Writes result set rows to an output stream as NDJSON or CSV, one row at a time.
+ * Nothing is buffered beyond the output buffer, so memory use does not depend on the number of rows.
+ * Closing the writer flushes it but leaves the underlying stream open.
+ */
+public class JobExportWriter implements Closeable {
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    
+    private final String format;
+    private final JsonGenerator json;
+    private final Writer csv;
+    private String[] columns;
+    private long rows = 0;
+    
+    public JobExportWriter(OutputStream output, String format) throws IOException {
+        this.format = format;
+        if ("ndjson".equals(format)) {
+            this.json = JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8);
+            this.csv = null;
+        } else if ("csv".equals(format)) {
+            this.json = null;
+            this.csv = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        } else {
+            throw new IllegalArgumentException("Unsupported export format: " + format + " (expected ndjson or csv)");
+        }
+    }
+    
+    /**
+     * Take the column names from the first result set and write the CSV header. Later calls are ignored,
+     * so several result sets with the same columns can be written one after the other.
+     */
+    public void begin(ResultSetMetaData metaData) throws SQLException, IOException {
+        if (columns != null) {
+            return;
+        }
+        columns = columnLabels(metaData);
+        if (csv != null) {
+            writeCsvHeader();
+        }
+    }
+    
+    /**
+     * Write the current row of the result set.
+     */
+    public void writeRow(ResultSet rs) throws SQLException, IOException {
+        if (columns == null) {
+            begin(rs.getMetaData());
+        }
+        
+        if (json != null) {
+            json.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                json.writeFieldName(columns[i]);
+                writeJsonValue(rs.getObject(i + 1));
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        } else {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    csv.write(',');
+                }
+                writeCsvValue(rs.getObject(i + 1));
+            }
+            csv.write("\r\n");
+        }
+        rows++;
+    }
+    
+    private static String[] columnLabels(ResultSetMetaData metaData) throws SQLException {
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+        return labels;
+    }
+    
+    private void writeJsonValue(Object value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+            json.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            json.writeNumber(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal) {
+            json.writeNumber((BigDecimal) value);
+        } else if (value instanceof Boolean) {
+            json.writeBoolean((Boolean) value);
+        } else {
+            json.writeString(toText(value));
+        }
+    }
+    
+    private void writeCsvHeader() throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            csv.write(columns[i]);
+        }
+        csv.write("\r\n");
+    }
+    
+    // RFC 4180: quote values containing separators, quotes or line breaks and double embedded quotes
+    private void writeCsvValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = toText(value);
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            csv.write(text);
+            return;
+        }
+        csv.write('"');
+        csv.write(text.replace("\"", "\"\""));
+        csv.write('"');
+    }
+    
+    private static String toText(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toString();
+        }
+        return value.toString();
+    }
+    
+    public long getRows() {
+        return rows;
+    }
+    
+    public String getFormat() {
+        return format;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (json != null) {
+            json.close();
+        } else {
+            csv.flush();
+        }
+    }
+}
@@ -42,4 +42,13 @@ public interface RepetitiveJob extends Job {
         FIXED_RATE,     // Fixed rate regardless of execution time
         CRON           // Cron expression based scheduling
     }
+    
+    /**
+     * What to do when a trigger fires while the previous execution is still running.
+     */
+    enum OverlapPolicy {
+        SKIP,             // Drop the trigger
+        QUEUE_ONE,        // Run once more after the current execution, further triggers are dropped
+        ALLOW_CONCURRENT  // Start another execution alongside the running one
+    }
 }
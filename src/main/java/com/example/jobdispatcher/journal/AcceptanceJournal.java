@@ -0,0 +1,345 @@
+package com.example.jobdispatcher.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of memory-mapped segment files with group commit.
+ * Appenders copy their entry into the active segment and then wait until it is on disk; the first
+ * waiter forces the segment for everyone that appended before it, so one fsync covers many entries.
+ * A checkpoint file records the last sequence that was replicated elsewhere, and segments that are
+ * fully covered by the checkpoint are deleted.
+ */
+public class AcceptanceJournal implements Closeable {
+    
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String CHECKPOINT_TEMP_FILE = "checkpoint.tmp";
+    
+    private final Path directory;
+    private final int segmentSize;
+    private final long groupCommitDelayNanos;
+    
+    private final CopyOnWriteArrayList<JournalSegment> segments = new CopyOnWriteArrayList<>();
+    private volatile JournalSegment active;
+    
+    // Appends
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private long nextSequence;
+    private volatile long writtenSequence;
+    private boolean closed;
+    
+    // Group commit
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private long durableSequence;
+    private boolean syncing;
+    
+    private volatile long checkpointSequence;
+    
+    // Reader cursor, used by the single replicating reader
+    private JournalSegment cursorSegment;
+    private int cursorPosition;
+    private long cursorSequence = -1;
+    
+    // Metrics
+    private final LongAdder appendCount = new LongAdder();
+    private final LongAdder syncCount = new LongAdder();
+    
+    public AcceptanceJournal(Path directory, int segmentSize, long groupCommitDelayMicros) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.groupCommitDelayNanos = TimeUnit.MICROSECONDS.toNanos(groupCommitDelayMicros);
+        
+        Files.createDirectories(directory);
+        this.checkpointSequence = readCheckpoint();
+        
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(JournalSegment::isSegmentFile).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            segments.add(JournalSegment.open(file));
+        }
+        
+        long lastSequence = checkpointSequence;
+        for (JournalSegment segment : segments) {
+            lastSequence = Math.max(lastSequence, segment.getLastSequence());
+        }
+        for (int i = 0; i < segments.size() - 1; i++) {
+            segments.get(i).seal();
+        }
+        
+        // Continue in the last segment unless its sequence does not line up with the checkpoint
+        JournalSegment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (last == null || last.getLastSequence() != lastSequence) {
+            if (last != null) {
+                last.seal();
+            }
+            segments.add(JournalSegment.create(directory, lastSequence + 1, segmentSize));
+        }
+        this.active = segments.get(segments.size() - 1);
+        this.nextSequence = lastSequence + 1;
+        this.writtenSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        
+        deleteReplicatedSegments();
+    }
+    
+    /**
+     * Append an entry and wait until it is durable. Returns the entry's sequence.
+     */
+    public long append(byte[] payload) throws IOException {
+        long sequence = write(payload);
+        awaitDurable(sequence);
+        return sequence;
+    }
+    
+    /**
+     * Append an entry without waiting for it to reach the disk. Returns the entry's sequence,
+     * which {@link #awaitDurable} can wait for later.
+     */
+    public long write(byte[] payload) throws IOException {
+        if (JournalSegment.HEADER_SIZE + payload.length > segmentSize) {
+            throw new IllegalArgumentException("Journal entry of " + payload.length + " bytes exceeds the segment size");
+        }
+        
+        long sequence;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Acceptance journal is closed");
+            }
+            if (!active.hasRoom(payload.length)) {
+                rotate();
+            }
+            sequence = nextSequence++;
+            active.append(sequence, payload);
+            writtenSequence = sequence;
+        } finally {
+            appendLock.unlock();
+        }
+        
+        appendCount.increment();
+        return sequence;
+    }
+    
+    /**
+     * Seal the active segment and continue in a new one. Called with the append lock held.
+     */
+    private void rotate() throws IOException {
+        JournalSegment next = JournalSegment.create(directory, nextSequence, segmentSize);
+        active.seal();
+        segments.add(next);
+        active = next;
+    }
+    
+    /**
+     * Wait until the sequence is on disk, forcing the active segment if no other thread is doing so.
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        syncLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                
+                syncing = true;
+                long target = durableSequence;
+                syncLock.unlock();
+                try {
+                    if (groupCommitDelayNanos > 0) {
+                        // Give concurrent appenders a moment to join this sync
+                        LockSupport.parkNanos(groupCommitDelayNanos);
+                    }
+                    // Older segments were forced when they were sealed
+                    long written = writtenSequence;
+                    active.force();
+                    target = written;
+                    syncCount.increment();
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    durableSequence = Math.max(durableSequence, target);
+                    synced.signalAll();
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to sync acceptance journal", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+    
+    /**
+     * Read up to maxEntries entries that follow the given sequence.
+     * Only one thread may read; reading from the last returned sequence continues from the cursor.
+     */
+    public synchronized List<JournalEntry> read(long afterSequence, int maxEntries) {
+        if (cursorSegment == null || cursorSequence != afterSequence) {
+            seek(afterSequence);
+        }
+        
+        List<JournalEntry> entries = new ArrayList<>();
+        while (entries.size() < maxEntries && cursorSegment != null) {
+            // Check the seal first: once sealed, no entry can appear after a failed read
+            boolean sealed = cursorSegment.isSealed();
+            JournalEntry entry = cursorSegment.read(cursorPosition);
+            if (entry == null) {
+                JournalSegment next = sealed ? findSegmentAfter(cursorSegment.getLastSequence()) : null;
+                if (next == null) {
+                    break;
+                }
+                cursorSegment = next;
+                cursorPosition = 0;
+                continue;
+            }
+            cursorPosition = entry.getNextPosition();
+            cursorSequence = entry.getSequence();
+            entries.add(entry);
+        }
+        return entries;
+    }
+    
+    private void seek(long afterSequence) {
+        cursorSegment = null;
+        for (JournalSegment segment : segments) {
+            if (segment.getFirstSequence() <= afterSequence + 1) {
+                cursorSegment = segment;
+            }
+        }
+        if (cursorSegment == null && !segments.isEmpty()) {
+            cursorSegment = segments.get(0);
+        }
+        
+        cursorPosition = 0;
+        cursorSequence = afterSequence;
+        JournalEntry entry;
+        while (cursorSegment != null && (entry = cursorSegment.read(cursorPosition)) != null
+                && entry.getSequence() <= afterSequence) {
+            cursorPosition = entry.getNextPosition();
+        }
+    }
+    
+    private JournalSegment findSegmentAfter(long sequence) {
+        for (JournalSegment segment : segments) {
+            if (segment.getFirstSequence() > sequence) {
+                return segment;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Record that every entry up to the sequence has been replicated and delete the segments it covers.
+     */
+    public void checkpoint(long sequence) throws IOException {
+        if (sequence <= checkpointSequence) {
+            return;
+        }
+        
+        ByteBuffer data = ByteBuffer.allocate(12);
+        data.putLong(sequence);
+        CRC32C crc = new CRC32C();
+        crc.update(data.array(), 0, 8);
+        data.putInt((int) crc.getValue());
+        data.flip();
+        
+        Path temp = directory.resolve(CHECKPOINT_TEMP_FILE);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(data);
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        
+        checkpointSequence = sequence;
+        deleteReplicatedSegments();
+    }
+    
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (data.remaining() != 12) {
+            return 0;
+        }
+        long sequence = data.getLong();
+        CRC32C crc = new CRC32C();
+        crc.update(data.array(), 0, 8);
+        // A damaged checkpoint only means replaying more entries
+        return data.getInt() == (int) crc.getValue() ? sequence : 0;
+    }
+    
+    private void deleteReplicatedSegments() throws IOException {
+        for (JournalSegment segment : segments) {
+            if (segment != active && segment.isSealed() && segment.getLastSequence() <= checkpointSequence) {
+                segments.remove(segment);
+                segment.delete();
+            }
+        }
+    }
+    
+    /**
+     * Stop accepting appends and flush the active segment.
+     */
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            closed = true;
+            active.force();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+    
+    /**
+     * Get the number of appended entries not yet covered by the checkpoint.
+     */
+    public long getPendingEntries() {
+        return writtenSequence - checkpointSequence;
+    }
+    
+    public long getWrittenSequence() {
+        return writtenSequence;
+    }
+    
+    public long getCheckpointSequence() {
+        return checkpointSequence;
+    }
+    
+    public int getSegmentCount() {
+        return segments.size();
+    }
+    
+    public long getAppendCount() {
+        return appendCount.sum();
+    }
+    
+    public long getSyncCount() {
+        return syncCount.sum();
+    }
+}
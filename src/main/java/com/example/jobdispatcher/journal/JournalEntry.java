@@ -0,0 +1,32 @@
+package com.example.jobdispatcher.journal;
+
+/**
+ * An entry read back from the acceptance journal.
+ */
+public class JournalEntry {
+    
+    private final long sequence;
+    private final byte[] payload;
+    private final int nextPosition;
+    
+    public JournalEntry(long sequence, byte[] payload, int nextPosition) {
+        this.sequence = sequence;
+        this.payload = payload;
+        this.nextPosition = nextPosition;
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public byte[] getPayload() {
+        return payload;
+    }
+    
+    /**
+     * Position of the following entry in the same segment.
+     */
+    public int getNextPosition() {
+        return nextPosition;
+    }
+}
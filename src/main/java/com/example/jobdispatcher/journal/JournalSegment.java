@@ -0,0 +1,204 @@
+package com.example.jobdispatcher.journal;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped file of the acceptance journal.
+ * Entry layout: payload length (int), CRC32C of sequence and payload (int), sequence (long), payload.
+ * A zero length marks the end of the written entries; new files are zero-filled.
+ */
+public class JournalSegment {
+    
+    public static final int HEADER_SIZE = 16;
+    
+    private static final String FILE_PREFIX = "segment-";
+    private static final String FILE_SUFFIX = ".log";
+    
+    private final Path path;
+    private final long firstSequence;
+    private final MappedByteBuffer buffer;
+    
+    // End of the valid entries, published to readers after each append
+    private volatile int writePosition;
+    private volatile long lastSequence;
+    private volatile boolean sealed;
+    
+    private JournalSegment(Path path, long firstSequence, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.buffer = buffer;
+        this.lastSequence = firstSequence - 1;
+    }
+    
+    /**
+     * Create and map a new zero-filled segment starting at the given sequence.
+     */
+    public static JournalSegment create(Path directory, long firstSequence, int size) throws IOException {
+        Path path = directory.resolve(fileName(firstSequence));
+        return new JournalSegment(path, firstSequence, map(path, size));
+    }
+    
+    /**
+     * Map an existing segment and find the end of its valid entries.
+     * Scanning stops at the first entry that is incomplete, out of sequence or fails its checksum.
+     */
+    public static JournalSegment open(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        long firstSequence = Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        
+        JournalSegment segment = new JournalSegment(path, firstSequence, map(path, (int) Files.size(path)));
+        int position = 0;
+        JournalEntry entry;
+        while ((entry = segment.readAt(position, segment.lastSequence + 1, segment.buffer.capacity())) != null) {
+            position += HEADER_SIZE + entry.getPayload().length;
+            segment.lastSequence = entry.getSequence();
+        }
+        segment.writePosition = position;
+        segment.clearTail();
+        return segment;
+    }
+    
+    /**
+     * Zero everything after the valid entries if a torn or corrupt entry was left there,
+     * so stale bytes cannot be read back as entries once appends resume.
+     */
+    private void clearTail() {
+        if (writePosition + 4 > buffer.capacity() || buffer.getInt(writePosition) == 0) {
+            return;
+        }
+        
+        ByteBuffer target = buffer.duplicate();
+        target.position(writePosition);
+        byte[] zeros = new byte[8192];
+        while (target.hasRemaining()) {
+            target.put(zeros, 0, Math.min(zeros.length, target.remaining()));
+        }
+        force();
+    }
+    
+    private static MappedByteBuffer map(Path path, int size) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            if (file.length() < size) {
+                file.setLength(size);
+            }
+            // The mapping stays valid after the channel is closed
+            return file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+    
+    public static boolean isSegmentFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+    }
+    
+    private static String fileName(long firstSequence) {
+        return String.format("%s%020d%s", FILE_PREFIX, firstSequence, FILE_SUFFIX);
+    }
+    
+    /**
+     * Check whether an entry with the given payload size fits in the remaining space.
+     */
+    public boolean hasRoom(int payloadLength) {
+        return writePosition + HEADER_SIZE + payloadLength <= buffer.capacity();
+    }
+    
+    /**
+     * Append an entry. Callers serialise appends and check {@link #hasRoom} first.
+     */
+    public void append(long sequence, byte[] payload) {
+        ByteBuffer target = buffer.duplicate();
+        target.position(writePosition + 4);
+        target.putInt(checksum(sequence, payload));
+        target.putLong(sequence);
+        target.put(payload);
+        // The length goes last so a torn write never looks like a complete entry
+        target.putInt(writePosition, payload.length);
+        
+        lastSequence = sequence;
+        writePosition = writePosition + HEADER_SIZE + payload.length;
+    }
+    
+    /**
+     * Read the entry at a position, or null if there is no valid entry there.
+     */
+    public JournalEntry read(int position) {
+        return readAt(position, -1, writePosition);
+    }
+    
+    private JournalEntry readAt(int position, long expectedSequence, int limit) {
+        if (position + HEADER_SIZE > limit) {
+            return null;
+        }
+        
+        ByteBuffer source = buffer.duplicate();
+        source.position(position);
+        int length = source.getInt();
+        if (length <= 0 || position + HEADER_SIZE + length > limit) {
+            return null;
+        }
+        
+        int crc = source.getInt();
+        long sequence = source.getLong();
+        byte[] payload = new byte[length];
+        source.get(payload);
+        
+        if ((expectedSequence >= 0 && sequence != expectedSequence) || crc != checksum(sequence, payload)) {
+            return null;
+        }
+        return new JournalEntry(sequence, payload, position + HEADER_SIZE + length);
+    }
+    
+    private static int checksum(long sequence, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(8).putLong(0, sequence));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+    
+    /**
+     * Flush written pages to disk.
+     */
+    public void force() {
+        buffer.force();
+    }
+    
+    public void seal() {
+        force();
+        sealed = true;
+    }
+    
+    public void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+    
+    public Path getPath() {
+        return path;
+    }
+    
+    public long getFirstSequence() {
+        return firstSequence;
+    }
+    
+    public long getLastSequence() {
+        return lastSequence;
+    }
+    
+    public int getWritePosition() {
+        return writePosition;
+    }
+    
+    public int getSize() {
+        return buffer.capacity();
+    }
+    
+    public boolean isSealed() {
+        return sealed;
+    }
+}
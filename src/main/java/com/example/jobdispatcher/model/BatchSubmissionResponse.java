@@ -0,0 +1,69 @@
+package com.example.jobdispatcher.model;
+
+import java.util.List;
+
+/**
+ * Response model for bulk job submission, with one entry per submitted job in request order.
+ */
+public class BatchSubmissionResponse {
+    
+    private int total;
+    private int accepted;
+    private int failed;
+    private List<JobSubmissionResponse> items;
+    private long timestamp;
+    
+    public BatchSubmissionResponse() {
+        this.timestamp = System.currentTimeMillis();
+    }
+    
+    public BatchSubmissionResponse(List<JobSubmissionResponse> items) {
+        this.items = items;
+        this.total = items.size();
+        this.accepted = (int) items.stream()
+                .filter(item -> "SUBMITTED".equals(item.getStatus()) || "SCHEDULED".equals(item.getStatus()))
+                .count();
+        this.failed = total - accepted;
+        this.timestamp = System.currentTimeMillis();
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    
+    public int getAccepted() {
+        return accepted;
+    }
+    
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<JobSubmissionResponse> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<JobSubmissionResponse> items) {
+        this.items = items;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.jobdispatcher.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A job lifecycle event from the job_outbox table. Ids increase in commit order per job, so the id
+ * of the last handled event is a resumable offset. Event types are CREATED, RETRY_SCHEDULED, or the
+ * status the job moved to; status is the job's status right after the event.
+ */
+public class JobEvent {
+    
+    private Long id;
+    private String jobId;
+    private String eventType;
+    private String status;
+    private String jobName;
+    private String jobType;
+    private Integer retryCount;
+    private Long executionTimeMs;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    
+    public JobEvent() {}
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getJobId() {
+        return jobId;
+    }
+    
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+    
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getJobName() {
+        return jobName;
+    }
+    
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+    
+    public String getJobType() {
+        return jobType;
+    }
+    
+    public void setJobType(String jobType) {
+        this.jobType = jobType;
+    }
+    
+    public Integer getRetryCount() {
+        return retryCount;
+    }
+    
+    public void setRetryCount(Integer retryCount) {
+        this.retryCount = retryCount;
+    }
+    
+    public Long getExecutionTimeMs() {
+        return executionTimeMs;
+    }
+    
+    public void setExecutionTimeMs(Long executionTimeMs) {
+        this.executionTimeMs = executionTimeMs;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
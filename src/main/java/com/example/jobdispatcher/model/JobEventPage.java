@@ -0,0 +1,48 @@
+package com.example.jobdispatcher.model;
+
+import java.util.List;
+
+/**
+ * Response model for a page of job lifecycle events. Pass nextOffset as the after parameter to fetch
+ * the following events; it stays the same while there are none.
+ */
+public class JobEventPage {
+    
+    private List<JobEvent> events;
+    private long nextOffset;
+    private long timestamp;
+    
+    public JobEventPage() {
+        this.timestamp = System.currentTimeMillis();
+    }
+    
+    public JobEventPage(List<JobEvent> events, long nextOffset) {
+        this.events = events;
+        this.nextOffset = nextOffset;
+        this.timestamp = System.currentTimeMillis();
+    }
+    
+    public List<JobEvent> getEvents() {
+        return events;
+    }
+    
+    public void setEvents(List<JobEvent> events) {
+        this.events = events;
+    }
+    
+    public long getNextOffset() {
+        return nextOffset;
+    }
+    
+    public void setNextOffset(long nextOffset) {
+        this.nextOffset = nextOffset;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
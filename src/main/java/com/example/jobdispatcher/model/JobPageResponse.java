@@ -0,0 +1,68 @@
+package com.example.jobdispatcher.model;
+
+import java.util.List;
+
+/**
+ * Response model for a page of a job listing. Pass nextCursor as the cursor parameter to fetch the
+ * following page; it is null on the last page.
+ */
+public class JobPageResponse {
+    
+    private List<JobSummary> items;
+    private int pageSize;
+    private boolean hasMore;
+    private String nextCursor;
+    private long timestamp;
+    
+    public JobPageResponse() {
+        this.timestamp = System.currentTimeMillis();
+    }
+    
+    public JobPageResponse(List<JobSummary> items, int pageSize, String nextCursor) {
+        this.items = items;
+        this.pageSize = pageSize;
+        this.hasMore = nextCursor != null;
+        this.nextCursor = nextCursor;
+        this.timestamp = System.currentTimeMillis();
+    }
+    
+    public List<JobSummary> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<JobSummary> items) {
+        this.items = items;
+    }
+    
+    public int getPageSize() {
+        return pageSize;
+    }
+    
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
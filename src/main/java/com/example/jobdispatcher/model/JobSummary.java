@@ -0,0 +1,120 @@
+package com.example.jobdispatcher.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight projection of a scheduled job for list responses.
+ */
+public class JobSummary {
+    
+    private String jobId;
+    private String jobName;
+    private String jobClassName;
+    private String jobType;
+    private String status;
+    private String jobPriority;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private Long executionTimeMs;
+    private Integer retryCount;
+    private LocalDateTime nextRetryAt;
+    
+    public JobSummary() {}
+    
+    public String getJobId() {
+        return jobId;
+    }
+    
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+    
+    public String getJobName() {
+        return jobName;
+    }
+    
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+    
+    public String getJobClassName() {
+        return jobClassName;
+    }
+    
+    public void setJobClassName(String jobClassName) {
+        this.jobClassName = jobClassName;
+    }
+    
+    public String getJobType() {
+        return jobType;
+    }
+    
+    public void setJobType(String jobType) {
+        this.jobType = jobType;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getJobPriority() {
+        return jobPriority;
+    }
+    
+    public void setJobPriority(String jobPriority) {
+        this.jobPriority = jobPriority;
+    }
+    
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+    
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public Long getExecutionTimeMs() {
+        return executionTimeMs;
+    }
+    
+    public void setExecutionTimeMs(Long executionTimeMs) {
+        this.executionTimeMs = executionTimeMs;
+    }
+    
+    public Integer getRetryCount() {
+        return retryCount;
+    }
+    
+    public void setRetryCount(Integer retryCount) {
+        this.retryCount = retryCount;
+    }
+    
+    public LocalDateTime getNextRetryAt() {
+        return nextRetryAt;
+    }
+    
+    public void setNextRetryAt(LocalDateTime nextRetryAt) {
+        this.nextRetryAt = nextRetryAt;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.jobdispatcher.model;
 
+import com.example.jobdispatcher.enums.JobPriority;
 import com.example.jobdispatcher.job.RepetitiveJob;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -24,6 +25,15 @@ public class OneTimeJobRequest {
     private boolean canGroup = false;
     private long groupBufferMillis = 5000; // 5 seconds default buffer
     
+    // Execution priority, defaults to job-priority.default-priority when not set
+    private JobPriority jobPriority;
+    
+    // Named thread pool to run on, overrides the job class @ExecutorPool annotation
+    private String threadPoolName;
+    
+    // Execution timeout, overrides the job-dispatcher.timeout class and default timeouts
+    private Long timeoutMillis;
+    
     public OneTimeJobRequest() {}
     
     public OneTimeJobRequest(String jobId, String jobName, String jobClassName) {
@@ -79,4 +89,28 @@ public class OneTimeJobRequest {
     public void setGroupBufferMillis(long groupBufferMillis) {
         this.groupBufferMillis = groupBufferMillis;
     }
+    
+    public JobPriority getJobPriority() {
+        return jobPriority;
+    }
+    
+    public void setJobPriority(JobPriority jobPriority) {
+        this.jobPriority = jobPriority;
+    }
+    
+    public String getThreadPoolName() {
+        return threadPoolName;
+    }
+    
+    public void setThreadPoolName(String threadPoolName) {
+        this.threadPoolName = threadPoolName;
+    }
+    
+    public Long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+    
+    public void setTimeoutMillis(Long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
 }
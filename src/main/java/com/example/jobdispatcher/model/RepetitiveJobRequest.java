@@ -31,11 +31,20 @@ public class RepetitiveJobRequest {
     // Optional cron expression when repetitionType is CRON
     private String cronExpression;
     
+    // Behaviour when a trigger fires while the previous execution is still running
+    private RepetitiveJob.OverlapPolicy overlapPolicy = RepetitiveJob.OverlapPolicy.SKIP;
+    
     // Job grouping fields
     private String groupKey;
     private boolean canGroup = false;
     private long groupBufferMillis = 5000; // 5 seconds default buffer
     
+    // Named REPETITIVE thread pool to schedule on, overrides the job class @ExecutorPool annotation
+    private String threadPoolName;
+    
+    // Timeout of each execution, overrides the job-dispatcher.timeout class and default timeouts
+    private Long timeoutMillis;
+    
     public RepetitiveJobRequest() {}
     
     public RepetitiveJobRequest(String jobId, String jobName, String jobClassName, 
@@ -128,4 +137,28 @@ public class RepetitiveJobRequest {
     public void setCronExpression(String cronExpression) {
         this.cronExpression = cronExpression;
     }
+    
+    public RepetitiveJob.OverlapPolicy getOverlapPolicy() {
+        return overlapPolicy;
+    }
+    
+    public void setOverlapPolicy(RepetitiveJob.OverlapPolicy overlapPolicy) {
+        this.overlapPolicy = overlapPolicy;
+    }
+    
+    public String getThreadPoolName() {
+        return threadPoolName;
+    }
+    
+    public void setThreadPoolName(String threadPoolName) {
+        this.threadPoolName = threadPoolName;
+    }
+    
+    public Long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+    
+    public void setTimeoutMillis(Long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
 }
@@ -0,0 +1,377 @@
+package com.example.jobdispatcher.persistence;
+
+import com.example.jobdispatcher.config.PersistenceConfig;
+import com.example.jobdispatcher.entity.AppServer;
+import com.example.jobdispatcher.entity.ScheduledJob;
+import com.example.jobdispatcher.entity.ThreadPool;
+import com.example.jobdispatcher.journal.AcceptanceJournal;
+import com.example.jobdispatcher.journal.JournalEntry;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Embedded job store: the in-memory store, made durable with an append-only log on local disk.
+ * <p>
+ * Every change appends the new version of the job (or its removal) to the log while the job is locked,
+ * so the log has the changes of each job in the order they were made. The log is an
+ * {@link AcceptanceJournal}: memory-mapped segments with CRC-checked entries and group commit. With
+ * file-sync-on-write each change waits for its fsync, which concurrent changes share.
+ * <p>
+ * Compaction writes a snapshot of all live jobs and checkpoints the log at the snapshot's sequence, which
+ * deletes the segments the snapshot covers. On startup the snapshot is loaded and the log entries after it
+ * are replayed; replaying an entry twice is harmless since each one carries the whole job.
+ */
+@Component
+@ConditionalOnProperty(prefix = "job-dispatcher.persistence", name = "backend", havingValue = PersistenceConfig.BACKEND_FILE)
+public class FileJobStore extends InMemoryJobStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FileJobStore.class);
+    
+    private static final String SNAPSHOT_FILE = "snapshot";
+    private static final String SNAPSHOT_TEMP_FILE = "snapshot.tmp";
+    private static final int SNAPSHOT_MAGIC = 0x4a4f4253; // "JOBS"
+    
+    @Autowired
+    private PersistenceConfig persistenceConfig;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private ObjectMapper recordMapper;
+    private Path directory;
+    private AcceptanceJournal log;
+    
+    // Changes hold the read lock, compaction takes the write lock to capture a consistent snapshot
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private volatile long snapshotSequence;
+    
+    private final AtomicLong compactions = new AtomicLong();
+    private volatile long lastCompactionMillis = 0;
+    private volatile long lastSnapshotJobs = 0;
+    
+    @Override
+    public String getBackend() {
+        return PersistenceConfig.BACKEND_FILE;
+    }
+    
+    @PostConstruct
+    public void open() {
+        recordMapper = objectMapper.copy()
+                .addMixIn(ScheduledJob.class, StoredJobMixin.class)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        directory = Paths.get(persistenceConfig.getFileDirectory());
+        
+        try {
+            long start = System.currentTimeMillis();
+            log = new AcceptanceJournal(directory, persistenceConfig.getFileSegmentSizeBytes(),
+                                        persistenceConfig.getGroupCommitDelayMicros());
+            snapshotSequence = readSnapshot();
+            if (log.getCheckpointSequence() > snapshotSequence) {
+                throw new IllegalStateException("Job store log was compacted up to " + log.getCheckpointSequence() +
+                                                " but the snapshot only covers " + snapshotSequence);
+            }
+            long replayed = replay();
+            logger.info("Opened file job store in {} with {} jobs ({} log entries replayed) in {}ms",
+                       directory, storedJobs().size(), replayed, System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open job store in " + directory, e);
+        }
+    }
+    
+    @PreDestroy
+    public void close() {
+        if (log != null) {
+            log.close();
+            logger.info("Closed file job store ({} jobs, {} log entries since the last snapshot)",
+                       storedJobs().size(), log.getWrittenSequence() - snapshotSequence);
+        }
+    }
+    
+    private long replay() {
+        long replayed = 0;
+        long after = snapshotSequence;
+        List<JournalEntry> entries;
+        while (!(entries = log.read(after, 1000)).isEmpty()) {
+            for (JournalEntry entry : entries) {
+                apply(decode(entry.getPayload()));
+                after = entry.getSequence();
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+    
+    private void apply(StoredJob record) {
+        if (record.getJob() == null) {
+            restoreRemoval(record.getJobId());
+            return;
+        }
+        
+        ScheduledJob job = record.getJob();
+        if (record.getThreadPoolId() != null) {
+            ThreadPool threadPool = new ThreadPool();
+            threadPool.setId(record.getThreadPoolId());
+            threadPool.setName(record.getThreadPoolName());
+            job.setThreadPool(threadPool);
+        }
+        if (record.getAppServerId() != null) {
+            AppServer appServer = new AppServer();
+            appServer.setId(record.getAppServerId());
+            job.setAppServer(appServer);
+        }
+        restore(job);
+    }
+    
+    // Changes
+    
+    @Override
+    protected <T> T mutate(Supplier<T> changes) {
+        T result;
+        snapshotLock.readLock().lock();
+        try {
+            result = changes.get();
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        
+        if (persistenceConfig.isFileSyncOnWrite()) {
+            try {
+                log.awaitDurable(log.getWrittenSequence());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync job store log", e);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    protected void onChange(String jobId, ScheduledJob job) {
+        try {
+            log.write(encode(new StoredJob(jobId, job)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write job " + jobId + " to the job store log", e);
+        }
+    }
+    
+    private byte[] encode(StoredJob record) throws IOException {
+        return recordMapper.writeValueAsBytes(record);
+    }
+    
+    private StoredJob decode(byte[] payload) {
+        try {
+            return recordMapper.readValue(payload, StoredJob.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt job store entry", e);
+        }
+    }
+    
+    // Compaction
+    
+    /**
+     * Compact the log once it has grown past compaction-min-entries and compaction-ratio entries per live job.
+     */
+    @Scheduled(fixedDelayString = "${job-dispatcher.persistence.compaction-interval-millis:60000}",
+               initialDelayString = "${job-dispatcher.persistence.compaction-interval-millis:60000}")
+    public void compactIfNeeded() {
+        long entries = log.getWrittenSequence() - snapshotSequence;
+        long liveJobs = Math.max(storedJobs().size(), 1);
+        if (entries < persistenceConfig.getCompactionMinEntries() || entries < persistenceConfig.getCompactionRatio() * liveJobs) {
+            return;
+        }
+        
+        try {
+            compact();
+        } catch (Exception e) {
+            logger.error("Error compacting job store log", e);
+        }
+    }
+    
+    /**
+     * Write a snapshot of all jobs and drop the log segments it covers.
+     */
+    public synchronized void compact() throws IOException {
+        long start = System.currentTimeMillis();
+        long sequence;
+        List<ScheduledJob> jobs;
+        snapshotLock.writeLock().lock();
+        try {
+            // Every entry up to the sequence is applied, stored jobs are never modified in place
+            sequence = log.getWrittenSequence();
+            jobs = new ArrayList<>(storedJobs());
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+        
+        writeSnapshot(sequence, jobs);
+        log.checkpoint(sequence);
+        long dropped = sequence - snapshotSequence;
+        snapshotSequence = sequence;
+        
+        compactions.incrementAndGet();
+        lastCompactionMillis = System.currentTimeMillis() - start;
+        lastSnapshotJobs = jobs.size();
+        logger.info("Compacted job store log: {} jobs in snapshot, {} log entries dropped in {}ms",
+                   jobs.size(), dropped, lastCompactionMillis);
+    }
+    
+    // Layout: magic (int), sequence (long), job count (int), then per job its length (int) and JSON
+    private void writeSnapshot(long sequence, List<ScheduledJob> jobs) throws IOException {
+        Path temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(sequence);
+            out.writeInt(jobs.size());
+            for (ScheduledJob job : jobs) {
+                byte[] payload = encode(new StoredJob(job.getJobId(), job));
+                out.writeInt(payload.length);
+                out.write(payload);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Load the snapshot, if there is one.
+     * @return the log sequence the snapshot covers
+     */
+    private long readSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a job store snapshot: " + file);
+            }
+            long sequence = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                byte[] payload = new byte[in.readInt()];
+                in.readFully(payload);
+                apply(decode(payload));
+            }
+            lastSnapshotJobs = count;
+            return sequence;
+        }
+    }
+    
+    @Override
+    public Map<String, Object> getStoreStats() {
+        Map<String, Object> stats = super.getStoreStats();
+        stats.put("directory", directory.toString());
+        stats.put("syncOnWrite", persistenceConfig.isFileSyncOnWrite());
+        stats.put("logEntriesSinceSnapshot", log.getWrittenSequence() - snapshotSequence);
+        stats.put("segmentCount", log.getSegmentCount());
+        stats.put("appendCount", log.getAppendCount());
+        stats.put("syncCount", log.getSyncCount());
+        stats.put("compactions", compactions.get());
+        stats.put("lastCompactionMillis", lastCompactionMillis);
+        stats.put("lastSnapshotJobs", lastSnapshotJobs);
+        return stats;
+    }
+    
+    // Relations are stored as ids, computed getters are not stored
+    @JsonIgnoreProperties({"threadPool", "appServer", "retryScheduled", "retryDue"})
+    private abstract static class StoredJobMixin {
+    }
+    
+    /**
+     * A log or snapshot entry: the whole job, or its removal if the job is null.
+     */
+    public static class StoredJob {
+        private String jobId;
+        private ScheduledJob job;
+        private Long threadPoolId;
+        private String threadPoolName;
+        private Long appServerId;
+        
+        public StoredJob() {}
+        
+        public StoredJob(String jobId, ScheduledJob job) {
+            this.jobId = jobId;
+            this.job = job;
+            if (job != null && job.getThreadPool() != null) {
+                this.threadPoolId = job.getThreadPool().getId();
+                this.threadPoolName = job.getThreadPool().getName();
+            }
+            if (job != null && job.getAppServer() != null) {
+                this.appServerId = job.getAppServer().getId();
+            }
+        }
+        
+        public String getJobId() {
+            return jobId;
+        }
+        
+        public void setJobId(String jobId) {
+            this.jobId = jobId;
+        }
+        
+        public ScheduledJob getJob() {
+            return job;
+        }
+        
+        public void setJob(ScheduledJob job) {
+            this.job = job;
+        }
+        
+        public Long getThreadPoolId() {
+            return threadPoolId;
+        }
+        
+        public void setThreadPoolId(Long threadPoolId) {
+            this.threadPoolId = threadPoolId;
+        }
+        
+        public String getThreadPoolName() {
+            return threadPoolName;
+        }
+        
+        public void setThreadPoolName(String threadPoolName) {
+            this.threadPoolName = threadPoolName;
+        }
+        
+        public Long getAppServerId() {
+            return appServerId;
+        }
+        
+        public void setAppServerId(Long appServerId) {
+            this.appServerId = appServerId;
+        }
+    }
+}
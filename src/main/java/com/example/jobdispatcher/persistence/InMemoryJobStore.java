@@ -0,0 +1,663 @@
+package com.example.jobdispatcher.persistence;
+
+import com.example.jobdispatcher.config.PersistenceConfig;
+import com.example.jobdispatcher.entity.ScheduledJob;
+import com.example.jobdispatcher.model.JobPageResponse;
+import com.example.jobdispatcher.model.JobSummary;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Job store held entirely in memory, for benchmarks that should not measure the database and for
+ * single-node deployments that can lose their jobs on restart.
+ * <p>
+ * Jobs are kept in a concurrent map by job ID with secondary indexes by status, job type and group key.
+ * Stored jobs are never modified: every change replaces the job with an updated copy inside
+ * {@link ConcurrentHashMap#compute}, which serialises changes per job and makes each one a compare-and-set.
+ * Indexes are updated in the same step and may briefly list a job that no longer matches, so lookups
+ * through an index re-check the job itself.
+ */
+@Component
+@ConditionalOnProperty(prefix = "job-dispatcher.persistence", name = "backend", havingValue = PersistenceConfig.BACKEND_MEMORY)
+public class InMemoryJobStore implements JobStore {
+    
+    private static final List<String> CLAIMABLE_RETRY_STATUSES = Arrays.asList("FAILED", "TIMED_OUT", "PARKED");
+    private static final List<String> ACTIVE_STATUSES = Arrays.asList("PENDING", "OVERFLOW", "RUNNING", "PARKED");
+    
+    private final ConcurrentHashMap<String, ScheduledJob> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> jobIdsByStatus = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> jobIdsByJobType = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> jobIdsByGroupKey = new ConcurrentHashMap<>();
+    private final Set<String> scheduledRetries = ConcurrentHashMap.newKeySet();
+    private final AtomicLong idSequence = new AtomicLong();
+    
+    @Override
+    public String getBackend() {
+        return PersistenceConfig.BACKEND_MEMORY;
+    }
+    
+    // Change primitives
+    
+    /**
+     * Run a group of changes. Every public method that changes jobs goes through here exactly once,
+     * so subclasses can add locking or durability around it.
+     */
+    protected <T> T mutate(Supplier<T> changes) {
+        return changes.get();
+    }
+    
+    /**
+     * Called inside the per-job compute step after a change was decided and before it is visible.
+     * Throwing aborts the change.
+     * @param job the new version of the job, or null if it is removed
+     */
+    protected void onChange(String jobId, ScheduledJob job) {
+    }
+    
+    /**
+     * Replace a job atomically. The change gets the current job (null if absent) and returns the new
+     * version, the same instance to leave it as it is, or null to remove it.
+     * @return whether the job was changed
+     */
+    protected boolean update(String jobId, UnaryOperator<ScheduledJob> change) {
+        boolean[] changed = {false};
+        jobs.compute(jobId, (id, current) -> {
+            ScheduledJob next = change.apply(current);
+            if (next == current) {
+                return current;
+            }
+            onChange(jobId, next);
+            reindex(jobId, current, next);
+            changed[0] = true;
+            return next;
+        });
+        return changed[0];
+    }
+    
+    /**
+     * Update a job that passes the check, working on a copy of it.
+     */
+    private boolean updateIf(String jobId, Predicate<ScheduledJob> check, Consumer<ScheduledJob> change) {
+        return update(jobId, current -> {
+            if (current == null || !check.test(current)) {
+                return current;
+            }
+            ScheduledJob next = copyOf(current);
+            change.accept(next);
+            next.setUpdatedAt(LocalDateTime.now());
+            return next;
+        });
+    }
+    
+    /**
+     * Put a job as it was read back from storage, without notifying {@link #onChange}.
+     */
+    protected void restore(ScheduledJob job) {
+        ScheduledJob previous = jobs.put(job.getJobId(), job);
+        reindex(job.getJobId(), previous, job);
+        if (job.getId() != null) {
+            idSequence.accumulateAndGet(job.getId(), Math::max);
+        }
+    }
+    
+    /**
+     * Remove a job as it was removed in storage, without notifying {@link #onChange}.
+     */
+    protected void restoreRemoval(String jobId) {
+        ScheduledJob previous = jobs.remove(jobId);
+        reindex(jobId, previous, null);
+    }
+    
+    /**
+     * Get the stored jobs. They are never modified, so they can be read without copying.
+     */
+    protected Collection<ScheduledJob> storedJobs() {
+        return jobs.values();
+    }
+    
+    private void reindex(String jobId, ScheduledJob previous, ScheduledJob next) {
+        move(jobIdsByStatus, jobId, previous != null ? previous.getStatus() : null, next != null ? next.getStatus() : null);
+        move(jobIdsByJobType, jobId, previous != null ? previous.getJobType() : null, next != null ? next.getJobType() : null);
+        move(jobIdsByGroupKey, jobId, previous != null ? previous.getGroupKey() : null, next != null ? next.getGroupKey() : null);
+        if (next != null && next.getNextRetryAt() != null) {
+            scheduledRetries.add(jobId);
+        } else {
+            scheduledRetries.remove(jobId);
+        }
+    }
+    
+    private static void move(ConcurrentHashMap<String, Set<String>> index, String jobId, String from, String to) {
+        if (from != null && !from.equals(to)) {
+            Set<String> jobIds = index.get(from);
+            if (jobIds != null) {
+                jobIds.remove(jobId);
+            }
+        }
+        if (to != null) {
+            index.computeIfAbsent(to, k -> ConcurrentHashMap.newKeySet()).add(jobId);
+        }
+    }
+    
+    // Writes
+    
+    /**
+     * Stores a copy of the job; a new job gets its id assigned like a database insert would.
+     */
+    @Override
+    public ScheduledJob save(ScheduledJob job) {
+        return mutate(() -> {
+            boolean created = job.getId() == null;
+            ScheduledJob stored = copyOf(job);
+            if (created) {
+                stored.setId(idSequence.incrementAndGet());
+            } else {
+                stored.setUpdatedAt(LocalDateTime.now());
+            }
+            update(job.getJobId(), current -> {
+                if (created && current != null) {
+                    throw new DuplicateKeyException("Duplicate job ID: " + job.getJobId());
+                }
+                return stored;
+            });
+            job.setId(stored.getId());
+            job.setUpdatedAt(stored.getUpdatedAt());
+            return job;
+        });
+    }
+    
+    @Override
+    public void insertAll(List<ScheduledJob> newJobs) {
+        mutate(() -> {
+            List<String> inserted = new ArrayList<>(newJobs.size());
+            try {
+                for (ScheduledJob job : newJobs) {
+                    ScheduledJob stored = copyOf(job);
+                    stored.setId(idSequence.incrementAndGet());
+                    update(job.getJobId(), current -> {
+                        if (current != null) {
+                            throw new DuplicateKeyException("Duplicate job ID: " + job.getJobId());
+                        }
+                        return stored;
+                    });
+                    inserted.add(job.getJobId());
+                }
+            } catch (RuntimeException e) {
+                // All or nothing, like the batched insert
+                inserted.forEach(jobId -> update(jobId, current -> null));
+                throw e;
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    public void deleteByJobId(String jobId) {
+        mutate(() -> update(jobId, current -> null));
+    }
+    
+    @Override
+    public void deleteByStatus(String status) {
+        mutate(() -> {
+            for (String jobId : indexed(jobIdsByStatus, status)) {
+                update(jobId, current -> current != null && status.equals(current.getStatus()) ? null : current);
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Deletes jobs that are not pending, running, parked, awaiting a retry or repetitive,
+     * the same jobs the MySQL retention keeps.
+     */
+    @Override
+    public long deleteFinishedBefore(LocalDateTime cutoff) {
+        Predicate<ScheduledJob> expired = job -> job.getSubmittedAt() != null && job.getSubmittedAt().isBefore(cutoff)
+                && !isActive(job);
+        return mutate(() -> {
+            long deleted = 0;
+            for (ScheduledJob job : jobs.values()) {
+                if (expired.test(job) && update(job.getJobId(), current -> current != null && expired.test(current) ? null : current)) {
+                    deleted++;
+                }
+            }
+            return deleted;
+        });
+    }
+    
+    private static boolean isActive(ScheduledJob job) {
+        return ACTIVE_STATUSES.contains(job.getStatus()) || job.getNextRetryAt() != null
+                || ("REPETITIVE".equals(job.getJobType()) && !"CANCELLED".equals(job.getStatus()));
+    }
+    
+    // Reads
+    
+    @Override
+    public Optional<ScheduledJob> findByJobId(String jobId) {
+        ScheduledJob job = jobs.get(jobId);
+        return job != null ? Optional.of(copyOf(job)) : Optional.empty();
+    }
+    
+    @Override
+    public List<ScheduledJob> findByJobIds(Collection<String> jobIds) {
+        return copies(jobIds.stream().map(jobs::get).filter(Objects::nonNull));
+    }
+    
+    @Override
+    public boolean existsByJobId(String jobId) {
+        return jobs.containsKey(jobId);
+    }
+    
+    @Override
+    public Set<String> findExistingJobIds(Collection<String> jobIds) {
+        Set<String> existing = new HashSet<>();
+        for (String jobId : jobIds) {
+            if (jobs.containsKey(jobId)) {
+                existing.add(jobId);
+            }
+        }
+        return existing;
+    }
+    
+    @Override
+    public List<ScheduledJob> findByStatus(String status) {
+        return copies(byStatus(status));
+    }
+    
+    @Override
+    public List<ScheduledJob> findByJobType(String jobType) {
+        return copies(lookup(jobIdsByJobType, jobType, job -> jobType.equals(job.getJobType())));
+    }
+    
+    @Override
+    public List<ScheduledJob> findByGroupKey(String groupKey) {
+        return copies(lookup(jobIdsByGroupKey, groupKey, job -> groupKey.equals(job.getGroupKey())));
+    }
+    
+    @Override
+    public List<ScheduledJob> findByThreadPoolId(Long threadPoolId) {
+        return copies(jobs.values().stream()
+                .filter(job -> job.getThreadPool() != null && Objects.equals(job.getThreadPool().getId(), threadPoolId)));
+    }
+    
+    @Override
+    public List<ScheduledJob> findByAppServerId(Long appServerId) {
+        return copies(jobs.values().stream()
+                .filter(job -> job.getAppServer() != null && Objects.equals(job.getAppServer().getId(), appServerId)));
+    }
+    
+    @Override
+    public List<ScheduledJob> findJobsForRetry() {
+        return copies(Stream.concat(byStatus("FAILED"), byStatus("TIMED_OUT"))
+                .filter(job -> job.getRetryCount() < job.getMaxRetries()));
+    }
+    
+    @Override
+    public List<ScheduledJob> findLongRunningJobs(LocalDateTime cutoffTime) {
+        return copies(byStatus("RUNNING").filter(job -> job.getStartedAt() != null && job.getStartedAt().isBefore(cutoffTime)));
+    }
+    
+    @Override
+    public Page<ScheduledJob> findByStatusAndJobType(String status, String jobType, Pageable pageable) {
+        List<ScheduledJob> matching = byStatus(status)
+                .filter(job -> jobType == null || jobType.equals(job.getJobType()))
+                .sorted(comparator(pageable.getSort()))
+                .collect(Collectors.toList());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(copies(matching.stream()), pageable, matching.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matching.size());
+        int to = Math.min(from + pageable.getPageSize(), matching.size());
+        return new PageImpl<>(copies(matching.subList(from, to).stream()), pageable, matching.size());
+    }
+    
+    @Override
+    public List<ScheduledJob> findByStatusAndJobTypeInPriorityOrder(String status, String jobType, int limit) {
+        return copies(byStatus(status)
+                .filter(job -> jobType.equals(job.getJobType()))
+                .sorted(Comparator.comparing((ScheduledJob job) -> job.getJobPriority() != null
+                                ? job.getJobPriority().getLevel() : Integer.MAX_VALUE)
+                        .thenComparing(ScheduledJob::getSubmittedAt, Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(limit));
+    }
+    
+    /**
+     * Sorts by the properties a Pageable may name; jobs are unordered otherwise.
+     */
+    private static Comparator<ScheduledJob> comparator(Sort sort) {
+        Comparator<ScheduledJob> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<ScheduledJob> property;
+            switch (order.getProperty()) {
+                case "id":
+                    property = Comparator.comparing(ScheduledJob::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+                    break;
+                case "submittedAt":
+                    property = Comparator.comparing(ScheduledJob::getSubmittedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+                    break;
+                case "completedAt":
+                    property = Comparator.comparing(ScheduledJob::getCompletedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+                    break;
+                case "priority":
+                    property = Comparator.comparing(ScheduledJob::getPriority, Comparator.nullsLast(Comparator.naturalOrder()));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            comparator = comparator.thenComparing(order.isAscending() ? property : property.reversed());
+        }
+        return comparator;
+    }
+    
+    /**
+     * Sorts the matching jobs newest first on every call, so pages cost O(n log n) in the number of
+     * matching jobs rather than the page size.
+     */
+    @Override
+    public JobPageResponse findSummaries(String field, String value, String cursor, int limit) {
+        Stream<ScheduledJob> matching;
+        if ("status".equals(field)) {
+            matching = byStatus(value);
+        } else if ("job_type".equals(field)) {
+            matching = lookup(jobIdsByJobType, value, job -> value.equals(job.getJobType()));
+        } else {
+            throw new IllegalArgumentException("Unsupported listing field: " + field);
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            JobCursor position = JobCursor.decode(cursor);
+            matching = matching.filter(job -> position.isFollowedBy(job.getSubmittedAt(), job.getId()));
+        }
+        
+        List<ScheduledJob> page = matching
+                .sorted(Comparator.comparing(ScheduledJob::getSubmittedAt).thenComparing(ScheduledJob::getId).reversed())
+                .limit(limit + 1L)
+                .collect(Collectors.toList());
+        
+        String nextCursor = null;
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+            ScheduledJob last = page.get(limit - 1);
+            nextCursor = new JobCursor(last.getSubmittedAt(), last.getId()).encode();
+        }
+        List<JobSummary> items = page.stream().map(InMemoryJobStore::toSummary).collect(Collectors.toList());
+        return new JobPageResponse(items, limit, nextCursor);
+    }
+    
+    private static JobSummary toSummary(ScheduledJob job) {
+        JobSummary summary = new JobSummary();
+        summary.setJobId(job.getJobId());
+        summary.setJobName(job.getJobName());
+        summary.setJobClassName(job.getJobClassName());
+        summary.setJobType(job.getJobType());
+        summary.setStatus(job.getStatus());
+        summary.setJobPriority(job.getJobPriority() != null ? job.getJobPriority().name() : null);
+        summary.setSubmittedAt(job.getSubmittedAt());
+        summary.setStartedAt(job.getStartedAt());
+        summary.setCompletedAt(job.getCompletedAt());
+        summary.setExecutionTimeMs(job.getExecutionTimeMs());
+        summary.setRetryCount(job.getRetryCount());
+        summary.setNextRetryAt(job.getNextRetryAt());
+        return summary;
+    }
+    
+    @Override
+    public long countByStatus(String status) {
+        return byStatus(status).count();
+    }
+    
+    @Override
+    public long countByJobType(String jobType) {
+        return lookup(jobIdsByJobType, jobType, job -> jobType.equals(job.getJobType())).count();
+    }
+    
+    @Override
+    public long countByGroupKey(String groupKey) {
+        return lookup(jobIdsByGroupKey, groupKey, job -> groupKey.equals(job.getGroupKey())).count();
+    }
+    
+    @Override
+    public List<JobCount> countJobs() {
+        Map<List<String>, long[]> groups = new HashMap<>();
+        for (ScheduledJob job : jobs.values()) {
+            String poolName = job.getThreadPool() != null ? job.getThreadPool().getName() : null;
+            long[] counts = groups.computeIfAbsent(
+                    Arrays.asList(job.getStatus(), job.getJobType(), poolName, job.getJobClassName()), k -> new long[3]);
+            counts[0]++;
+            if (job.getNextRetryAt() != null) {
+                counts[1]++;
+            }
+            if (("FAILED".equals(job.getStatus()) || "TIMED_OUT".equals(job.getStatus()))
+                    && job.getRetryCount() < job.getMaxRetries()) {
+                counts[2]++;
+            }
+        }
+        
+        List<JobCount> result = new ArrayList<>(groups.size());
+        groups.forEach((key, counts) ->
+                result.add(new JobCount(key.get(0), key.get(1), key.get(2), key.get(3), counts[0], counts[1], counts[2])));
+        return result;
+    }
+    
+    private Stream<ScheduledJob> byStatus(String status) {
+        return lookup(jobIdsByStatus, status, job -> status.equals(job.getStatus()));
+    }
+    
+    private Stream<ScheduledJob> lookup(ConcurrentHashMap<String, Set<String>> index, String key, Predicate<ScheduledJob> matches) {
+        return indexed(index, key).stream().map(jobs::get).filter(job -> job != null && matches.test(job));
+    }
+    
+    private static Set<String> indexed(ConcurrentHashMap<String, Set<String>> index, String key) {
+        Set<String> jobIds = key != null ? index.get(key) : null;
+        return jobIds != null ? jobIds : Collections.emptySet();
+    }
+    
+    private static List<ScheduledJob> copies(Stream<ScheduledJob> stored) {
+        return stored.map(InMemoryJobStore::copyOf).collect(Collectors.toList());
+    }
+    
+    // Transitions
+    
+    @Override
+    public List<JobTransition> applyTransitions(Collection<JobTransition> transitions) {
+        return mutate(() -> {
+            List<JobTransition> rejected = new ArrayList<>();
+            for (JobTransition transition : transitions) {
+                boolean applied = updateIf(transition.getJobId(),
+                        job -> transition.isAllowed(job.getStatus(), job.getCompletedAt()),
+                        job -> {
+                            job.setStatus(transition.getStatus());
+                            if (transition.getStartedAt() != null) {
+                                job.setStartedAt(transition.getStartedAt());
+                            }
+                            if (transition.getCompletedAt() != null) {
+                                job.setCompletedAt(transition.getCompletedAt());
+                            }
+                            if (transition.getExecutionTimeMs() != null) {
+                                job.setExecutionTimeMs(transition.getExecutionTimeMs());
+                            }
+                            if (transition.getErrorMessage() != null) {
+                                job.setErrorMessage(transition.getErrorMessage());
+                            }
+                        });
+                if (!applied) {
+                    rejected.add(transition);
+                }
+            }
+            return rejected;
+        });
+    }
+    
+    @Override
+    public boolean compareAndSetStatus(String jobId, String expectedStatus, String newStatus) {
+        return mutate(() -> updateIf(jobId, job -> expectedStatus.equals(job.getStatus()), job -> job.setStatus(newStatus)));
+    }
+    
+    @Override
+    public boolean park(String jobId, LocalDateTime until) {
+        return mutate(() -> updateIf(jobId, job -> JobTransition.allowedFrom("PARKED").contains(job.getStatus()), job -> {
+            job.setStatus("PARKED");
+            job.setNextRetryAt(until);
+        }));
+    }
+    
+    @Override
+    public boolean scheduleRetry(String jobId, int expectedRetryCount, LocalDateTime lastRetryAt,
+                                 LocalDateTime nextRetryAt, String reason) {
+        return mutate(() -> updateIf(jobId,
+                job -> ("FAILED".equals(job.getStatus()) || "TIMED_OUT".equals(job.getStatus()))
+                        && job.getRetryCount() == expectedRetryCount,
+                job -> {
+                    job.setRetryCount(job.getRetryCount() + 1);
+                    job.setLastRetryAt(lastRetryAt);
+                    job.setNextRetryAt(nextRetryAt);
+                    job.setRetryReason(reason);
+                }));
+    }
+    
+    @Override
+    public boolean incrementRetryCount(String jobId) {
+        return mutate(() -> updateIf(jobId, job -> !"CANCELLED".equals(job.getStatus()), ScheduledJob::incrementRetryCount));
+    }
+    
+    // Retry claims
+    
+    @Override
+    public Map<String, LocalDateTime> claimDueRetries(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ScheduledJob> due = retriesDueBy(now);
+        return mutate(() -> {
+            Map<String, LocalDateTime> claimed = new LinkedHashMap<>();
+            for (ScheduledJob job : due) {
+                if (claimed.size() >= limit) {
+                    break;
+                }
+                if (claimRetry(job.getJobId(), now, job.getNextRetryAt())) {
+                    claimed.put(job.getJobId(), job.getNextRetryAt());
+                }
+            }
+            return claimed;
+        });
+    }
+    
+    @Override
+    public boolean claimRetry(String jobId, LocalDateTime dueBy) {
+        return mutate(() -> claimRetry(jobId, dueBy, null));
+    }
+    
+    private boolean claimRetry(String jobId, LocalDateTime dueBy, LocalDateTime expectedNextRetryAt) {
+        return updateIf(jobId,
+                job -> job.getNextRetryAt() != null && !job.getNextRetryAt().isAfter(dueBy)
+                        && CLAIMABLE_RETRY_STATUSES.contains(job.getStatus())
+                        && (expectedNextRetryAt == null || expectedNextRetryAt.equals(job.getNextRetryAt())),
+                job -> job.setNextRetryAt(null));
+    }
+    
+    @Override
+    public Map<String, LocalDateTime> findPendingRetries(int limit) {
+        Map<String, LocalDateTime> retries = new LinkedHashMap<>();
+        retriesDueBy(null).stream().limit(limit).forEach(job -> retries.put(job.getJobId(), job.getNextRetryAt()));
+        return retries;
+    }
+    
+    /**
+     * Claimable retries in due order, all of them if dueBy is null.
+     */
+    private List<ScheduledJob> retriesDueBy(LocalDateTime dueBy) {
+        List<ScheduledJob> retries = new ArrayList<>();
+        for (String jobId : scheduledRetries) {
+            ScheduledJob job = jobs.get(jobId);
+            if (job != null && job.getNextRetryAt() != null && CLAIMABLE_RETRY_STATUSES.contains(job.getStatus())
+                    && (dueBy == null || !job.getNextRetryAt().isAfter(dueBy))) {
+                retries.add(job);
+            }
+        }
+        retries.sort(Comparator.comparing(ScheduledJob::getNextRetryAt));
+        return retries;
+    }
+    
+    @Override
+    public Map<String, Object> getStoreStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("backend", getBackend());
+        stats.put("jobs", jobs.size());
+        stats.put("scheduledRetries", scheduledRetries.size());
+        Map<String, Integer> byStatus = new HashMap<>();
+        jobIdsByStatus.forEach((status, jobIds) -> byStatus.put(status, jobIds.size()));
+        stats.put("statusIndex", byStatus);
+        stats.put("jobTypeIndexKeys", jobIdsByJobType.size());
+        stats.put("groupKeyIndexKeys", jobIdsByGroupKey.size());
+        return stats;
+    }
+    
+    /**
+     * Copy every column of a job; the thread pool and app server are shared references.
+     */
+    protected static ScheduledJob copyOf(ScheduledJob job) {
+        ScheduledJob copy = new ScheduledJob();
+        copy.setId(job.getId());
+        copy.setJobId(job.getJobId());
+        copy.setJobName(job.getJobName());
+        copy.setJobClassName(job.getJobClassName());
+        copy.setJobType(job.getJobType());
+        copy.setGroupKey(job.getGroupKey());
+        copy.setCanGroup(job.getCanGroup());
+        copy.setGroupBufferMillis(job.getGroupBufferMillis());
+        copy.setIntervalMillis(job.getIntervalMillis());
+        copy.setInitialDelayMillis(job.getInitialDelayMillis());
+        copy.setRepetitionType(job.getRepetitionType());
+        copy.setCronExpression(job.getCronExpression());
+        copy.setOverlapPolicy(job.getOverlapPolicy());
+        copy.setStatus(job.getStatus());
+        copy.setSubmittedAt(job.getSubmittedAt());
+        copy.setStartedAt(job.getStartedAt());
+        copy.setCompletedAt(job.getCompletedAt());
+        copy.setExecutionTimeMs(job.getExecutionTimeMs());
+        copy.setErrorMessage(job.getErrorMessage());
+        copy.setRetryCount(job.getRetryCount());
+        copy.setMaxRetries(job.getMaxRetries());
+        copy.setPriority(job.getPriority());
+        copy.setJobPriority(job.getJobPriority());
+        copy.setTimeoutMillis(job.getTimeoutMillis());
+        copy.setRetryEnabled(job.getRetryEnabled());
+        copy.setMaxRetryAttempts(job.getMaxRetryAttempts());
+        copy.setRetryDelayMillis(job.getRetryDelayMillis());
+        copy.setRetryMultiplier(job.getRetryMultiplier());
+        copy.setRetryMaxDelayMillis(job.getRetryMaxDelayMillis());
+        copy.setLastRetryAt(job.getLastRetryAt());
+        copy.setNextRetryAt(job.getNextRetryAt());
+        copy.setRetryReason(job.getRetryReason());
+        copy.setMetadata(job.getMetadata());
+        copy.setThreadPool(job.getThreadPool());
+        copy.setAppServer(job.getAppServer());
+        copy.setCreatedAt(job.getCreatedAt());
+        copy.setUpdatedAt(job.getUpdatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,411 @@
+package com.example.jobdispatcher.persistence;
+
+import com.example.jobdispatcher.config.PersistenceConfig;
+import com.example.jobdispatcher.entity.ScheduledJob;
+import com.example.jobdispatcher.enums.JobPriority;
+import com.example.jobdispatcher.model.JobPageResponse;
+import com.example.jobdispatcher.model.JobSummary;
+import com.example.jobdispatcher.repository.JobOutboxDao;
+import com.example.jobdispatcher.repository.JobStatusTransitionDao;
+import com.example.jobdispatcher.repository.ScheduledJobRepository;
+import com.example.jobdispatcher.service.JobRetentionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Job store on the MySQL scheduled_jobs table, through JPA for entity reads and saves and JDBC
+ * for batched inserts, compare-and-set transitions, retry claims and keyset pagination.
+ * Callers own the transaction.
+ */
+@Component
+@ConditionalOnProperty(prefix = "job-dispatcher.persistence", name = "backend",
+                       havingValue = PersistenceConfig.BACKEND_MYSQL, matchIfMissing = true)
+public class JdbcJobStore implements JobStore {
+    
+    // Batched with rewriteBatchedStatements=true so the driver sends multi-row INSERTs
+    private static final String INSERT_SCHEDULED_JOB_SQL =
+            "INSERT INTO scheduled_jobs (job_id, job_name, job_class_name, job_type, group_key, can_group, " +
+            "group_buffer_millis, interval_millis, initial_delay_millis, repetition_type, cron_expression, overlap_policy, status, " +
+            "submitted_at, retry_count, max_retries, priority, job_priority, timeout_millis, retry_enabled, max_retry_attempts, " +
+            "retry_multiplier, retry_max_delay_millis, thread_pool_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    // Ids stay reserved here after their jobs are archived, so duplicate checks cover history too
+    private static final String JOB_ID_EXISTS_SQL = "SELECT COUNT(*) FROM scheduled_job_ids WHERE job_id = ?";
+    
+    // Retry claims walk the next_retry_at index, SKIP LOCKED lets several instances claim concurrently
+    private static final String SELECT_DUE_RETRIES_SQL =
+            "SELECT job_id, next_retry_at FROM scheduled_jobs " +
+            "WHERE next_retry_at <= ? AND status IN ('FAILED', 'TIMED_OUT', 'PARKED') " +
+            "ORDER BY next_retry_at LIMIT ? FOR UPDATE SKIP LOCKED";
+    
+    private static final String CLEAR_NEXT_RETRY_SQL =
+            "UPDATE scheduled_jobs SET next_retry_at = NULL, updated_at = ? WHERE job_id = ?";
+    
+    private static final String CLAIM_RETRY_SQL =
+            "UPDATE scheduled_jobs SET next_retry_at = NULL, updated_at = ? " +
+            "WHERE job_id = ? AND next_retry_at <= ? AND status IN ('FAILED', 'TIMED_OUT', 'PARKED')";
+    
+    private static final String SELECT_PENDING_RETRIES_SQL =
+            "SELECT job_id, next_retry_at FROM scheduled_jobs " +
+            "WHERE next_retry_at IS NOT NULL AND status IN ('FAILED', 'TIMED_OUT', 'PARKED') " +
+            "ORDER BY next_retry_at LIMIT ?";
+    
+    private static final String JOB_SUMMARY_COLUMNS =
+            "job_id, job_name, job_class_name, job_type, status, job_priority, submitted_at, started_at, " +
+            "completed_at, execution_time_ms, retry_count, next_retry_at";
+    
+    private static final String JOB_COUNTS_SQL =
+            "SELECT sj.status, sj.job_type, tp.name AS pool_name, sj.job_class_name, COUNT(*) AS job_count, " +
+            "SUM(CASE WHEN sj.next_retry_at IS NOT NULL THEN 1 ELSE 0 END) AS retry_scheduled, " +
+            "SUM(CASE WHEN sj.status IN ('FAILED', 'TIMED_OUT') AND sj.retry_count < sj.max_retries THEN 1 ELSE 0 END) AS retryable " +
+            "FROM scheduled_jobs sj LEFT JOIN thread_pools tp ON tp.id = sj.thread_pool_id " +
+            "GROUP BY sj.status, sj.job_type, tp.name, sj.job_class_name";
+    
+    @Autowired
+    private ScheduledJobRepository scheduledJobRepository;
+    
+    @Autowired
+    private JobStatusTransitionDao jobStatusTransitionDao;
+    
+    @Autowired
+    private JobOutboxDao jobOutboxDao;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    @Lazy
+    private JobRetentionService jobRetentionService;
+    
+    @Override
+    public String getBackend() {
+        return PersistenceConfig.BACKEND_MYSQL;
+    }
+    
+    // Writes
+    
+    @Override
+    @Transactional
+    public ScheduledJob save(ScheduledJob job) {
+        boolean created = job.getId() == null;
+        ScheduledJob saved = scheduledJobRepository.save(job);
+        if (created) {
+            jobOutboxDao.recordCreated(Collections.singletonList(saved));
+        }
+        return saved;
+    }
+    
+    /**
+     * Insert with a single batched statement instead of one persist per entity.
+     */
+    @Override
+    @Transactional
+    public void insertAll(List<ScheduledJob> jobs) {
+        List<Object[]> args = new ArrayList<>(jobs.size());
+        for (ScheduledJob job : jobs) {
+            args.add(new Object[] {
+                job.getJobId(), job.getJobName(), job.getJobClassName(), job.getJobType(), job.getGroupKey(),
+                job.getCanGroup(), job.getGroupBufferMillis(), job.getIntervalMillis(), job.getInitialDelayMillis(),
+                job.getRepetitionType(), job.getCronExpression(), job.getOverlapPolicy(), job.getStatus(),
+                toTimestamp(job.getSubmittedAt()),
+                job.getRetryCount(), job.getMaxRetries(), job.getPriority(),
+                job.getJobPriority() != null ? job.getJobPriority().name() : null, job.getTimeoutMillis(),
+                job.getRetryEnabled(), job.getMaxRetryAttempts(), job.getRetryMultiplier(), job.getRetryMaxDelayMillis(),
+                job.getThreadPool() != null ? job.getThreadPool().getId() : null, toTimestamp(job.getCreatedAt())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SCHEDULED_JOB_SQL, args);
+        jobOutboxDao.recordCreated(jobs);
+    }
+    
+    @Override
+    public void deleteByJobId(String jobId) {
+        // By job ID, rows inserted through insertAll have no entity id
+        scheduledJobRepository.deleteByJobId(jobId);
+    }
+    
+    @Override
+    public void deleteByStatus(String status) {
+        scheduledJobRepository.deleteByStatus(status);
+    }
+    
+    /**
+     * Deleted in chunks or by dropping partitions, see {@link JobRetentionService#purgeBefore}.
+     */
+    @Override
+    public long deleteFinishedBefore(LocalDateTime cutoff) {
+        return jobRetentionService.purgeBefore(cutoff);
+    }
+    
+    // Reads
+    
+    @Override
+    public Optional<ScheduledJob> findByJobId(String jobId) {
+        return scheduledJobRepository.findByJobId(jobId);
+    }
+    
+    @Override
+    public List<ScheduledJob> findByJobIds(Collection<String> jobIds) {
+        return scheduledJobRepository.findByJobIdIn(jobIds);
+    }
+    
+    @Override
+    public boolean existsByJobId(String jobId) {
+        Integer count = jdbcTemplate.queryForObject(JOB_ID_EXISTS_SQL, Integer.class, jobId);
+        return count != null && count > 0;
+    }
+    
+    @Override
+    public Set<String> findExistingJobIds(Collection<String> jobIds) {
+        if (jobIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(jobIds.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT job_id FROM scheduled_job_ids WHERE job_id IN (" +
+                                                       placeholders + ")", String.class, jobIds.toArray()));
+    }
+    
+    @Override
+    public List<ScheduledJob> findByStatus(String status) {
+        return scheduledJobRepository.findByStatus(status);
+    }
+    
+    @Override
+    public List<ScheduledJob> findByJobType(String jobType) {
+        return scheduledJobRepository.findByJobType(jobType);
+    }
+    
+    @Override
+    public List<ScheduledJob> findByGroupKey(String groupKey) {
+        return scheduledJobRepository.findByGroupKey(groupKey);
+    }
+    
+    @Override
+    public List<ScheduledJob> findByThreadPoolId(Long threadPoolId) {
+        return scheduledJobRepository.findByThreadPoolId(threadPoolId);
+    }
+    
+    @Override
+    public List<ScheduledJob> findByAppServerId(Long appServerId) {
+        return scheduledJobRepository.findByAppServerId(appServerId);
+    }
+    
+    @Override
+    public List<ScheduledJob> findJobsForRetry() {
+        return scheduledJobRepository.findJobsForRetry();
+    }
+    
+    @Override
+    public List<ScheduledJob> findLongRunningJobs(LocalDateTime cutoffTime) {
+        return scheduledJobRepository.findLongRunningJobs(cutoffTime);
+    }
+    
+    @Override
+    public Page<ScheduledJob> findByStatusAndJobType(String status, String jobType, Pageable pageable) {
+        return jobType != null ? scheduledJobRepository.findByStatusAndJobType(status, jobType, pageable)
+                               : scheduledJobRepository.findByStatus(status, pageable);
+    }
+    
+    /**
+     * One index seek per priority level, so older jobs of lower priorities are never read or sorted
+     * while higher priorities fill the limit.
+     */
+    @Override
+    public List<ScheduledJob> findByStatusAndJobTypeInPriorityOrder(String status, String jobType, int limit) {
+        List<ScheduledJob> jobs = new ArrayList<>(limit);
+        for (JobPriority priority : JobPriority.values()) {
+            if (jobs.size() >= limit) {
+                return jobs;
+            }
+            jobs.addAll(scheduledJobRepository.findByStatusAndJobTypeAndJobPriorityOrderBySubmittedAtAsc(
+                    status, jobType, priority, PageRequest.of(0, limit - jobs.size())));
+        }
+        if (jobs.size() < limit) {
+            jobs.addAll(scheduledJobRepository.findByStatusAndJobTypeAndJobPriorityIsNullOrderBySubmittedAtAsc(
+                    status, jobType, PageRequest.of(0, limit - jobs.size())));
+        }
+        return jobs;
+    }
+    
+    /**
+     * Seek past the cursor on the (column, submitted_at, id) index instead of using an offset, so every
+     * page costs the same. One row beyond the page is read to tell whether another page follows.
+     */
+    @Override
+    public JobPageResponse findSummaries(String field, String value, String cursor, int limit) {
+        if (!"status".equals(field) && !"job_type".equals(field)) {
+            throw new IllegalArgumentException("Unsupported listing field: " + field);
+        }
+        
+        StringBuilder sql = new StringBuilder("SELECT id, ").append(JOB_SUMMARY_COLUMNS)
+                .append(" FROM scheduled_jobs WHERE ").append(field).append(" = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(value);
+        if (cursor != null && !cursor.isEmpty()) {
+            JobCursor position = JobCursor.decode(cursor);
+            sql.append(" AND (submitted_at < ? OR (submitted_at = ? AND id < ?))");
+            params.add(Timestamp.valueOf(position.getSubmittedAt()));
+            params.add(Timestamp.valueOf(position.getSubmittedAt()));
+            params.add(position.getId());
+        }
+        sql.append(" ORDER BY submitted_at DESC, id DESC LIMIT ?");
+        params.add(limit + 1);
+        
+        List<Long> ids = new ArrayList<>();
+        List<JobSummary> items = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            ids.add(rs.getLong("id"));
+            return mapJobSummary(rs);
+        }, params.toArray());
+        
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = new ArrayList<>(items.subList(0, limit));
+            nextCursor = new JobCursor(items.get(limit - 1).getSubmittedAt(), ids.get(limit - 1)).encode();
+        }
+        return new JobPageResponse(items, limit, nextCursor);
+    }
+    
+    private static JobSummary mapJobSummary(ResultSet rs) throws SQLException {
+        JobSummary summary = new JobSummary();
+        summary.setJobId(rs.getString("job_id"));
+        summary.setJobName(rs.getString("job_name"));
+        summary.setJobClassName(rs.getString("job_class_name"));
+        summary.setJobType(rs.getString("job_type"));
+        summary.setStatus(rs.getString("status"));
+        summary.setJobPriority(rs.getString("job_priority"));
+        summary.setSubmittedAt(toLocalDateTime(rs.getTimestamp("submitted_at")));
+        summary.setStartedAt(toLocalDateTime(rs.getTimestamp("started_at")));
+        summary.setCompletedAt(toLocalDateTime(rs.getTimestamp("completed_at")));
+        summary.setExecutionTimeMs(rs.getObject("execution_time_ms", Long.class));
+        summary.setRetryCount(rs.getInt("retry_count"));
+        summary.setNextRetryAt(toLocalDateTime(rs.getTimestamp("next_retry_at")));
+        return summary;
+    }
+    
+    @Override
+    public long countByStatus(String status) {
+        return scheduledJobRepository.countByStatus(status);
+    }
+    
+    @Override
+    public long countByJobType(String jobType) {
+        return scheduledJobRepository.countByJobType(jobType);
+    }
+    
+    @Override
+    public long countByGroupKey(String groupKey) {
+        return scheduledJobRepository.countByGroupKey(groupKey);
+    }
+    
+    /**
+     * One grouped query over scheduled_jobs.
+     */
+    @Override
+    public List<JobCount> countJobs() {
+        return jdbcTemplate.query(JOB_COUNTS_SQL, (rs, rowNum) -> new JobCount(
+                rs.getString("status"), rs.getString("job_type"), rs.getString("pool_name"), rs.getString("job_class_name"),
+                rs.getLong("job_count"), rs.getLong("retry_scheduled"), rs.getLong("retryable")));
+    }
+    
+    // Transitions
+    
+    @Override
+    public List<JobTransition> applyTransitions(Collection<JobTransition> transitions) {
+        return jobStatusTransitionDao.applyAll(transitions);
+    }
+    
+    @Override
+    public boolean compareAndSetStatus(String jobId, String expectedStatus, String newStatus) {
+        return jobStatusTransitionDao.compareAndSetStatus(jobId, expectedStatus, newStatus);
+    }
+    
+    @Override
+    public boolean park(String jobId, LocalDateTime until) {
+        return jobStatusTransitionDao.park(jobId, until);
+    }
+    
+    @Override
+    public boolean scheduleRetry(String jobId, int expectedRetryCount, LocalDateTime lastRetryAt,
+                                 LocalDateTime nextRetryAt, String reason) {
+        return jobStatusTransitionDao.scheduleRetry(jobId, expectedRetryCount, lastRetryAt, nextRetryAt, reason);
+    }
+    
+    @Override
+    public boolean incrementRetryCount(String jobId) {
+        return jobStatusTransitionDao.incrementRetryCount(jobId);
+    }
+    
+    // Retry claims
+    
+    /**
+     * Rows locked by another instance are skipped, so each retry is claimed once.
+     */
+    @Override
+    public Map<String, LocalDateTime> claimDueRetries(int limit) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<String, LocalDateTime> claimed = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_DUE_RETRIES_SQL,
+                rs -> { claimed.put(rs.getString("job_id"), rs.getTimestamp("next_retry_at").toLocalDateTime()); },
+                now, limit);
+        if (!claimed.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(claimed.size());
+            for (String jobId : claimed.keySet()) {
+                args.add(new Object[] { now, jobId });
+            }
+            jdbcTemplate.batchUpdate(CLEAR_NEXT_RETRY_SQL, args);
+        }
+        return claimed;
+    }
+    
+    @Override
+    public boolean claimRetry(String jobId, LocalDateTime dueBy) {
+        return jdbcTemplate.update(CLAIM_RETRY_SQL, Timestamp.valueOf(LocalDateTime.now()), jobId, Timestamp.valueOf(dueBy)) > 0;
+    }
+    
+    @Override
+    public Map<String, LocalDateTime> findPendingRetries(int limit) {
+        Map<String, LocalDateTime> retries = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_PENDING_RETRIES_SQL,
+                rs -> { retries.put(rs.getString("job_id"), rs.getTimestamp("next_retry_at").toLocalDateTime()); },
+                limit);
+        return retries;
+    }
+    
+    @Override
+    public Map<String, Object> getStoreStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("backend", getBackend());
+        return stats;
+    }
+    
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+    
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.jobdispatcher.persistence;
+
+/**
+ * Number of stored jobs with one combination of status, job type, thread pool and job class,
+ * as used to reconcile the job statistics.
+ */
+public class JobCount {
+    
+    private final String status;
+    private final String jobType;
+    private final String poolName;
+    private final String jobClassName;
+    private final long count;
+    private final long retryScheduled;
+    private final long retryable;
+    
+    public JobCount(String status, String jobType, String poolName, String jobClassName,
+                    long count, long retryScheduled, long retryable) {
+        this.status = status;
+        this.jobType = jobType;
+        this.poolName = poolName;
+        this.jobClassName = jobClassName;
+        this.count = count;
+        this.retryScheduled = retryScheduled;
+        this.retryable = retryable;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public String getJobType() {
+        return jobType;
+    }
+    
+    /**
+     * Name of the thread pool, or null for jobs without one.
+     */
+    public String getPoolName() {
+        return poolName;
+    }
+    
+    public String getJobClassName() {
+        return jobClassName;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public long getRetryScheduled() {
+        return retryScheduled;
+    }
+    
+    public long getRetryable() {
+        return retryable;
+    }
+}
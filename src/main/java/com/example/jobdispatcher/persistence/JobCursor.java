@@ -0,0 +1,55 @@
+package com.example.jobdispatcher.persistence;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated job listing: the (submitted_at, id) of the last job on a page,
+ * encoded as an opaque URL-safe string.
+ */
+public class JobCursor {
+    
+    private final LocalDateTime submittedAt;
+    private final long id;
+    
+    public JobCursor(LocalDateTime submittedAt, long id) {
+        this.submittedAt = submittedAt;
+        this.id = id;
+    }
+    
+    public String encode() {
+        String position = submittedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+     */
+    public static JobCursor decode(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf('|');
+            return new JobCursor(LocalDateTime.parse(position.substring(0, separator)),
+                                 Long.parseLong(position.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    /**
+     * Check whether a job comes after this position in newest-first order.
+     */
+    public boolean isFollowedBy(LocalDateTime submittedAt, long id) {
+        int order = submittedAt.compareTo(this.submittedAt);
+        return order < 0 || (order == 0 && id < this.id);
+    }
+    
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+    
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.jobdispatcher.persistence;
+
+import com.example.jobdispatcher.entity.ScheduledJob;
+import com.example.jobdispatcher.model.JobPageResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Storage of scheduled jobs, behind {@link com.example.jobdispatcher.service.DatabasePersistenceService}.
+ * The backend is selected with job-dispatcher.persistence.backend: mysql (default), memory or file.
+ * <p>
+ * Implementations must apply every status change as a compare-and-set, with the rules of
+ * {@link JobTransition}, so concurrent actors cannot overwrite each other's transitions.
+ * Jobs returned by finders are detached: changing them has no effect until they are saved.
+ */
+public interface JobStore {
+    
+    /**
+     * Get the backend name, as configured in job-dispatcher.persistence.backend.
+     */
+    String getBackend();
+    
+    // Writes
+    
+    /**
+     * Insert a job, or replace it if it has an id. A new job gets its id assigned.
+     */
+    ScheduledJob save(ScheduledJob job);
+    
+    /**
+     * Insert new jobs; all are stored or none are.
+     * @throws org.springframework.dao.DuplicateKeyException if a job ID already exists
+     */
+    void insertAll(List<ScheduledJob> jobs);
+    
+    void deleteByJobId(String jobId);
+    
+    void deleteByStatus(String status);
+    
+    /**
+     * Delete finished jobs submitted before the cutoff; active jobs are kept.
+     * @return the number of jobs deleted
+     */
+    long deleteFinishedBefore(LocalDateTime cutoff);
+    
+    // Reads
+    
+    Optional<ScheduledJob> findByJobId(String jobId);
+    
+    /**
+     * Find the jobs with the given job IDs; missing IDs are left out.
+     */
+    List<ScheduledJob> findByJobIds(Collection<String> jobIds);
+    
+    boolean existsByJobId(String jobId);
+    
+    /**
+     * Find which of the given job IDs already exist.
+     */
+    Set<String> findExistingJobIds(Collection<String> jobIds);
+    
+    List<ScheduledJob> findByStatus(String status);
+    
+    List<ScheduledJob> findByJobType(String jobType);
+    
+    List<ScheduledJob> findByGroupKey(String groupKey);
+    
+    List<ScheduledJob> findByThreadPoolId(Long threadPoolId);
+    
+    List<ScheduledJob> findByAppServerId(Long appServerId);
+    
+    /**
+     * Find failed or timed out jobs with retries left.
+     */
+    List<ScheduledJob> findJobsForRetry();
+    
+    /**
+     * Find running jobs started before the cutoff.
+     */
+    List<ScheduledJob> findLongRunningJobs(LocalDateTime cutoffTime);
+    
+    /**
+     * Get a page of jobs with the given status and, if not null, job type.
+     */
+    Page<ScheduledJob> findByStatusAndJobType(String status, String jobType, Pageable pageable);
+    
+    /**
+     * Find up to limit jobs with the given status and job type, highest priority first and oldest first
+     * within a priority. Jobs without a priority come last.
+     */
+    List<ScheduledJob> findByStatusAndJobTypeInPriorityOrder(String status, String jobType, int limit);
+    
+    /**
+     * Get a keyset page of job summaries, newest first.
+     * @param field "status" or "job_type"
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    JobPageResponse findSummaries(String field, String value, String cursor, int limit);
+    
+    long countByStatus(String status);
+    
+    long countByJobType(String jobType);
+    
+    long countByGroupKey(String groupKey);
+    
+    /**
+     * Count jobs by status, job type, thread pool and job class.
+     */
+    List<JobCount> countJobs();
+    
+    // Transitions
+    
+    /**
+     * Apply transitions in order.
+     * @return the transitions that were rejected because the job had moved on or does not exist
+     */
+    List<JobTransition> applyTransitions(Collection<JobTransition> transitions);
+    
+    /**
+     * Move a job to a new status only if it still has the expected status.
+     */
+    boolean compareAndSetStatus(String jobId, String expectedStatus, String newStatus);
+    
+    /**
+     * Park a job until the given time, unless it is running or finished.
+     */
+    boolean park(String jobId, LocalDateTime until);
+    
+    /**
+     * Schedule the next retry of a failed or timed out job, if its retry count is still the expected one.
+     */
+    boolean scheduleRetry(String jobId, int expectedRetryCount, LocalDateTime lastRetryAt,
+                          LocalDateTime nextRetryAt, String reason);
+    
+    /**
+     * Count a retry attempt and reset the job to PENDING, unless it was cancelled.
+     */
+    boolean incrementRetryCount(String jobId);
+    
+    // Retry claims
+    
+    /**
+     * Claim up to limit due retries by clearing their next_retry_at; each retry is claimed once.
+     * @return the claimed job IDs with the time each retry was due
+     */
+    Map<String, LocalDateTime> claimDueRetries(int limit);
+    
+    /**
+     * Claim one retry that is due by the given time. Fails if it was cancelled, reset or already claimed.
+     */
+    boolean claimRetry(String jobId, LocalDateTime dueBy);
+    
+    /**
+     * Find scheduled retries in due order.
+     */
+    Map<String, LocalDateTime> findPendingRetries(int limit);
+    
+    /**
+     * Get backend specific statistics.
+     */
+    Map<String, Object> getStoreStats();
+}
@@ -0,0 +1,117 @@
+package com.example.jobdispatcher.persistence;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A status transition of one job, applied by a {@link JobStore} as a compare-and-set.
+ * The guard status selects which statuses the job may leave; it is the target status unless
+ * several transitions were merged into one.
+ * <p>
+ * Allowed transitions:
+ * <ul>
+ *   <li>RUNNING from any status but CANCELLED, unless the job completed after this start (a stale start)</li>
+ *   <li>COMPLETED and FAILED from PENDING, OVERFLOW, PARKED or RUNNING</li>
+ *   <li>TIMED_OUT from RUNNING</li>
+ *   <li>PARKED from PENDING, OVERFLOW, FAILED, TIMED_OUT or PARKED</li>
+ *   <li>CANCELLED from any status but COMPLETED and CANCELLED</li>
+ * </ul>
+ * Nothing leaves CANCELLED.
+ */
+public class JobTransition {
+    
+    private static final Map<String, List<String>> ALLOWED_FROM = new HashMap<>();
+    
+    static {
+        ALLOWED_FROM.put("RUNNING", Arrays.asList("PENDING", "OVERFLOW", "PARKED", "RUNNING", "FAILED", "TIMED_OUT", "COMPLETED"));
+        ALLOWED_FROM.put("COMPLETED", Arrays.asList("PENDING", "OVERFLOW", "PARKED", "RUNNING"));
+        ALLOWED_FROM.put("FAILED", Arrays.asList("PENDING", "OVERFLOW", "PARKED", "RUNNING"));
+        ALLOWED_FROM.put("TIMED_OUT", Collections.singletonList("RUNNING"));
+        ALLOWED_FROM.put("PARKED", Arrays.asList("PENDING", "OVERFLOW", "FAILED", "TIMED_OUT", "PARKED"));
+        ALLOWED_FROM.put("CANCELLED", Arrays.asList("PENDING", "OVERFLOW", "PARKED", "RUNNING", "FAILED", "TIMED_OUT"));
+    }
+    
+    private final String jobId;
+    private final String guardStatus;
+    private final String status;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime completedAt;
+    private final Long executionTimeMs;
+    private final String errorMessage;
+    
+    public JobTransition(String jobId, String guardStatus, String status, LocalDateTime startedAt,
+                         LocalDateTime completedAt, Long executionTimeMs, String errorMessage) {
+        allowedFrom(guardStatus);
+        this.jobId = jobId;
+        this.guardStatus = guardStatus;
+        this.status = status;
+        this.startedAt = startedAt;
+        this.completedAt = completedAt;
+        this.executionTimeMs = executionTimeMs;
+        this.errorMessage = errorMessage;
+    }
+    
+    /**
+     * Get the statuses a job may leave for the given status.
+     */
+    public static List<String> allowedFrom(String status) {
+        List<String> allowed = ALLOWED_FROM.get(status);
+        if (allowed == null) {
+            throw new IllegalArgumentException("No transitions into status: " + status);
+        }
+        return allowed;
+    }
+    
+    /**
+     * Check whether a job with the given status and completion time may take this transition.
+     */
+    public boolean isAllowed(String currentStatus, LocalDateTime currentCompletedAt) {
+        if (!allowedFrom(guardStatus).contains(currentStatus)) {
+            return false;
+        }
+        if (isStart() && currentCompletedAt != null) {
+            LocalDateTime startedAt = this.startedAt != null ? this.startedAt : LocalDateTime.now();
+            return !currentCompletedAt.isAfter(startedAt);
+        }
+        return true;
+    }
+    
+    /**
+     * Starts are also rejected if the job completed after them, e.g. by a timeout racing a late start event.
+     */
+    public boolean isStart() {
+        return "RUNNING".equals(guardStatus);
+    }
+    
+    public String getJobId() {
+        return jobId;
+    }
+    
+    public String getGuardStatus() {
+        return guardStatus;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public Long getExecutionTimeMs() {
+        return executionTimeMs;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
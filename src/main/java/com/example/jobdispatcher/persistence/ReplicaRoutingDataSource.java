@@ -0,0 +1,187 @@
+package com.example.jobdispatcher.persistence;
+
+import com.example.jobdispatcher.config.ReplicaConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes connections of read-only transactions to the replica pool and everything else to the primary.
+ * The replica is used only while its last lag check succeeded within max-lag-seconds; otherwise read-only
+ * work falls back to the primary until a later check passes.
+ * <p>
+ * The lookup happens when a connection is obtained, so this must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: transaction managers
+ * obtain their connection before the transaction is marked read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+    
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaConfig replicaConfig;
+    
+    private volatile boolean replicaAvailable = false;
+    private volatile Long lastLagSeconds;
+    private volatile String lastCheckError;
+    private volatile long lastCheckedAt = 0;
+    
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder fallbackConnections = new LongAdder();
+    private final AtomicLong failedChecks = new AtomicLong();
+    
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaConfig replicaConfig) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaConfig = replicaConfig;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        targets.put(REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+    
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplica();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        if (!replicaAvailable) {
+            fallbackConnections.increment();
+            return PRIMARY;
+        }
+        replicaConnections.increment();
+        return REPLICA;
+    }
+    
+    /**
+     * Measure the replica lag and decide whether read-only transactions may use it (called by scheduler).
+     */
+    @Scheduled(fixedDelayString = "${job-dispatcher.replica.lag-check-interval-millis:5000}",
+               initialDelayString = "${job-dispatcher.replica.lag-check-interval-millis:5000}")
+    public void checkReplica() {
+        boolean available;
+        try {
+            Long lag = queryLagSeconds();
+            lastLagSeconds = lag;
+            lastCheckError = lag == null ? "Replica is not replicating" : null;
+            available = lag != null && lag <= replicaConfig.getMaxLagSeconds();
+        } catch (Exception e) {
+            failedChecks.incrementAndGet();
+            lastLagSeconds = null;
+            lastCheckError = e.getMessage();
+            available = false;
+        }
+        lastCheckedAt = System.currentTimeMillis();
+        
+        if (available != replicaAvailable) {
+            if (available) {
+                logger.info("Routing read-only transactions to the replica (lag {}s)", lastLagSeconds);
+            } else if (lastCheckError != null) {
+                logger.warn("Routing read-only transactions to the primary: {}", lastCheckError);
+            } else {
+                logger.warn("Routing read-only transactions to the primary: lag {}s exceeds {}s",
+                           lastLagSeconds, replicaConfig.getMaxLagSeconds());
+            }
+        }
+        replicaAvailable = available;
+    }
+    
+    // SHOW REPLICA STATUS returns no row on a server that is not a replica, and a NULL lag while replication is stopped
+    private Long queryLagSeconds() throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(replicaConfig.getLagQuery())) {
+            if (!rs.next()) {
+                return null;
+            }
+            String lag = rs.getString(lagColumn(rs.getMetaData()));
+            return lag != null ? new BigDecimal(lag.trim()).longValue() : null;
+        }
+    }
+    
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String label = metaData.getColumnLabel(i);
+            if ("Seconds_Behind_Source".equalsIgnoreCase(label) || "Seconds_Behind_Master".equalsIgnoreCase(label)) {
+                return i;
+            }
+        }
+        return 1;
+    }
+    
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+    
+    @PreDestroy
+    public void close() {
+        closePool(replica);
+        closePool(primary);
+    }
+    
+    private static void closePool(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) {
+            ((HikariDataSource) dataSource).close();
+        }
+    }
+    
+    public Map<String, Object> getRoutingStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", true);
+        stats.put("replicaAvailable", replicaAvailable);
+        stats.put("lagSeconds", lastLagSeconds);
+        stats.put("maxLagSeconds", replicaConfig.getMaxLagSeconds());
+        stats.put("lastCheckError", lastCheckError);
+        stats.put("lastCheckedAt", lastCheckedAt);
+        stats.put("failedChecks", failedChecks.get());
+        stats.put("primaryConnections", primaryConnections.sum());
+        stats.put("replicaConnections", replicaConnections.sum());
+        stats.put("fallbackConnections", fallbackConnections.sum());
+        stats.put("primaryPool", poolStats(primary));
+        stats.put("replicaPool", poolStats(replica));
+        return stats;
+    }
+    
+    private static Map<String, Object> poolStats(DataSource dataSource) {
+        Map<String, Object> stats = new HashMap<>();
+        if (dataSource instanceof HikariDataSource) {
+            HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+            if (pool != null) {
+                stats.put("activeConnections", pool.getActiveConnections());
+                stats.put("idleConnections", pool.getIdleConnections());
+                stats.put("threadsAwaitingConnection", pool.getThreadsAwaitingConnection());
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.jobdispatcher.repository;
+
+import com.example.jobdispatcher.config.OutboxConfig;
+import com.example.jobdispatcher.entity.ScheduledJob;
+import com.example.jobdispatcher.model.JobEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes job lifecycle events to job_outbox and reads them back for the relay.
+ * Writes must run in the transaction of the change they describe, so an event exists if and only if
+ * the change was committed.
+ */
+@Repository
+public class JobOutboxDao {
+    
+    // Copies the row as updated by the same transaction, so the event carries the job's new state
+    private static final String INSERT_CHANGE_SQL =
+            "INSERT INTO job_outbox (job_id, event_type, status, job_name, job_type, retry_count, " +
+            "execution_time_ms, error_message, created_at) " +
+            "SELECT job_id, ?, status, job_name, job_type, retry_count, execution_time_ms, error_message, ? " +
+            "FROM scheduled_jobs WHERE job_id = ?";
+    
+    private static final String INSERT_CREATED_SQL =
+            "INSERT INTO job_outbox (job_id, event_type, status, job_name, job_type, retry_count, created_at) " +
+            "VALUES (?, 'CREATED', ?, ?, ?, ?, ?)";
+    
+    private static final String SELECT_EVENTS_SQL =
+            "SELECT id, job_id, event_type, status, job_name, job_type, retry_count, execution_time_ms, " +
+            "error_message, created_at FROM job_outbox WHERE id > ? AND id <= ? ORDER BY id LIMIT ?";
+    
+    private static final String SELECT_EVENTS_BY_ID_SQL =
+            "SELECT id, job_id, event_type, status, job_name, job_type, retry_count, execution_time_ms, " +
+            "error_message, created_at FROM job_outbox WHERE id IN (%s) ORDER BY id";
+    
+    private static final String SELECT_HEAD_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM job_outbox";
+    
+    private static final String SELECT_OFFSETS_SQL = "SELECT consumer, last_event_id FROM job_outbox_offsets";
+    
+    private static final String UPSERT_OFFSET_SQL =
+            "INSERT INTO job_outbox_offsets (consumer, last_event_id, updated_at) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE last_event_id = VALUES(last_event_id), updated_at = VALUES(updated_at)";
+    
+    private static final String DELETE_EVENTS_CHUNK_SQL =
+            "DELETE FROM job_outbox WHERE id <= ? AND created_at < ? ORDER BY id LIMIT ?";
+    
+    private static final RowMapper<JobEvent> EVENT_ROW_MAPPER = (rs, rowNum) -> {
+        JobEvent event = new JobEvent();
+        event.setId(rs.getLong("id"));
+        event.setJobId(rs.getString("job_id"));
+        event.setEventType(rs.getString("event_type"));
+        event.setStatus(rs.getString("status"));
+        event.setJobName(rs.getString("job_name"));
+        event.setJobType(rs.getString("job_type"));
+        event.setRetryCount(rs.getInt("retry_count"));
+        long executionTimeMs = rs.getLong("execution_time_ms");
+        event.setExecutionTimeMs(rs.wasNull() ? null : executionTimeMs);
+        event.setErrorMessage(rs.getString("error_message"));
+        event.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        return event;
+    };
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private OutboxConfig outboxConfig;
+    
+    /**
+     * Record that the given jobs changed, e.g. moved to a new status.
+     * @param eventType the new status, or RETRY_SCHEDULED
+     */
+    public void recordChanges(String eventType, Collection<String> jobIds) {
+        if (!outboxConfig.isEnabled() || jobIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(jobIds.size());
+        for (String jobId : jobIds) {
+            args.add(new Object[] {eventType, now, jobId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_CHANGE_SQL, args);
+    }
+    
+    public void recordChange(String eventType, String jobId) {
+        recordChanges(eventType, Collections.singletonList(jobId));
+    }
+    
+    /**
+     * Record that the given jobs were inserted.
+     */
+    public void recordCreated(Collection<ScheduledJob> jobs) {
+        if (!outboxConfig.isEnabled() || jobs.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(jobs.size());
+        for (ScheduledJob job : jobs) {
+            args.add(new Object[] {
+                job.getJobId(), job.getStatus(), job.getJobName(), job.getJobType(),
+                job.getRetryCount() != null ? job.getRetryCount() : 0, now
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_CREATED_SQL, args);
+    }
+    
+    /**
+     * Read events with after < id <= upTo in id order.
+     */
+    public List<JobEvent> findEvents(long after, long upTo, int limit) {
+        return jdbcTemplate.query(SELECT_EVENTS_SQL, EVENT_ROW_MAPPER, after, upTo, limit);
+    }
+    
+    /**
+     * Read the events with the given ids that exist, in id order.
+     */
+    public List<JobEvent> findEventsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.query(String.format(SELECT_EVENTS_BY_ID_SQL, placeholders), EVENT_ROW_MAPPER, ids.toArray());
+    }
+    
+    /**
+     * Get the highest event id, or 0 if there are no events.
+     */
+    public long findHeadId() {
+        Long head = jdbcTemplate.queryForObject(SELECT_HEAD_ID_SQL, Long.class);
+        return head != null ? head : 0;
+    }
+    
+    public Map<String, Long> findOffsets() {
+        Map<String, Long> offsets = new HashMap<>();
+        jdbcTemplate.query(SELECT_OFFSETS_SQL, rs -> {
+            offsets.put(rs.getString("consumer"), rs.getLong("last_event_id"));
+        });
+        return offsets;
+    }
+    
+    public void saveOffset(String consumer, long lastEventId) {
+        jdbcTemplate.update(UPSERT_OFFSET_SQL, consumer, lastEventId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+    
+    /**
+     * Delete events up to the given id that were created before the cutoff, in chunks.
+     * @return the number of events deleted
+     */
+    public long deleteEvents(long upToId, LocalDateTime cutoff, int chunkSize) {
+        Timestamp cutoffTimestamp = Timestamp.valueOf(cutoff);
+        long deleted = 0;
+        int rows;
+        do {
+            rows = jdbcTemplate.update(DELETE_EVENTS_CHUNK_SQL, upToId, cutoffTimestamp, chunkSize);
+            deleted += rows;
+        } while (rows == chunkSize);
+        return deleted;
+    }
+}
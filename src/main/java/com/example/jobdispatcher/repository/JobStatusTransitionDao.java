@@ -0,0 +1,183 @@
+package com.example.jobdispatcher.repository;
+
+import com.example.jobdispatcher.persistence.JobTransition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Job status transitions as single compare-and-set UPDATE statements against scheduled_jobs.
+ * Each transition is one UPDATE guarded by the statuses it may leave ({@link JobTransition}), with no
+ * prior SELECT and no row lock held across round trips; an update count of 0 means another actor got
+ * there first. Every applied change is recorded in job_outbox within the same transaction.
+ */
+@Repository
+@Transactional
+public class JobStatusTransitionDao {
+    
+    private static final String TRANSITION_SQL =
+            "UPDATE scheduled_jobs SET status = ?, " +
+            "started_at = COALESCE(?, started_at), " +
+            "completed_at = COALESCE(?, completed_at), " +
+            "execution_time_ms = COALESCE(?, execution_time_ms), " +
+            "error_message = COALESCE(?, error_message), " +
+            "updated_at = ? " +
+            "WHERE job_id = ? AND status IN (%s)";
+    
+    // A start only applies if the job has not completed since, e.g. by a timeout racing a late start event
+    private static final String NOT_COMPLETED_SINCE_START = " AND (completed_at IS NULL OR completed_at <= ?)";
+    
+    private static final String COMPARE_AND_SET_STATUS_SQL =
+            "UPDATE scheduled_jobs SET status = ?, updated_at = ? WHERE job_id = ? AND status = ?";
+    
+    private static final String PARK_SQL =
+            "UPDATE scheduled_jobs SET status = 'PARKED', next_retry_at = ?, updated_at = ? " +
+            "WHERE job_id = ? AND status IN ('PENDING', 'OVERFLOW', 'FAILED', 'TIMED_OUT', 'PARKED')";
+    
+    private static final String SCHEDULE_RETRY_SQL =
+            "UPDATE scheduled_jobs SET retry_count = retry_count + 1, last_retry_at = ?, next_retry_at = ?, " +
+            "retry_reason = ?, updated_at = ? " +
+            "WHERE job_id = ? AND status IN ('FAILED', 'TIMED_OUT') AND retry_count = ?";
+    
+    private static final String INCREMENT_RETRY_COUNT_SQL =
+            "UPDATE scheduled_jobs SET retry_count = retry_count + 1, status = 'PENDING', started_at = NULL, " +
+            "completed_at = NULL, error_message = NULL, last_retry_at = ?, updated_at = ? " +
+            "WHERE job_id = ? AND status <> 'CANCELLED'";
+    
+    private static final int[] TRANSITION_ARG_TYPES = {
+        Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR
+    };
+    
+    private static final int[] STARTED_TRANSITION_ARG_TYPES = {
+        Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR,
+        Types.TIMESTAMP
+    };
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private JobOutboxDao jobOutboxDao;
+    
+    /**
+     * Apply one transition.
+     * @return whether the job was in a status it may leave for the new one
+     */
+    public boolean transition(JobTransition transition) {
+        return applyAll(Collections.singletonList(transition)).isEmpty();
+    }
+    
+    /**
+     * Apply transitions with one batched UPDATE per kind of transition, in one transaction.
+     * @return the transitions that were rejected because the job had moved on or does not exist
+     */
+    public List<JobTransition> applyAll(Collection<JobTransition> transitions) {
+        Map<String, List<JobTransition>> byGuard = new LinkedHashMap<>();
+        for (JobTransition transition : transitions) {
+            byGuard.computeIfAbsent(transition.getGuardStatus() + "->" + transition.getStatus(), k -> new ArrayList<>()).add(transition);
+        }
+        
+        List<JobTransition> rejected = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (List<JobTransition> group : byGuard.values()) {
+            JobTransition first = group.get(0);
+            boolean start = first.isStart();
+            String sql = String.format(TRANSITION_SQL, inList(JobTransition.allowedFrom(first.getGuardStatus())));
+            if (start) {
+                sql += NOT_COMPLETED_SINCE_START;
+            }
+            
+            List<Object[]> args = new ArrayList<>(group.size());
+            for (JobTransition transition : group) {
+                List<Object> row = new ArrayList<>(8);
+                row.add(transition.getStatus());
+                row.add(toTimestamp(transition.getStartedAt()));
+                row.add(toTimestamp(transition.getCompletedAt()));
+                row.add(transition.getExecutionTimeMs());
+                row.add(transition.getErrorMessage());
+                row.add(now);
+                row.add(transition.getJobId());
+                if (start) {
+                    row.add(toTimestamp(transition.getStartedAt() != null ? transition.getStartedAt() : LocalDateTime.now()));
+                }
+                args.add(row.toArray());
+            }
+            
+            int[] counts = jdbcTemplate.batchUpdate(sql, args, start ? STARTED_TRANSITION_ARG_TYPES : TRANSITION_ARG_TYPES);
+            List<String> applied = new ArrayList<>(group.size());
+            for (int i = 0; i < counts.length; i++) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for rewritten batches; only 0 is a failed CAS
+                if (counts[i] == 0) {
+                    rejected.add(group.get(i));
+                } else {
+                    applied.add(group.get(i).getJobId());
+                }
+            }
+            jobOutboxDao.recordChanges(first.getStatus(), applied);
+        }
+        return rejected;
+    }
+    
+    /**
+     * Move a job to a new status only if it still has the expected status.
+     */
+    public boolean compareAndSetStatus(String jobId, String expectedStatus, String newStatus) {
+        return recorded(newStatus, jobId, jdbcTemplate.update(COMPARE_AND_SET_STATUS_SQL, newStatus,
+                                                              Timestamp.valueOf(LocalDateTime.now()), jobId, expectedStatus));
+    }
+    
+    /**
+     * Park a job until the given time, unless it is running or finished.
+     */
+    public boolean park(String jobId, LocalDateTime until) {
+        return recorded("PARKED", jobId,
+                        jdbcTemplate.update(PARK_SQL, Timestamp.valueOf(until), Timestamp.valueOf(LocalDateTime.now()), jobId));
+    }
+    
+    /**
+     * Schedule the next retry of a failed or timed out job, if nobody else has scheduled,
+     * cancelled or restarted it since its retry count was read.
+     */
+    public boolean scheduleRetry(String jobId, int expectedRetryCount, LocalDateTime lastRetryAt,
+                                 LocalDateTime nextRetryAt, String reason) {
+        return recorded("RETRY_SCHEDULED", jobId,
+                        jdbcTemplate.update(SCHEDULE_RETRY_SQL, Timestamp.valueOf(lastRetryAt), Timestamp.valueOf(nextRetryAt),
+                                            reason, Timestamp.valueOf(LocalDateTime.now()), jobId, expectedRetryCount));
+    }
+    
+    /**
+     * Count a retry attempt and reset the job to PENDING, unless it was cancelled.
+     */
+    public boolean incrementRetryCount(String jobId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return recorded("PENDING", jobId, jdbcTemplate.update(INCREMENT_RETRY_COUNT_SQL, now, now, jobId));
+    }
+    
+    private boolean recorded(String eventType, String jobId, int updateCount) {
+        if (updateCount == 0) {
+            return false;
+        }
+        jobOutboxDao.recordChange(eventType, jobId);
+        return true;
+    }
+    
+    private static String inList(List<String> statuses) {
+        return statuses.stream().map(status -> "'" + status + "'").collect(Collectors.joining(", "));
+    }
+    
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+}
@@ -1,14 +1,17 @@
 package com.example.jobdispatcher.repository;
 
 import com.example.jobdispatcher.entity.ScheduledJob;
+import com.example.jobdispatcher.enums.JobPriority;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +26,11 @@ public interface ScheduledJobRepository extends JpaRepository<ScheduledJob, Long
      */
     Optional<ScheduledJob> findByJobId(String jobId);
     
+    /**
+     * Find scheduled jobs by job IDs.
+     */
+    List<ScheduledJob> findByJobIdIn(Collection<String> jobIds);
+    
     /**
      * Find jobs by status.
      */
@@ -82,7 +90,7 @@ public interface ScheduledJobRepository extends JpaRepository<ScheduledJob, Long
     /**
      * Find jobs that can be retried.
      */
-    @Query("SELECT sj FROM ScheduledJob sj WHERE sj.status = 'FAILED' AND sj.retryCount < sj.maxRetries")
+    @Query("SELECT sj FROM ScheduledJob sj WHERE sj.status IN ('FAILED', 'TIMED_OUT') AND sj.retryCount < sj.maxRetries")
     List<ScheduledJob> findJobsForRetry();
     
     /**
@@ -121,6 +129,15 @@ public interface ScheduledJobRepository extends JpaRepository<ScheduledJob, Long
      */
     Page<ScheduledJob> findByStatusAndJobType(String status, String jobType, Pageable pageable);
     
+    /**
+     * Find the oldest jobs of one priority by status and job type (seeks idx_scheduled_jobs_status_type_priority).
+     */
+    List<ScheduledJob> findByStatusAndJobTypeAndJobPriorityOrderBySubmittedAtAsc(String status, String jobType,
+                                                                                JobPriority jobPriority, Pageable pageable);
+    
+    List<ScheduledJob> findByStatusAndJobTypeAndJobPriorityIsNullOrderBySubmittedAtAsc(String status, String jobType,
+                                                                                      Pageable pageable);
+    
     /**
      * Find jobs by thread pool with pagination.
      */
@@ -155,6 +172,13 @@ public interface ScheduledJobRepository extends JpaRepository<ScheduledJob, Long
     @Query("SELECT sj FROM ScheduledJob sj WHERE sj.executionTimeMs > :executionTime AND sj.status = 'COMPLETED'")
     List<ScheduledJob> findJobsWithLongExecutionTime(@Param("executionTime") Long executionTime);
     
+    /**
+     * Delete a job by job ID.
+     */
+    @Modifying
+    @Query("DELETE FROM ScheduledJob sj WHERE sj.jobId = :jobId")
+    int deleteByJobId(@Param("jobId") String jobId);
+    
     /**
      * Check if job exists by job ID.
      */
@@ -164,10 +188,5 @@ public interface ScheduledJobRepository extends JpaRepository<ScheduledJob, Long
      * Delete jobs by status.
      */
     void deleteByStatus(String status);
-    
-    /**
-     * Delete jobs older than specified time.
-     */
-    void deleteBySubmittedAtBefore(LocalDateTime cutoffTime);
 }
 
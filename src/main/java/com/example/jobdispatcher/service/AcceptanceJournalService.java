@@ -0,0 +1,301 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.AcceptanceJournalConfig;
+import com.example.jobdispatcher.journal.AcceptanceJournal;
+import com.example.jobdispatcher.journal.JournalEntry;
+import com.example.jobdispatcher.model.OneTimeJobRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Acceptance journal for one-time job submissions.
+ * When enabled, an accepted job is appended to a local write-ahead journal and acknowledged once the
+ * journal is synced, instead of after a MySQL insert. A replicator thread inserts journaled jobs into
+ * scheduled_jobs in batches and dispatches them; entries not replicated before a shutdown or crash
+ * are replayed on the next startup.
+ */
+@Service
+public class AcceptanceJournalService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AcceptanceJournalService.class);
+    
+    @Autowired
+    private AcceptanceJournalConfig journalConfig;
+    
+    @Autowired
+    @Lazy
+    private JobDispatcherService jobDispatcherService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private DatabasePersistenceService databasePersistenceService;
+    
+    private AcceptanceJournal journal;
+    private Thread replicatorThread;
+    private volatile boolean running = false;
+    
+    // Entries up to this sequence were written before startup and are being replayed
+    private long replayUpToSequence;
+    
+    // Job IDs accepted into the journal and not yet replicated
+    private final Set<String> pendingJobIds = ConcurrentHashMap.newKeySet();
+    
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong bypassedCount = new AtomicLong();
+    private final AtomicLong replicatedCount = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private volatile long lastReplicationLagMillis = 0;
+    
+    @PostConstruct
+    public void start() {
+        if (!journalConfig.isEnabled()) {
+            return;
+        }
+        
+        try {
+            journal = new AcceptanceJournal(Paths.get(journalConfig.getDirectory()), journalConfig.getSegmentSizeBytes(),
+                                            journalConfig.getGroupCommitDelayMicros());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to open acceptance journal in " + journalConfig.getDirectory(), e);
+        }
+        
+        replayUpToSequence = journal.getWrittenSequence();
+        if (journal.getPendingEntries() > 0) {
+            logger.info("Replaying {} unreplicated acceptance journal entries", journal.getPendingEntries());
+        }
+        
+        running = true;
+        logger.info("Acceptance journal opened in {} (segment size: {} bytes, checkpoint: {})",
+                   journalConfig.getDirectory(), journalConfig.getSegmentSizeBytes(), journal.getCheckpointSequence());
+    }
+    
+    /**
+     * Start replicating once the executors and the rest of the context are ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReplicator() {
+        if (!running) {
+            return;
+        }
+        
+        replicatorThread = new Thread(this::runReplicator, "journal-replicator");
+        replicatorThread.setDaemon(true);
+        replicatorThread.start();
+    }
+    
+    /**
+     * Stop replicating and close the journal. Unreplicated entries are replayed on the next startup.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        
+        running = false;
+        if (replicatorThread != null) {
+            try {
+                replicatorThread.join(10000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        journal.close();
+        logger.info("Acceptance journal stopped ({} entries pending replication)", journal.getPendingEntries());
+    }
+    
+    public boolean isEnabled() {
+        return running;
+    }
+    
+    /**
+     * Write an accepted one-time job to the journal and wait until it is durable.
+     * Returns false if the journal is disabled or its replication backlog is full, in which case
+     * the caller persists the job directly.
+     */
+    public boolean acceptOneTimeJob(OneTimeJobRequest request, String threadPoolName, boolean overflow) {
+        if (!running) {
+            return false;
+        }
+        if (journal.getPendingEntries() >= journalConfig.getMaxPendingEntries()) {
+            bypassedCount.incrementAndGet();
+            return false;
+        }
+        
+        // Reject IDs still waiting in the journal or already stored, as the unique key would for a direct insert
+        if (!pendingJobIds.add(request.getJobId())) {
+            throw new IllegalArgumentException("Duplicate job ID: " + request.getJobId());
+        }
+        
+        boolean stored;
+        try {
+            stored = databasePersistenceService.scheduledJobExists(request.getJobId());
+        } catch (RuntimeException e) {
+            pendingJobIds.remove(request.getJobId());
+            throw e;
+        }
+        if (stored) {
+            pendingJobIds.remove(request.getJobId());
+            throw new IllegalArgumentException("Duplicate job ID: " + request.getJobId());
+        }
+        
+        try {
+            JournaledJob journaledJob = new JournaledJob(request, threadPoolName, overflow, System.currentTimeMillis());
+            journal.append(objectMapper.writeValueAsBytes(journaledJob));
+            acceptedCount.incrementAndGet();
+            return true;
+        } catch (Exception e) {
+            pendingJobIds.remove(request.getJobId());
+            throw new RuntimeException("Failed to write job to acceptance journal", e);
+        }
+    }
+    
+    // Replication
+    
+    private void runReplicator() {
+        long replicated = journal.getCheckpointSequence();
+        
+        while (running) {
+            try {
+                // Replayed entries are read in batches of their own since they are handled differently
+                int batchSize = journalConfig.getReplicationBatchSize();
+                if (replicated < replayUpToSequence) {
+                    batchSize = (int) Math.min(batchSize, replayUpToSequence - replicated);
+                }
+                List<JournalEntry> entries = journal.read(replicated, batchSize);
+                if (entries.isEmpty()) {
+                    Thread.sleep(journalConfig.getReplicationIntervalMillis());
+                    continue;
+                }
+                
+                List<JournaledJob> journaledJobs = new ArrayList<>(entries.size());
+                for (JournalEntry entry : entries) {
+                    try {
+                        journaledJobs.add(objectMapper.readValue(entry.getPayload(), JournaledJob.class));
+                    } catch (Exception e) {
+                        logger.error("Skipping unreadable acceptance journal entry {}", entry.getSequence(), e);
+                    }
+                }
+                
+                long lastSequence = entries.get(entries.size() - 1).getSequence();
+                jobDispatcherService.replicateJournaledJobs(journaledJobs, lastSequence <= replayUpToSequence);
+                journal.checkpoint(lastSequence);
+                replicated = lastSequence;
+                
+                for (JournaledJob journaledJob : journaledJobs) {
+                    pendingJobIds.remove(journaledJob.getRequest().getJobId());
+                }
+                replicatedCount.addAndGet(journaledJobs.size());
+                if (!journaledJobs.isEmpty()) {
+                    lastReplicationLagMillis = System.currentTimeMillis() - journaledJobs.get(0).getAcceptedAt();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failedBatches.incrementAndGet();
+                logger.error("Error replicating acceptance journal, retrying in {}ms", journalConfig.getReplicationRetryMillis(), e);
+                try {
+                    Thread.sleep(journalConfig.getReplicationRetryMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Get journal and replication statistics.
+     */
+    public Map<String, Object> getJournalStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", running);
+        stats.put("acceptedJobs", acceptedCount.get());
+        stats.put("bypassedJobs", bypassedCount.get());
+        stats.put("replicatedJobs", replicatedCount.get());
+        stats.put("failedBatches", failedBatches.get());
+        stats.put("lastReplicationLagMillis", lastReplicationLagMillis);
+        
+        if (journal != null) {
+            long syncs = journal.getSyncCount();
+            stats.put("pendingEntries", journal.getPendingEntries());
+            stats.put("writtenSequence", journal.getWrittenSequence());
+            stats.put("checkpointSequence", journal.getCheckpointSequence());
+            stats.put("segmentCount", journal.getSegmentCount());
+            stats.put("syncCount", syncs);
+            stats.put("averageEntriesPerSync", syncs > 0 ? String.format("%.2f", (double) journal.getAppendCount() / syncs) : "0.00");
+        }
+        return stats;
+    }
+    
+    /**
+     * A one-time job as written to the journal.
+     */
+    public static class JournaledJob {
+        private OneTimeJobRequest request;
+        private String threadPoolName;
+        private boolean overflow;
+        private long acceptedAt;
+        
+        public JournaledJob() {}
+        
+        public JournaledJob(OneTimeJobRequest request, String threadPoolName, boolean overflow, long acceptedAt) {
+            this.request = request;
+            this.threadPoolName = threadPoolName;
+            this.overflow = overflow;
+            this.acceptedAt = acceptedAt;
+        }
+        
+        public OneTimeJobRequest getRequest() {
+            return request;
+        }
+        
+        public void setRequest(OneTimeJobRequest request) {
+            this.request = request;
+        }
+        
+        public String getThreadPoolName() {
+            return threadPoolName;
+        }
+        
+        public void setThreadPoolName(String threadPoolName) {
+            this.threadPoolName = threadPoolName;
+        }
+        
+        public boolean isOverflow() {
+            return overflow;
+        }
+        
+        public void setOverflow(boolean overflow) {
+            this.overflow = overflow;
+        }
+        
+        public long getAcceptedAt() {
+            return acceptedAt;
+        }
+        
+        public void setAcceptedAt(long acceptedAt) {
+            this.acceptedAt = acceptedAt;
+        }
+    }
+}
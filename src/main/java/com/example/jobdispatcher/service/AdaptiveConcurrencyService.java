@@ -0,0 +1,208 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.AdaptiveConcurrencyConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Adaptive concurrency controller for the job executors.
+ * Periodically samples each executor, estimates queue wait time with Little's law
+ * (queued tasks / completion rate) and adjusts the core pool size with AIMD:
+ * additive increase while the queue-wait SLO is missed, multiplicative decrease while
+ * the pool is underused. In ADVISOR mode decisions are only logged and reported.
+ */
+@Service
+public class AdaptiveConcurrencyService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyService.class);
+    
+    @Autowired
+    private AdaptiveConcurrencyConfig adaptiveConcurrencyConfig;
+    
+    @Autowired
+    private ExecutorRegistry executorRegistry;
+    
+    // Sampling state per pool name
+    private final ConcurrentHashMap<String, PoolState> poolStates = new ConcurrentHashMap<>();
+    
+    /**
+     * Sample all executors and resize them, or record recommendations in ADVISOR mode.
+     */
+    @Scheduled(fixedDelayString = "${job-dispatcher.adaptive-concurrency.sample-interval-millis:5000}")
+    public void adjustPoolSizes() {
+        if (adaptiveConcurrencyConfig.isOff()) {
+            return;
+        }
+        
+        try {
+            executorRegistry.getExecutors().forEach((name, executor) -> {
+                // Schedulers queue delayed tasks, so their queue size is not a backlog signal
+                if (executor instanceof ThreadPoolTaskExecutor) {
+                    ThreadPoolExecutor threadPoolExecutor = ((ThreadPoolTaskExecutor) executor).getThreadPoolExecutor();
+                    if (threadPoolExecutor != null && !threadPoolExecutor.isShutdown()) {
+                        adjustPool(name, threadPoolExecutor);
+                    }
+                }
+            });
+            poolStates.keySet().retainAll(executorRegistry.getExecutors().keySet());
+        } catch (Exception e) {
+            logger.error("Error adjusting executor pool sizes", e);
+        }
+    }
+    
+    private void adjustPool(String name, ThreadPoolExecutor executor) {
+        long now = System.currentTimeMillis();
+        long completed = executor.getCompletedTaskCount();
+        
+        PoolState state = poolStates.get(name);
+        if (state == null || state.executor != executor) {
+            // First sample, or the pool was rebuilt: establish a baseline
+            poolStates.put(name, new PoolState(executor, completed, now));
+            return;
+        }
+        
+        long elapsedMillis = now - state.lastSampleAt;
+        if (elapsedMillis <= 0) {
+            return;
+        }
+        
+        int queued = executor.getQueue().size();
+        int active = executor.getActiveCount();
+        int core = executor.getCorePoolSize();
+        double completionsPerMilli = (double) (completed - state.lastCompleted) / elapsedMillis;
+        state.lastCompleted = completed;
+        state.lastSampleAt = now;
+        
+        // Little's law: time to drain the current backlog at the observed completion rate
+        long estimatedWaitMillis;
+        if (queued == 0) {
+            estimatedWaitMillis = 0;
+        } else if (completionsPerMilli > 0) {
+            estimatedWaitMillis = (long) (queued / completionsPerMilli);
+        } else {
+            estimatedWaitMillis = Long.MAX_VALUE;
+        }
+        double utilization = core > 0 ? (double) active / core : 1.0;
+        
+        int minSize = adaptiveConcurrencyConfig.getMinPoolSize();
+        int maxSize = Math.max(adaptiveConcurrencyConfig.getMaxPoolSize(), minSize);
+        long slo = adaptiveConcurrencyConfig.getQueueWaitSloMillis();
+        
+        int target = core;
+        String reason;
+        if (estimatedWaitMillis > slo) {
+            target = Math.min(core + adaptiveConcurrencyConfig.getAdditiveIncrease(), maxSize);
+            reason = target > core
+                    ? String.format("estimated queue wait %s exceeds SLO %dms", formatWait(estimatedWaitMillis), slo)
+                    : String.format("estimated queue wait %s exceeds SLO %dms but pool is at upper bound %d",
+                                    formatWait(estimatedWaitMillis), slo, maxSize);
+        } else if (queued == 0 && utilization < adaptiveConcurrencyConfig.getLowUtilization()) {
+            if (now - state.lastDecreaseAt < adaptiveConcurrencyConfig.getDecreaseCooldownMillis()) {
+                reason = "underused but within decrease cooldown";
+            } else {
+                target = Math.max((int) Math.floor(core * adaptiveConcurrencyConfig.getMultiplicativeDecrease()), minSize);
+                reason = String.format("utilization %.2f below %.2f with empty queue", utilization,
+                                       adaptiveConcurrencyConfig.getLowUtilization());
+            }
+        } else {
+            reason = "within SLO";
+        }
+        target = Math.max(Math.min(target, maxSize), minSize);
+        
+        boolean applied = false;
+        if (target != core) {
+            if (adaptiveConcurrencyConfig.isActive()) {
+                resize(executor, state, target);
+                applied = true;
+                logger.info("Resized pool {} core size {} -> {}: {}", name, core, target, reason);
+            } else {
+                logger.info("Advisor: pool {} core size {} -> {} recommended: {}", name, core, target, reason);
+            }
+            if (target < core) {
+                state.lastDecreaseAt = now;
+            }
+        }
+        
+        Map<String, Object> decision = new HashMap<>();
+        decision.put("corePoolSize", executor.getCorePoolSize());
+        decision.put("maximumPoolSize", executor.getMaximumPoolSize());
+        decision.put("recommendedCorePoolSize", target);
+        decision.put("applied", applied);
+        decision.put("reason", reason);
+        decision.put("queueSize", queued);
+        decision.put("activeThreads", active);
+        decision.put("utilization", String.format("%.2f", utilization));
+        decision.put("completionsPerSecond", String.format("%.2f", completionsPerMilli * 1000));
+        decision.put("estimatedQueueWaitMillis", estimatedWaitMillis == Long.MAX_VALUE ? -1 : estimatedWaitMillis);
+        decision.put("sampledAt", LocalDateTime.now());
+        state.lastDecision = decision;
+    }
+    
+    /**
+     * Apply a new core size. The maximum is raised with the core size and never drops below
+     * the maximum the pool was configured with.
+     */
+    private void resize(ThreadPoolExecutor executor, PoolState state, int target) {
+        int max = Math.max(state.configuredMaxPoolSize, target);
+        if (target > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(max);
+            executor.setCorePoolSize(target);
+        } else {
+            executor.setCorePoolSize(target);
+            executor.setMaximumPoolSize(max);
+        }
+    }
+    
+    private String formatWait(long waitMillis) {
+        return waitMillis == Long.MAX_VALUE ? "unbounded (no completions)" : waitMillis + "ms";
+    }
+    
+    /**
+     * Get the latest sizing decision for each pool.
+     */
+    public Map<String, Object> getAdaptiveStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("mode", adaptiveConcurrencyConfig.getMode().toUpperCase());
+        stats.put("queueWaitSloMillis", adaptiveConcurrencyConfig.getQueueWaitSloMillis());
+        stats.put("minPoolSize", adaptiveConcurrencyConfig.getMinPoolSize());
+        stats.put("maxPoolSize", adaptiveConcurrencyConfig.getMaxPoolSize());
+        
+        Map<String, Object> pools = new HashMap<>();
+        poolStates.forEach((name, state) -> {
+            if (state.lastDecision != null) {
+                pools.put(name, state.lastDecision);
+            }
+        });
+        stats.put("pools", pools);
+        return stats;
+    }
+    
+    /**
+     * Sampling state for a single pool.
+     */
+    private static class PoolState {
+        private final ThreadPoolExecutor executor;
+        private final int configuredMaxPoolSize;
+        private long lastCompleted;
+        private long lastSampleAt;
+        private long lastDecreaseAt;
+        private volatile Map<String, Object> lastDecision;
+        
+        public PoolState(ThreadPoolExecutor executor, long lastCompleted, long lastSampleAt) {
+            this.executor = executor;
+            this.configuredMaxPoolSize = executor.getMaximumPoolSize();
+            this.lastCompleted = lastCompleted;
+            this.lastSampleAt = lastSampleAt;
+        }
+    }
+}
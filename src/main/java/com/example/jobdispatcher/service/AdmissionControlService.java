@@ -0,0 +1,323 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.AdmissionControlConfig;
+import com.example.jobdispatcher.entity.ScheduledJob;
+import com.example.jobdispatcher.enums.JobPriority;
+import com.example.jobdispatcher.executor.PriorityTaskQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for one-time jobs.
+ * Checks executor capacity before a job is persisted, so a saturated pool answers with
+ * 429 and a Retry-After derived from the observed drain rate instead of failing after the
+ * row is written. When the overflow queue is enabled, jobs that do not fit are stored as
+ * OVERFLOW rows and moved onto the executor as capacity frees up.
+ */
+@Service
+public class AdmissionControlService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlService.class);
+    
+    public static final String STATUS_OVERFLOW = "OVERFLOW";
+    
+    // Weight of the newest sample in the drain rate moving average
+    private static final double DRAIN_RATE_ALPHA = 0.3;
+    
+    @Autowired
+    private AdmissionControlConfig admissionControlConfig;
+    
+    @Autowired
+    private ExecutorRegistry executorRegistry;
+    
+    @Autowired
+    private DatabasePersistenceService databasePersistenceService;
+    
+    @Autowired
+    @Lazy
+    private JobDispatcherService jobDispatcherService;
+    
+    // Drain rate per pool name
+    private final ConcurrentHashMap<String, DrainRate> drainRates = new ConcurrentHashMap<>();
+    
+    private final AtomicLong admittedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong overflowedCount = new AtomicLong();
+    private final AtomicLong refilledCount = new AtomicLong();
+    
+    // OVERFLOW row count, recounted on every refill pass
+    private final AtomicLong overflowQueueSize = new AtomicLong();
+    
+    /**
+     * Decide whether a one-time job can go straight to its executor.
+     * Returns true to dispatch now and false to park the job in the overflow queue.
+     * Throws {@link AdmissionRejectedException} when the job can be neither dispatched nor parked.
+     */
+    public boolean admitOneTimeJob(String poolName, JobPriority priority) {
+        return admitOneTimeJob(poolName, !admissionControlConfig.isEnabled() || hasCapacity(poolName, priority));
+    }
+    
+    /**
+     * Admission decision for a caller that has already checked capacity, such as a batch
+     * drawing from a capacity budget obtained with {@link #getAvailableCapacity}.
+     */
+    public boolean admitOneTimeJob(String poolName, boolean capacityAvailable) {
+        if (!admissionControlConfig.isEnabled() || capacityAvailable) {
+            admittedCount.incrementAndGet();
+            return true;
+        }
+        
+        if (admissionControlConfig.isOverflowEnabled()
+                && overflowQueueSize.get() < admissionControlConfig.getOverflowCapacity()) {
+            overflowQueueSize.incrementAndGet();
+            overflowedCount.incrementAndGet();
+            return false;
+        }
+        
+        throw reject(poolName);
+    }
+    
+    /**
+     * Build the rejection for a saturated pool, used when the executor rejects a job despite admission.
+     */
+    public AdmissionRejectedException reject(String poolName) {
+        rejectedCount.incrementAndGet();
+        long retryAfter = getRetryAfterSeconds(poolName);
+        logger.warn("Rejected one-time job for saturated pool {}, retry after {}s", poolName, retryAfter);
+        return new AdmissionRejectedException("Thread pool " + poolName + " is at capacity", retryAfter);
+    }
+    
+    /**
+     * Handle a job the executor rejected after it was admitted and persisted.
+     * The job is parked in the overflow queue if enabled. Otherwise its row is removed so the
+     * submission can be retried with the same job ID, unless the submission was already
+     * acknowledged (accepted through the acceptance journal), in which case the job is failed.
+     */
+    public void handleRejectedDispatch(ScheduledJob scheduledJob, String poolName, boolean acknowledged) {
+        if (admissionControlConfig.isOverflowEnabled()
+                && databasePersistenceService.updateJobStatusIfCurrent(scheduledJob.getJobId(), "PENDING", STATUS_OVERFLOW)) {
+            overflowQueueSize.incrementAndGet();
+            overflowedCount.incrementAndGet();
+            logger.info("Executor rejected job {}, parked in overflow queue", scheduledJob.getJobId());
+            return;
+        }
+        
+        if (acknowledged) {
+            rejectedCount.incrementAndGet();
+            databasePersistenceService.markJobAsFailed(scheduledJob.getJobId(), "Thread pool " + poolName + " is at capacity");
+            return;
+        }
+        
+        databasePersistenceService.deleteScheduledJob(scheduledJob);
+        throw reject(poolName);
+    }
+    
+    /**
+     * Check whether the pool can take another task without rejecting it.
+     */
+    public boolean hasCapacity(String poolName, JobPriority priority) {
+        return getAvailableCapacity(poolName, priority) > 0;
+    }
+    
+    /**
+     * Get the number of tasks the pool can take without rejecting: free queue slots for the
+     * priority plus threads that can still be started or are idle.
+     */
+    public int getAvailableCapacity(String poolName, JobPriority priority) {
+        ThreadPoolExecutor executor = getThreadPoolExecutor(poolName);
+        if (!admissionControlConfig.isEnabled() || executor == null) {
+            return Integer.MAX_VALUE;
+        }
+        
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        long queueRoom = queue instanceof PriorityTaskQueue
+                ? ((PriorityTaskQueue) queue).getRemainingCapacity(priority)
+                : queue.remainingCapacity();
+        long threadRoom = Math.max(executor.getMaximumPoolSize() - executor.getPoolSize(), 0)
+                + Math.max(executor.getPoolSize() - executor.getActiveCount(), 0);
+        return (int) Math.min(queueRoom + threadRoom, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Estimate how long until the pool has drained its current backlog, in seconds.
+     */
+    public long getRetryAfterSeconds(String poolName) {
+        long min = admissionControlConfig.getMinRetryAfterSeconds();
+        long max = Math.max(admissionControlConfig.getMaxRetryAfterSeconds(), min);
+        
+        ThreadPoolExecutor executor = getThreadPoolExecutor(poolName);
+        DrainRate drainRate = drainRates.get(poolName);
+        if (executor == null || drainRate == null || drainRate.perSecond <= 0) {
+            return max;
+        }
+        
+        long backlog = executor.getQueue().size() + 1L;
+        long seconds = (long) Math.ceil(backlog / drainRate.perSecond);
+        return Math.max(min, Math.min(seconds, max));
+    }
+    
+    private ThreadPoolExecutor getThreadPoolExecutor(String poolName) {
+        Executor executor = executorRegistry.getExecutor(poolName);
+        if (executor instanceof ThreadPoolTaskExecutor) {
+            return ((ThreadPoolTaskExecutor) executor).getThreadPoolExecutor();
+        }
+        return null;
+    }
+    
+    /**
+     * Sample drain rates and move overflow jobs onto their executors while capacity allows.
+     */
+    @Scheduled(fixedDelayString = "${job-dispatcher.admission.refill-interval-millis:1000}")
+    public void refillFromOverflow() {
+        if (!admissionControlConfig.isEnabled()) {
+            return;
+        }
+        
+        sampleDrainRates();
+        
+        if (!admissionControlConfig.isOverflowEnabled()) {
+            return;
+        }
+        
+        try {
+            overflowQueueSize.set(databasePersistenceService.countScheduledJobsByStatus(STATUS_OVERFLOW));
+            
+            // Highest priority first across the whole backlog, not just its oldest page
+            List<ScheduledJob> overflowJobs = databasePersistenceService.findScheduledJobsByStatusAndTypeInPriorityOrder(
+                    STATUS_OVERFLOW, "ONE_TIME", admissionControlConfig.getRefillBatchSize());
+            
+            for (ScheduledJob job : overflowJobs) {
+                String poolName = executorRegistry.getPoolName(job.getThreadPool() != null ? job.getThreadPool().getId() : null);
+                if (poolName == null) {
+                    poolName = ExecutorRegistry.DEFAULT_ONE_TIME_POOL;
+                }
+                if (!hasCapacity(poolName, job.getJobPriority())) {
+                    continue;
+                }
+                
+                // Claim the row so that a job is refilled once even with several instances polling
+                if (!databasePersistenceService.updateJobStatusIfCurrent(job.getJobId(), STATUS_OVERFLOW, "PENDING")) {
+                    continue;
+                }
+                
+                try {
+                    jobDispatcherService.dispatchOverflowJob(job);
+                    refilledCount.incrementAndGet();
+                    overflowQueueSize.decrementAndGet();
+                    logger.info("Refilled overflow job {} onto pool {}", job.getJobId(), poolName);
+                } catch (Exception e) {
+                    // Pool filled up between the check and the dispatch, keep the job parked
+                    databasePersistenceService.updateJobStatusIfCurrent(job.getJobId(), "PENDING", STATUS_OVERFLOW);
+                    logger.warn("Could not refill overflow job {}, keeping it parked: {}", job.getJobId(), e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error refilling overflow jobs", e);
+        }
+    }
+    
+    private void sampleDrainRates() {
+        long now = System.nanoTime();
+        executorRegistry.getExecutors().forEach((name, executor) -> {
+            if (!(executor instanceof ThreadPoolTaskExecutor)) {
+                return;
+            }
+            ThreadPoolExecutor threadPoolExecutor = ((ThreadPoolTaskExecutor) executor).getThreadPoolExecutor();
+            if (threadPoolExecutor == null) {
+                return;
+            }
+            
+            long completed = threadPoolExecutor.getCompletedTaskCount();
+            DrainRate drainRate = drainRates.get(name);
+            if (drainRate == null || drainRate.executor != threadPoolExecutor) {
+                drainRates.put(name, new DrainRate(threadPoolExecutor, completed, now));
+                return;
+            }
+            drainRate.update(completed, now);
+        });
+        drainRates.keySet().retainAll(executorRegistry.getExecutors().keySet());
+    }
+    
+    /**
+     * Get admission control statistics.
+     */
+    public Map<String, Object> getAdmissionStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", admissionControlConfig.isEnabled());
+        stats.put("overflowEnabled", admissionControlConfig.isOverflowEnabled());
+        stats.put("admittedCount", admittedCount.get());
+        stats.put("rejectedCount", rejectedCount.get());
+        stats.put("overflowedCount", overflowedCount.get());
+        stats.put("refilledCount", refilledCount.get());
+        stats.put("overflowQueueSize", overflowQueueSize.get());
+        
+        Map<String, Object> pools = new HashMap<>();
+        drainRates.forEach((name, drainRate) -> {
+            Map<String, Object> poolStats = new HashMap<>();
+            poolStats.put("drainRatePerSecond", String.format("%.2f", drainRate.perSecond));
+            poolStats.put("retryAfterSeconds", getRetryAfterSeconds(name));
+            pools.put(name, poolStats);
+        });
+        stats.put("pools", pools);
+        return stats;
+    }
+    
+    /**
+     * Exponentially weighted completion rate of a single executor.
+     */
+    private static class DrainRate {
+        private final ThreadPoolExecutor executor;
+        private long lastCompleted;
+        private long lastSampleNanos;
+        private volatile double perSecond;
+        
+        public DrainRate(ThreadPoolExecutor executor, long lastCompleted, long lastSampleNanos) {
+            this.executor = executor;
+            this.lastCompleted = lastCompleted;
+            this.lastSampleNanos = lastSampleNanos;
+        }
+        
+        public void update(long completed, long now) {
+            long elapsedNanos = now - lastSampleNanos;
+            if (elapsedNanos <= 0) {
+                return;
+            }
+            double sample = (completed - lastCompleted) * 1_000_000_000.0 / elapsedNanos;
+            perSecond = perSecond == 0 ? sample : DRAIN_RATE_ALPHA * sample + (1 - DRAIN_RATE_ALPHA) * perSecond;
+            lastCompleted = completed;
+            lastSampleNanos = now;
+        }
+    }
+    
+    /**
+     * Thrown when a job is refused because its pool is saturated and the overflow queue cannot take it.
+     */
+    public static class AdmissionRejectedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        
+        private final long retryAfterSeconds;
+        
+        public AdmissionRejectedException(String message, long retryAfterSeconds) {
+            super(message);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+        
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
@@ -5,12 +5,19 @@ import com.example.jobdispatcher.repository.ApiKeyRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Service for managing API key authentication and authorization.
@@ -21,9 +28,21 @@ public class ApiKeyService {
     
     private static final Logger logger = LoggerFactory.getLogger(ApiKeyService.class);
     
+    private static final String RECORD_USAGE_SQL =
+            "UPDATE api_keys SET usage_count = usage_count + ?, last_used_at = ? WHERE id = ?";
+    
     @Autowired
     private ApiKeyRepository apiKeyRepository;
     
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Uses of each API key (by ID) not yet written to usage_count
+    private final ConcurrentHashMap<Long, LongAdder> pendingUsage = new ConcurrentHashMap<>();
+    
     /**
      * Validate an API key and return the associated ApiKey entity.
      */
@@ -33,15 +52,14 @@ public class ApiKeyService {
         }
         
         try {
-            Optional<ApiKey> apiKeyOpt = apiKeyRepository.findByApiKey(apiKeyValue.trim());
+            Optional<ApiKey> apiKeyOpt = referenceDataCache.getApiKey(apiKeyValue.trim());
             
             if (apiKeyOpt.isPresent()) {
                 ApiKey apiKey = apiKeyOpt.get();
                 
                 if (apiKey.isValid()) {
-                    // Record usage
-                    apiKey.recordUsage();
-                    apiKeyRepository.save(apiKey);
+                    // Record usage, written back in batches by flushUsage
+                    pendingUsage.computeIfAbsent(apiKey.getId(), id -> new LongAdder()).increment();
                     
                     logger.debug("Valid API key used: {} (client: {})", apiKey.getKeyName(), apiKey.getClientId());
                     return Optional.of(apiKey);
@@ -73,13 +91,50 @@ public class ApiKeyService {
         
         return false;
     }
-    
+
+    /**
+     * Write the usage counted since the last flush with one batched UPDATE. last_used_at is the flush
+     * time, so it is accurate to within usage-flush-interval-millis. Counts are added back if the write fails.
+     */
+    @Scheduled(fixedDelayString = "${job-dispatcher.reference-cache.usage-flush-interval-millis:10000}")
+    public void flushUsage() {
+        List<Object[]> batchArgs = new ArrayList<>();
+        List<Long> counts = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        pendingUsage.forEach((id, uses) -> {
+            long count = uses.sumThenReset();
+            if (count > 0) {
+                batchArgs.add(new Object[]{count, now, id});
+                counts.add(count);
+            }
+        });
+        if (batchArgs.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(RECORD_USAGE_SQL, batchArgs);
+            logger.debug("Recorded usage of {} API keys", batchArgs.size());
+        } catch (Exception e) {
+            logger.error("Error recording API key usage, retrying on the next flush", e);
+            for (int i = 0; i < batchArgs.size(); i++) {
+                pendingUsage.computeIfAbsent((Long) batchArgs.get(i)[2], id -> new LongAdder()).add(counts.get(i));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushUsage();
+    }
+
     /**
      * Create a new API key.
      */
     public ApiKey createApiKey(String keyName, String description, String createdBy) {
         ApiKey apiKey = new ApiKey(keyName, description, createdBy);
         ApiKey savedApiKey = apiKeyRepository.save(apiKey);
+        referenceDataCache.invalidateApiKeys();
         
         logger.info("Created new API key: {} (client: {})", keyName, savedApiKey.getClientId());
         return savedApiKey;
@@ -107,6 +162,7 @@ public class ApiKeyService {
         }
         
         ApiKey savedApiKey = apiKeyRepository.save(apiKey);
+        referenceDataCache.invalidateApiKeys();
         
         logger.info("Created new API key with custom settings: {} (client: {})", keyName, savedApiKey.getClientId());
         return savedApiKey;
@@ -123,6 +179,7 @@ public class ApiKeyService {
                 ApiKey apiKey = apiKeyOpt.get();
                 apiKey.setIsActive(false);
                 apiKeyRepository.save(apiKey);
+                referenceDataCache.invalidateApiKeys();
                 
                 logger.info("Revoked API key: {} (client: {})", apiKey.getKeyName(), apiKey.getClientId());
                 return true;
@@ -149,6 +206,7 @@ public class ApiKeyService {
                 // Generate new API key
                 apiKey.setApiKey("jd_" + java.util.UUID.randomUUID().toString().replace("-", ""));
                 ApiKey updatedApiKey = apiKeyRepository.save(apiKey);
+                referenceDataCache.invalidateApiKeys();
                 
                 logger.info("Regenerated API key: {} (client: {})", apiKey.getKeyName(), apiKey.getClientId());
                 return Optional.of(updatedApiKey);
@@ -216,6 +274,7 @@ public class ApiKeyService {
             for (ApiKey apiKey : expiredKeys) {
                 apiKey.setIsActive(false);
                 apiKeyRepository.save(apiKey);
+                referenceDataCache.invalidateApiKeys();
             }
             
             logger.info("Cleaned up {} expired API keys", expiredKeys.size());
@@ -267,7 +326,9 @@ public class ApiKeyService {
      * Save an API key.
      */
     public ApiKey saveApiKey(ApiKey apiKey) {
-        return apiKeyRepository.save(apiKey);
+        ApiKey savedApiKey = apiKeyRepository.save(apiKey);
+        referenceDataCache.invalidateApiKeys();
+        return savedApiKey;
     }
     
     /**
@@ -300,6 +361,7 @@ public class ApiKeyService {
             ApiKey apiKey = apiKeyOpt.get();
             apiKey.setActive(false);
             apiKeyRepository.save(apiKey);
+            referenceDataCache.invalidateApiKeys();
             logger.info("API key deactivated: {}", keyId);
             return true;
         }
@@ -315,6 +377,7 @@ public class ApiKeyService {
             ApiKey apiKey = apiKeyOpt.get();
             apiKey.setActive(true);
             apiKeyRepository.save(apiKey);
+            referenceDataCache.invalidateApiKeys();
             logger.info("API key activated: {}", keyId);
             return true;
         }
@@ -328,6 +391,7 @@ public class ApiKeyService {
         Optional<ApiKey> apiKeyOpt = apiKeyRepository.findByKeyId(keyId);
         if (apiKeyOpt.isPresent()) {
             apiKeyRepository.delete(apiKeyOpt.get());
+            referenceDataCache.invalidateApiKeys();
             logger.info("API key deleted: {}", keyId);
             return true;
         }
@@ -344,6 +408,7 @@ public class ApiKeyService {
             String newSecretKey = generateSecretKey();
             apiKey.setSecretKey(newSecretKey);
             apiKeyRepository.save(apiKey);
+            referenceDataCache.invalidateApiKeys();
             logger.info("Secret key regenerated for API key: {}", keyId);
             return newSecretKey;
         }
@@ -31,6 +31,9 @@ public class AuthenticationService {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    
     /**
      * Authenticate app server and generate JWT token.
      * Simple API key-based authentication.
@@ -58,6 +61,7 @@ public class AuthenticationService {
         // Update last authentication time
         appServer.setLastHandshakeAt(LocalDateTime.now());
         appServerRepository.save(appServer);
+        referenceDataCache.invalidateAppServers();
         
         // Generate JWT token
         String[] permissions = {"job:submit", "job:query", "job:status"};
@@ -0,0 +1,293 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.CircuitBreakerConfig;
+import com.example.jobdispatcher.config.RetryConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-job-class circuit breakers and the global retry budget.
+ * Each breaker counts outcomes in a bucketed sliding window; counts are approximate under
+ * contention, which is fine for tripping a breaker and keeps recording lock-free.
+ */
+@Service
+public class CircuitBreakerService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerService.class);
+    
+    public enum State {
+        CLOSED,     // Executions run and are counted
+        OPEN,       // Executions are parked until the open duration has passed
+        HALF_OPEN   // A limited number of probe executions decide whether to close or reopen
+    }
+    
+    @Autowired
+    private CircuitBreakerConfig circuitBreakerConfig;
+    
+    @Autowired
+    private RetryConfig retryConfig;
+    
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+    
+    // Retry budget: retries allowed as a share of fresh executions in the window
+    private SlidingWindow freshExecutions;
+    private SlidingWindow retries;
+    private final AtomicLong retriesDeniedByBudget = new AtomicLong();
+    private final AtomicLong parkedExecutions = new AtomicLong();
+    
+    @PostConstruct
+    public void init() {
+        freshExecutions = newWindow();
+        retries = newWindow();
+    }
+    
+    /**
+     * Check whether a job of the given class may execute now.
+     * An open breaker whose open duration has passed turns half-open and lets probes through.
+     */
+    public boolean allowExecution(String jobClassName) {
+        if (!circuitBreakerConfig.isEnabled() || jobClassName == null) {
+            return true;
+        }
+        Breaker breaker = breakers.get(jobClassName);
+        if (breaker == null) {
+            return true;
+        }
+        
+        State state = breaker.state;
+        long now = System.currentTimeMillis();
+        if (state != State.CLOSED && now >= breaker.openUntil) {
+            // Open duration is over, or the probes of the last half-open period never reported back
+            breaker.halfOpen(circuitBreakerConfig.getHalfOpenCalls(), now + circuitBreakerConfig.getOpenDurationMillis());
+            state = breaker.state;
+        }
+        if (state == State.OPEN) {
+            parkedExecutions.incrementAndGet();
+            return false;
+        }
+        if (state == State.HALF_OPEN && breaker.probePermits.getAndDecrement() <= 0) {
+            parkedExecutions.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Record the outcome of an execution of the given class.
+     */
+    public void recordOutcome(String jobClassName, boolean success) {
+        if (!circuitBreakerConfig.isEnabled() || jobClassName == null) {
+            return;
+        }
+        Breaker breaker = breakers.computeIfAbsent(jobClassName, k -> new Breaker(newWindow()));
+        breaker.window.record(success);
+        
+        if (breaker.state == State.HALF_OPEN) {
+            if (!success) {
+                open(jobClassName, breaker);
+            } else if (breaker.probeSuccesses.incrementAndGet() >= circuitBreakerConfig.getHalfOpenCalls()) {
+                breaker.close();
+                logger.info("Circuit breaker for {} closed", jobClassName);
+            }
+            return;
+        }
+        
+        if (!success && breaker.state == State.CLOSED) {
+            long failures = breaker.window.failures();
+            long total = failures + breaker.window.successes();
+            if (total >= circuitBreakerConfig.getMinimumCalls()
+                    && failures * 100 >= total * circuitBreakerConfig.getFailureRateThreshold()) {
+                open(jobClassName, breaker);
+            }
+        }
+    }
+    
+    private void open(String jobClassName, Breaker breaker) {
+        synchronized (breaker) {
+            if (breaker.state == State.OPEN) {
+                return;
+            }
+            breaker.openUntil = System.currentTimeMillis() + circuitBreakerConfig.getOpenDurationMillis();
+            breaker.state = State.OPEN;
+            breaker.timesOpened.incrementAndGet();
+        }
+        logger.warn("Circuit breaker for {} opened, parking its jobs for {}ms",
+                   jobClassName, circuitBreakerConfig.getOpenDurationMillis());
+    }
+    
+    /**
+     * Time until which jobs of the class are parked, now if its breaker is closed.
+     */
+    public LocalDateTime getParkedUntil(String jobClassName) {
+        Breaker breaker = jobClassName != null ? breakers.get(jobClassName) : null;
+        long until = breaker != null && breaker.state != State.CLOSED ? breaker.openUntil : System.currentTimeMillis();
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(until), ZoneId.systemDefault());
+    }
+    
+    /**
+     * Count a fresh (non-retry) execution towards the retry budget.
+     */
+    public void recordFreshExecution() {
+        freshExecutions.record(true);
+    }
+    
+    /**
+     * Take one retry from the budget. Retries in the window may not exceed budget-percent of the
+     * fresh executions, with budget-min-retries always allowed.
+     */
+    public boolean tryAcquireRetryBudget() {
+        if (retryConfig.getBudgetPercent() <= 0) {
+            return true;
+        }
+        long allowed = Math.max(retryConfig.getBudgetMinRetries(),
+                                freshExecutions.successes() * retryConfig.getBudgetPercent() / 100);
+        if (retries.successes() >= allowed) {
+            retriesDeniedByBudget.incrementAndGet();
+            return false;
+        }
+        retries.record(true);
+        return true;
+    }
+    
+    /**
+     * Get the state of every breaker and the retry budget.
+     */
+    public Map<String, Object> getCircuitBreakerStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", circuitBreakerConfig.isEnabled());
+        stats.put("parkedExecutions", parkedExecutions.get());
+        
+        Map<String, Object> classes = new HashMap<>();
+        breakers.forEach((className, breaker) -> {
+            Map<String, Object> breakerStats = new HashMap<>();
+            long failures = breaker.window.failures();
+            long total = failures + breaker.window.successes();
+            breakerStats.put("state", breaker.state.name());
+            breakerStats.put("callsInWindow", total);
+            breakerStats.put("failureRate", total > 0 ? (double) failures * 100 / total : 0.0);
+            breakerStats.put("timesOpened", breaker.timesOpened.get());
+            if (breaker.state != State.CLOSED) {
+                breakerStats.put("parkedUntil", getParkedUntil(className));
+            }
+            classes.put(className, breakerStats);
+        });
+        stats.put("breakers", classes);
+        
+        Map<String, Object> budget = new HashMap<>();
+        budget.put("budgetPercent", retryConfig.getBudgetPercent());
+        budget.put("freshExecutionsInWindow", freshExecutions.successes());
+        budget.put("retriesInWindow", retries.successes());
+        budget.put("retriesDenied", retriesDeniedByBudget.get());
+        stats.put("retryBudget", budget);
+        return stats;
+    }
+    
+    private SlidingWindow newWindow() {
+        return new SlidingWindow(circuitBreakerConfig.getWindowMillis(), circuitBreakerConfig.getWindowBuckets());
+    }
+    
+    /**
+     * Breaker state of one job class.
+     */
+    private static class Breaker {
+        private final SlidingWindow window;
+        private volatile State state = State.CLOSED;
+        private volatile long openUntil;
+        private final AtomicInteger probePermits = new AtomicInteger();
+        private final AtomicInteger probeSuccesses = new AtomicInteger();
+        private final AtomicLong timesOpened = new AtomicLong();
+        
+        Breaker(SlidingWindow window) {
+            this.window = window;
+        }
+        
+        synchronized void halfOpen(int probes, long probeDeadline) {
+            if (state != State.CLOSED && System.currentTimeMillis() >= openUntil) {
+                probePermits.set(probes);
+                probeSuccesses.set(0);
+                openUntil = probeDeadline;
+                state = State.HALF_OPEN;
+            }
+        }
+        
+        synchronized void close() {
+            if (state == State.HALF_OPEN) {
+                window.clear();
+                state = State.CLOSED;
+            }
+        }
+    }
+    
+    /**
+     * Success and failure counts over a sliding window of time buckets.
+     * A bucket is reset by the first record after its slot comes round again.
+     */
+    static class SlidingWindow {
+        private final long bucketMillis;
+        private final int buckets;
+        private final AtomicLongArray epochs;
+        private final AtomicLongArray successes;
+        private final AtomicLongArray failures;
+        
+        SlidingWindow(long windowMillis, int buckets) {
+            this.buckets = Math.max(buckets, 1);
+            this.bucketMillis = Math.max(windowMillis / this.buckets, 1);
+            this.epochs = new AtomicLongArray(this.buckets);
+            this.successes = new AtomicLongArray(this.buckets);
+            this.failures = new AtomicLongArray(this.buckets);
+        }
+        
+        void record(boolean success) {
+            long epoch = System.currentTimeMillis() / bucketMillis;
+            int index = (int) (epoch % buckets);
+            long current = epochs.get(index);
+            if (current != epoch && epochs.compareAndSet(index, current, epoch)) {
+                successes.set(index, 0);
+                failures.set(index, 0);
+            }
+            if (success) {
+                successes.incrementAndGet(index);
+            } else {
+                failures.incrementAndGet(index);
+            }
+        }
+        
+        long successes() {
+            return sum(successes);
+        }
+        
+        long failures() {
+            return sum(failures);
+        }
+        
+        private long sum(AtomicLongArray counts) {
+            long oldest = System.currentTimeMillis() / bucketMillis - buckets;
+            long total = 0;
+            for (int i = 0; i < buckets; i++) {
+                if (epochs.get(i) > oldest) {
+                    total += counts.get(i);
+                }
+            }
+            return total;
+        }
+        
+        void clear() {
+            for (int i = 0; i < buckets; i++) {
+                epochs.set(i, 0);
+            }
+        }
+    }
+}
@@ -1,22 +1,32 @@
 package com.example.jobdispatcher.service;
 
+import com.example.jobdispatcher.config.JobListingConfig;
+import com.example.jobdispatcher.config.PersistenceConfig;
 import com.example.jobdispatcher.entity.AppServer;
 import com.example.jobdispatcher.entity.ScheduledJob;
 import com.example.jobdispatcher.entity.ThreadPool;
+import com.example.jobdispatcher.model.JobPageResponse;
+import com.example.jobdispatcher.persistence.JobStore;
 import com.example.jobdispatcher.repository.AppServerRepository;
-import com.example.jobdispatcher.repository.ScheduledJobRepository;
 import com.example.jobdispatcher.repository.ThreadPoolRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service for managing database persistence operations.
@@ -34,17 +44,41 @@ public class DatabasePersistenceService {
     private AppServerRepository appServerRepository;
     
     @Autowired
-    private ScheduledJobRepository scheduledJobRepository;
+    private JobStore jobStore;
+    
+    @Autowired
+    private JobStatusPipeline jobStatusPipeline;
+    
+    @Autowired
+    private JobStatisticsService jobStatisticsService;
+    
+    @Autowired
+    private JobListingConfig jobListingConfig;
+    
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    
+    @Autowired
+    private PersistenceConfig persistenceConfig;
+    
+    @Autowired
+    @Lazy
+    private JobArchiveService jobArchiveService;
     
     // ThreadPool Operations
     
     public ThreadPool saveThreadPool(ThreadPool threadPool) {
         logger.info("Saving thread pool: {}", threadPool.getName());
-        return threadPoolRepository.save(threadPool);
+        ThreadPool saved = threadPoolRepository.save(threadPool);
+        referenceDataCache.invalidateThreadPools();
+        return saved;
     }
     
+    /**
+     * Find a thread pool by name through the reference data cache. The result is shared, do not modify it.
+     */
     public Optional<ThreadPool> findThreadPoolByName(String name) {
-        return threadPoolRepository.findByName(name);
+        return referenceDataCache.getThreadPool(name);
     }
     
     public List<ThreadPool> findAllActiveThreadPools() {
@@ -63,13 +97,16 @@ public class DatabasePersistenceService {
     
     public AppServer saveAppServer(AppServer appServer) {
         logger.info("Saving app server: {}", appServer.getName());
-        return appServerRepository.save(appServer);
+        AppServer saved = appServerRepository.save(appServer);
+        referenceDataCache.invalidateAppServers();
+        return saved;
     }
     
     public Optional<AppServer> findAppServerByName(String name) {
         return appServerRepository.findByName(name);
     }
     
+    @Transactional(readOnly = true)
     public List<AppServer> findAllActiveAppServers() {
         return appServerRepository.findByIsActiveTrue();
     }
@@ -82,8 +119,11 @@ public class DatabasePersistenceService {
         return appServerRepository.findByHostAndPort(host, port);
     }
     
+    /**
+     * Find an app server through the reference data cache. The result is shared, do not modify it.
+     */
     public AppServer findAppServerByAppServerId(String appServerId) {
-        return appServerRepository.findByAppServerId(appServerId).orElse(null);
+        return referenceDataCache.getAppServer(appServerId).orElse(null);
     }
     
     public boolean appServerExists(String name) {
@@ -97,6 +137,7 @@ public class DatabasePersistenceService {
             appServer.setHealthStatus(healthStatus);
             appServer.setLastHealthCheck(LocalDateTime.now());
             appServerRepository.save(appServer);
+            referenceDataCache.invalidateAppServers();
             logger.info("Updated health status for app server {}: {}", appServer.getName(), healthStatus);
         }
     }
@@ -105,150 +146,276 @@ public class DatabasePersistenceService {
     
     public ScheduledJob saveScheduledJob(ScheduledJob scheduledJob) {
         logger.info("Saving scheduled job: {}", scheduledJob.getJobId());
-        return scheduledJobRepository.save(scheduledJob);
+        boolean created = scheduledJob.getId() == null;
+        ScheduledJob saved = jobStore.save(scheduledJob);
+        if (created) {
+            jobStatisticsService.recordCreated(saved);
+        }
+        return saved;
+    }
+    
+    /**
+     * Insert many new scheduled jobs in one transaction with a single batched statement.
+     * All rows are written or none are.
+     */
+    public void saveScheduledJobsBatch(List<ScheduledJob> scheduledJobs) {
+        if (scheduledJobs.isEmpty()) {
+            return;
+        }
+        
+        jobStore.insertAll(scheduledJobs);
+        scheduledJobs.forEach(jobStatisticsService::recordCreated);
+        logger.info("Saved batch of {} scheduled jobs", scheduledJobs.size());
+    }
+    
+    /**
+     * Find which of the given job IDs already exist.
+     */
+    public Set<String> findExistingJobIds(Collection<String> jobIds) {
+        if (jobIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        return jobStore.findExistingJobIds(jobIds);
+    }
+    
+    public void deleteScheduledJob(ScheduledJob scheduledJob) {
+        logger.info("Deleting scheduled job: {}", scheduledJob.getJobId());
+        jobStore.deleteByJobId(scheduledJob.getJobId());
+        jobStatisticsService.recordDeleted(scheduledJob);
     }
     
     public Optional<ScheduledJob> findScheduledJobByJobId(String jobId) {
-        return scheduledJobRepository.findByJobId(jobId);
+        return jobStore.findByJobId(jobId);
+    }
+    
+    /**
+     * Find the jobs with the given job IDs in one query; missing IDs are left out.
+     */
+    public List<ScheduledJob> findScheduledJobsByJobIds(Collection<String> jobIds) {
+        if (jobIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jobStore.findByJobIds(jobIds);
+    }
+    
+    /**
+     * Find a job by job ID, falling back to the history table for archived jobs. For reads only,
+     * archived jobs are detached copies that must not be saved.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ScheduledJob> findScheduledOrArchivedJobByJobId(String jobId) {
+        Optional<ScheduledJob> job = jobStore.findByJobId(jobId);
+        if (job.isPresent() || !persistenceConfig.isDatabaseBackend()) {
+            return job;
+        }
+        return jobArchiveService.findArchivedJob(jobId);
     }
     
     public List<ScheduledJob> findScheduledJobsByStatus(String status) {
-        return scheduledJobRepository.findByStatus(status);
+        return jobStore.findByStatus(status);
     }
     
     public List<ScheduledJob> findScheduledJobsByJobType(String jobType) {
-        return scheduledJobRepository.findByJobType(jobType);
+        return jobStore.findByJobType(jobType);
     }
     
     public List<ScheduledJob> findScheduledJobsByGroupKey(String groupKey) {
-        return scheduledJobRepository.findByGroupKey(groupKey);
+        return jobStore.findByGroupKey(groupKey);
     }
     
     public List<ScheduledJob> findScheduledJobsByThreadPool(Long threadPoolId) {
-        return scheduledJobRepository.findByThreadPoolId(threadPoolId);
+        return jobStore.findByThreadPoolId(threadPoolId);
     }
     
     public List<ScheduledJob> findScheduledJobsByAppServer(Long appServerId) {
-        return scheduledJobRepository.findByAppServerId(appServerId);
+        return jobStore.findByAppServerId(appServerId);
     }
     
     public List<ScheduledJob> findJobsForRetry() {
-        return scheduledJobRepository.findJobsForRetry();
+        return jobStore.findJobsForRetry();
     }
     
     public List<ScheduledJob> findLongRunningJobs(LocalDateTime cutoffTime) {
-        return scheduledJobRepository.findLongRunningJobs(cutoffTime);
+        return jobStore.findLongRunningJobs(cutoffTime);
     }
     
     public Page<ScheduledJob> findScheduledJobsWithPagination(String status, Pageable pageable) {
-        return scheduledJobRepository.findByStatus(status, pageable);
+        return jobStore.findByStatusAndJobType(status, null, pageable);
     }
     
     public Page<ScheduledJob> findScheduledJobsByStatusAndTypeWithPagination(String status, String jobType, Pageable pageable) {
-        return scheduledJobRepository.findByStatusAndJobType(status, jobType, pageable);
+        return jobStore.findByStatusAndJobType(status, jobType, pageable);
+    }
+    
+    /**
+     * Find up to limit jobs by status and type, highest priority first and oldest first within a priority.
+     */
+    public List<ScheduledJob> findScheduledJobsByStatusAndTypeInPriorityOrder(String status, String jobType, int limit) {
+        return jobStore.findByStatusAndJobTypeInPriorityOrder(status, jobType, limit);
+    }
+    
+    // Keyset Pagination
+    
+    /**
+     * Get a page of jobs with the given status, newest first.
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public JobPageResponse findJobSummariesByStatus(String status, String cursor, Integer pageSize) {
+        return findJobSummaries("status", status, cursor, pageSize);
+    }
+    
+    /**
+     * Get a page of jobs of the given type, newest first.
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public JobPageResponse findJobSummariesByJobType(String jobType, String cursor, Integer pageSize) {
+        return findJobSummaries("job_type", jobType, cursor, pageSize);
+    }
+    
+    private JobPageResponse findJobSummaries(String field, String value, String cursor, Integer pageSize) {
+        int limit = pageSize != null && pageSize > 0 ? pageSize : jobListingConfig.getDefaultPageSize();
+        return jobStore.findSummaries(field, value, cursor, Math.min(limit, jobListingConfig.getMaxPageSize()));
+    }
+    
+    // Retry Claiming
+    
+    /**
+     * Claim up to limit due retries by clearing their next_retry_at.
+     * Rows locked by another instance are skipped, so each retry is claimed once.
+     * @return the claimed job IDs with the time each retry was due
+     */
+    public Map<String, LocalDateTime> claimDueRetries(int limit) {
+        Map<String, LocalDateTime> claimed = jobStore.claimDueRetries(limit);
+        if (!claimed.isEmpty()) {
+            jobStatisticsService.recordRetriesCleared(claimed.size());
+        }
+        return claimed;
+    }
+    
+    /**
+     * Park a job until the given time. The retry dispatcher claims it like a due retry, without counting an attempt.
+     * @return false if the job was cancelled, finished or started meanwhile
+     */
+    public boolean parkJob(String jobId, LocalDateTime until) {
+        boolean parked = jobStore.park(jobId, until);
+        if (parked) {
+            jobStatisticsService.recordTransition(jobId, "PARKED");
+            jobStatisticsService.recordRetryScheduled();
+        }
+        return parked;
+    }
+    
+    /**
+     * Claim one retry that is due by the given time. Fails if it was cancelled, reset or already claimed.
+     */
+    public boolean claimRetry(String jobId, LocalDateTime dueBy) {
+        boolean claimed = jobStore.claimRetry(jobId, dueBy);
+        if (claimed) {
+            jobStatisticsService.recordRetriesCleared(1);
+        }
+        return claimed;
+    }
+    
+    /**
+     * Find scheduled retries in due order, to backfill the in-memory retry queue.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, LocalDateTime> findPendingRetries(int limit) {
+        return jobStore.findPendingRetries(limit);
     }
     
     public long countScheduledJobsByStatus(String status) {
-        return scheduledJobRepository.countByStatus(status);
+        return jobStore.countByStatus(status);
     }
     
     public long countScheduledJobsByJobType(String jobType) {
-        return scheduledJobRepository.countByJobType(jobType);
+        return jobStore.countByJobType(jobType);
     }
     
     public long countScheduledJobsByGroupKey(String groupKey) {
-        return scheduledJobRepository.countByGroupKey(groupKey);
+        return jobStore.countByGroupKey(groupKey);
     }
     
     public boolean scheduledJobExists(String jobId) {
-        return scheduledJobRepository.existsByJobId(jobId);
+        return jobStore.existsByJobId(jobId);
     }
     
     public void deleteScheduledJobsByStatus(String status) {
         logger.info("Deleting scheduled jobs with status: {}", status);
-        scheduledJobRepository.deleteByStatus(status);
+        jobStore.deleteByStatus(status);
     }
     
-    public void deleteOldScheduledJobs(LocalDateTime cutoffTime) {
+    /**
+     * Delete finished jobs older than the cutoff, in chunks or by dropping partitions; active jobs are kept.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long deleteOldScheduledJobs(LocalDateTime cutoffTime) {
         logger.info("Deleting scheduled jobs older than: {}", cutoffTime);
-        scheduledJobRepository.deleteBySubmittedAtBefore(cutoffTime);
+        return jobStore.deleteFinishedBefore(cutoffTime);
     }
     
     // Job Status Management
     
+    // Lifecycle transitions go through the write-behind pipeline as single-row UPDATEs, so the worker
+    // thread holds no connection while it waits for the pipeline's writer
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void markJobAsStarted(String jobId) {
-        Optional<ScheduledJob> jobOpt = scheduledJobRepository.findByJobId(jobId);
-        if (jobOpt.isPresent()) {
-            ScheduledJob job = jobOpt.get();
-            job.markAsStarted();
-            scheduledJobRepository.save(job);
-            logger.info("Marked job {} as started", jobId);
-        }
+        jobStatusPipeline.publishStarted(jobId);
+        logger.info("Marked job {} as started", jobId);
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void markJobAsCompleted(String jobId) {
-        Optional<ScheduledJob> jobOpt = scheduledJobRepository.findByJobId(jobId);
-        if (jobOpt.isPresent()) {
-            ScheduledJob job = jobOpt.get();
-            job.markAsCompleted();
-            scheduledJobRepository.save(job);
-            logger.info("Marked job {} as completed", jobId);
-        }
+        jobStatusPipeline.publishCompleted(jobId);
+        logger.info("Marked job {} as completed", jobId);
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void markJobAsFailed(String jobId, String errorMessage) {
-        Optional<ScheduledJob> jobOpt = scheduledJobRepository.findByJobId(jobId);
-        if (jobOpt.isPresent()) {
-            ScheduledJob job = jobOpt.get();
-            job.markAsFailed(errorMessage);
-            scheduledJobRepository.save(job);
-            logger.info("Marked job {} as failed: {}", jobId, errorMessage);
-        }
+        jobStatusPipeline.publishFailed(jobId, errorMessage);
+        logger.info("Marked job {} as failed: {}", jobId, errorMessage);
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void markJobAsCancelled(String jobId) {
-        Optional<ScheduledJob> jobOpt = scheduledJobRepository.findByJobId(jobId);
-        if (jobOpt.isPresent()) {
-            ScheduledJob job = jobOpt.get();
-            job.markAsCancelled();
-            scheduledJobRepository.save(job);
-            logger.info("Marked job {} as cancelled", jobId);
+        jobStatusPipeline.publishCancelled(jobId);
+        logger.info("Marked job {} as cancelled", jobId);
+    }
+    
+    public boolean updateJobStatusIfCurrent(String jobId, String expectedStatus, String newStatus) {
+        boolean updated = jobStore.compareAndSetStatus(jobId, expectedStatus, newStatus);
+        if (updated) {
+            jobStatisticsService.recordTransition(jobId, expectedStatus, newStatus);
         }
+        return updated;
+    }
+    
+    /**
+     * Schedule the next retry of a failed or timed out job, if no other actor got there first.
+     */
+    public boolean scheduleRetry(String jobId, int expectedRetryCount, LocalDateTime lastRetryAt,
+                                 LocalDateTime nextRetryAt, String reason) {
+        return jobStore.scheduleRetry(jobId, expectedRetryCount, lastRetryAt, nextRetryAt, reason);
     }
     
     public void incrementJobRetryCount(String jobId) {
-        Optional<ScheduledJob> jobOpt = scheduledJobRepository.findByJobId(jobId);
-        if (jobOpt.isPresent()) {
-            ScheduledJob job = jobOpt.get();
-            job.incrementRetryCount();
-            scheduledJobRepository.save(job);
-            logger.info("Incremented retry count for job {}: {}", jobId, job.getRetryCount());
+        if (jobStore.incrementRetryCount(jobId)) {
+            jobStatisticsService.recordTransition(jobId, "PENDING");
+            logger.info("Incremented retry count for job {}", jobId);
         }
     }
     
     // Statistics and Reporting
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public java.util.Map<String, Object> getJobStatistics() {
-        java.util.Map<String, Object> stats = new java.util.HashMap<>();
-        
-        stats.put("totalJobs", scheduledJobRepository.count());
-        stats.put("pendingJobs", scheduledJobRepository.countByStatus("PENDING"));
-        stats.put("runningJobs", scheduledJobRepository.countByStatus("RUNNING"));
-        stats.put("completedJobs", scheduledJobRepository.countByStatus("COMPLETED"));
-        stats.put("failedJobs", scheduledJobRepository.countByStatus("FAILED"));
-        stats.put("cancelledJobs", scheduledJobRepository.countByStatus("CANCELLED"));
-        
-        stats.put("oneTimeJobs", scheduledJobRepository.countByJobType("ONE_TIME"));
-        stats.put("repetitiveJobs", scheduledJobRepository.countByJobType("REPETITIVE"));
-        
-        stats.put("totalThreadPools", threadPoolRepository.count());
-        stats.put("activeThreadPools", threadPoolRepository.findByIsActiveTrue().size());
-        
-        stats.put("totalAppServers", appServerRepository.count());
-        stats.put("activeAppServers", appServerRepository.findByIsActiveTrue().size());
-        stats.put("upAppServers", appServerRepository.countActiveByHealthStatus("UP"));
-        stats.put("downAppServers", appServerRepository.countActiveByHealthStatus("DOWN"));
-        
-        return stats;
+        return jobStatisticsService.getJobStatistics();
+    }
+    
+    public Map<String, Object> getStoreStats() {
+        return jobStore.getStoreStats();
     }
 }
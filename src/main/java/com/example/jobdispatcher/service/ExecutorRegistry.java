@@ -0,0 +1,340 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.annotation.ExecutorPool;
+import com.example.jobdispatcher.config.ExecutorConfig;
+import com.example.jobdispatcher.entity.ThreadPool;
+import com.example.jobdispatcher.job.Job;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Registry of named executors built from the active rows of the thread_pools table.
+ * Jobs are routed to a pool by the thread pool name on the request, or by the
+ * {@link ExecutorPool} annotation on the job class, falling back to the default pools.
+ */
+@Service
+public class ExecutorRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorRegistry.class);
+    
+    public static final String DEFAULT_ONE_TIME_POOL = "one-time-job-executor";
+    public static final String DEFAULT_REPETITIVE_POOL = "repetitive-job-scheduler";
+    
+    private static final String TYPE_REPETITIVE = "REPETITIVE";
+    
+    @Autowired
+    @Qualifier("oneTimeJobExecutor")
+    private ThreadPoolTaskExecutor oneTimeJobExecutor;
+    
+    @Autowired
+    @Qualifier("repetitiveJobScheduler")
+    private ThreadPoolTaskScheduler repetitiveJobScheduler;
+    
+    @Autowired
+    private ExecutorConfig executorConfig;
+    
+    @Autowired
+    private DatabasePersistenceService databasePersistenceService;
+    
+    @Autowired
+    private JobFactoryRegistry jobFactoryRegistry;
+    
+    // Pools by name and the thread_pools row each was built from
+    private final ConcurrentHashMap<String, NamedPool> pools = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, String> poolNamesById = new ConcurrentHashMap<>();
+    
+    // Schedulers of removed REPETITIVE pools, kept running for the schedules already on them
+    private final List<ThreadPoolTaskScheduler> retiredSchedulers = new CopyOnWriteArrayList<>();
+    
+    /**
+     * Build the named pools on startup.
+     */
+    @PostConstruct
+    public void initialize() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // Keep the default pools usable even if the table cannot be read
+            logger.error("Error loading thread pools, only the default pools are available", e);
+            registerDefaultPools();
+        }
+    }
+    
+    /**
+     * Reload pool definitions from the thread_pools table.
+     * New rows get a pool and changed rows are rebuilt, except REPETITIVE pools, which are resized in
+     * place so the schedules on them keep running. Executors whose rows were removed or deactivated
+     * are shut down after their queued tasks complete; removed schedulers take no new jobs but keep
+     * running their existing schedules until shutdown.
+     */
+    public synchronized void refresh() {
+        List<ThreadPool> rows = databasePersistenceService.findAllActiveThreadPools();
+        Set<String> activeNames = new HashSet<>();
+        
+        registerDefaultPools();
+        activeNames.add(DEFAULT_ONE_TIME_POOL);
+        activeNames.add(DEFAULT_REPETITIVE_POOL);
+        
+        for (ThreadPool row : rows) {
+            activeNames.add(row.getName());
+            poolNamesById.put(row.getId(), row.getName());
+            
+            NamedPool existing = pools.get(row.getName());
+            if (existing != null && (existing.isBuiltIn() || !existing.isChanged(row))) {
+                continue;
+            }
+            if (existing != null && existing.isScheduler() && TYPE_REPETITIVE.equalsIgnoreCase(row.getType())) {
+                existing.resize(row);
+                logger.info("Resized thread pool: {} (pool size: {})", row.getName(), row.getCorePoolSize());
+                continue;
+            }
+            
+            NamedPool pool = buildPool(row);
+            pools.put(row.getName(), pool);
+            if (existing != null) {
+                logger.info("Rebuilt thread pool: {} (type: {}, queue type: {})", row.getName(), row.getType(), row.getQueueType());
+                retire(existing);
+            } else {
+                logger.info("Created thread pool: {} (type: {}, core: {}, max: {}, queue: {} x {})",
+                           row.getName(), row.getType(), row.getCorePoolSize(), row.getMaxPoolSize(),
+                           row.getQueueType(), row.getQueueCapacity());
+            }
+        }
+        
+        // Retire pools that are no longer active
+        pools.entrySet().removeIf(entry -> {
+            if (activeNames.contains(entry.getKey())) {
+                return false;
+            }
+            logger.info("Retiring thread pool: {}", entry.getKey());
+            retire(entry.getValue());
+            return true;
+        });
+        poolNamesById.values().removeIf(name -> !activeNames.contains(name));
+    }
+    
+    /**
+     * Shut down a replaced or removed executor once its queued tasks finish. A scheduler is kept
+     * running instead, since shutting it down would cancel the periodic schedules on it.
+     */
+    private void retire(NamedPool pool) {
+        if (pool.isBuiltIn()) {
+            return;
+        }
+        if (pool.isScheduler()) {
+            retiredSchedulers.add((ThreadPoolTaskScheduler) pool.getExecutor());
+        } else {
+            ((ThreadPoolTaskExecutor) pool.getExecutor()).getThreadPoolExecutor().shutdown();
+        }
+    }
+    
+    /**
+     * Bind the default pool names to the executor beans so existing rows do not create duplicate pools.
+     */
+    private void registerDefaultPools() {
+        pools.putIfAbsent(DEFAULT_ONE_TIME_POOL, new NamedPool("ONE_TIME", oneTimeJobExecutor, null));
+        pools.putIfAbsent(DEFAULT_REPETITIVE_POOL, new NamedPool(TYPE_REPETITIVE, repetitiveJobScheduler, null));
+    }
+    
+    /**
+     * Build an executor, or a scheduler for REPETITIVE rows, from a thread_pools row.
+     */
+    private NamedPool buildPool(ThreadPool row) {
+        if (TYPE_REPETITIVE.equalsIgnoreCase(row.getType())) {
+            ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+            scheduler.setPoolSize(row.getCorePoolSize());
+            scheduler.setThreadNamePrefix(row.getThreadNamePrefix());
+            scheduler.setWaitForTasksToCompleteOnShutdown(true);
+            scheduler.setAwaitTerminationSeconds(60);
+            scheduler.initialize();
+            return new NamedPool(row.getType(), scheduler, row);
+        }
+        
+        String queueType = row.getQueueType();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+                return executorConfig.createQueue(queueType, queueCapacity);
+            }
+        };
+        executor.setCorePoolSize(row.getCorePoolSize());
+        executor.setMaxPoolSize(row.getMaxPoolSize());
+        executor.setQueueCapacity(row.getQueueCapacity());
+        executor.setKeepAliveSeconds(row.getKeepAliveTime().intValue());
+        executor.setThreadNamePrefix(row.getThreadNamePrefix());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return new NamedPool(row.getType(), executor, row);
+    }
+    
+    /**
+     * Resolve the pool for a one-time job: request pool name, then the job class annotation, then the default.
+     */
+    public String resolveOneTimePool(String requestedPool, String jobClassName) {
+        String poolName = resolvePoolName(requestedPool, jobClassName, DEFAULT_ONE_TIME_POOL);
+        if (pools.get(poolName).isScheduler()) {
+            throw new IllegalArgumentException("Thread pool " + poolName + " is a REPETITIVE pool and cannot run one-time jobs");
+        }
+        return poolName;
+    }
+    
+    /**
+     * Resolve the pool for a repetitive job: request pool name, then the job class annotation, then the default.
+     */
+    public String resolveRepetitivePool(String requestedPool, String jobClassName) {
+        String poolName = resolvePoolName(requestedPool, jobClassName, DEFAULT_REPETITIVE_POOL);
+        if (!pools.get(poolName).isScheduler()) {
+            throw new IllegalArgumentException("Thread pool " + poolName + " is not a REPETITIVE pool");
+        }
+        return poolName;
+    }
+    
+    private String resolvePoolName(String requestedPool, String jobClassName, String defaultPool) {
+        if (requestedPool != null && !requestedPool.trim().isEmpty()) {
+            if (!pools.containsKey(requestedPool)) {
+                throw new IllegalArgumentException("Unknown or inactive thread pool: " + requestedPool);
+            }
+            return requestedPool;
+        }
+        
+        Class<? extends Job> jobClass = jobFactoryRegistry.getJobClass(jobClassName);
+        ExecutorPool annotation = jobClass.getAnnotation(ExecutorPool.class);
+        if (annotation != null) {
+            if (pools.containsKey(annotation.value())) {
+                return annotation.value();
+            }
+            logger.warn("Thread pool {} declared on {} is not active, using {}", annotation.value(), jobClassName, defaultPool);
+        }
+        return defaultPool;
+    }
+    
+    /**
+     * Get the executor for a pool name, falling back to the default one-time executor.
+     */
+    public Executor getExecutor(String poolName) {
+        NamedPool pool = poolName != null ? pools.get(poolName) : null;
+        if (pool == null || pool.isScheduler()) {
+            return oneTimeJobExecutor;
+        }
+        return pool.getExecutor();
+    }
+    
+    /**
+     * Get the scheduler for a pool name, falling back to the default repetitive scheduler.
+     */
+    public ThreadPoolTaskScheduler getScheduler(String poolName) {
+        NamedPool pool = poolName != null ? pools.get(poolName) : null;
+        if (pool == null || !pool.isScheduler()) {
+            return repetitiveJobScheduler;
+        }
+        return (ThreadPoolTaskScheduler) pool.getExecutor();
+    }
+    
+    /**
+     * Get the pool name for a thread_pools row id, or null if the row is not active.
+     */
+    public String getPoolName(Long threadPoolId) {
+        return threadPoolId != null ? poolNamesById.get(threadPoolId) : null;
+    }
+    
+    /**
+     * Get all registered executors by pool name.
+     */
+    public Map<String, Executor> getExecutors() {
+        Map<String, Executor> executors = new HashMap<>();
+        pools.forEach((name, pool) -> executors.put(name, pool.getExecutor()));
+        return executors;
+    }
+    
+    /**
+     * Shut down the pools created from the table. The default pools are managed by Spring.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pools.values().stream()
+            .filter(pool -> !pool.isBuiltIn())
+            .forEach(NamedPool::shutdown);
+        retiredSchedulers.forEach(ThreadPoolTaskScheduler::shutdown);
+    }
+    
+    /**
+     * A pool built from a thread_pools row, or one of the default executor beans.
+     */
+    private static class NamedPool {
+        private final String type;
+        private final Executor executor;
+        private volatile ThreadPool definition; // null for the default pools
+        
+        public NamedPool(String type, Executor executor, ThreadPool definition) {
+            this.type = type;
+            this.executor = executor;
+            this.definition = definition;
+        }
+        
+        public boolean isBuiltIn() {
+            return definition == null;
+        }
+        
+        public boolean isScheduler() {
+            return executor instanceof ThreadPoolTaskScheduler;
+        }
+        
+        /**
+         * Check whether a row differs from the definition this pool was built from.
+         */
+        public boolean isChanged(ThreadPool row) {
+            return !row.getType().equalsIgnoreCase(definition.getType())
+                    || !row.getCorePoolSize().equals(definition.getCorePoolSize())
+                    || !row.getMaxPoolSize().equals(definition.getMaxPoolSize())
+                    || !row.getKeepAliveTime().equals(definition.getKeepAliveTime())
+                    || !row.getQueueCapacity().equals(definition.getQueueCapacity())
+                    || !row.getQueueType().equalsIgnoreCase(definition.getQueueType())
+                    || !row.getThreadNamePrefix().equals(definition.getThreadNamePrefix());
+        }
+        
+        /**
+         * Apply a changed row to this scheduler without replacing it. Only the pool size and
+         * thread name prefix apply to schedulers; the prefix is used for threads started from now on.
+         */
+        public void resize(ThreadPool row) {
+            ThreadPoolTaskScheduler scheduler = (ThreadPoolTaskScheduler) executor;
+            scheduler.setPoolSize(row.getCorePoolSize());
+            scheduler.setThreadNamePrefix(row.getThreadNamePrefix());
+            definition = row;
+        }
+        
+        public void shutdown() {
+            if (executor instanceof ThreadPoolTaskScheduler) {
+                ((ThreadPoolTaskScheduler) executor).shutdown();
+            } else {
+                ((ThreadPoolTaskExecutor) executor).shutdown();
+            }
+        }
+        
+        public String getType() {
+            return type;
+        }
+        
+        public Executor getExecutor() {
+            return executor;
+        }
+    }
+}
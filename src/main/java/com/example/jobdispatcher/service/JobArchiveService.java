@@ -0,0 +1,199 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.ArchiveConfig;
+import com.example.jobdispatcher.config.PersistenceConfig;
+import com.example.jobdispatcher.entity.ScheduledJob;
+import com.example.jobdispatcher.enums.JobPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves finished jobs out of scheduled_jobs into scheduled_jobs_history.
+ * Each batch selects the oldest finished jobs with SKIP LOCKED, copies them with INSERT ... SELECT and
+ * deletes them from scheduled_jobs in one transaction, so several instances can archive concurrently.
+ * The delete trigger releases their ids in scheduled_job_ids, so the batch reserves them again: an archived
+ * job's id stays taken until retention deletes its history row (V13).
+ */
+@Service
+public class JobArchiveService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobArchiveService.class);
+    
+    static final String JOB_COLUMNS =
+            "id, job_id, job_name, job_class_name, job_type, group_key, can_group, group_buffer_millis, " +
+            "interval_millis, initial_delay_millis, repetition_type, cron_expression, overlap_policy, status, " +
+            "submitted_at, started_at, completed_at, execution_time_ms, error_message, retry_count, max_retries, " +
+            "priority, job_priority, timeout_millis, retry_enabled, max_retry_attempts, retry_delay_millis, " +
+            "retry_multiplier, retry_max_delay_millis, last_retry_at, next_retry_at, retry_reason, metadata, " +
+            "thread_pool_id, app_server_id, created_at, updated_at";
+    
+    private static final String SELECT_ARCHIVABLE_SQL =
+            "SELECT id FROM scheduled_jobs WHERE completed_at < ? AND NOT " + JobRetentionService.ACTIVE_JOB_CONDITION + " " +
+            "ORDER BY completed_at LIMIT ? FOR UPDATE SKIP LOCKED";
+    
+    private static final String SELECT_HISTORY_BY_JOB_ID_SQL =
+            "SELECT " + JOB_COLUMNS + " FROM scheduled_jobs_history WHERE job_id = ? ORDER BY archived_at DESC LIMIT 1";
+    
+    @Autowired
+    private ArchiveConfig archiveConfig;
+    
+    @Autowired
+    private PersistenceConfig persistenceConfig;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JobStatisticsService jobStatisticsService;
+    
+    private final AtomicLong totalArchived = new AtomicLong();
+    private final AtomicLong historyLookups = new AtomicLong();
+    private volatile long lastRunArchived = 0;
+    private volatile long lastRunMillis = 0;
+    private volatile long lastRunAt = 0;
+    
+    /**
+     * Archive finished jobs older than archive-after-hours (called by scheduler).
+     */
+    @Scheduled(fixedDelayString = "${job-dispatcher.archive.interval-millis:60000}",
+               initialDelayString = "${job-dispatcher.archive.interval-millis:60000}")
+    public void archiveFinishedJobs() {
+        // scheduled_jobs_history only exists in MySQL
+        if (!archiveConfig.isEnabled() || !persistenceConfig.isDatabaseBackend()) {
+            return;
+        }
+        
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(archiveConfig.getArchiveAfterHours());
+        long start = System.currentTimeMillis();
+        long archived = 0;
+        try {
+            for (int batch = 0; batch < archiveConfig.getMaxBatchesPerRun(); batch++) {
+                Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+                archived += moved != null ? moved : 0;
+                if (moved == null || moved < archiveConfig.getBatchSize()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error archiving finished jobs", e);
+        }
+        
+        totalArchived.addAndGet(archived);
+        lastRunArchived = archived;
+        lastRunMillis = System.currentTimeMillis() - start;
+        lastRunAt = System.currentTimeMillis();
+        
+        if (archived > 0) {
+            logger.info("Archived {} finished jobs completed before {} in {}ms", archived, cutoff, lastRunMillis);
+            jobStatisticsService.reconcile();
+        }
+    }
+    
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_ARCHIVABLE_SQL, Long.class,
+                                                   Timestamp.valueOf(cutoff), archiveConfig.getBatchSize());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] params = ids.toArray();
+        jdbcTemplate.update("INSERT INTO scheduled_jobs_history (" + JOB_COLUMNS + ") SELECT " + JOB_COLUMNS +
+                            " FROM scheduled_jobs WHERE id IN (" + placeholders + ")", params);
+        jdbcTemplate.update("DELETE FROM scheduled_jobs WHERE id IN (" + placeholders + ")", params);
+        jdbcTemplate.update("INSERT IGNORE INTO scheduled_job_ids (job_id, submitted_at) SELECT job_id, submitted_at" +
+                            " FROM scheduled_jobs_history WHERE id IN (" + placeholders + ")", params);
+        return ids.size();
+    }
+    
+    /**
+     * Find an archived job by job ID.
+     */
+    public Optional<ScheduledJob> findArchivedJob(String jobId) {
+        historyLookups.incrementAndGet();
+        List<ScheduledJob> jobs = jdbcTemplate.query(SELECT_HISTORY_BY_JOB_ID_SQL, HISTORY_ROW_MAPPER, jobId);
+        return jobs.isEmpty() ? Optional.empty() : Optional.of(jobs.get(0));
+    }
+    
+    /**
+     * Get archiving statistics.
+     */
+    public Map<String, Object> getArchiveStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", archiveConfig.isEnabled());
+        stats.put("archiveAfterHours", archiveConfig.getArchiveAfterHours());
+        stats.put("totalArchived", totalArchived.get());
+        stats.put("lastRunArchived", lastRunArchived);
+        stats.put("lastRunMillis", lastRunMillis);
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("historyLookups", historyLookups.get());
+        return stats;
+    }
+    
+    // Thread pool and app server are not loaded for archived jobs
+    private static final RowMapper<ScheduledJob> HISTORY_ROW_MAPPER = (rs, rowNum) -> {
+        ScheduledJob job = new ScheduledJob();
+        job.setId(rs.getLong("id"));
+        job.setJobId(rs.getString("job_id"));
+        job.setJobName(rs.getString("job_name"));
+        job.setJobClassName(rs.getString("job_class_name"));
+        job.setJobType(rs.getString("job_type"));
+        job.setGroupKey(rs.getString("group_key"));
+        job.setCanGroup(rs.getBoolean("can_group"));
+        job.setGroupBufferMillis(rs.getObject("group_buffer_millis", Long.class));
+        job.setIntervalMillis(rs.getObject("interval_millis", Long.class));
+        job.setInitialDelayMillis(rs.getObject("initial_delay_millis", Long.class));
+        job.setRepetitionType(rs.getString("repetition_type"));
+        job.setCronExpression(rs.getString("cron_expression"));
+        job.setOverlapPolicy(rs.getString("overlap_policy"));
+        job.setStatus(rs.getString("status"));
+        job.setSubmittedAt(toLocalDateTime(rs, "submitted_at"));
+        job.setStartedAt(toLocalDateTime(rs, "started_at"));
+        job.setCompletedAt(toLocalDateTime(rs, "completed_at"));
+        job.setExecutionTimeMs(rs.getObject("execution_time_ms", Long.class));
+        job.setErrorMessage(rs.getString("error_message"));
+        job.setRetryCount(rs.getInt("retry_count"));
+        job.setMaxRetries(rs.getInt("max_retries"));
+        job.setPriority(rs.getInt("priority"));
+        String jobPriority = rs.getString("job_priority");
+        job.setJobPriority(jobPriority != null ? JobPriority.valueOf(jobPriority) : null);
+        job.setTimeoutMillis(rs.getObject("timeout_millis", Long.class));
+        job.setRetryEnabled(rs.getBoolean("retry_enabled"));
+        job.setMaxRetryAttempts(rs.getInt("max_retry_attempts"));
+        job.setRetryDelayMillis(rs.getObject("retry_delay_millis", Long.class));
+        job.setRetryMultiplier(rs.getObject("retry_multiplier", Double.class));
+        job.setRetryMaxDelayMillis(rs.getObject("retry_max_delay_millis", Long.class));
+        job.setLastRetryAt(toLocalDateTime(rs, "last_retry_at"));
+        job.setNextRetryAt(toLocalDateTime(rs, "next_retry_at"));
+        job.setRetryReason(rs.getString("retry_reason"));
+        job.setMetadata(rs.getString("metadata"));
+        job.setCreatedAt(toLocalDateTime(rs, "created_at"));
+        job.setUpdatedAt(toLocalDateTime(rs, "updated_at"));
+        return job;
+    };
+    
+    private static LocalDateTime toLocalDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
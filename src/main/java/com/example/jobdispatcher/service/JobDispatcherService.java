@@ -1,8 +1,13 @@
 package com.example.jobdispatcher.service;
 
+import com.example.jobdispatcher.config.BatchSubmissionConfig;
+import com.example.jobdispatcher.config.JobPriorityConfig;
+import com.example.jobdispatcher.enums.JobPriority;
+import com.example.jobdispatcher.executor.PrioritizedTask;
 import com.example.jobdispatcher.job.Job;
 import com.example.jobdispatcher.job.OneTimeJob;
 import com.example.jobdispatcher.job.RepetitiveJob;
+import com.example.jobdispatcher.model.JobSubmissionResponse;
 import com.example.jobdispatcher.model.OneTimeJobRequest;
 import com.example.jobdispatcher.model.RepetitiveJobRequest;
 import com.example.jobdispatcher.entity.ScheduledJob;
@@ -11,15 +16,24 @@ import com.example.jobdispatcher.entity.AppServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Service;
+import org.springframework.scheduling.support.CronExpression;
 import org.springframework.scheduling.support.CronTrigger;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
-import java.util.Date;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for dispatching jobs to appropriate thread pools.
@@ -30,12 +44,7 @@ public class JobDispatcherService {
     private static final Logger logger = LoggerFactory.getLogger(JobDispatcherService.class);
     
     @Autowired
-    @Qualifier("oneTimeJobExecutor")
-    private Executor oneTimeJobExecutor;
-    
-    @Autowired
-    @Qualifier("repetitiveJobScheduler")
-    private ThreadPoolTaskScheduler repetitiveJobScheduler;
+    private ExecutorRegistry executorRegistry;
     
     @Autowired
     private JobGroupingService jobGroupingService;
@@ -46,6 +55,33 @@ public class JobDispatcherService {
     @Autowired
     private JobRetryService jobRetryService;
     
+    @Autowired
+    private JobFactoryRegistry jobFactoryRegistry;
+    
+    @Autowired
+    private JobPriorityConfig jobPriorityConfig;
+    
+    @Autowired
+    private AdmissionControlService admissionControlService;
+    
+    @Autowired
+    private BatchSubmissionConfig batchSubmissionConfig;
+    
+    @Autowired
+    private AcceptanceJournalService acceptanceJournalService;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private RepetitiveJobExecutionService repetitiveJobExecutionService;
+    
+    @Autowired
+    private JobTimeoutWatchdog jobTimeoutWatchdog;
+    
+    @Autowired
+    private CircuitBreakerService circuitBreakerService;
+    
     // Store scheduled tasks for management
     private final ConcurrentHashMap<String, ScheduledFuture<?>> scheduledTasks = new ConcurrentHashMap<>();
     
@@ -55,63 +91,84 @@ public class JobDispatcherService {
      */
     public void dispatchOneTimeJob(OneTimeJobRequest request) {
         try {
+            // Reject unknown job classes before anything is persisted
+            jobFactoryRegistry.validate(request.getJobClassName(), OneTimeJob.class);
+            String threadPoolName = executorRegistry.resolveOneTimePool(request.getThreadPoolName(), request.getJobClassName());
+            boolean grouped = request.isCanGroup() && request.getGroupKey() != null && !request.getGroupKey().trim().isEmpty();
+            
+            // Check executor capacity before anything is persisted, grouped jobs are buffered first
+            boolean dispatchNow = grouped || admissionControlService.admitOneTimeJob(threadPoolName, resolvePriority(request));
+            
+            // Acknowledge once the job is in the acceptance journal, it is inserted and dispatched asynchronously
+            if (acceptanceJournalService.acceptOneTimeJob(request, threadPoolName, !dispatchNow)) {
+                logger.info("Job {} accepted into acceptance journal", request.getJobId());
+                return;
+            }
+            
             // Create and save scheduled job record
-            ScheduledJob scheduledJob = createScheduledJobFromRequest(request, "ONE_TIME");
+            ScheduledJob scheduledJob = createScheduledJobFromRequest(request, "ONE_TIME", threadPoolName);
+            if (!dispatchNow) {
+                scheduledJob.setStatus(AdmissionControlService.STATUS_OVERFLOW);
+            }
             databasePersistenceService.saveScheduledJob(scheduledJob);
             
             // Check if job should be grouped
-            if (request.isCanGroup() && request.getGroupKey() != null && !request.getGroupKey().trim().isEmpty()) {
+            if (grouped) {
                 logger.info("Job {} submitted for grouping with key: {}", request.getJobId(), request.getGroupKey());
                 jobGroupingService.processOneTimeJob(request);
                 return;
             }
             
-            // No grouping, dispatch immediately
-            Job job = createJobInstance(request.getJobClassName());
-            if (job instanceof OneTimeJob) {
-                // Set the external job ID and name from the request
-                job.setJobId(request.getJobId());
-                job.setJobName(request.getJobName());
-                
-                logger.info("Dispatching one-time job: {} with ID: {}", request.getJobName(), request.getJobId());
-                
-                oneTimeJobExecutor.execute(() -> {
-                    try {
-                        databasePersistenceService.markJobAsStarted(request.getJobId());
-                        logger.info("Executing one-time job: {} with ID: {}", job.getJobName(), job.getJobId());
-                        job.process();
-                        databasePersistenceService.markJobAsCompleted(request.getJobId());
-                        logger.info("Completed one-time job: {} with ID: {}", job.getJobName(), job.getJobId());
-                    } catch (Exception e) {
-                        databasePersistenceService.markJobAsFailed(request.getJobId(), e.getMessage());
-                        logger.error("Error executing one-time job: {} with ID: {}", job.getJobName(), job.getJobId(), e);
-                        
-                        // Schedule retry if applicable
-                        try {
-                            ScheduledJob retryJob = databasePersistenceService.findScheduledJobByJobId(request.getJobId()).orElse(null);
-                            if (retryJob != null) {
-                                jobRetryService.scheduleRetry(retryJob, e);
-                            }
-                        } catch (Exception retryException) {
-                            logger.error("Error scheduling retry for job: {}", request.getJobId(), retryException);
-                        }
-                    }
-                });
-            } else {
-                throw new IllegalArgumentException("Job class must implement OneTimeJob interface");
+            if (!dispatchNow) {
+                logger.info("Job {} parked in overflow queue, thread pool {} is at capacity", request.getJobId(), threadPoolName);
+                return;
             }
+            
+            // No grouping, dispatch immediately
+            executeOneTimeJob(request, scheduledJob, threadPoolName, false);
+        } catch (AdmissionControlService.AdmissionRejectedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error dispatching one-time job: {}", request.getJobId(), e);
             throw new RuntimeException("Failed to dispatch one-time job", e);
         }
     }
     
+    /**
+     * Submit a persisted one-time job to its executor.
+     * Acknowledged jobs are failed instead of removed if the executor rejects them.
+     */
+    private void executeOneTimeJob(OneTimeJobRequest request, ScheduledJob scheduledJob, String threadPoolName, boolean acknowledged) {
+        Job job = createJobInstance(request.getJobClassName());
+        if (job instanceof OneTimeJob) {
+            // Set the external job ID and name from the request
+            job.setJobId(request.getJobId());
+            job.setJobName(request.getJobName());
+            
+            logger.info("Dispatching one-time job: {} with ID: {} (priority: {}, pool: {})",
+                       request.getJobName(), request.getJobId(), scheduledJob.getJobPriority(), threadPoolName);
+            
+            try {
+                executorRegistry.getExecutor(threadPoolName).execute(new PrioritizedTask(scheduledJob.getJobPriority(), request.getJobId(),
+                        () -> runOneTimeJob(scheduledJob, job, threadPoolName)));
+            } catch (RejectedExecutionException e) {
+                // Pool filled up between admission and execute
+                admissionControlService.handleRejectedDispatch(scheduledJob, threadPoolName, acknowledged);
+            }
+        } else {
+            throw new IllegalArgumentException("Job class must implement OneTimeJob interface");
+        }
+    }
+    
     /**
      * Dispatch a repetitive job to the scheduler.
      * If grouping is enabled, the job will be processed by the grouping service.
      */
     public void dispatchRepetitiveJob(RepetitiveJobRequest request) {
         try {
+            jobFactoryRegistry.validate(request.getJobClassName(), RepetitiveJob.class);
+            String threadPoolName = executorRegistry.resolveRepetitivePool(request.getThreadPoolName(), request.getJobClassName());
+            
             // Check if job should be grouped
             if (request.isCanGroup() && request.getGroupKey() != null && !request.getGroupKey().trim().isEmpty()) {
                 logger.info("Repetitive job {} submitted for grouping with key: {}", request.getJobId(), request.getGroupKey());
@@ -128,13 +185,13 @@ public class JobDispatcherService {
                 job.setJobId(request.getJobId());
                 job.setJobName(request.getJobName());
                 
-                logger.info("Dispatching repetitive job: {} with ID: {}", request.getJobName(), request.getJobId());
+                logger.info("Dispatching repetitive job: {} with ID: {} (pool: {})", request.getJobName(), request.getJobId(), threadPoolName);
                 
         // Persist the scheduled job with cron if present
-        ScheduledJob scheduledJob = createScheduledJobFromRequest(request, "REPETITIVE");
+        ScheduledJob scheduledJob = createScheduledJobFromRequest(request, "REPETITIVE", threadPoolName);
         databasePersistenceService.saveScheduledJob(scheduledJob);
         
-        ScheduledFuture<?> scheduledTask = scheduleRepetitiveJob(repetitiveJob, request);
+        ScheduledFuture<?> scheduledTask = scheduleRepetitiveJob(repetitiveJob, request, threadPoolName);
                 scheduledTasks.put(request.getJobId(), scheduledTask);
                 
                 logger.info("Scheduled repetitive job: {} with ID: {}", request.getJobName(), request.getJobId());
@@ -147,6 +204,283 @@ public class JobDispatcherService {
         }
     }
     
+    /**
+     * Dispatch a batch of one-time jobs.
+     * Every item is validated first, the accepted items are inserted in one transaction and then
+     * dispatched. Returns one result per item, in request order.
+     */
+    public List<JobSubmissionResponse> dispatchOneTimeJobs(List<OneTimeJobRequest> requests) {
+        checkBatchSize(requests);
+        
+        JobSubmissionResponse[] results = new JobSubmissionResponse[requests.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<ScheduledJob> scheduledJobs = new ArrayList<>();
+        List<String> threadPoolNames = new ArrayList<>();
+        
+        Set<String> existingJobIds = databasePersistenceService.findExistingJobIds(collectJobIds(requests));
+        Set<String> batchJobIds = new HashSet<>();
+        
+        // Capacity is read once per pool and priority, then drawn down by each admitted item
+        Map<String, Integer> capacityBudgets = new HashMap<>();
+        
+        for (int i = 0; i < requests.size(); i++) {
+            OneTimeJobRequest request = requests.get(i);
+            String jobId = request != null ? request.getJobId() : null;
+            try {
+                validateBatchItem(request, jobId, existingJobIds, batchJobIds);
+                jobFactoryRegistry.validate(request.getJobClassName(), OneTimeJob.class);
+                String threadPoolName = executorRegistry.resolveOneTimePool(request.getThreadPoolName(), request.getJobClassName());
+                boolean grouped = request.isCanGroup() && request.getGroupKey() != null && !request.getGroupKey().trim().isEmpty();
+                
+                boolean dispatchNow = grouped;
+                if (!grouped) {
+                    JobPriority priority = resolvePriority(request);
+                    String budgetKey = threadPoolName + ":" + priority;
+                    int budget = capacityBudgets.computeIfAbsent(budgetKey,
+                            key -> admissionControlService.getAvailableCapacity(threadPoolName, priority));
+                    dispatchNow = admissionControlService.admitOneTimeJob(threadPoolName, budget > 0);
+                    if (dispatchNow && budget != Integer.MAX_VALUE) {
+                        capacityBudgets.put(budgetKey, budget - 1);
+                    }
+                }
+                
+                ScheduledJob scheduledJob = createScheduledJobFromRequest(request, "ONE_TIME", threadPoolName);
+                if (!dispatchNow) {
+                    scheduledJob.setStatus(AdmissionControlService.STATUS_OVERFLOW);
+                }
+                acceptedIndexes.add(i);
+                scheduledJobs.add(scheduledJob);
+                threadPoolNames.add(threadPoolName);
+            } catch (AdmissionControlService.AdmissionRejectedException e) {
+                results[i] = new JobSubmissionResponse(jobId, "REJECTED",
+                        "Job dispatcher is at capacity, retry after " + e.getRetryAfterSeconds() + " seconds");
+            } catch (Exception e) {
+                results[i] = new JobSubmissionResponse(jobId, "FAILED", e.getMessage());
+            }
+        }
+        
+        if (!persistBatch(scheduledJobs, acceptedIndexes, results)) {
+            return Arrays.asList(results);
+        }
+        
+        for (int k = 0; k < acceptedIndexes.size(); k++) {
+            int i = acceptedIndexes.get(k);
+            OneTimeJobRequest request = requests.get(i);
+            ScheduledJob scheduledJob = scheduledJobs.get(k);
+            try {
+                if (request.isCanGroup() && request.getGroupKey() != null && !request.getGroupKey().trim().isEmpty()) {
+                    jobGroupingService.processOneTimeJob(request);
+                    results[i] = new JobSubmissionResponse(request.getJobId(), "SUBMITTED", "Job submitted for grouping");
+                } else if (AdmissionControlService.STATUS_OVERFLOW.equals(scheduledJob.getStatus())) {
+                    results[i] = new JobSubmissionResponse(request.getJobId(), "SUBMITTED", "Job parked in overflow queue");
+                } else {
+                    executeOneTimeJob(request, scheduledJob, threadPoolNames.get(k), false);
+                    results[i] = new JobSubmissionResponse(request.getJobId(), "SUBMITTED", "One-time job submitted successfully");
+                }
+            } catch (AdmissionControlService.AdmissionRejectedException e) {
+                results[i] = new JobSubmissionResponse(request.getJobId(), "REJECTED",
+                        "Job dispatcher is at capacity, retry after " + e.getRetryAfterSeconds() + " seconds");
+            } catch (Exception e) {
+                logger.error("Error dispatching one-time job: {}", request.getJobId(), e);
+                databasePersistenceService.markJobAsFailed(request.getJobId(), e.getMessage());
+                results[i] = new JobSubmissionResponse(request.getJobId(), "FAILED", "Failed to dispatch one-time job: " + e.getMessage());
+            }
+        }
+        
+        logger.info("Dispatched one-time job batch: {} of {} accepted", acceptedIndexes.size(), requests.size());
+        return Arrays.asList(results);
+    }
+    
+    /**
+     * Dispatch a batch of repetitive jobs.
+     * Every item is validated first, the accepted items are inserted in one transaction and then
+     * scheduled. Returns one result per item, in request order.
+     */
+    public List<JobSubmissionResponse> dispatchRepetitiveJobs(List<RepetitiveJobRequest> requests) {
+        checkBatchSize(requests);
+        
+        JobSubmissionResponse[] results = new JobSubmissionResponse[requests.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<ScheduledJob> scheduledJobs = new ArrayList<>();
+        List<String> threadPoolNames = new ArrayList<>();
+        List<Integer> groupedIndexes = new ArrayList<>();
+        
+        Set<String> existingJobIds = databasePersistenceService.findExistingJobIds(collectJobIds(requests));
+        Set<String> batchJobIds = new HashSet<>();
+        
+        for (int i = 0; i < requests.size(); i++) {
+            RepetitiveJobRequest request = requests.get(i);
+            String jobId = request != null ? request.getJobId() : null;
+            try {
+                validateBatchItem(request, jobId, existingJobIds, batchJobIds);
+                jobFactoryRegistry.validate(request.getJobClassName(), RepetitiveJob.class);
+                String threadPoolName = executorRegistry.resolveRepetitivePool(request.getThreadPoolName(), request.getJobClassName());
+                if (request.getRepetitionType() == RepetitiveJob.RepetitionType.CRON
+                        && (request.getCronExpression() == null || !CronExpression.isValidExpression(request.getCronExpression()))) {
+                    throw new IllegalArgumentException("A valid cronExpression is required when repetitionType is CRON");
+                }
+                
+                // Grouped repetitive jobs are persisted when the group is dispatched
+                if (request.isCanGroup() && request.getGroupKey() != null && !request.getGroupKey().trim().isEmpty()) {
+                    groupedIndexes.add(i);
+                    continue;
+                }
+                
+                acceptedIndexes.add(i);
+                scheduledJobs.add(createScheduledJobFromRequest(request, "REPETITIVE", threadPoolName));
+                threadPoolNames.add(threadPoolName);
+            } catch (Exception e) {
+                results[i] = new JobSubmissionResponse(jobId, "FAILED", e.getMessage());
+            }
+        }
+        
+        if (persistBatch(scheduledJobs, acceptedIndexes, results)) {
+            for (int k = 0; k < acceptedIndexes.size(); k++) {
+                int i = acceptedIndexes.get(k);
+                RepetitiveJobRequest request = requests.get(i);
+                try {
+                    RepetitiveJob job = (RepetitiveJob) createJobInstance(request.getJobClassName());
+                    job.setJobId(request.getJobId());
+                    job.setJobName(request.getJobName());
+                    scheduledTasks.put(request.getJobId(), scheduleRepetitiveJob(job, request, threadPoolNames.get(k)));
+                    results[i] = new JobSubmissionResponse(request.getJobId(), "SCHEDULED", "Repetitive job scheduled successfully");
+                } catch (Exception e) {
+                    logger.error("Error scheduling repetitive job: {}", request.getJobId(), e);
+                    databasePersistenceService.markJobAsFailed(request.getJobId(), e.getMessage());
+                    results[i] = new JobSubmissionResponse(request.getJobId(), "FAILED", "Failed to schedule repetitive job: " + e.getMessage());
+                }
+            }
+        }
+        
+        for (int i : groupedIndexes) {
+            RepetitiveJobRequest request = requests.get(i);
+            try {
+                jobGroupingService.processRepetitiveJob(request);
+                results[i] = new JobSubmissionResponse(request.getJobId(), "SCHEDULED", "Repetitive job submitted for grouping");
+            } catch (Exception e) {
+                results[i] = new JobSubmissionResponse(request.getJobId(), "FAILED", "Failed to group repetitive job: " + e.getMessage());
+            }
+        }
+        
+        logger.info("Dispatched repetitive job batch: {} of {} accepted", acceptedIndexes.size() + groupedIndexes.size(), requests.size());
+        return Arrays.asList(results);
+    }
+    
+    /**
+     * Insert one-time jobs accepted through the acceptance journal and dispatch them.
+     * A job whose row already exists is a duplicate submission and is skipped, except while replaying
+     * entries from before a restart: those rows may have been inserted without being dispatched, so
+     * they are dispatched again if they are still PENDING.
+     */
+    public void replicateJournaledJobs(List<AcceptanceJournalService.JournaledJob> journaledJobs, boolean replay) {
+        Set<String> existingJobIds = databasePersistenceService.findExistingJobIds(journaledJobs.stream()
+                .map(journaledJob -> journaledJob.getRequest().getJobId())
+                .collect(Collectors.toSet()));
+        
+        List<ScheduledJob> newJobs = new ArrayList<>();
+        List<ScheduledJob> scheduledJobs = new ArrayList<>();
+        for (AcceptanceJournalService.JournaledJob journaledJob : journaledJobs) {
+            OneTimeJobRequest request = journaledJob.getRequest();
+            ScheduledJob scheduledJob = null;
+            if (!existingJobIds.contains(request.getJobId())) {
+                scheduledJob = createScheduledJobFromRequest(request, "ONE_TIME", journaledJob.getThreadPoolName());
+                if (journaledJob.isOverflow()) {
+                    scheduledJob.setStatus(AdmissionControlService.STATUS_OVERFLOW);
+                }
+                newJobs.add(scheduledJob);
+            } else if (replay) {
+                scheduledJob = databasePersistenceService.findScheduledJobByJobId(request.getJobId())
+                        .filter(existing -> "PENDING".equals(existing.getStatus()))
+                        .orElse(null);
+            } else {
+                logger.warn("Skipping journaled job {}, a job with this ID already exists", request.getJobId());
+            }
+            scheduledJobs.add(scheduledJob);
+        }
+        
+        // A failed insert is retried by the replicator, nothing has been dispatched yet
+        databasePersistenceService.saveScheduledJobsBatch(newJobs);
+        
+        for (int i = 0; i < journaledJobs.size(); i++) {
+            ScheduledJob scheduledJob = scheduledJobs.get(i);
+            if (scheduledJob == null) {
+                continue;
+            }
+            
+            OneTimeJobRequest request = journaledJobs.get(i).getRequest();
+            try {
+                if (request.isCanGroup() && request.getGroupKey() != null && !request.getGroupKey().trim().isEmpty()) {
+                    jobGroupingService.processOneTimeJob(request);
+                } else if (!AdmissionControlService.STATUS_OVERFLOW.equals(scheduledJob.getStatus())) {
+                    executeOneTimeJob(request, scheduledJob, journaledJobs.get(i).getThreadPoolName(), true);
+                }
+            } catch (Exception e) {
+                logger.error("Error dispatching journaled job: {}", request.getJobId(), e);
+                databasePersistenceService.markJobAsFailed(request.getJobId(), e.getMessage());
+            }
+        }
+    }
+    
+    private void checkBatchSize(List<?> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one job");
+        }
+        if (requests.size() > batchSubmissionConfig.getMaxBatchSize()) {
+            throw new IllegalArgumentException("Batch size " + requests.size() + " exceeds the maximum of "
+                    + batchSubmissionConfig.getMaxBatchSize());
+        }
+    }
+    
+    private Set<String> collectJobIds(List<?> requests) {
+        Set<String> jobIds = new HashSet<>();
+        for (Object request : requests) {
+            String jobId = request instanceof OneTimeJobRequest ? ((OneTimeJobRequest) request).getJobId()
+                    : request instanceof RepetitiveJobRequest ? ((RepetitiveJobRequest) request).getJobId() : null;
+            if (jobId != null) {
+                jobIds.add(jobId);
+            }
+        }
+        return jobIds;
+    }
+    
+    /**
+     * Apply bean validation and reject job IDs that already exist or repeat within the batch.
+     */
+    private void validateBatchItem(Object request, String jobId, Set<String> existingJobIds, Set<String> batchJobIds) {
+        if (request == null) {
+            throw new IllegalArgumentException("Job request is required");
+        }
+        
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        
+        if (existingJobIds.contains(jobId) || !batchJobIds.add(jobId)) {
+            throw new IllegalArgumentException("Duplicate job ID: " + jobId);
+        }
+    }
+    
+    /**
+     * Insert the accepted items of a batch. On failure every accepted item is reported as failed.
+     */
+    private boolean persistBatch(List<ScheduledJob> scheduledJobs, List<Integer> acceptedIndexes, JobSubmissionResponse[] results) {
+        try {
+            databasePersistenceService.saveScheduledJobsBatch(scheduledJobs);
+            return true;
+        } catch (Exception e) {
+            logger.error("Error saving job batch of {} jobs", scheduledJobs.size(), e);
+            for (int k = 0; k < acceptedIndexes.size(); k++) {
+                results[acceptedIndexes.get(k)] = new JobSubmissionResponse(scheduledJobs.get(k).getJobId(), "FAILED",
+                        "Failed to persist batch: " + e.getMessage());
+            }
+            return false;
+        }
+    }
+    
     /**
      * Dispatch a grouped one-time job (called by JobGroupingService).
      */
@@ -158,10 +492,11 @@ public class JobDispatcherService {
                 job.setJobId(request.getJobId());
                 job.setJobName(request.getJobName());
                 
+                String threadPoolName = executorRegistry.resolveOneTimePool(request.getThreadPoolName(), request.getJobClassName());
                 logger.info("Dispatching grouped one-time job: {} with ID: {} (representing {} jobs)", 
                            request.getJobName(), request.getJobId(), totalJobsInGroup);
                 
-                oneTimeJobExecutor.execute(() -> {
+                executorRegistry.getExecutor(threadPoolName).execute(new PrioritizedTask(resolvePriority(request), request.getJobId(), () -> {
                     try {
                         logger.info("Executing grouped one-time job: {} with ID: {} (representing {} jobs)", 
                                    job.getJobName(), job.getJobId(), totalJobsInGroup);
@@ -172,7 +507,7 @@ public class JobDispatcherService {
                         logger.error("Error executing grouped one-time job: {} with ID: {} (representing {} jobs)", 
                                    job.getJobName(), job.getJobId(), totalJobsInGroup, e);
                     }
-                });
+                }));
             } else {
                 throw new IllegalArgumentException("Job class must implement OneTimeJob interface");
             }
@@ -195,13 +530,14 @@ public class JobDispatcherService {
                 job.setJobId(request.getJobId());
                 job.setJobName(request.getJobName());
                 
+                String threadPoolName = executorRegistry.resolveRepetitivePool(request.getThreadPoolName(), request.getJobClassName());
                 logger.info("Dispatching grouped repetitive job: {} with ID: {} (representing {} jobs)", 
                            request.getJobName(), request.getJobId(), totalJobsInGroup);
                 
-        ScheduledJob scheduledJob = createScheduledJobFromRequest(request, "REPETITIVE");
+        ScheduledJob scheduledJob = createScheduledJobFromRequest(request, "REPETITIVE", threadPoolName);
         databasePersistenceService.saveScheduledJob(scheduledJob);
         
-        ScheduledFuture<?> scheduledTask = scheduleRepetitiveJob(repetitiveJob, request);
+        ScheduledFuture<?> scheduledTask = scheduleRepetitiveJob(repetitiveJob, request, threadPoolName);
                 scheduledTasks.put(request.getJobId(), scheduledTask);
                 
                 logger.info("Scheduled grouped repetitive job: {} with ID: {} (representing {} jobs)", 
@@ -222,6 +558,7 @@ public class JobDispatcherService {
         ScheduledFuture<?> scheduledTask = scheduledTasks.remove(jobId);
         if (scheduledTask != null) {
             boolean cancelled = scheduledTask.cancel(false);
+            repetitiveJobExecutionService.unregister(jobId);
             logger.info("Cancelled repetitive job with ID: {}, success: {}", jobId, cancelled);
             return cancelled;
         }
@@ -247,59 +584,94 @@ public class JobDispatcherService {
     }
     
     /**
-     * Create a job instance from the class name.
+     * Create a job instance from the class name using the precompiled factory.
      */
-    private Job createJobInstance(String className) throws Exception {
-        Class<?> jobClass = Class.forName(className);
-        return (Job) jobClass.getDeclaredConstructor().newInstance();
+    private Job createJobInstance(String className) {
+        return jobFactoryRegistry.createJob(className);
     }
     
     /**
      * Schedule a repetitive job based on its repetition type.
      */
-    private ScheduledFuture<?> scheduleRepetitiveJob(RepetitiveJob job, RepetitiveJobRequest request) {
+    private ScheduledFuture<?> scheduleRepetitiveJob(RepetitiveJob job, RepetitiveJobRequest request, String threadPoolName) {
+        ThreadPoolTaskScheduler repetitiveJobScheduler = executorRegistry.getScheduler(threadPoolName);
         long initialDelay = request.getInitialDelayMillis();
         long interval = request.getIntervalMillis();
         
         Runnable task = () -> {
+            if (!circuitBreakerService.allowExecution(request.getJobClassName())) {
+                logger.info("Skipping execution of repetitive job {}: circuit breaker for {} is open", job.getJobId(), request.getJobClassName());
+                return;
+            }
+            circuitBreakerService.recordFreshExecution();
+            // A timed out execution is interrupted, the next trigger runs as usual
+            JobTimeoutWatchdog.ExecutionWatch watch = jobTimeoutWatchdog.watch(job.getJobId(), request.getJobClassName(),
+                                                                               request.getTimeoutMillis(), threadPoolName, false);
             try {
                 logger.info("Executing repetitive job: {} with ID: {}", job.getJobName(), job.getJobId());
                 job.process();
-                logger.info("Completed repetitive job: {} with ID: {}", job.getJobName(), job.getJobId());
+                if (watch.complete()) {
+                    circuitBreakerService.recordOutcome(request.getJobClassName(), true);
+                    logger.info("Completed repetitive job: {} with ID: {}", job.getJobName(), job.getJobId());
+                } else {
+                    circuitBreakerService.recordOutcome(request.getJobClassName(), false);
+                    logger.warn("Repetitive job {} with ID: {} returned after its timeout", job.getJobName(), job.getJobId());
+                }
             } catch (Exception e) {
-                logger.error("Error executing repetitive job: {} with ID: {}", job.getJobName(), job.getJobId(), e);
+                circuitBreakerService.recordOutcome(request.getJobClassName(), false);
+                if (watch.complete()) {
+                    logger.error("Error executing repetitive job: {} with ID: {}", job.getJobName(), job.getJobId(), e);
+                } else {
+                    logger.warn("Repetitive job {} with ID: {} failed after its timeout: {}", job.getJobName(), job.getJobId(), e.getMessage());
+                }
             }
         };
         
         switch (request.getRepetitionType()) {
             case FIXED_DELAY:
-                return repetitiveJobScheduler.scheduleWithFixedDelay(task, new Date(System.currentTimeMillis() + initialDelay), interval);
+                return repetitiveJobExecutionService.scheduleWithFixedDelay(job.getJobId(), task, initialDelay, interval, repetitiveJobScheduler);
             case FIXED_RATE:
-                return repetitiveJobScheduler.scheduleAtFixedRate(task, new Date(System.currentTimeMillis() + initialDelay), interval);
+                return repetitiveJobExecutionService.scheduleAtFixedRate(job.getJobId(), request.getOverlapPolicy(), task,
+                                                                         initialDelay, interval, repetitiveJobScheduler);
             case CRON:
                 if (request.getCronExpression() == null || request.getCronExpression().trim().isEmpty()) {
                     throw new IllegalArgumentException("cronExpression is required when repetitionType is CRON");
                 }
-                return repetitiveJobScheduler.schedule(task, new CronTrigger(request.getCronExpression()));
+                return repetitiveJobExecutionService.schedule(job.getJobId(), request.getOverlapPolicy(), task,
+                                                              new CronTrigger(request.getCronExpression()), repetitiveJobScheduler);
             default:
                 throw new IllegalArgumentException("Unsupported repetition type: " + request.getRepetitionType());
         }
     }
     
+    /**
+     * Resolve the execution priority of a one-time job request.
+     */
+    public JobPriority resolvePriority(OneTimeJobRequest request) {
+        return request.getJobPriority() != null ? request.getJobPriority() : jobPriorityConfig.resolveDefaultPriority();
+    }
+    
+    /**
+     * Get the name of the thread pool a persisted job was routed to, or null for the default pool.
+     */
+    private String getThreadPoolName(ScheduledJob scheduledJob) {
+        ThreadPool threadPool = scheduledJob.getThreadPool();
+        return threadPool != null ? executorRegistry.getPoolName(threadPool.getId()) : null;
+    }
+    
     /**
      * Create a ScheduledJob entity from a OneTimeJobRequest.
      */
-    private ScheduledJob createScheduledJobFromRequest(OneTimeJobRequest request, String jobType) {
+    private ScheduledJob createScheduledJobFromRequest(OneTimeJobRequest request, String jobType, String threadPoolName) {
         ScheduledJob scheduledJob = new ScheduledJob(request.getJobId(), request.getJobName(), request.getJobClassName(), jobType);
         scheduledJob.setGroupKey(request.getGroupKey());
         scheduledJob.setCanGroup(request.isCanGroup());
         scheduledJob.setGroupBufferMillis(request.getGroupBufferMillis());
+        scheduledJob.setJobPriority(resolvePriority(request));
+        scheduledJob.setTimeoutMillis(request.getTimeoutMillis());
         
-        // All jobs have equal priority (NORMAL)
-        scheduledJob.setJobPriority(com.example.jobdispatcher.enums.JobPriority.NORMAL);
-        
-        // Set default thread pool (one-time job executor)
-        databasePersistenceService.findThreadPoolByName("one-time-job-executor")
+        // Record the thread pool the job is routed to
+        databasePersistenceService.findThreadPoolByName(threadPoolName)
             .ifPresent(scheduledJob::setThreadPool);
         
         return scheduledJob;
@@ -308,7 +680,7 @@ public class JobDispatcherService {
     /**
      * Create a ScheduledJob entity from a RepetitiveJobRequest.
      */
-    private ScheduledJob createScheduledJobFromRequest(RepetitiveJobRequest request, String jobType) {
+    private ScheduledJob createScheduledJobFromRequest(RepetitiveJobRequest request, String jobType, String threadPoolName) {
         ScheduledJob scheduledJob = new ScheduledJob(request.getJobId(), request.getJobName(), request.getJobClassName(), jobType);
         scheduledJob.setGroupKey(request.getGroupKey());
         scheduledJob.setCanGroup(request.isCanGroup());
@@ -317,17 +689,86 @@ public class JobDispatcherService {
         scheduledJob.setInitialDelayMillis(request.getInitialDelayMillis());
         scheduledJob.setRepetitionType(request.getRepetitionType().toString());
         scheduledJob.setCronExpression(request.getCronExpression());
+        scheduledJob.setTimeoutMillis(request.getTimeoutMillis());
+        if (request.getOverlapPolicy() != null) {
+            scheduledJob.setOverlapPolicy(request.getOverlapPolicy().name());
+        }
         
-        // All jobs have equal priority (NORMAL)
-        scheduledJob.setJobPriority(com.example.jobdispatcher.enums.JobPriority.NORMAL);
+        scheduledJob.setJobPriority(jobPriorityConfig.resolveDefaultPriority());
         
-        // Set default thread pool (repetitive job scheduler)
-        databasePersistenceService.findThreadPoolByName("repetitive-job-scheduler")
+        // Record the thread pool the job is routed to
+        databasePersistenceService.findThreadPoolByName(threadPoolName)
             .ifPresent(scheduledJob::setThreadPool);
         
         return scheduledJob;
     }
     
+    /**
+     * Dispatch a one-time job taken from the overflow queue as its first execution.
+     * Throws RejectedExecutionException if its pool filled up since admission checked it.
+     */
+    public void dispatchOverflowJob(ScheduledJob scheduledJob) {
+        Job job = createJobInstance(scheduledJob.getJobClassName());
+        if (!(job instanceof OneTimeJob)) {
+            throw new IllegalArgumentException("Job class must implement OneTimeJob interface");
+        }
+        job.setJobId(scheduledJob.getJobId());
+        job.setJobName(scheduledJob.getJobName());
+        
+        String threadPoolName = getThreadPoolName(scheduledJob);
+        logger.info("Dispatching overflow job: {} with ID: {} (priority: {}, pool: {})",
+                   scheduledJob.getJobName(), scheduledJob.getJobId(), scheduledJob.getJobPriority(), threadPoolName);
+        executorRegistry.getExecutor(threadPoolName).execute(new PrioritizedTask(scheduledJob.getJobPriority(), scheduledJob.getJobId(),
+                () -> runOneTimeJob(scheduledJob, job, threadPoolName)));
+    }
+    
+    /**
+     * Run the first execution of a one-time job on its executor thread.
+     */
+    private void runOneTimeJob(ScheduledJob scheduledJob, Job job, String threadPoolName) {
+        String jobId = scheduledJob.getJobId();
+        String jobClassName = scheduledJob.getJobClassName();
+        if (!circuitBreakerService.allowExecution(jobClassName)) {
+            jobRetryService.parkJob(jobId, circuitBreakerService.getParkedUntil(jobClassName));
+            return;
+        }
+        circuitBreakerService.recordFreshExecution();
+        JobTimeoutWatchdog.ExecutionWatch watch = null;
+        try {
+            databasePersistenceService.markJobAsStarted(jobId);
+            watch = jobTimeoutWatchdog.watch(jobId, jobClassName, scheduledJob.getTimeoutMillis(), threadPoolName, true);
+            logger.info("Executing one-time job: {} with ID: {}", job.getJobName(), job.getJobId());
+            job.process();
+            if (!watch.complete()) {
+                circuitBreakerService.recordOutcome(jobClassName, false);
+                logger.warn("One-time job {} with ID: {} returned after its timeout", job.getJobName(), job.getJobId());
+                return;
+            }
+            circuitBreakerService.recordOutcome(jobClassName, true);
+            databasePersistenceService.markJobAsCompleted(jobId);
+            logger.info("Completed one-time job: {} with ID: {}", job.getJobName(), job.getJobId());
+        } catch (Exception e) {
+            circuitBreakerService.recordOutcome(jobClassName, false);
+            if (watch != null && !watch.complete()) {
+                // The watchdog marks it TIMED_OUT and schedules the retry
+                logger.warn("One-time job {} with ID: {} failed after its timeout: {}", job.getJobName(), job.getJobId(), e.getMessage());
+                return;
+            }
+            databasePersistenceService.markJobAsFailed(jobId, e.getMessage());
+            logger.error("Error executing one-time job: {} with ID: {}", job.getJobName(), job.getJobId(), e);
+            
+            // Schedule retry if applicable
+            try {
+                ScheduledJob retryJob = databasePersistenceService.findScheduledJobByJobId(jobId).orElse(null);
+                if (retryJob != null) {
+                    jobRetryService.scheduleRetry(retryJob, e);
+                }
+            } catch (Exception retryException) {
+                logger.error("Error scheduling retry for job: {}", jobId, retryException);
+            }
+        }
+    }
+    
     /**
      * Re-dispatch a one-time job for retry.
      */
@@ -341,31 +782,9 @@ public class JobDispatcherService {
                 logger.info("Re-dispatching one-time job for retry: {} with ID: {}", 
                            scheduledJob.getJobName(), scheduledJob.getJobId());
                 
-                oneTimeJobExecutor.execute(() -> {
-                    try {
-                        databasePersistenceService.markJobAsStarted(scheduledJob.getJobId());
-                        logger.info("Executing retry for one-time job: {} with ID: {}", 
-                                   job.getJobName(), job.getJobId());
-                        job.process();
-                        databasePersistenceService.markJobAsCompleted(scheduledJob.getJobId());
-                        logger.info("Completed retry for one-time job: {} with ID: {}", 
-                                   job.getJobName(), job.getJobId());
-                    } catch (Exception e) {
-                        databasePersistenceService.markJobAsFailed(scheduledJob.getJobId(), e.getMessage());
-                        logger.error("Error executing retry for one-time job: {} with ID: {}", 
-                                    job.getJobName(), job.getJobId(), e);
-                        
-                        // Schedule another retry if applicable
-                        try {
-                            ScheduledJob updatedJob = databasePersistenceService.findScheduledJobByJobId(scheduledJob.getJobId()).orElse(null);
-                            if (updatedJob != null) {
-                                jobRetryService.scheduleRetry(updatedJob, e);
-                            }
-                        } catch (Exception retryException) {
-                            logger.error("Error scheduling retry for job: {}", scheduledJob.getJobId(), retryException);
-                        }
-                    }
-                });
+                String threadPoolName = getThreadPoolName(scheduledJob);
+                executorRegistry.getExecutor(threadPoolName).execute(new PrioritizedTask(scheduledJob.getJobPriority(), scheduledJob.getJobId(),
+                        () -> runOneTimeRetry(scheduledJob, job, threadPoolName)));
             } else {
                 throw new IllegalArgumentException("Job class must implement OneTimeJob interface");
             }
@@ -375,6 +794,62 @@ public class JobDispatcherService {
         }
     }
     
+    /**
+     * Run a retry of a one-time job on the calling retry worker thread.
+     */
+    public void executeOneTimeRetry(ScheduledJob scheduledJob, String poolName) {
+        Job job = createJobInstance(scheduledJob.getJobClassName());
+        if (!(job instanceof OneTimeJob)) {
+            throw new IllegalArgumentException("Job class must implement OneTimeJob interface");
+        }
+        job.setJobId(scheduledJob.getJobId());
+        job.setJobName(scheduledJob.getJobName());
+        runOneTimeRetry(scheduledJob, job, poolName);
+    }
+    
+    private void runOneTimeRetry(ScheduledJob scheduledJob, Job job, String threadPoolName) {
+        if (!circuitBreakerService.allowExecution(scheduledJob.getJobClassName())) {
+            jobRetryService.parkJob(scheduledJob.getJobId(), circuitBreakerService.getParkedUntil(scheduledJob.getJobClassName()));
+            return;
+        }
+        JobTimeoutWatchdog.ExecutionWatch watch = null;
+        try {
+            databasePersistenceService.markJobAsStarted(scheduledJob.getJobId());
+            watch = jobTimeoutWatchdog.watch(scheduledJob.getJobId(), scheduledJob.getJobClassName(), scheduledJob.getTimeoutMillis(), threadPoolName, true);
+            logger.info("Executing retry for one-time job: {} with ID: {}",
+                       job.getJobName(), job.getJobId());
+            job.process();
+            if (!watch.complete()) {
+                circuitBreakerService.recordOutcome(scheduledJob.getJobClassName(), false);
+                logger.warn("Retry of one-time job {} with ID: {} returned after its timeout", job.getJobName(), job.getJobId());
+                return;
+            }
+            circuitBreakerService.recordOutcome(scheduledJob.getJobClassName(), true);
+            databasePersistenceService.markJobAsCompleted(scheduledJob.getJobId());
+            logger.info("Completed retry for one-time job: {} with ID: {}",
+                       job.getJobName(), job.getJobId());
+        } catch (Exception e) {
+            circuitBreakerService.recordOutcome(scheduledJob.getJobClassName(), false);
+            if (watch != null && !watch.complete()) {
+                logger.warn("Retry of one-time job {} with ID: {} failed after its timeout: {}", job.getJobName(), job.getJobId(), e.getMessage());
+                return;
+            }
+            databasePersistenceService.markJobAsFailed(scheduledJob.getJobId(), e.getMessage());
+            logger.error("Error executing retry for one-time job: {} with ID: {}",
+                        job.getJobName(), job.getJobId(), e);
+            
+            // Schedule another retry if applicable
+            try {
+                ScheduledJob updatedJob = databasePersistenceService.findScheduledJobByJobId(scheduledJob.getJobId()).orElse(null);
+                if (updatedJob != null) {
+                    jobRetryService.scheduleRetry(updatedJob, e);
+                }
+            } catch (Exception retryException) {
+                logger.error("Error scheduling retry for job: {}", scheduledJob.getJobId(), retryException);
+            }
+        }
+    }
+    
     /**
      * Re-dispatch a repetitive job for retry.
      */
@@ -405,21 +880,40 @@ public class JobDispatcherService {
      * Schedule a repetitive job from ScheduledJob entity.
      */
     private ScheduledFuture<?> scheduleRepetitiveJob(RepetitiveJob job, ScheduledJob scheduledJob) {
+        String threadPoolName = getThreadPoolName(scheduledJob);
+        ThreadPoolTaskScheduler repetitiveJobScheduler = executorRegistry.getScheduler(threadPoolName);
         long initialDelay = scheduledJob.getInitialDelayMillis() != null ? 
                            scheduledJob.getInitialDelayMillis() : 0;
         long interval = scheduledJob.getIntervalMillis() != null ? 
                        scheduledJob.getIntervalMillis() : 60000; // Default 1 minute
         
         Runnable task = () -> {
+            if (!circuitBreakerService.allowExecution(scheduledJob.getJobClassName())) {
+                logger.info("Skipping execution of repetitive job {}: circuit breaker for {} is open", job.getJobId(), scheduledJob.getJobClassName());
+                return;
+            }
+            JobTimeoutWatchdog.ExecutionWatch watch = null;
             try {
                 databasePersistenceService.markJobAsStarted(scheduledJob.getJobId());
+                watch = jobTimeoutWatchdog.watch(scheduledJob.getJobId(), scheduledJob.getJobClassName(), scheduledJob.getTimeoutMillis(), threadPoolName, true);
                 logger.info("Executing retry for repetitive job: {} with ID: {}", 
                            job.getJobName(), job.getJobId());
                 job.process();
+                if (!watch.complete()) {
+                    circuitBreakerService.recordOutcome(scheduledJob.getJobClassName(), false);
+                    logger.warn("Retry of repetitive job {} with ID: {} returned after its timeout", job.getJobName(), job.getJobId());
+                    return;
+                }
+                circuitBreakerService.recordOutcome(scheduledJob.getJobClassName(), true);
                 databasePersistenceService.markJobAsCompleted(scheduledJob.getJobId());
                 logger.info("Completed retry for repetitive job: {} with ID: {}", 
                            job.getJobName(), job.getJobId());
             } catch (Exception e) {
+                circuitBreakerService.recordOutcome(scheduledJob.getJobClassName(), false);
+                if (watch != null && !watch.complete()) {
+                    logger.warn("Retry of repetitive job {} with ID: {} failed after its timeout: {}", job.getJobName(), job.getJobId(), e.getMessage());
+                    return;
+                }
                 databasePersistenceService.markJobAsFailed(scheduledJob.getJobId(), e.getMessage());
                 logger.error("Error executing retry for repetitive job: {} with ID: {}", 
                             job.getJobName(), job.getJobId(), e);
@@ -438,18 +932,21 @@ public class JobDispatcherService {
         
         // Use the repetition type from the scheduled job
         String repetitionType = scheduledJob.getRepetitionType();
+        RepetitiveJob.OverlapPolicy overlapPolicy = repetitiveJobExecutionService.parseOverlapPolicy(scheduledJob.getOverlapPolicy());
         if ("FIXED_DELAY".equals(repetitionType)) {
-            return repetitiveJobScheduler.scheduleWithFixedDelay(task, new Date(System.currentTimeMillis() + initialDelay), interval);
+            return repetitiveJobExecutionService.scheduleWithFixedDelay(scheduledJob.getJobId(), task, initialDelay, interval, repetitiveJobScheduler);
         } else if ("FIXED_RATE".equals(repetitionType)) {
-            return repetitiveJobScheduler.scheduleAtFixedRate(task, new Date(System.currentTimeMillis() + initialDelay), interval);
+            return repetitiveJobExecutionService.scheduleAtFixedRate(scheduledJob.getJobId(), overlapPolicy, task,
+                                                                     initialDelay, interval, repetitiveJobScheduler);
         } else if ("CRON".equals(repetitionType)) {
             if (scheduledJob.getCronExpression() == null || scheduledJob.getCronExpression().trim().isEmpty()) {
                 throw new IllegalArgumentException("cronExpression is required for CRON repetition type");
             }
-            return repetitiveJobScheduler.schedule(task, new CronTrigger(scheduledJob.getCronExpression()));
+            return repetitiveJobExecutionService.schedule(scheduledJob.getJobId(), overlapPolicy, task,
+                                                          new CronTrigger(scheduledJob.getCronExpression()), repetitiveJobScheduler);
         } else {
             // Default to fixed delay
-            return repetitiveJobScheduler.scheduleWithFixedDelay(task, new Date(System.currentTimeMillis() + initialDelay), interval);
+            return repetitiveJobExecutionService.scheduleWithFixedDelay(scheduledJob.getJobId(), task, initialDelay, interval, repetitiveJobScheduler);
         }
     }
 }
@@ -0,0 +1,29 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.model.JobEvent;
+
+import java.util.List;
+
+/**
+ * Receives job lifecycle events from the outbox. Every bean implementing this interface is subscribed
+ * by {@link JobEventRelay} under its bean name.
+ * <p>
+ * Delivery is at least once: a batch is redelivered, from its first event, until onEvents returns
+ * without throwing, and events delivered shortly before a crash are delivered again after the restart.
+ * Listeners must therefore tolerate duplicates, e.g. by ignoring events with an id they have seen.
+ */
+public interface JobEventListener {
+    
+    /**
+     * Handle a batch of events in id order. An event whose transaction committed after its id was
+     * skipped arrives later in a batch of its own, after events with higher ids.
+     */
+    void onEvents(List<JobEvent> events) throws Exception;
+    
+    /**
+     * Durable listeners resume from their stored offset after a restart; others start at the newest event.
+     */
+    default boolean isDurable() {
+        return true;
+    }
+}
@@ -0,0 +1,417 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.OutboxConfig;
+import com.example.jobdispatcher.config.PersistenceConfig;
+import com.example.jobdispatcher.model.JobEvent;
+import com.example.jobdispatcher.model.JobEventPage;
+import com.example.jobdispatcher.repository.JobOutboxDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tails job_outbox by id and delivers the events to every {@link JobEventListener} bean, so consumers
+ * learn about lifecycle changes without polling scheduled_jobs.
+ * <p>
+ * Ids are assigned on insert but become visible on commit, so a lower id can appear after a higher one.
+ * Events are therefore only delivered up to the first missing id, the visible offset. A missing id whose
+ * successor was created more than gap-timeout-millis ago is skipped, since it usually belongs to a rolled
+ * back transaction. Skipped ids are watched for late-event-window-millis: if the transaction commits
+ * after all, the event is delivered late, out of id order. Each listener has its own offset, stored in
+ * job_outbox_offsets for durable listeners, where it is kept below any watched id so a restart redelivers
+ * rather than loses a late event. A failing listener is retried from its offset without holding back the others.
+ */
+@Service
+public class JobEventRelay {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobEventRelay.class);
+    
+    @Autowired
+    private OutboxConfig outboxConfig;
+    
+    @Autowired
+    private PersistenceConfig persistenceConfig;
+    
+    @Autowired
+    private JobOutboxDao jobOutboxDao;
+    
+    @Autowired(required = false)
+    private Map<String, JobEventListener> listeners = Collections.emptyMap();
+    
+    private static final int MAX_WATCHED_IDS = 10000;
+    
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    
+    // Skipped ids still watched for a late commit, with the time they were skipped
+    private final ConcurrentSkipListMap<Long, Long> skippedIds = new ConcurrentSkipListMap<>();
+    private volatile long visibleOffset = 0;
+    private volatile boolean running = false;
+    private volatile boolean subscribed = false;
+    private Thread relayThread;
+    
+    private final AtomicLong relayedEvents = new AtomicLong();
+    private final AtomicLong skippedGaps = new AtomicLong();
+    private final AtomicLong lateEvents = new AtomicLong();
+    private final AtomicLong abandonedGaps = new AtomicLong();
+    private final AtomicLong failedPolls = new AtomicLong();
+    private final AtomicLong purgedEvents = new AtomicLong();
+    private final ConcurrentHashMap<String, LongAdder> eventsByType = new ConcurrentHashMap<>();
+    private volatile long lastRelayLagMillis = 0;
+    
+    /**
+     * Subscribe the listeners and start relaying once the context is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!outboxConfig.isEnabled() || !persistenceConfig.isDatabaseBackend()) {
+            return;
+        }
+        
+        running = true;
+        relayThread = new Thread(this::runRelay, "job-event-relay");
+        relayThread.setDaemon(true);
+        relayThread.start();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        
+        running = false;
+        if (relayThread != null) {
+            relayThread.interrupt();
+            try {
+                relayThread.join(10000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.info("Job event relay stopped at offset {}", visibleOffset);
+    }
+    
+    private void runRelay() {
+        while (running) {
+            try {
+                if (!subscribed) {
+                    subscribe();
+                }
+                if (!relay()) {
+                    Thread.sleep(outboxConfig.getPollIntervalMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failedPolls.incrementAndGet();
+                logger.error("Error relaying job events, retrying in {}ms", outboxConfig.getPollIntervalMillis(), e);
+                try {
+                    Thread.sleep(outboxConfig.getPollIntervalMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    // Durable listeners without a stored offset and all other listeners start at the newest event
+    private void subscribe() {
+        long head = jobOutboxDao.findHeadId();
+        Map<String, Long> storedOffsets = jobOutboxDao.findOffsets();
+        long start = head;
+        List<Subscription> subscribed = new ArrayList<>();
+        for (Map.Entry<String, JobEventListener> entry : listeners.entrySet()) {
+            JobEventListener listener = entry.getValue();
+            String consumer = outboxConfig.getInstanceName() + ":" + entry.getKey();
+            Long stored = listener.isDurable() ? storedOffsets.get(consumer) : null;
+            long offset = stored != null ? stored : head;
+            if (listener.isDurable() && stored == null) {
+                jobOutboxDao.saveOffset(consumer, offset);
+            }
+            subscribed.add(new Subscription(entry.getKey(), consumer, listener, offset));
+            start = Math.min(start, offset);
+        }
+        visibleOffset = start;
+        subscriptions.addAll(subscribed);
+        this.subscribed = true;
+        logger.info("Job event relay started at offset {} for listeners {}", start, listeners.keySet());
+    }
+    
+    /**
+     * Advance the visible offset by one batch and deliver to every listener that is behind it.
+     * @return whether a full batch was read, i.e. more events are probably waiting
+     */
+    private boolean relay() throws Exception {
+        recoverSkipped();
+        
+        long previous = visibleOffset;
+        List<JobEvent> batch = jobOutboxDao.findEvents(previous, Long.MAX_VALUE, outboxConfig.getBatchSize());
+        List<JobEvent> visible = visiblePrefix(batch, previous);
+        if (!visible.isEmpty()) {
+            JobEvent last = visible.get(visible.size() - 1);
+            visibleOffset = last.getId();
+            relayedEvents.addAndGet(visible.size());
+            lastRelayLagMillis = Duration.between(last.getCreatedAt(), LocalDateTime.now()).toMillis();
+            for (JobEvent event : visible) {
+                eventsByType.computeIfAbsent(event.getEventType(), k -> new LongAdder()).increment();
+            }
+        }
+        
+        for (Subscription subscription : subscriptions) {
+            deliver(subscription, previous, visible);
+        }
+        return batch.size() == outboxConfig.getBatchSize() && visible.size() == batch.size();
+    }
+    
+    private List<JobEvent> visiblePrefix(List<JobEvent> batch, long after) {
+        LocalDateTime gapCutoff = LocalDateTime.now().minusNanos(outboxConfig.getGapTimeoutMillis() * 1_000_000);
+        long expected = after + 1;
+        for (int i = 0; i < batch.size(); i++) {
+            JobEvent event = batch.get(i);
+            if (event.getId() != expected) {
+                if (event.getCreatedAt().isAfter(gapCutoff)) {
+                    return batch.subList(0, i);
+                }
+                skippedGaps.incrementAndGet();
+                watchSkipped(expected, event.getId());
+            }
+            expected = event.getId() + 1;
+        }
+        return batch;
+    }
+    
+    /**
+     * Watch the skipped ids from (inclusive) to upTo (exclusive) for a late commit.
+     */
+    private void watchSkipped(long from, long upTo) {
+        long now = System.currentTimeMillis();
+        for (long id = from; id < upTo; id++) {
+            skippedIds.put(id, now);
+        }
+        while (skippedIds.size() > MAX_WATCHED_IDS) {
+            Map.Entry<Long, Long> oldest = skippedIds.pollFirstEntry();
+            abandonedGaps.incrementAndGet();
+            logger.warn("Too many skipped job event ids, no longer watching id {}", oldest.getKey());
+        }
+    }
+    
+    /**
+     * Look up the watched ids and queue any that have committed for every listener already past them.
+     * Ids watched for longer than late-event-window-millis are given up.
+     */
+    private void recoverSkipped() {
+        if (skippedIds.isEmpty()) {
+            return;
+        }
+        long expireBefore = System.currentTimeMillis() - outboxConfig.getLateEventWindowMillis();
+        skippedIds.entrySet().removeIf(entry -> {
+            if (entry.getValue() >= expireBefore) {
+                return false;
+            }
+            abandonedGaps.incrementAndGet();
+            return true;
+        });
+        
+        List<Long> ids = new ArrayList<>(outboxConfig.getBatchSize());
+        for (Long id : skippedIds.keySet()) {
+            if (ids.size() == outboxConfig.getBatchSize()) {
+                break;
+            }
+            ids.add(id);
+        }
+        List<JobEvent> found = jobOutboxDao.findEventsByIds(ids);
+        for (JobEvent event : found) {
+            for (Subscription subscription : subscriptions) {
+                if (event.getId() <= subscription.offset) {
+                    subscription.lateEvents.add(event);
+                }
+            }
+            eventsByType.computeIfAbsent(event.getEventType(), k -> new LongAdder()).increment();
+            skippedIds.remove(event.getId());
+        }
+        if (!found.isEmpty()) {
+            lateEvents.addAndGet(found.size());
+            logger.info("Delivering {} job events committed after their ids were skipped", found.size());
+        }
+    }
+    
+    private void deliver(Subscription subscription, long previous, List<JobEvent> visible) throws Exception {
+        if (!subscription.lateEvents.isEmpty()) {
+            List<JobEvent> late = new ArrayList<>(subscription.lateEvents);
+            try {
+                subscription.listener.onEvents(late);
+            } catch (Exception e) {
+                subscription.failures.incrementAndGet();
+                subscription.lastError = e.getMessage();
+                logger.warn("Job event listener {} failed on late events, redelivering them", subscription.name, e);
+                return;
+            }
+            subscription.delivered.addAndGet(late.size());
+            subscription.lateEvents.removeAll(late);
+        }
+        
+        while (running && subscription.offset < visibleOffset) {
+            List<JobEvent> events = subscription.offset >= previous
+                    ? eventsAfter(visible, subscription.offset)
+                    : jobOutboxDao.findEvents(subscription.offset, visibleOffset, outboxConfig.getBatchSize());
+            if (events.isEmpty()) {
+                // Only skipped or purged ids remain before the visible offset
+                commit(subscription, visibleOffset);
+                return;
+            }
+            
+            try {
+                subscription.listener.onEvents(events);
+            } catch (Exception e) {
+                subscription.failures.incrementAndGet();
+                subscription.lastError = e.getMessage();
+                logger.warn("Job event listener {} failed, redelivering from offset {}", subscription.name,
+                           subscription.offset, e);
+                return;
+            }
+            subscription.delivered.addAndGet(events.size());
+            commit(subscription, events.get(events.size() - 1).getId());
+        }
+    }
+    
+    private static List<JobEvent> eventsAfter(List<JobEvent> events, long offset) {
+        for (int i = 0; i < events.size(); i++) {
+            if (events.get(i).getId() > offset) {
+                return events.subList(i, events.size());
+            }
+        }
+        return Collections.emptyList();
+    }
+    
+    // The stored offset is written first, so a failed write leads to redelivery rather than loss.
+    // It stays below watched and undelivered late ids, so they are read again after a restart.
+    private void commit(Subscription subscription, long offset) {
+        if (subscription.listener.isDurable()) {
+            long stored = offset;
+            Long firstWatched = skippedIds.isEmpty() ? null : skippedIds.firstKey();
+            if (firstWatched != null) {
+                stored = Math.min(stored, firstWatched - 1);
+            }
+            for (JobEvent late : subscription.lateEvents) {
+                stored = Math.min(stored, late.getId() - 1);
+            }
+            jobOutboxDao.saveOffset(subscription.consumer, stored);
+        }
+        subscription.offset = offset;
+    }
+    
+    /**
+     * Read visible events after the given offset, for consumers that track their own offset.
+     */
+    public JobEventPage readEvents(long after, int limit) {
+        if (!running) {
+            throw new IllegalStateException("Job events require job-dispatcher.outbox.enabled and the mysql persistence backend");
+        }
+        int pageSize = Math.max(1, Math.min(limit, outboxConfig.getBatchSize()));
+        List<JobEvent> events = jobOutboxDao.findEvents(after, visibleOffset, pageSize);
+        long nextOffset = events.isEmpty() ? after : events.get(events.size() - 1).getId();
+        return new JobEventPage(events, nextOffset);
+    }
+    
+    /**
+     * Delete events older than the retention period that every durable listener has received (called by scheduler).
+     */
+    @Scheduled(fixedDelayString = "${job-dispatcher.outbox.purge-interval-millis:600000}",
+               initialDelayString = "${job-dispatcher.outbox.purge-interval-millis:600000}")
+    public void purgeEvents() {
+        if (!running || !subscribed) {
+            return;
+        }
+        
+        try {
+            long upTo = visibleOffset;
+            for (Subscription subscription : subscriptions) {
+                if (subscription.listener.isDurable()) {
+                    upTo = Math.min(upTo, subscription.offset);
+                }
+            }
+            long deleted = jobOutboxDao.deleteEvents(upTo, LocalDateTime.now().minusHours(outboxConfig.getRetentionHours()),
+                                                     outboxConfig.getPurgeChunkSize());
+            purgedEvents.addAndGet(deleted);
+            if (deleted > 0) {
+                logger.info("Purged {} job events up to id {}", deleted, upTo);
+            }
+        } catch (Exception e) {
+            logger.error("Error purging job events", e);
+        }
+    }
+    
+    /**
+     * Get relay statistics, with the offset and backlog of each listener.
+     */
+    public Map<String, Object> getRelayStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("running", running);
+        stats.put("subscribed", subscribed);
+        stats.put("visibleOffset", visibleOffset);
+        stats.put("relayedEvents", relayedEvents.get());
+        stats.put("skippedGaps", skippedGaps.get());
+        stats.put("watchedGapIds", skippedIds.size());
+        stats.put("lateEvents", lateEvents.get());
+        stats.put("abandonedGaps", abandonedGaps.get());
+        stats.put("failedPolls", failedPolls.get());
+        stats.put("purgedEvents", purgedEvents.get());
+        stats.put("lastRelayLagMillis", lastRelayLagMillis);
+        Map<String, Long> byType = new HashMap<>();
+        eventsByType.forEach((type, count) -> byType.put(type, count.sum()));
+        stats.put("eventsByType", byType);
+        
+        Map<String, Object> listenerStats = new HashMap<>();
+        for (Subscription subscription : subscriptions) {
+            Map<String, Object> listener = new HashMap<>();
+            listener.put("durable", subscription.listener.isDurable());
+            listener.put("offset", subscription.offset);
+            listener.put("backlog", Math.max(visibleOffset - subscription.offset, 0));
+            listener.put("deliveredEvents", subscription.delivered.get());
+            listener.put("failures", subscription.failures.get());
+            listener.put("lastError", subscription.lastError);
+            listenerStats.put(subscription.name, listener);
+        }
+        stats.put("listeners", listenerStats);
+        return stats;
+    }
+    
+    private static class Subscription {
+        final String name;
+        final String consumer;
+        final JobEventListener listener;
+        volatile long offset;
+        volatile String lastError;
+        final AtomicLong delivered = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        // Late events for ids this listener had already passed
+        final List<JobEvent> lateEvents = new CopyOnWriteArrayList<>();
+        
+        Subscription(String name, String consumer, JobEventListener listener, long offset) {
+            this.name = name;
+            this.consumer = consumer;
+            this.listener = listener;
+            this.offset = offset;
+        }
+    }
+}
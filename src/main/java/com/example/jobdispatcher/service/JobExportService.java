@@ -0,0 +1,145 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.ExportConfig;
+import com.example.jobdispatcher.config.PersistenceConfig;
+import com.example.jobdispatcher.export.JobExportWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams jobs submitted in a time range to an output stream as NDJSON or CSV.
+ * Rows are read with a forward-only, read-only JDBC cursor outside any transaction or persistence
+ * context and written as they arrive, so memory use stays constant however many rows are exported.
+ */
+@Service
+public class JobExportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobExportService.class);
+    
+    private static final String EXPORT_SQL =
+            "SELECT " + JobArchiveService.JOB_COLUMNS + " FROM %s WHERE submitted_at >= ? AND submitted_at < ?";
+    
+    @Autowired
+    private ExportConfig exportConfig;
+    
+    @Autowired
+    private PersistenceConfig persistenceConfig;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final AtomicInteger activeExports = new AtomicInteger();
+    private final AtomicLong totalExports = new AtomicLong();
+    private final AtomicLong totalRowsExported = new AtomicLong();
+    private volatile long lastExportRows = 0;
+    private volatile long lastExportMillis = 0;
+    
+    /**
+     * Check the export parameters before anything is written to the response.
+     * @throws IllegalArgumentException if the format or range is invalid
+     */
+    public void validate(LocalDateTime from, LocalDateTime to, String format) {
+        if (!persistenceConfig.isDatabaseBackend()) {
+            throw new IllegalArgumentException("Export requires the mysql persistence backend");
+        }
+        if (!"ndjson".equals(format) && !"csv".equals(format)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format + " (expected ndjson or csv)");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (Duration.between(from, to).toDays() > exportConfig.getMaxRangeDays()) {
+            throw new IllegalArgumentException("Export range is limited to " + exportConfig.getMaxRangeDays() + " days");
+        }
+    }
+    
+    /**
+     * Write every job submitted in [from, to), live jobs first and then archived ones.
+     * @return the number of rows written
+     */
+    public long export(LocalDateTime from, LocalDateTime to, String format, OutputStream output) throws IOException {
+        validate(from, to, format);
+        
+        List<String> tables = new ArrayList<>();
+        tables.add("scheduled_jobs");
+        if (exportConfig.isIncludeHistory()) {
+            tables.add("scheduled_jobs_history");
+        }
+        
+        long start = System.currentTimeMillis();
+        activeExports.incrementAndGet();
+        try (JobExportWriter writer = new JobExportWriter(output, format)) {
+            for (String table : tables) {
+                exportTable(table, Timestamp.valueOf(from), Timestamp.valueOf(to), writer);
+            }
+            long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+            totalExports.incrementAndGet();
+            totalRowsExported.addAndGet(writer.getRows());
+            lastExportRows = writer.getRows();
+            lastExportMillis = elapsed;
+            logger.info("Exported {} jobs submitted between {} and {} as {} in {}ms ({} rows/s)",
+                       writer.getRows(), from, to, format, elapsed, writer.getRows() * 1000 / elapsed);
+            return writer.getRows();
+        } catch (UncheckedIOException e) {
+            // The client went away or the output failed; the cursor has already been closed
+            throw e.getCause();
+        } finally {
+            activeExports.decrementAndGet();
+        }
+    }
+    
+    private void exportTable(String table, Timestamp from, Timestamp to, JobExportWriter writer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(String.format(EXPORT_SQL, table),
+                                                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // MySQL Connector/J streams the result row by row only with a fetch size of Integer.MIN_VALUE
+            ps.setFetchSize(exportConfig.getFetchSize() > 0 ? exportConfig.getFetchSize() : Integer.MIN_VALUE);
+            ps.setQueryTimeout(exportConfig.getQueryTimeoutSeconds());
+            ps.setTimestamp(1, from);
+            ps.setTimestamp(2, to);
+            return ps;
+        }, (ResultSet rs) -> {
+            try {
+                writer.begin(rs.getMetaData());
+                while (rs.next()) {
+                    writer.writeRow(rs);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Get export statistics.
+     */
+    public Map<String, Object> getExportStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("activeExports", activeExports.get());
+        stats.put("totalExports", totalExports.get());
+        stats.put("totalRowsExported", totalRowsExported.get());
+        stats.put("lastExportRows", lastExportRows);
+        stats.put("lastExportMillis", lastExportMillis);
+        stats.put("lastExportRowsPerSecond", lastExportMillis > 0 ? lastExportRows * 1000 / lastExportMillis : 0);
+        return stats;
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.JobFactoryConfig;
+import com.example.jobdispatcher.job.Job;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import javax.annotation.PostConstruct;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Registry of precompiled job factories.
+ * Job implementations are scanned and validated at startup and each class name is mapped to a
+ * constructor supplier, so dispatching a job no longer goes through Class.forName and reflection.
+ */
+@Service
+public class JobFactoryRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobFactoryRegistry.class);
+    
+    @Autowired
+    private JobFactoryConfig jobFactoryConfig;
+    
+    @Autowired
+    private ApplicationContext applicationContext;
+    
+    // Compiled factories keyed by fully qualified class name
+    private final ConcurrentHashMap<String, JobFactory> factories = new ConcurrentHashMap<>();
+    
+    // Class names that failed to resolve, with the reason
+    private Cache<String, String> misses;
+    
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong lazyRegistrations = new AtomicLong();
+    
+    /**
+     * Scan the configured packages and register every concrete job implementation.
+     */
+    @PostConstruct
+    public void initialize() {
+        misses = Caffeine.newBuilder()
+                .maximumSize(jobFactoryConfig.getMaxCachedMisses())
+                .build();
+        
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(Job.class));
+        
+        for (String basePackage : jobFactoryConfig.getScanPackages()) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                String className = candidate.getBeanClassName();
+                try {
+                    register(className);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Skipping job class {}: {}", className, e.getMessage());
+                }
+            }
+        }
+        
+        logger.info("Job factory registry initialized with {} job classes from packages {}",
+                   factories.size(), jobFactoryConfig.getScanPackages());
+    }
+    
+    /**
+     * Create a new job instance for the given class name.
+     */
+    public Job createJob(String className) {
+        return getFactory(className).newInstance();
+    }
+    
+    /**
+     * Validate that the class name resolves to a job of the expected type.
+     * Used before a submission is persisted so that typos are rejected up front.
+     */
+    public void validate(String className, Class<? extends Job> expectedType) {
+        JobFactory factory = getFactory(className);
+        if (!expectedType.isAssignableFrom(factory.getJobClass())) {
+            throw new IllegalArgumentException("Job class must implement " + expectedType.getSimpleName() + " interface");
+        }
+    }
+    
+    /**
+     * Get the job class for a class name.
+     */
+    public Class<? extends Job> getJobClass(String className) {
+        return getFactory(className).getJobClass();
+    }
+    
+    /**
+     * Check if a job class is registered.
+     */
+    public boolean isRegistered(String className) {
+        return factories.containsKey(className);
+    }
+    
+    /**
+     * Get the factory for a class name, resolving it lazily if allowed.
+     */
+    private JobFactory getFactory(String className) {
+        if (className == null || className.trim().isEmpty()) {
+            throw new IllegalArgumentException("Job class name is required");
+        }
+        
+        JobFactory factory = factories.get(className);
+        if (factory != null) {
+            hitCount.incrementAndGet();
+            return factory;
+        }
+        
+        String cachedMiss = misses.getIfPresent(className);
+        if (cachedMiss != null) {
+            missCount.incrementAndGet();
+            throw new IllegalArgumentException(cachedMiss);
+        }
+        
+        if (!jobFactoryConfig.isLazyResolutionEnabled()) {
+            missCount.incrementAndGet();
+            String reason = "Unknown job class: " + className;
+            misses.put(className, reason);
+            throw new IllegalArgumentException(reason);
+        }
+        
+        try {
+            factory = register(className);
+            lazyRegistrations.incrementAndGet();
+            return factory;
+        } catch (IllegalArgumentException e) {
+            missCount.incrementAndGet();
+            misses.put(className, e.getMessage());
+            throw e;
+        }
+    }
+    
+    /**
+     * Resolve, validate and compile a factory for the given class name.
+     */
+    private JobFactory register(String className) {
+        return factories.computeIfAbsent(className, name -> {
+            Class<?> clazz;
+            try {
+                clazz = ClassUtils.forName(name, ClassUtils.getDefaultClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                throw new IllegalArgumentException("Unknown job class: " + name);
+            }
+            
+            if (!Job.class.isAssignableFrom(clazz)) {
+                throw new IllegalArgumentException("Class " + name + " does not implement Job interface");
+            }
+            if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+                throw new IllegalArgumentException("Job class " + name + " is not a concrete class");
+            }
+            
+            @SuppressWarnings("unchecked")
+            Class<? extends Job> jobClass = (Class<? extends Job>) clazz;
+            JobFactory factory = compileFactory(jobClass);
+            logger.debug("Registered job class {} ({})", name, factory.getStrategy());
+            return factory;
+        });
+    }
+    
+    /**
+     * Build the cheapest available factory for a job class.
+     * Prefers a prototype bean when one is defined, then a LambdaMetafactory supplier,
+     * then a plain MethodHandle.
+     */
+    private JobFactory compileFactory(Class<? extends Job> jobClass) {
+        if (jobFactoryConfig.isSpringBeansEnabled()) {
+            String[] beanNames = applicationContext.getBeanNamesForType(jobClass, true, false);
+            if (beanNames.length == 1 && applicationContext.isPrototype(beanNames[0])) {
+                String beanName = beanNames[0];
+                return new JobFactory(jobClass, "SPRING_PROTOTYPE",
+                                      () -> applicationContext.getBean(beanName, Job.class));
+            }
+        }
+        
+        MethodHandle constructor;
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(jobClass, MethodHandles.lookup());
+            constructor = lookup.findConstructor(jobClass, MethodType.methodType(void.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Job class " + jobClass.getName() + " must declare an accessible no-arg constructor");
+        }
+        
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(
+                    lookup,
+                    "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    constructor,
+                    MethodType.methodType(jobClass));
+            @SuppressWarnings("unchecked")
+            Supplier<Job> supplier = (Supplier<Job>) callSite.getTarget().invoke();
+            return new JobFactory(jobClass, "LAMBDA", supplier);
+        } catch (Throwable e) {
+            logger.debug("Falling back to method handle for job class {}: {}", jobClass.getName(), e.getMessage());
+        }
+        
+        MethodHandle genericConstructor = constructor.asType(MethodType.methodType(Job.class));
+        return new JobFactory(jobClass, "METHOD_HANDLE", () -> {
+            try {
+                return (Job) genericConstructor.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to instantiate job class " + jobClass.getName(), e);
+            }
+        });
+    }
+    
+    /**
+     * Get job factory registry statistics.
+     */
+    public Map<String, Object> getRegistryStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("registeredClasses", factories.size());
+        stats.put("cachedMisses", misses.estimatedSize());
+        stats.put("hits", hitCount.get());
+        stats.put("misses", missCount.get());
+        stats.put("lazyRegistrations", lazyRegistrations.get());
+        
+        Map<String, String> strategies = new HashMap<>();
+        factories.forEach((className, factory) -> strategies.put(className, factory.getStrategy()));
+        stats.put("factories", strategies);
+        return stats;
+    }
+    
+    /**
+     * Compiled factory for a single job class.
+     */
+    private static class JobFactory {
+        private final Class<? extends Job> jobClass;
+        private final String strategy; // SPRING_PROTOTYPE, LAMBDA, METHOD_HANDLE
+        private final Supplier<Job> supplier;
+        
+        public JobFactory(Class<? extends Job> jobClass, String strategy, Supplier<Job> supplier) {
+            this.jobClass = jobClass;
+            this.strategy = strategy;
+            this.supplier = supplier;
+        }
+        
+        public Job newInstance() {
+            return supplier.get();
+        }
+        
+        public Class<? extends Job> getJobClass() {
+            return jobClass;
+        }
+        
+        public String getStrategy() {
+            return strategy;
+        }
+    }
+}
@@ -32,6 +32,9 @@ public class JobGroupingService {
     @Lazy
     private JobDispatcherService jobDispatcherService;
     
+    @Autowired
+    private JobTimerService jobTimerService;
+    
     // Store job groups and their metadata
     private final ConcurrentHashMap<String, JobGroup> jobGroups = new ConcurrentHashMap<>();
     
@@ -58,9 +61,9 @@ public class JobGroupingService {
                 logger.info("First job {} added to group {}, scheduling buffer timer for {}ms", 
                            request.getJobId(), groupKey, request.getGroupBufferMillis());
                 
-                ScheduledFuture<?> timer = scheduler.schedule(() -> {
+                ScheduledFuture<?> timer = jobTimerService.schedule(() -> {
                     dispatchGroupedJobs(groupKey);
-                }, new java.util.Date(System.currentTimeMillis() + request.getGroupBufferMillis()));
+                }, request.getGroupBufferMillis(), scheduler);
                 
                 group.setTimer(timer);
             } else {
@@ -93,9 +96,9 @@ public class JobGroupingService {
                 logger.info("First repetitive job {} added to group {}, scheduling buffer timer for {}ms", 
                            request.getJobId(), groupKey, request.getGroupBufferMillis());
                 
-                ScheduledFuture<?> timer = scheduler.schedule(() -> {
+                ScheduledFuture<?> timer = jobTimerService.schedule(() -> {
                     dispatchGroupedRepetitiveJobs(groupKey);
-                }, new java.util.Date(System.currentTimeMillis() + request.getGroupBufferMillis()));
+                }, request.getGroupBufferMillis(), scheduler);
                 
                 group.setRepetitiveTimer(timer);
             } else {
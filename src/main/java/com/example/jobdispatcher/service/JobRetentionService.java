@@ -0,0 +1,365 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.PersistenceConfig;
+import com.example.jobdispatcher.config.RetentionConfig;
+import com.example.jobdispatcher.persistence.JobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Partition maintenance and retention for scheduled_jobs.
+ * When the table is range-partitioned by submitted_at (V8), partitions are created ahead of time by
+ * splitting p_future, and partitions that lie entirely before the retention cutoff are dropped.
+ * submitted_at is never rewritten: an expired partition that still holds active jobs is kept and only
+ * its finished jobs are deleted in chunks, until a later run finds it empty of active jobs and drops it.
+ * Without partitioning, finished jobs are deleted in chunks of delete-chunk-size.
+ * Archived jobs in scheduled_jobs_history are always deleted in chunks.
+ * With the memory or file job store there are no partitions, and retention deletes from the store.
+ */
+@Service
+public class JobRetentionService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobRetentionService.class);
+    
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+    
+    private static final String SELECT_PARTITIONS_SQL =
+            "SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'scheduled_jobs' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION";
+    
+    // Jobs that must survive retention: waiting, running, awaiting a retry, or a repetitive job still scheduled
+    static final String ACTIVE_JOB_CONDITION =
+            "(status IN ('PENDING', 'OVERFLOW', 'RUNNING', 'PARKED') OR next_retry_at IS NOT NULL " +
+            "OR (job_type = 'REPETITIVE' AND status <> 'CANCELLED'))";
+    
+    private static final String DELETE_FINISHED_CHUNK_SQL =
+            "DELETE FROM scheduled_jobs WHERE submitted_at < ? AND NOT " + ACTIVE_JOB_CONDITION + " LIMIT ?";
+    
+    // Ids of a dropped partition's rows, which the delete trigger does not see
+    private static final String DELETE_JOB_IDS_CHUNK_SQL =
+            "DELETE FROM scheduled_job_ids WHERE submitted_at >= ? AND submitted_at < ? LIMIT ?";
+    
+    private static final String DELETE_HISTORY_CHUNK_SQL =
+            "DELETE FROM scheduled_jobs_history WHERE submitted_at < ? LIMIT ?";
+    
+    @Autowired
+    private RetentionConfig retentionConfig;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private JobStatisticsService jobStatisticsService;
+    
+    @Autowired
+    private PersistenceConfig persistenceConfig;
+    
+    @Autowired
+    @Lazy
+    private JobStore jobStore;
+    
+    private final AtomicLong totalRowsRemoved = new AtomicLong();
+    private final AtomicLong partitionsDropped = new AtomicLong();
+    private final AtomicLong partitionsCreated = new AtomicLong();
+    private final AtomicLong partitionsKept = new AtomicLong();
+    private volatile String lastRunMode = "NONE";
+    private volatile long lastRunRows = 0;
+    private volatile long lastRunMillis = 0;
+    private volatile long lastRunAt = 0;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        maintainPartitions();
+    }
+    
+    /**
+     * Create the partitions for the coming intervals (called by scheduler).
+     */
+    @Scheduled(cron = "${job-dispatcher.retention.maintenance-cron:0 15 * * * *}")
+    public void maintainPartitions() {
+        if (!persistenceConfig.isDatabaseBackend()) {
+            return;
+        }
+        try {
+            List<PartitionInfo> partitions = loadPartitions();
+            if (partitions.isEmpty()) {
+                return;
+            }
+            
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate lastBound = null;
+            for (PartitionInfo partition : partitions) {
+                if (partition.upperBound != null) {
+                    lastBound = Instant.ofEpochSecond(partition.upperBound).atZone(zone).toLocalDate();
+                }
+            }
+            
+            LocalDate today = LocalDate.now(zone);
+            LocalDate createUntil = today;
+            for (int i = 0; i <= retentionConfig.getPrecreatePartitions(); i++) {
+                createUntil = nextBound(createUntil);
+            }
+            
+            List<LocalDate> bounds = new ArrayList<>();
+            for (LocalDate bound = lastBound != null ? nextBound(lastBound) : nextBound(today);
+                 !bound.isAfter(createUntil); bound = nextBound(bound)) {
+                bounds.add(bound);
+            }
+            if (bounds.isEmpty()) {
+                return;
+            }
+            
+            StringBuilder sql = new StringBuilder("ALTER TABLE scheduled_jobs REORGANIZE PARTITION ")
+                    .append(FUTURE_PARTITION).append(" INTO (");
+            for (LocalDate bound : bounds) {
+                sql.append("PARTITION ").append(bound.format(PARTITION_NAME_FORMAT))
+                   .append(" VALUES LESS THAN (").append(bound.atStartOfDay(zone).toEpochSecond()).append("), ");
+            }
+            sql.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN (MAXVALUE))");
+            jdbcTemplate.execute(sql.toString());
+            
+            partitionsCreated.addAndGet(bounds.size());
+            logger.info("Created {} scheduled_jobs partitions up to {}", bounds.size(), createUntil);
+        } catch (Exception e) {
+            // Another instance may have created them first
+            logger.warn("Could not maintain scheduled_jobs partitions: {}", e.getMessage());
+        }
+    }
+    
+    private LocalDate nextBound(LocalDate date) {
+        if ("WEEKLY".equalsIgnoreCase(retentionConfig.getPartitionInterval())) {
+            return date.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        }
+        return date.plusDays(1);
+    }
+    
+    /**
+     * Remove jobs older than the retention period (called by scheduler).
+     */
+    @Scheduled(cron = "${job-dispatcher.retention.cron:0 30 3 * * *}")
+    public void applyRetention() {
+        if (!retentionConfig.isEnabled()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionConfig.getRetentionDays());
+        if (persistenceConfig.isDatabaseBackend()) {
+            purgeBefore(cutoff);
+            return;
+        }
+        
+        long start = System.currentTimeMillis();
+        long rows = jobStore.deleteFinishedBefore(cutoff);
+        totalRowsRemoved.addAndGet(rows);
+        lastRunMode = "STORE_DELETE";
+        lastRunRows = rows;
+        lastRunMillis = System.currentTimeMillis() - start;
+        lastRunAt = System.currentTimeMillis();
+        logger.info("Job retention removed {} jobs submitted before {} from the {} store",
+                   rows, cutoff, jobStore.getBackend());
+        if (rows > 0) {
+            jobStatisticsService.reconcile();
+        }
+    }
+    
+    /**
+     * Remove finished jobs submitted before the cutoff, by dropping partitions if the table is partitioned.
+     * @return the number of rows removed (estimated from table statistics for dropped partitions)
+     */
+    public long purgeBefore(LocalDateTime cutoff) {
+        long start = System.currentTimeMillis();
+        long rows;
+        String mode;
+        try {
+            List<PartitionInfo> partitions = loadPartitions();
+            if (partitions.isEmpty()) {
+                mode = "CHUNKED_DELETE";
+                rows = deleteInChunks(cutoff);
+            } else {
+                mode = "PARTITION_DROP";
+                rows = dropPartitions(partitions, cutoff);
+            }
+            rows += deleteChunks(DELETE_HISTORY_CHUNK_SQL, Timestamp.valueOf(cutoff));
+        } catch (Exception e) {
+            logger.error("Error applying job retention", e);
+            return 0;
+        }
+        
+        long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+        totalRowsRemoved.addAndGet(rows);
+        lastRunMode = mode;
+        lastRunRows = rows;
+        lastRunMillis = elapsed;
+        lastRunAt = System.currentTimeMillis();
+        logger.info("Job retention removed {} rows submitted before {} by {} in {}ms ({} rows/s)",
+                   rows, cutoff, mode, elapsed, rows * 1000 / elapsed);
+        
+        if (rows > 0) {
+            jobStatisticsService.reconcile();
+        }
+        return rows;
+    }
+    
+    private long dropPartitions(List<PartitionInfo> partitions, LocalDateTime cutoff) {
+        long cutoffEpoch = cutoff.atZone(ZoneId.systemDefault()).toEpochSecond();
+        long rows = 0;
+        Long lowerBound = null;
+        for (PartitionInfo partition : partitions) {
+            if (partition.upperBound == null || partition.upperBound > cutoffEpoch) {
+                break;
+            }
+            Timestamp from = Timestamp.from(Instant.ofEpochSecond(lowerBound != null ? lowerBound : 0));
+            Timestamp bound = Timestamp.from(Instant.ofEpochSecond(partition.upperBound));
+            lowerBound = partition.upperBound;
+            
+            boolean active = !jdbcTemplate.queryForList(activeJobQuery(partition), String.class).isEmpty();
+            if (!active && dropIfNoActiveJobs(partition)) {
+                partitionsDropped.incrementAndGet();
+                rows += partition.estimatedRows;
+                deleteChunks(DELETE_JOB_IDS_CHUNK_SQL, from, bound);
+                logger.info("Dropped scheduled_jobs partition {} (about {} rows)", partition.name, partition.estimatedRows);
+                continue;
+            }
+            
+            // Keep the partition for its active jobs and delete only the finished ones
+            long deleted = deleteChunks("DELETE FROM scheduled_jobs PARTITION (" + partition.name + ") WHERE NOT " +
+                                        ACTIVE_JOB_CONDITION + " LIMIT ?");
+            partitionsKept.incrementAndGet();
+            rows += deleted;
+            logger.info("Kept scheduled_jobs partition {} for its active jobs, deleted {} finished jobs",
+                       partition.name, deleted);
+        }
+        return rows;
+    }
+    
+    /**
+     * Drop a partition unless active jobs appeared in it since the first check. The table is write-locked
+     * for the re-check and the DROP, so no job can be retried or restarted in between.
+     * @return whether the partition was dropped
+     */
+    private boolean dropIfNoActiveJobs(PartitionInfo partition) {
+        Boolean dropped = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LOCK TABLES scheduled_jobs WRITE");
+                try {
+                    try (ResultSet activeJob = statement.executeQuery(activeJobQuery(partition))) {
+                        if (activeJob.next()) {
+                            return false;
+                        }
+                    }
+                    statement.execute("ALTER TABLE scheduled_jobs DROP PARTITION " + partition.name);
+                    return true;
+                } finally {
+                    statement.execute("UNLOCK TABLES");
+                }
+            }
+        });
+        return Boolean.TRUE.equals(dropped);
+    }
+    
+    private String activeJobQuery(PartitionInfo partition) {
+        return "SELECT job_id FROM scheduled_jobs PARTITION (" + partition.name + ") WHERE " + ACTIVE_JOB_CONDITION + " LIMIT 1";
+    }
+    
+    private long deleteInChunks(LocalDateTime cutoff) {
+        return deleteChunks(DELETE_FINISHED_CHUNK_SQL, Timestamp.valueOf(cutoff));
+    }
+    
+    /**
+     * Run a DELETE ... LIMIT until it removes less than a full chunk, each chunk in its own transaction.
+     */
+    private long deleteChunks(String sql, Object... args) {
+        int chunkSize = retentionConfig.getDeleteChunkSize();
+        Object[] chunkArgs = Arrays.copyOf(args, args.length + 1);
+        chunkArgs[args.length] = chunkSize;
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(sql, chunkArgs);
+            total += deleted;
+            if (deleted == chunkSize && retentionConfig.getChunkPauseMillis() > 0) {
+                try {
+                    Thread.sleep(retentionConfig.getChunkPauseMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } while (deleted == chunkSize);
+        return total;
+    }
+    
+    private List<PartitionInfo> loadPartitions() {
+        return jdbcTemplate.query(SELECT_PARTITIONS_SQL, (rs, rowNum) -> {
+            String description = rs.getString("PARTITION_DESCRIPTION");
+            Long upperBound = description == null || "MAXVALUE".equalsIgnoreCase(description) ? null : Long.parseLong(description.trim());
+            return new PartitionInfo(rs.getString("PARTITION_NAME"), upperBound, rs.getLong("TABLE_ROWS"));
+        });
+    }
+    
+    /**
+     * Get partition and retention statistics.
+     */
+    public Map<String, Object> getRetentionStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", retentionConfig.isEnabled());
+        stats.put("retentionDays", retentionConfig.getRetentionDays());
+        stats.put("partitionInterval", retentionConfig.getPartitionInterval());
+        stats.put("lastRunMode", lastRunMode);
+        stats.put("lastRunRows", lastRunRows);
+        stats.put("lastRunMillis", lastRunMillis);
+        stats.put("lastRunRowsPerSecond", lastRunMillis > 0 ? lastRunRows * 1000 / lastRunMillis : 0);
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("totalRowsRemoved", totalRowsRemoved.get());
+        stats.put("partitionsDropped", partitionsDropped.get());
+        stats.put("partitionsCreated", partitionsCreated.get());
+        stats.put("partitionsKept", partitionsKept.get());
+        try {
+            stats.put("partitions", loadPartitions().size());
+        } catch (Exception e) {
+            stats.put("partitions", "unavailable");
+        }
+        return stats;
+    }
+    
+    /**
+     * A range partition of scheduled_jobs; upperBound is null for MAXVALUE.
+     */
+    private static class PartitionInfo {
+        private final String name;
+        private final Long upperBound;
+        private final long estimatedRows;
+        
+        public PartitionInfo(String name, Long upperBound, long estimatedRows) {
+            this.name = name;
+            this.upperBound = upperBound;
+            this.estimatedRows = estimatedRows;
+        }
+    }
+}
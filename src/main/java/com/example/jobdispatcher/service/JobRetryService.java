@@ -2,22 +2,33 @@ package com.example.jobdispatcher.service;
 
 import com.example.jobdispatcher.config.RetryConfig;
 import com.example.jobdispatcher.entity.ScheduledJob;
-import com.example.jobdispatcher.repository.ScheduledJobRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.annotation.PreDestroy;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service for handling job retry logic with exponential backoff.
+ * Scheduled retries are stored in next_retry_at and held in an in-memory delay queue, so they are
+ * dispatched when due instead of by polling. A dispatch first claims the row; a periodic sweep claims
+ * due retries the queue does not hold, e.g. those scheduled by another instance.
  */
 @Service
 @Transactional
@@ -29,10 +40,56 @@ public class JobRetryService {
     private RetryConfig retryConfig;
     
     @Autowired
-    private ScheduledJobRepository scheduledJobRepository;
+    private JobDispatcherService jobDispatcherService;
     
     @Autowired
-    private JobDispatcherService jobDispatcherService;
+    private DatabasePersistenceService databasePersistenceService;
+    
+    @Autowired
+    private RetryExecutionService retryExecutionService;
+    
+    @Autowired
+    private CircuitBreakerService circuitBreakerService;
+    
+    @Autowired
+    private JobStatisticsService jobStatisticsService;
+    
+    private final DelayQueue<DueRetry> dueRetries = new DelayQueue<>();
+    private Thread retryDispatcher;
+    private volatile boolean running = false;
+    
+    private final AtomicLong retriesDispatched = new AtomicLong();
+    private final AtomicLong sweptRetries = new AtomicLong();
+    private final AtomicLong lostClaims = new AtomicLong();
+    
+    /**
+     * Load scheduled retries into the queue and start dispatching them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void start() {
+        if (!retryConfig.isEnabled()) {
+            return;
+        }
+        
+        Map<String, LocalDateTime> pendingRetries = databasePersistenceService.findPendingRetries(retryConfig.getMaxQueuedRetries());
+        pendingRetries.forEach(this::enqueue);
+        
+        running = true;
+        retryDispatcher = new Thread(this::runDispatcher, "job-retry-dispatcher");
+        retryDispatcher.setDaemon(true);
+        retryDispatcher.start();
+        
+        logger.info("Retry dispatcher started with {} scheduled retries", pendingRetries.size());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (retryDispatcher != null) {
+            retryDispatcher.interrupt();
+        }
+    }
     
     /**
      * Schedule a job for retry with exponential backoff.
@@ -55,74 +112,128 @@ public class JobRetryService {
             return;
         }
         
+        if (!circuitBreakerService.tryAcquireRetryBudget()) {
+            logger.warn("Retry budget exhausted, not retrying job: {}", job.getJobId());
+            return;
+        }
+        
         // Calculate retry delay with exponential backoff
         long delayMillis = calculateRetryDelay(job);
         
-        // Update job with retry information
-        job.incrementRetryCount();
-        job.scheduleNextRetry(delayMillis);
-        job.setRetryReason(exception.getMessage());
+        // Compare-and-set on the retry count, so a concurrent cancel or a second scheduler wins cleanly
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextRetryAt = now.plusNanos(delayMillis * 1_000_000);
+        if (!databasePersistenceService.scheduleRetry(job.getJobId(), job.getRetryCount(), now, nextRetryAt,
+                                                  exception.getMessage())) {
+            logger.info("Job {} changed since it failed, not scheduling a retry", job.getJobId());
+            return;
+        }
         
-        scheduledJobRepository.save(job);
+        job.setRetryCount(job.getRetryCount() + 1);
+        job.setLastRetryAt(now);
+        job.setNextRetryAt(nextRetryAt);
+        job.setRetryReason(exception.getMessage());
+        jobStatisticsService.recordRetryScheduled();
+        enqueueAfterCommit(job.getJobId(), job.getNextRetryAt());
         
         logger.info("Scheduled retry for job {} in {}ms (attempt {}/{})", 
                    job.getJobId(), delayMillis, job.getRetryCount(), job.getMaxRetryAttempts());
     }
     
     /**
-     * Execute a job retry asynchronously.
+     * Park a job whose circuit breaker is open. It is dispatched like a retry once parked-until has passed,
+     * without using up a retry attempt.
      */
-    @Async
-    public CompletableFuture<Void> executeRetry(String jobId) {
-        try {
-            ScheduledJob job = scheduledJobRepository.findByJobId(jobId)
-                    .orElseThrow(() -> new RuntimeException("Job not found: " + jobId));
-            
-            if (!job.isRetryDue()) {
-                logger.warn("Retry not due yet for job: {}", jobId);
-                return CompletableFuture.completedFuture(null);
+    public void parkJob(String jobId, LocalDateTime until) {
+        if (!databasePersistenceService.parkJob(jobId, until)) {
+            logger.info("Job {} can no longer be parked", jobId);
+            return;
+        }
+        enqueueAfterCommit(jobId, until);
+        logger.info("Parked job {} until {}", jobId, until);
+    }
+    
+    /**
+     * Queue the retry once next_retry_at is committed, so the dispatcher can claim it.
+     */
+    private void enqueueAfterCommit(String jobId, LocalDateTime dueAt) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(jobId, dueAt);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(jobId, dueAt);
             }
-            
-            logger.info("Executing retry for job: {} (attempt {}/{})", 
-                       jobId, job.getRetryCount(), job.getMaxRetryAttempts());
-            
-            // Clear retry schedule
-            job.setNextRetryAt(null);
-            scheduledJobRepository.save(job);
-            
-            // Re-dispatch the job
-            if ("ONE_TIME".equals(job.getJobType())) {
-                // For one-time jobs, we need to recreate the request and dispatch
-                jobDispatcherService.redispatchOneTimeJob(job);
-            } else if ("REPETITIVE".equals(job.getJobType())) {
-                // For repetitive jobs, restart the scheduling
-                jobDispatcherService.redispatchRepetitiveJob(job);
+        });
+    }
+    
+    private void enqueue(String jobId, LocalDateTime dueAt) {
+        if (dueRetries.size() >= retryConfig.getMaxQueuedRetries()) {
+            // Left to the sweep
+            logger.debug("Retry queue full, retry of job {} waits for the sweep", jobId);
+            return;
+        }
+        dueRetries.add(new DueRetry(jobId, dueAt));
+    }
+    
+    private void runDispatcher() {
+        while (running) {
+            try {
+                DueRetry retry = dueRetries.take();
+                // next_retry_at has second precision in MySQL, allow for rounding up
+                if (databasePersistenceService.claimRetry(retry.jobId, LocalDateTime.now().plusSeconds(1))) {
+                    retryExecutionService.submit(retry.jobId, retry.dueAt);
+                    retriesDispatched.incrementAndGet();
+                } else {
+                    // Cancelled, reset, rescheduled or claimed by the sweep or another instance
+                    lostClaims.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Error dispatching due retry", e);
             }
-            
-        } catch (Exception e) {
-            logger.error("Error executing retry for job: {}", jobId, e);
+        }
+    }
+    
+    /**
+     * Manually run a job's retry if it is due. Runs on the retry pool like scheduled retries.
+     * @return whether the retry was claimed
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean executeRetry(String jobId) {
+        if (!databasePersistenceService.claimRetry(jobId, LocalDateTime.now())) {
+            logger.warn("Retry not due yet for job: {}", jobId);
+            return false;
         }
         
-        return CompletableFuture.completedFuture(null);
+        retryExecutionService.submit(jobId, null);
+        retriesDispatched.incrementAndGet();
+        return true;
     }
     
     /**
-     * Process all due retries (called by scheduler).
+     * Claim and dispatch due retries the in-memory queue missed (called by scheduler).
+     * Reads only due rows through the next_retry_at index, in batches of claim-batch-size.
      */
-    @Scheduled(fixedDelay = 5000) // Check every 5 seconds
+    @Scheduled(fixedDelayString = "${job-retry.sweep-interval-millis:30000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processDueRetries() {
         if (!retryConfig.isEnabled()) {
             return;
         }
         
         try {
-            List<ScheduledJob> dueRetries = scheduledJobRepository.findJobsForRetry();
-            
-            for (ScheduledJob job : dueRetries) {
-                if (job.isRetryDue()) {
-                    executeRetry(job.getJobId());
-                }
-            }
+            Map<String, LocalDateTime> claimed;
+            do {
+                claimed = databasePersistenceService.claimDueRetries(retryConfig.getClaimBatchSize());
+                claimed.forEach(retryExecutionService::submit);
+                retriesDispatched.addAndGet(claimed.size());
+                sweptRetries.addAndGet(claimed.size());
+            } while (claimed.size() == retryConfig.getClaimBatchSize());
             
         } catch (Exception e) {
             logger.error("Error processing due retries", e);
@@ -165,25 +276,29 @@ public class JobRetryService {
     /**
      * Get retry statistics.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public java.util.Map<String, Object> getRetryStatistics() {
         java.util.Map<String, Object> stats = new java.util.HashMap<>();
         
-        // Count jobs by retry status
-        long totalJobs = scheduledJobRepository.count();
-        long failedJobs = scheduledJobRepository.countByStatus("FAILED");
-        long retryableJobs = scheduledJobRepository.findJobsForRetry().size();
-        long retryScheduledJobs = scheduledJobRepository.findByStatus("PENDING").stream()
-                .filter(job -> job.getNextRetryAt() != null)
-                .count();
+        // Count jobs by retry status, from the in-memory statistics
+        long totalJobs = jobStatisticsService.getTotalJobs();
+        long failedJobs = jobStatisticsService.getJobCountByStatus("FAILED");
+        long retryableJobs = jobStatisticsService.getRetryableJobs();
+        long retryScheduledJobs = jobStatisticsService.getRetryScheduledJobs();
         
         stats.put("totalJobs", totalJobs);
         stats.put("failedJobs", failedJobs);
         stats.put("retryableJobs", retryableJobs);
         stats.put("retryScheduledJobs", retryScheduledJobs);
         stats.put("retryEnabled", retryConfig.isEnabled());
+        stats.put("queuedRetries", dueRetries.size());
+        stats.put("retriesDispatched", retriesDispatched.get());
+        stats.put("sweptRetries", sweptRetries.get());
+        stats.put("lostClaims", lostClaims.get());
+        stats.put("execution", retryExecutionService.getExecutionStats());
         
         // Calculate retry success rate
-        long completedJobs = scheduledJobRepository.countByStatus("COMPLETED");
+        long completedJobs = jobStatisticsService.getJobCountByStatus("COMPLETED");
         long totalAttempts = completedJobs + failedJobs;
         double successRate = totalAttempts > 0 ? (double) completedJobs / totalAttempts * 100 : 0;
         stats.put("successRate", Math.round(successRate * 100.0) / 100.0);
@@ -196,12 +311,15 @@ public class JobRetryService {
      */
     public void cancelRetries(String jobId) {
         try {
-            ScheduledJob job = scheduledJobRepository.findByJobId(jobId)
+            ScheduledJob job = databasePersistenceService.findScheduledJobByJobId(jobId)
                     .orElseThrow(() -> new RuntimeException("Job not found: " + jobId));
             
+            if (job.getNextRetryAt() != null) {
+                jobStatisticsService.recordRetriesCleared(1);
+            }
             job.setNextRetryAt(null);
             job.setRetryEnabled(false);
-            scheduledJobRepository.save(job);
+            databasePersistenceService.saveScheduledJob(job);
             
             logger.info("Cancelled retries for job: {}", jobId);
             
@@ -215,14 +333,17 @@ public class JobRetryService {
      */
     public void resetRetryCount(String jobId) {
         try {
-            ScheduledJob job = scheduledJobRepository.findByJobId(jobId)
+            ScheduledJob job = databasePersistenceService.findScheduledJobByJobId(jobId)
                     .orElseThrow(() -> new RuntimeException("Job not found: " + jobId));
             
+            if (job.getNextRetryAt() != null) {
+                jobStatisticsService.recordRetriesCleared(1);
+            }
             job.setRetryCount(0);
             job.setNextRetryAt(null);
             job.setLastRetryAt(null);
             job.setRetryReason(null);
-            scheduledJobRepository.save(job);
+            databasePersistenceService.saveScheduledJob(job);
             
             logger.info("Reset retry count for job: {}", jobId);
             
@@ -230,5 +351,32 @@ public class JobRetryService {
             logger.error("Error resetting retry count for job: {}", jobId, e);
         }
     }
+    
+    /**
+     * A scheduled retry in the in-memory queue.
+     */
+    private static class DueRetry implements Delayed {
+        private final String jobId;
+        private final LocalDateTime dueAt;
+        private final long dueAtMillis;
+        
+        public DueRetry(String jobId, LocalDateTime dueAt) {
+            this.jobId = jobId;
+            this.dueAt = dueAt;
+            this.dueAtMillis = dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+        
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof DueRetry) {
+                return Long.compare(dueAtMillis, ((DueRetry) other).dueAtMillis);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
 }
-
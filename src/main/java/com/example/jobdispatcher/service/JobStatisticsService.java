@@ -0,0 +1,318 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.entity.ScheduledJob;
+import com.example.jobdispatcher.persistence.JobCount;
+import com.example.jobdispatcher.persistence.JobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory job statistics, so statistics endpoints do not query the database.
+ * Counters per status, job type, thread pool and job class are updated on every lifecycle transition
+ * and reconciled against the job store with a single grouped count every reconcile interval, which
+ * corrects transitions made outside this instance, bulk deletes and rolled back inserts.
+ */
+@Service
+public class JobStatisticsService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobStatisticsService.class);
+    
+    private static final String DEFAULT_POOL = "default";
+    
+    private static final String THREAD_POOL_COUNTS_SQL =
+            "SELECT is_active, COUNT(*) AS pool_count FROM thread_pools GROUP BY is_active";
+    
+    private static final String APP_SERVER_COUNTS_SQL =
+            "SELECT is_active, health_status, COUNT(*) AS server_count FROM app_servers GROUP BY is_active, health_status";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private JobStore jobStore;
+    
+    private final LongAdder totalJobs = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> jobsByStatus = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> jobsByType = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> jobsByPool = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> jobsByClass = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> transitionsByStatus = new ConcurrentHashMap<>();
+    private final LongAdder retryScheduledJobs = new LongAdder();
+    private final LongAdder retryableJobs = new LongAdder();
+    
+    // Last known status of jobs this instance has seen, so a transition can decrement the status it leaves
+    private final ConcurrentHashMap<String, String> knownStatus = new ConcurrentHashMap<>();
+    
+    // Small tables, only refreshed on reconciliation
+    private volatile Map<String, Object> threadPoolCounts = new HashMap<>();
+    private volatile Map<String, Object> appServerCounts = new HashMap<>();
+    private volatile long lastReconciledAt = 0;
+    private volatile long lastReconcileDrift = 0;
+    
+    /**
+     * Record newly inserted jobs.
+     */
+    public void recordCreated(ScheduledJob job) {
+        totalJobs.increment();
+        increment(jobsByStatus, job.getStatus());
+        increment(jobsByType, job.getJobType());
+        increment(jobsByPool, poolName(job));
+        increment(jobsByClass, job.getJobClassName());
+        if (job.getStatus() != null) {
+            knownStatus.put(job.getJobId(), job.getStatus());
+        }
+    }
+    
+    /**
+     * Record a deleted job.
+     */
+    public void recordDeleted(ScheduledJob job) {
+        totalJobs.decrement();
+        String status = knownStatus.remove(job.getJobId());
+        decrement(jobsByStatus, status != null ? status : job.getStatus());
+        decrement(jobsByType, job.getJobType());
+        decrement(jobsByPool, poolName(job));
+        decrement(jobsByClass, job.getJobClassName());
+    }
+    
+    /**
+     * Record a status transition whose previous status is known to the caller.
+     */
+    public void recordTransition(String jobId, String fromStatus, String toStatus) {
+        knownStatus.remove(jobId);
+        decrement(jobsByStatus, fromStatus);
+        enter(jobId, toStatus);
+    }
+    
+    /**
+     * Record a status transition. The previous status is the last one seen for the job; completion,
+     * failure and timeout always leave RUNNING. Otherwise it is left to the next reconciliation.
+     */
+    public void recordTransition(String jobId, String toStatus) {
+        String fromStatus = knownStatus.remove(jobId);
+        if (fromStatus == null && ("COMPLETED".equals(toStatus) || "FAILED".equals(toStatus) || "TIMED_OUT".equals(toStatus))) {
+            fromStatus = "RUNNING";
+        }
+        decrement(jobsByStatus, fromStatus);
+        enter(jobId, toStatus);
+    }
+    
+    private void enter(String jobId, String toStatus) {
+        increment(jobsByStatus, toStatus);
+        increment(transitionsByStatus, toStatus);
+        // Completed and cancelled jobs are not tracked further, except through reconciliation
+        if (!"COMPLETED".equals(toStatus) && !"CANCELLED".equals(toStatus)) {
+            knownStatus.put(jobId, toStatus);
+        }
+    }
+    
+    public void recordRetryScheduled() {
+        retryScheduledJobs.increment();
+    }
+    
+    public void recordRetriesCleared(int count) {
+        retryScheduledJobs.add(-count);
+    }
+    
+    private static void increment(ConcurrentHashMap<String, LongAdder> counters, String key) {
+        if (key != null) {
+            counters.computeIfAbsent(key, k -> new LongAdder()).increment();
+        }
+    }
+    
+    private static void decrement(ConcurrentHashMap<String, LongAdder> counters, String key) {
+        if (key != null) {
+            counters.computeIfAbsent(key, k -> new LongAdder()).decrement();
+        }
+    }
+    
+    private static String poolName(ScheduledJob job) {
+        return job.getThreadPool() != null && job.getThreadPool().getName() != null ? job.getThreadPool().getName() : DEFAULT_POOL;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+    
+    /**
+     * Replace the counters with the database counts. Counters are adjusted by the difference rather than
+     * reset, so increments made while the query runs are not lost.
+     */
+    @Scheduled(fixedDelayString = "${job-dispatcher.statistics.reconcile-interval-millis:60000}",
+               initialDelayString = "${job-dispatcher.statistics.reconcile-interval-millis:60000}")
+    public void reconcile() {
+        try {
+            Map<String, Long> byStatus = new HashMap<>();
+            Map<String, Long> byType = new HashMap<>();
+            Map<String, Long> byPool = new HashMap<>();
+            Map<String, Long> byClass = new HashMap<>();
+            long[] totals = new long[3];
+            
+            for (JobCount jobCount : jobStore.countJobs()) {
+                long count = jobCount.getCount();
+                String pool = jobCount.getPoolName();
+                byStatus.merge(jobCount.getStatus(), count, Long::sum);
+                byType.merge(jobCount.getJobType(), count, Long::sum);
+                byPool.merge(pool != null ? pool : DEFAULT_POOL, count, Long::sum);
+                byClass.merge(jobCount.getJobClassName(), count, Long::sum);
+                totals[0] += count;
+                totals[1] += jobCount.getRetryScheduled();
+                totals[2] += jobCount.getRetryable();
+            }
+            
+            long drift = Math.abs(totals[0] - totalJobs.sum());
+            totalJobs.add(totals[0] - totalJobs.sum());
+            drift += adjust(jobsByStatus, byStatus);
+            adjust(jobsByType, byType);
+            adjust(jobsByPool, byPool);
+            adjust(jobsByClass, byClass);
+            retryScheduledJobs.add(totals[1] - retryScheduledJobs.sum());
+            retryableJobs.add(totals[2] - retryableJobs.sum());
+            
+            // Failed jobs that are never retried would otherwise stay tracked forever
+            knownStatus.values().removeIf(status -> "FAILED".equals(status) || "TIMED_OUT".equals(status));
+            
+            threadPoolCounts = queryThreadPoolCounts();
+            appServerCounts = queryAppServerCounts();
+            lastReconcileDrift = drift;
+            lastReconciledAt = System.currentTimeMillis();
+            
+            if (drift > 0) {
+                logger.debug("Reconciled job statistics, corrected drift of {}", drift);
+            }
+        } catch (Exception e) {
+            logger.error("Error reconciling job statistics", e);
+        }
+    }
+    
+    private static long adjust(ConcurrentHashMap<String, LongAdder> counters, Map<String, Long> actual) {
+        long drift = 0;
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            long expected = actual.getOrDefault(entry.getKey(), 0L);
+            long delta = expected - entry.getValue().sum();
+            entry.getValue().add(delta);
+            drift += Math.abs(delta);
+        }
+        for (Map.Entry<String, Long> entry : actual.entrySet()) {
+            if (entry.getKey() != null && !counters.containsKey(entry.getKey())) {
+                counters.computeIfAbsent(entry.getKey(), k -> new LongAdder()).add(entry.getValue());
+                drift += entry.getValue();
+            }
+        }
+        return drift;
+    }
+    
+    private Map<String, Object> queryThreadPoolCounts() {
+        Map<String, Object> counts = new HashMap<>();
+        long[] totals = new long[2];
+        jdbcTemplate.query(THREAD_POOL_COUNTS_SQL, rs -> {
+            long count = rs.getLong("pool_count");
+            totals[0] += count;
+            if (rs.getBoolean("is_active")) {
+                totals[1] += count;
+            }
+        });
+        counts.put("totalThreadPools", totals[0]);
+        counts.put("activeThreadPools", totals[1]);
+        return counts;
+    }
+    
+    private Map<String, Object> queryAppServerCounts() {
+        Map<String, Object> counts = new HashMap<>();
+        long[] totals = new long[4];
+        jdbcTemplate.query(APP_SERVER_COUNTS_SQL, rs -> {
+            long count = rs.getLong("server_count");
+            totals[0] += count;
+            if (rs.getBoolean("is_active")) {
+                totals[1] += count;
+                String health = rs.getString("health_status");
+                if ("UP".equals(health)) {
+                    totals[2] += count;
+                } else if ("DOWN".equals(health)) {
+                    totals[3] += count;
+                }
+            }
+        });
+        counts.put("totalAppServers", totals[0]);
+        counts.put("activeAppServers", totals[1]);
+        counts.put("upAppServers", totals[2]);
+        counts.put("downAppServers", totals[3]);
+        return counts;
+    }
+    
+    public long getTotalJobs() {
+        return totalJobs.sum();
+    }
+    
+    public long getJobCountByStatus(String status) {
+        LongAdder counter = jobsByStatus.get(status);
+        return counter != null ? Math.max(counter.sum(), 0) : 0;
+    }
+    
+    public long getJobCountByType(String jobType) {
+        LongAdder counter = jobsByType.get(jobType);
+        return counter != null ? Math.max(counter.sum(), 0) : 0;
+    }
+    
+    public long getRetryScheduledJobs() {
+        return Math.max(retryScheduledJobs.sum(), 0);
+    }
+    
+    public long getRetryableJobs() {
+        return retryableJobs.sum();
+    }
+    
+    /**
+     * Get job statistics from the in-memory counters.
+     */
+    public Map<String, Object> getJobStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        
+        stats.put("totalJobs", getTotalJobs());
+        stats.put("pendingJobs", getJobCountByStatus("PENDING"));
+        stats.put("runningJobs", getJobCountByStatus("RUNNING"));
+        stats.put("completedJobs", getJobCountByStatus("COMPLETED"));
+        stats.put("failedJobs", getJobCountByStatus("FAILED"));
+        stats.put("cancelledJobs", getJobCountByStatus("CANCELLED"));
+        stats.put("timedOutJobs", getJobCountByStatus("TIMED_OUT"));
+        stats.put("parkedJobs", getJobCountByStatus("PARKED"));
+        stats.put("overflowJobs", getJobCountByStatus("OVERFLOW"));
+        
+        stats.put("oneTimeJobs", getJobCountByType("ONE_TIME"));
+        stats.put("repetitiveJobs", getJobCountByType("REPETITIVE"));
+        
+        stats.put("jobsByPool", snapshot(jobsByPool));
+        stats.put("jobsByClass", snapshot(jobsByClass));
+        stats.put("transitionsByStatus", snapshot(transitionsByStatus));
+        
+        stats.putAll(threadPoolCounts);
+        stats.putAll(appServerCounts);
+        
+        stats.put("lastReconciledAt", lastReconciledAt);
+        stats.put("lastReconcileDrift", lastReconcileDrift);
+        return stats;
+    }
+    
+    private static Map<String, Long> snapshot(ConcurrentHashMap<String, LongAdder> counters) {
+        Map<String, Long> values = new HashMap<>();
+        counters.forEach((key, counter) -> {
+            long value = counter.sum();
+            if (value > 0) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+}
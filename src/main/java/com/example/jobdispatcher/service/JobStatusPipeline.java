@@ -0,0 +1,453 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.StatusPipelineConfig;
+import com.example.jobdispatcher.persistence.JobStore;
+import com.example.jobdispatcher.persistence.JobTransition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind pipeline for job lifecycle transitions.
+ * Workers publish transitions into a bounded ring; a single writer thread coalesces them per job
+ * and writes them with batched compare-and-set UPDATE statements, so the worker thread never waits on
+ * the database for start and completion transitions. Transitions the job's current status does not allow,
+ * e.g. completing a job that was cancelled meanwhile, are dropped; statistics catch up on the next reconcile.
+ */
+@Service
+public class JobStatusPipeline {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobStatusPipeline.class);
+    
+    @Autowired
+    private StatusPipelineConfig pipelineConfig;
+    
+    @Autowired
+    private JobStore jobStore;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JobStatisticsService jobStatisticsService;
+    
+    private ArrayBlockingQueue<StatusEvent> ring;
+    private Thread writerThread;
+    private volatile boolean running = false;
+    
+    // Start times of jobs currently running, used to compute execution time on completion
+    private final ConcurrentHashMap<String, LocalDateTime> runningSince = new ConcurrentHashMap<>();
+    
+    private final AtomicLong publishedEvents = new AtomicLong();
+    private final AtomicLong writtenRows = new AtomicLong();
+    private final AtomicLong coalescedEvents = new AtomicLong();
+    private final AtomicLong batchesWritten = new AtomicLong();
+    private final AtomicLong synchronousWrites = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong rejectedTransitions = new AtomicLong();
+    private volatile long lastBatchLagMillis = 0;
+    private volatile long maxBatchLagMillis = 0;
+    
+    @PostConstruct
+    public void start() {
+        if (!pipelineConfig.isEnabled()) {
+            logger.info("Job status pipeline disabled, status transitions will be written synchronously");
+            return;
+        }
+        
+        ring = new ArrayBlockingQueue<>(pipelineConfig.getCapacity());
+        running = true;
+        writerThread = new Thread(this::runWriter, "job-status-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        
+        logger.info("Job status pipeline started (capacity: {}, batch size: {}, flush interval: {}ms)",
+                   pipelineConfig.getCapacity(), pipelineConfig.getBatchSize(), pipelineConfig.getFlushIntervalMillis());
+    }
+    
+    /**
+     * Stop accepting events and flush everything still buffered.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        
+        running = false;
+        try {
+            writerThread.join(pipelineConfig.getShutdownTimeoutMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        // Anything the writer did not get to is written from the shutdown thread
+        List<StatusEvent> remaining = new ArrayList<>();
+        ring.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            logger.warn("Flushing {} remaining status events on shutdown", remaining.size());
+            writeBatch(remaining);
+        }
+        
+        logger.info("Job status pipeline stopped ({} events published, {} rows written)",
+                   publishedEvents.get(), writtenRows.get());
+    }
+    
+    // Publishing
+    
+    public void publishStarted(String jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        runningSince.put(jobId, now);
+        publish(new StatusEvent(jobId, "RUNNING", now, null, null, null), false);
+    }
+    
+    public void publishCompleted(String jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        publish(new StatusEvent(jobId, "COMPLETED", null, now, executionTimeMs(jobId, now), null), false);
+    }
+    
+    /**
+     * Publish a failure and wait until it is written, so retry handling reads the FAILED row.
+     */
+    public void publishFailed(String jobId, String errorMessage) {
+        LocalDateTime now = LocalDateTime.now();
+        publish(new StatusEvent(jobId, "FAILED", null, now, executionTimeMs(jobId, now), errorMessage), true);
+    }
+    
+    /**
+     * Publish a cancellation and wait until it is written.
+     */
+    public void publishCancelled(String jobId) {
+        runningSince.remove(jobId);
+        publish(new StatusEvent(jobId, "CANCELLED", null, LocalDateTime.now(), null, null), true);
+    }
+    
+    /**
+     * Publish the timeouts found by the watchdog as one batch and wait until they are written,
+     * so retry handling reads the TIMED_OUT rows.
+     */
+    public void publishTimedOut(Map<String, String> errorMessagesByJobId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StatusEvent> events = new ArrayList<>(errorMessagesByJobId.size());
+        errorMessagesByJobId.forEach((jobId, errorMessage) ->
+                events.add(new StatusEvent(jobId, "TIMED_OUT", null, now, executionTimeMs(jobId, now), errorMessage)));
+        publishedEvents.addAndGet(events.size());
+        errorMessagesByJobId.keySet().forEach(jobId -> jobStatisticsService.recordTransition(jobId, "TIMED_OUT"));
+        
+        if (!running) {
+            writeBatch(events);
+            return;
+        }
+        
+        List<StatusEvent> unwritten = new ArrayList<>();
+        List<StatusEvent> published = new ArrayList<>(events.size());
+        for (StatusEvent event : events) {
+            event.written = new CompletableFuture<>();
+            if (ring.offer(event)) {
+                published.add(event);
+            } else {
+                unwritten.add(event);
+            }
+        }
+        
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pipelineConfig.getAwaitTimeoutMillis());
+        for (StatusEvent event : published) {
+            try {
+                event.written.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                unwritten.add(event);
+            } catch (TimeoutException e) {
+                logger.warn("Timed out waiting for TIMED_OUT transition of job {} to be written", event.jobId);
+            }
+        }
+        
+        // Ring was full or the batch failed, write the rest in one batch from this thread
+        if (!unwritten.isEmpty()) {
+            synchronousWrites.addAndGet(unwritten.size());
+            writeBatch(unwritten);
+        }
+    }
+    
+    private Long executionTimeMs(String jobId, LocalDateTime completedAt) {
+        LocalDateTime startedAt = runningSince.remove(jobId);
+        return startedAt != null ? Duration.between(startedAt, completedAt).toMillis() : null;
+    }
+    
+    private void publish(StatusEvent event, boolean awaitWrite) {
+        publishedEvents.incrementAndGet();
+        jobStatisticsService.recordTransition(event.jobId, event.status);
+        
+        if (!running) {
+            writeSynchronously(event);
+            return;
+        }
+        
+        if (awaitWrite) {
+            event.written = new CompletableFuture<>();
+        }
+        
+        boolean accepted;
+        try {
+            accepted = ring.offer(event, pipelineConfig.getPublishTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        
+        if (!accepted || (!running && ring.remove(event))) {
+            // Ring is full, the worker was interrupted or the pipeline shut down underneath us
+            writeSynchronously(event);
+            return;
+        }
+        
+        if (awaitWrite) {
+            try {
+                event.written.get(pipelineConfig.getAwaitTimeoutMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // The batch containing this event failed, retry it on its own
+                writeSynchronously(event);
+            } catch (TimeoutException e) {
+                logger.warn("Timed out waiting for {} transition of job {} to be written", event.status, event.jobId);
+            }
+        }
+    }
+    
+    private void writeSynchronously(StatusEvent event) {
+        synchronousWrites.incrementAndGet();
+        List<StatusEvent> single = new ArrayList<>(1);
+        single.add(event);
+        writeBatch(single);
+    }
+    
+    // Writer
+    
+    private void runWriter() {
+        List<StatusEvent> batch = new ArrayList<>(pipelineConfig.getBatchSize());
+        
+        while (running || !ring.isEmpty()) {
+            try {
+                StatusEvent first = ring.poll(pipelineConfig.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                
+                batch.add(first);
+                long deadline = first.enqueuedAtNanos + TimeUnit.MILLISECONDS.toNanos(pipelineConfig.getFlushIntervalMillis());
+                boolean urgent = first.written != null;
+                
+                // Fill the batch until it is full, the oldest event is due, or someone is waiting
+                while (batch.size() < pipelineConfig.getBatchSize() && running) {
+                    int before = batch.size();
+                    ring.drainTo(batch, pipelineConfig.getBatchSize() - batch.size());
+                    for (int i = before; i < batch.size(); i++) {
+                        urgent |= batch.get(i).written != null;
+                    }
+                    
+                    long remaining = deadline - System.nanoTime();
+                    if (urgent || remaining <= 0 || batch.size() >= pipelineConfig.getBatchSize()) {
+                        break;
+                    }
+                    
+                    StatusEvent next = ring.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    urgent |= next.written != null;
+                }
+                
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Unexpected error in job status writer", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    /**
+     * Coalesce a batch per job and write it in one transaction.
+     */
+    private void writeBatch(List<StatusEvent> batch) {
+        Collection<StatusEvent> updates = coalesce(batch);
+        long oldestEnqueuedAt = Long.MAX_VALUE;
+        for (StatusEvent event : batch) {
+            oldestEnqueuedAt = Math.min(oldestEnqueuedAt, event.enqueuedAtNanos);
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> executeUpdates(updates));
+            
+            writtenRows.addAndGet(updates.size());
+            coalescedEvents.addAndGet(batch.size() - updates.size());
+            batchesWritten.incrementAndGet();
+            
+            long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldestEnqueuedAt);
+            lastBatchLagMillis = lag;
+            if (lag > maxBatchLagMillis) {
+                maxBatchLagMillis = lag;
+            }
+            
+            for (StatusEvent event : batch) {
+                if (event.written != null) {
+                    event.written.complete(null);
+                }
+            }
+        } catch (Exception e) {
+            failedBatches.incrementAndGet();
+            logger.error("Failed to write batch of {} job status updates", updates.size(), e);
+            for (StatusEvent event : batch) {
+                if (event.written != null) {
+                    event.written.completeExceptionally(e);
+                }
+            }
+        }
+    }
+    
+    private void executeUpdates(Collection<StatusEvent> updates) {
+        List<JobTransition> transitions = new ArrayList<>(updates.size());
+        for (StatusEvent update : updates) {
+            transitions.add(new JobTransition(update.jobId, update.guardStatus, update.status, update.startedAt,
+                                           update.completedAt, update.executionTimeMs, update.errorMessage));
+        }
+        
+        List<JobTransition> rejected = jobStore.applyTransitions(transitions);
+        if (!rejected.isEmpty()) {
+            rejectedTransitions.addAndGet(rejected.size());
+            for (JobTransition transition : rejected) {
+                logger.debug("Dropped {} transition of job {}, its current status does not allow it",
+                            transition.getStatus(), transition.getJobId());
+            }
+        }
+    }
+    
+    /**
+     * Merge events for the same job, keeping publication order between jobs.
+     * The last status wins and is guarded by the first event's allowed statuses; timestamps and error
+     * details are taken from the latest event that set them.
+     */
+    private Collection<StatusEvent> coalesce(List<StatusEvent> batch) {
+        Map<String, StatusEvent> merged = new LinkedHashMap<>();
+        for (StatusEvent event : batch) {
+            StatusEvent existing = merged.get(event.jobId);
+            if (existing == null) {
+                merged.put(event.jobId, event.copy());
+                continue;
+            }
+            
+            existing.status = event.status;
+            if (event.startedAt != null) {
+                existing.startedAt = event.startedAt;
+            }
+            if (event.completedAt != null) {
+                existing.completedAt = event.completedAt;
+            }
+            if (event.executionTimeMs != null) {
+                existing.executionTimeMs = event.executionTimeMs;
+            }
+            if (event.errorMessage != null) {
+                existing.errorMessage = event.errorMessage;
+            }
+        }
+        return merged.values();
+    }
+    
+    /**
+     * Get the age of the oldest event still waiting to be written.
+     */
+    public long getPipelineLagMillis() {
+        if (ring == null) {
+            return 0;
+        }
+        StatusEvent oldest = ring.peek();
+        return oldest != null ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.enqueuedAtNanos) : 0;
+    }
+    
+    /**
+     * Get status pipeline statistics.
+     */
+    public Map<String, Object> getPipelineStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", pipelineConfig.isEnabled());
+        stats.put("running", running);
+        stats.put("pendingEvents", ring != null ? ring.size() : 0);
+        stats.put("capacity", pipelineConfig.getCapacity());
+        stats.put("lagMillis", getPipelineLagMillis());
+        stats.put("lastBatchLagMillis", lastBatchLagMillis);
+        stats.put("maxBatchLagMillis", maxBatchLagMillis);
+        stats.put("publishedEvents", publishedEvents.get());
+        stats.put("writtenRows", writtenRows.get());
+        stats.put("coalescedEvents", coalescedEvents.get());
+        stats.put("batchesWritten", batchesWritten.get());
+        stats.put("synchronousWrites", synchronousWrites.get());
+        stats.put("failedBatches", failedBatches.get());
+        stats.put("rejectedTransitions", rejectedTransitions.get());
+        stats.put("timestamp", System.currentTimeMillis());
+        return stats;
+    }
+    
+    /**
+     * A single lifecycle transition for a job.
+     */
+    private static class StatusEvent {
+        private final String jobId;
+        private final long enqueuedAtNanos;
+        private final String guardStatus;
+        private String status;
+        private LocalDateTime startedAt;
+        private LocalDateTime completedAt;
+        private Long executionTimeMs;
+        private String errorMessage;
+        private CompletableFuture<Void> written;
+        
+        public StatusEvent(String jobId, String status, LocalDateTime startedAt, LocalDateTime completedAt,
+                           Long executionTimeMs, String errorMessage) {
+            this(jobId, status, status, startedAt, completedAt, executionTimeMs, errorMessage, System.nanoTime());
+        }
+        
+        private StatusEvent(String jobId, String guardStatus, String status, LocalDateTime startedAt,
+                            LocalDateTime completedAt, Long executionTimeMs, String errorMessage, long enqueuedAtNanos) {
+            this.jobId = jobId;
+            this.guardStatus = guardStatus;
+            this.status = status;
+            this.startedAt = startedAt;
+            this.completedAt = completedAt;
+            this.executionTimeMs = executionTimeMs;
+            this.errorMessage = errorMessage;
+            this.enqueuedAtNanos = enqueuedAtNanos;
+        }
+        
+        public StatusEvent copy() {
+            return new StatusEvent(jobId, guardStatus, status, startedAt, completedAt, executionTimeMs, errorMessage,
+                                   enqueuedAtNanos);
+        }
+    }
+}
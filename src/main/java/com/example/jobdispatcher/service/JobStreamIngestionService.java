@@ -0,0 +1,261 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.BatchSubmissionConfig;
+import com.example.jobdispatcher.config.StreamIngestionConfig;
+import com.example.jobdispatcher.enums.JobPriority;
+import com.example.jobdispatcher.model.JobSubmissionResponse;
+import com.example.jobdispatcher.model.OneTimeJobRequest;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Ingests one-time jobs from an NDJSON stream.
+ * Jobs are parsed one at a time with the Jackson streaming parser and dispatched in fixed-size
+ * chunks through the bulk submission path, writing one acknowledgement line per chunk.
+ * The upload is read on the request thread, so the client is held back whenever a chunk waits
+ * for the database insert, executor capacity or rate limit tokens. A chunk is dispatched in parts
+ * as batch job tokens are granted, so it never has to fit in the rate limit bucket at once.
+ */
+@Service
+public class JobStreamIngestionService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobStreamIngestionService.class);
+    
+    private static final byte[] NEWLINE = {'\n'};
+    
+    @Autowired
+    private JobDispatcherService jobDispatcherService;
+    
+    @Autowired
+    private AdmissionControlService admissionControlService;
+    
+    @Autowired
+    private ExecutorRegistry executorRegistry;
+    
+    @Autowired
+    private StreamIngestionConfig streamIngestionConfig;
+    
+    @Autowired
+    private BatchSubmissionConfig batchSubmissionConfig;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    /**
+     * Read one-time jobs from the input and write chunk acknowledgements to the output.
+     * The rate limiter is asked for one token per job and returns how many it granted; only granted
+     * jobs are dispatched. Returns the number of jobs read.
+     */
+    public long ingestOneTimeJobs(InputStream input, OutputStream output, LongUnaryOperator rateLimiter) throws IOException {
+        int chunkSize = Math.max(Math.min(streamIngestionConfig.getChunkSize(), batchSubmissionConfig.getMaxBatchSize()), 1);
+        long received = 0;
+        int chunkNumber = 0;
+        
+        try (JsonParser parser = objectMapper.getFactory().createParser(input);
+             MappingIterator<OneTimeJobRequest> iterator = objectMapper.readerFor(OneTimeJobRequest.class).readValues(parser)) {
+            
+            List<OneTimeJobRequest> chunk = new ArrayList<>(chunkSize);
+            while (true) {
+                boolean hasNext;
+                try {
+                    hasNext = iterator.hasNextValue();
+                    if (hasNext) {
+                        chunk.add(iterator.nextValue());
+                        received++;
+                    }
+                } catch (JsonProcessingException e) {
+                    // The stream cannot be resynchronised after malformed JSON, acknowledge what was read and stop
+                    flushChunk(chunk, ++chunkNumber, received, output, rateLimiter);
+                    int line = e.getLocation() != null ? e.getLocation().getLineNr() : -1;
+                    writeError(output, "Malformed job at line " + line + ": " + e.getOriginalMessage(), received);
+                    return received;
+                }
+                
+                if (chunk.size() >= chunkSize || (!hasNext && !chunk.isEmpty())) {
+                    if (!flushChunk(chunk, ++chunkNumber, received, output, rateLimiter)) {
+                        return received;
+                    }
+                    chunk = new ArrayList<>(chunkSize);
+                }
+                if (!hasNext) {
+                    break;
+                }
+            }
+        }
+        
+        logger.info("Completed NDJSON ingestion of {} jobs in {} chunks", received, chunkNumber);
+        return received;
+    }
+    
+    /**
+     * Dispatch a chunk and write its acknowledgement. Returns false if the stream was aborted.
+     */
+    private boolean flushChunk(List<OneTimeJobRequest> chunk, int chunkNumber, long received,
+                               OutputStream output, LongUnaryOperator rateLimiter) throws IOException {
+        if (chunk.isEmpty()) {
+            return true;
+        }
+        
+        List<JobSubmissionResponse> items = new ArrayList<>(chunk.size());
+        int dispatched = 0;
+        while (dispatched < chunk.size()) {
+            int granted = (int) awaitRateLimit(chunk.size() - dispatched, rateLimiter);
+            if (granted == 0) {
+                break;
+            }
+            items.addAll(dispatchWithinCapacity(chunk.subList(dispatched, dispatched + granted)));
+            dispatched += granted;
+        }
+        
+        if (!items.isEmpty()) {
+            writeAck(items, chunkNumber, received, output);
+        }
+        if (dispatched < chunk.size()) {
+            // The jobs after the last granted one were not dispatched and cost nothing
+            writeError(output, "Rate limit exceeded for one-time job submissions after " + dispatched + " of "
+                       + chunk.size() + " jobs in chunk " + chunkNumber, received);
+            return false;
+        }
+        return true;
+    }
+    
+    private void writeAck(List<JobSubmissionResponse> items, int chunkNumber, long received,
+                          OutputStream output) throws IOException {
+        int accepted = 0;
+        for (JobSubmissionResponse item : items) {
+            if ("SUBMITTED".equals(item.getStatus())) {
+                accepted++;
+            }
+        }
+        
+        Map<String, Object> ack = new HashMap<>();
+        ack.put("chunk", chunkNumber);
+        ack.put("received", received);
+        ack.put("total", items.size());
+        ack.put("accepted", accepted);
+        ack.put("failed", items.size() - accepted);
+        ack.put("items", items);
+        ack.put("timestamp", System.currentTimeMillis());
+        writeLine(output, ack);
+    }
+    
+    /**
+     * Wait until the rate limiter grants tokens for at least one of the jobs, or give up after the
+     * backpressure timeout. Returns the number of tokens granted, 0 if none were.
+     */
+    private long awaitRateLimit(int jobs, LongUnaryOperator rateLimiter) {
+        long deadline = System.currentTimeMillis() + streamIngestionConfig.getBackpressureTimeoutMillis();
+        long granted;
+        while ((granted = rateLimiter.applyAsLong(jobs)) <= 0) {
+            if (System.currentTimeMillis() >= deadline || !pause()) {
+                return 0;
+            }
+        }
+        return Math.min(granted, jobs);
+    }
+    
+    /**
+     * Dispatch a chunk in sub-batches sized to the free capacity of each pool and priority, waiting
+     * while the executors are saturated. Jobs still waiting after the backpressure timeout are
+     * dispatched anyway and handled by admission control (overflow or rejection).
+     */
+    private List<JobSubmissionResponse> dispatchWithinCapacity(List<OneTimeJobRequest> chunk) {
+        List<JobSubmissionResponse> results = new ArrayList<>(chunk.size());
+        List<OneTimeJobRequest> pending = chunk;
+        long deadline = System.currentTimeMillis() + streamIngestionConfig.getBackpressureTimeoutMillis();
+        
+        while (!pending.isEmpty()) {
+            List<OneTimeJobRequest> ready = new ArrayList<>();
+            List<OneTimeJobRequest> deferred = new ArrayList<>();
+            Map<String, Integer> budgets = new HashMap<>();
+            
+            for (OneTimeJobRequest request : pending) {
+                String poolName = getAdmissionPool(request);
+                if (poolName == null) {
+                    ready.add(request);
+                    continue;
+                }
+                
+                JobPriority priority = jobDispatcherService.resolvePriority(request);
+                String budgetKey = poolName + ":" + priority;
+                int budget = budgets.computeIfAbsent(budgetKey,
+                        key -> admissionControlService.getAvailableCapacity(poolName, priority));
+                if (budget > 0) {
+                    ready.add(request);
+                    if (budget != Integer.MAX_VALUE) {
+                        budgets.put(budgetKey, budget - 1);
+                    }
+                } else {
+                    deferred.add(request);
+                }
+            }
+            
+            if (ready.isEmpty()) {
+                if (System.currentTimeMillis() >= deadline || !pause()) {
+                    ready = deferred;
+                    deferred = new ArrayList<>();
+                } else {
+                    continue;
+                }
+            }
+            
+            results.addAll(jobDispatcherService.dispatchOneTimeJobs(ready));
+            pending = deferred;
+        }
+        return results;
+    }
+    
+    /**
+     * Get the pool a job is admitted against, or null if admission does not apply (grouped jobs)
+     * or the job is invalid and will be rejected by validation.
+     */
+    private String getAdmissionPool(OneTimeJobRequest request) {
+        if (request == null || (request.isCanGroup() && request.getGroupKey() != null && !request.getGroupKey().trim().isEmpty())) {
+            return null;
+        }
+        try {
+            return executorRegistry.resolveOneTimePool(request.getThreadPoolName(), request.getJobClassName());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
+    private boolean pause() {
+        try {
+            Thread.sleep(streamIngestionConfig.getBackpressurePollMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private void writeError(OutputStream output, String message, long received) throws IOException {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", message);
+        error.put("received", received);
+        error.put("timestamp", System.currentTimeMillis());
+        writeLine(output, error);
+    }
+    
+    private void writeLine(OutputStream output, Object value) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(value));
+        output.write(NEWLINE);
+        output.flush();
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.JobTimeoutConfig;
+import com.example.jobdispatcher.entity.ScheduledJob;
+import com.example.jobdispatcher.executor.HashedTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enforces job execution timeouts.
+ * Every running execution gets an entry in one timing wheel instead of its own scheduled future;
+ * the wheel's ticker is the only watchdog thread. On expiry the worker thread is interrupted and the
+ * job is queued. A separate flush thread marks timed out jobs TIMED_OUT in bulk and optionally hands
+ * them to the retry service, so a slow database never delays the expiry of other executions.
+ */
+@Service
+public class JobTimeoutWatchdog {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobTimeoutWatchdog.class);
+    
+    // Expiry only interrupts a thread and queues the job, cheap enough to run on the wheel's ticker thread
+    private static final Executor WATCHDOG_THREAD = Runnable::run;
+    
+    private static final int MAX_FLUSH_SIZE = 1000;
+    
+    @Autowired
+    private JobTimeoutConfig timeoutConfig;
+    
+    @Autowired
+    private JobStatusPipeline jobStatusPipeline;
+    
+    @Autowired
+    private DatabasePersistenceService databasePersistenceService;
+    
+    @Autowired
+    @Lazy
+    private JobRetryService jobRetryService;
+    
+    private HashedTimingWheel timingWheel;
+    private ScheduledExecutorService flushExecutor;
+    
+    private final ConcurrentLinkedQueue<ExecutionWatch> timedOutWatches = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<String, PoolCounters> poolCounters = new ConcurrentHashMap<>();
+    
+    private final AtomicLong watchedExecutions = new AtomicLong();
+    private final AtomicLong timedOutExecutions = new AtomicLong();
+    private final AtomicLong markedTimedOut = new AtomicLong();
+    private final AtomicLong retriesScheduled = new AtomicLong();
+    
+    @PostConstruct
+    public void start() {
+        if (!timeoutConfig.isEnabled()) {
+            logger.info("Job timeout watchdog disabled");
+            return;
+        }
+        
+        timingWheel = new HashedTimingWheel(timeoutConfig.getTickMillis(), timeoutConfig.getWheelSize(), "job-timeout-watchdog");
+        timingWheel.start();
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-timeout-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushExecutor.scheduleWithFixedDelay(this::flushTimedOut, timeoutConfig.getFlushIntervalMillis(),
+                                             timeoutConfig.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+        
+        logger.info("Job timeout watchdog started (default timeout: {}ms, class timeouts: {}, tick: {}ms)",
+                   timeoutConfig.getDefaultTimeoutMillis(), timeoutConfig.getClassTimeouts().size(), timeoutConfig.getTickMillis());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (timingWheel != null) {
+            timingWheel.stop();
+            flushExecutor.shutdown();
+            try {
+                flushExecutor.awaitTermination(timeoutConfig.getFlushIntervalMillis() * 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flushTimedOut();
+        }
+    }
+    
+    /**
+     * Start watching the execution running on the current thread.
+     * Call {@link ExecutionWatch#complete()} when the execution returns.
+     *
+     * @param recordStatus whether a timeout marks the job row TIMED_OUT and may schedule a retry
+     */
+    public ExecutionWatch watch(String jobId, String jobClassName, Long jobTimeoutMillis, String poolName, boolean recordStatus) {
+        long timeoutMillis = timeoutConfig.resolveTimeoutMillis(jobClassName, jobTimeoutMillis);
+        if (timingWheel == null || timeoutMillis <= 0) {
+            return ExecutionWatch.UNWATCHED;
+        }
+        
+        PoolCounters counters = poolCounters.computeIfAbsent(poolName, k -> new PoolCounters());
+        ExecutionWatch watch = new ExecutionWatch(jobId, timeoutMillis, Thread.currentThread(), counters, recordStatus);
+        try {
+            watch.timer = timingWheel.schedule(() -> expire(watch), timeoutMillis, WATCHDOG_THREAD);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            return ExecutionWatch.UNWATCHED;
+        }
+        counters.watched.incrementAndGet();
+        watchedExecutions.incrementAndGet();
+        return watch;
+    }
+    
+    private void expire(ExecutionWatch watch) {
+        synchronized (watch) {
+            if (watch.state != ExecutionWatch.RUNNING) {
+                return;
+            }
+            watch.state = ExecutionWatch.TIMED_OUT;
+            if (timeoutConfig.isInterruptOnTimeout()) {
+                watch.thread.interrupt();
+            }
+        }
+        
+        watch.counters.stuck.incrementAndGet();
+        timedOutExecutions.incrementAndGet();
+        logger.warn("Job {} exceeded its {}ms timeout on thread {}", watch.jobId, watch.timeoutMillis, watch.thread.getName());
+        
+        if (watch.recordStatus) {
+            timedOutWatches.add(watch);
+        }
+    }
+    
+    /**
+     * Mark queued timeouts TIMED_OUT in one batch, then schedule their retries (on the flush thread).
+     */
+    private synchronized void flushTimedOut() {
+        while (!timedOutWatches.isEmpty()) {
+            List<ExecutionWatch> batch = new ArrayList<>();
+            Map<String, String> errorMessages = new LinkedHashMap<>();
+            ExecutionWatch watch;
+            while (errorMessages.size() < MAX_FLUSH_SIZE && (watch = timedOutWatches.poll()) != null) {
+                batch.add(watch);
+                errorMessages.put(watch.jobId, "Execution timed out after " + watch.timeoutMillis + "ms");
+            }
+            
+            try {
+                jobStatusPipeline.publishTimedOut(errorMessages);
+                markedTimedOut.addAndGet(errorMessages.size());
+            } catch (Exception e) {
+                // Queue the batch again and leave it to the next flush
+                timedOutWatches.addAll(batch);
+                logger.error("Error marking {} jobs as timed out, retrying on the next flush", errorMessages.size(), e);
+                return;
+            }
+            
+            if (timeoutConfig.isRetryOnTimeout()) {
+                scheduleRetries(errorMessages);
+            }
+        }
+    }
+    
+    /**
+     * Load the timed out jobs with one query and schedule a retry for each.
+     */
+    private void scheduleRetries(Map<String, String> errorMessages) {
+        List<ScheduledJob> jobs;
+        try {
+            jobs = databasePersistenceService.findScheduledJobsByJobIds(errorMessages.keySet());
+        } catch (Exception e) {
+            logger.error("Error loading {} timed out jobs for retry", errorMessages.size(), e);
+            return;
+        }
+        
+        for (ScheduledJob job : jobs) {
+            try {
+                jobRetryService.scheduleRetry(job, new TimeoutException(errorMessages.get(job.getJobId())));
+                retriesScheduled.incrementAndGet();
+            } catch (Exception e) {
+                logger.error("Error scheduling retry for timed out job: {}", job.getJobId(), e);
+            }
+        }
+    }
+    
+    /**
+     * Number of threads of a pool still running an execution that has timed out.
+     */
+    public int getStuckThreads(String poolName) {
+        PoolCounters counters = poolCounters.get(poolName);
+        return counters != null ? counters.stuck.get() : 0;
+    }
+    
+    /**
+     * Get timeout statistics, overall and per pool.
+     */
+    public Map<String, Object> getTimeoutStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", timingWheel != null);
+        stats.put("defaultTimeoutMillis", timeoutConfig.getDefaultTimeoutMillis());
+        stats.put("classTimeouts", timeoutConfig.getClassTimeouts());
+        stats.put("watchedExecutions", watchedExecutions.get());
+        stats.put("timedOutExecutions", timedOutExecutions.get());
+        stats.put("markedTimedOut", markedTimedOut.get());
+        stats.put("pendingStatusUpdates", timedOutWatches.size());
+        stats.put("retriesScheduled", retriesScheduled.get());
+        
+        Map<String, Object> pools = new HashMap<>();
+        poolCounters.forEach((poolName, counters) -> {
+            Map<String, Object> poolStats = new HashMap<>();
+            poolStats.put("watchedExecutions", counters.watched.get());
+            poolStats.put("stuckThreads", counters.stuck.get());
+            pools.put(poolName, poolStats);
+        });
+        stats.put("pools", pools);
+        return stats;
+    }
+    
+    /**
+     * Executions currently watched and threads stuck in a timed out execution, per pool.
+     */
+    private static class PoolCounters {
+        private final AtomicInteger watched = new AtomicInteger();
+        private final AtomicInteger stuck = new AtomicInteger();
+    }
+    
+    /**
+     * Timeout entry of one running execution.
+     */
+    public static class ExecutionWatch {
+        private static final int RUNNING = 0;
+        private static final int COMPLETED = 1;
+        private static final int TIMED_OUT = 2;
+        private static final int TIMED_OUT_RETURNED = 3;
+        
+        // Returned when the job has no timeout
+        private static final ExecutionWatch UNWATCHED = new ExecutionWatch(null, 0, null, null, false);
+        
+        private final String jobId;
+        private final long timeoutMillis;
+        private final Thread thread;
+        private final PoolCounters counters;
+        private final boolean recordStatus;
+        private volatile ScheduledFuture<?> timer;
+        private int state = RUNNING; // Guarded by this
+        
+        private ExecutionWatch(String jobId, long timeoutMillis, Thread thread, PoolCounters counters, boolean recordStatus) {
+            this.jobId = jobId;
+            this.timeoutMillis = timeoutMillis;
+            this.thread = thread;
+            this.counters = counters;
+            this.recordStatus = recordStatus;
+        }
+        
+        /**
+         * Stop watching once the execution returns, on the thread that ran it.
+         *
+         * @return true if the execution finished within its timeout, false if the watchdog already
+         *         timed it out and owns the job's status
+         */
+        public boolean complete() {
+            if (this == UNWATCHED) {
+                return true;
+            }
+            
+            boolean inTime;
+            synchronized (this) {
+                if (state == COMPLETED || state == TIMED_OUT_RETURNED) {
+                    // Already completed, e.g. again from a catch block
+                    return state == COMPLETED;
+                }
+                inTime = state == RUNNING;
+                if (inTime) {
+                    state = COMPLETED;
+                } else {
+                    state = TIMED_OUT_RETURNED;
+                    // Clear the watchdog's interrupt so it does not leak into the next task on this thread
+                    Thread.interrupted();
+                }
+            }
+            
+            counters.watched.decrementAndGet();
+            if (inTime) {
+                ScheduledFuture<?> scheduledTimer = timer;
+                if (scheduledTimer != null) {
+                    scheduledTimer.cancel(false);
+                }
+            } else {
+                counters.stuck.decrementAndGet();
+            }
+            return inTime;
+        }
+    }
+}
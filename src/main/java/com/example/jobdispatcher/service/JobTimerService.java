@@ -0,0 +1,103 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.TimingWheelConfig;
+import com.example.jobdispatcher.executor.HashedTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Schedules repetitive job and grouping timers.
+ * With the timing wheel enabled, timers are kept in a single hashed timing wheel and only the
+ * expired tasks are handed to the given scheduler's threads; otherwise they are scheduled on the
+ * scheduler directly.
+ */
+@Service
+public class JobTimerService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobTimerService.class);
+    
+    @Autowired
+    private TimingWheelConfig timingWheelConfig;
+    
+    private HashedTimingWheel timingWheel;
+    
+    @PostConstruct
+    public void start() {
+        if (!timingWheelConfig.isEnabled()) {
+            return;
+        }
+        
+        timingWheel = new HashedTimingWheel(timingWheelConfig.getTickMillis(), timingWheelConfig.getWheelSize(), "job-timing-wheel");
+        timingWheel.start();
+        logger.info("Timing wheel started (tick: {}ms, wheel size: {})", timingWheel.getTickMillis(), timingWheel.getWheelSize());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (timingWheel != null) {
+            timingWheel.stop();
+            logger.info("Timing wheel stopped ({} active timers dropped)", timingWheel.getActiveTimers());
+        }
+    }
+    
+    /**
+     * Run a task once after a delay.
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delayMillis, ThreadPoolTaskScheduler scheduler) {
+        if (timingWheel == null) {
+            return scheduler.schedule(task, new Date(System.currentTimeMillis() + delayMillis));
+        }
+        return timingWheel.schedule(task, delayMillis, scheduler);
+    }
+    
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis, ThreadPoolTaskScheduler scheduler) {
+        if (timingWheel == null) {
+            return scheduler.scheduleAtFixedRate(task, new Date(System.currentTimeMillis() + initialDelayMillis), periodMillis);
+        }
+        return timingWheel.scheduleAtFixedRate(task, initialDelayMillis, periodMillis, scheduler);
+    }
+    
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long initialDelayMillis, long delayMillis, ThreadPoolTaskScheduler scheduler) {
+        if (timingWheel == null) {
+            return scheduler.scheduleWithFixedDelay(task, new Date(System.currentTimeMillis() + initialDelayMillis), delayMillis);
+        }
+        return timingWheel.scheduleWithFixedDelay(task, initialDelayMillis, delayMillis, scheduler);
+    }
+    
+    /**
+     * Run a task whenever the trigger fires, e.g. a cron expression.
+     */
+    public ScheduledFuture<?> schedule(Runnable task, Trigger trigger, ThreadPoolTaskScheduler scheduler) {
+        if (timingWheel == null) {
+            return scheduler.schedule(task, trigger);
+        }
+        return timingWheel.schedule(task, trigger, scheduler);
+    }
+    
+    /**
+     * Get timer statistics.
+     */
+    public Map<String, Object> getTimerStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("implementation", timingWheel != null ? "TIMING_WHEEL" : "SCHEDULER");
+        if (timingWheel != null) {
+            stats.put("tickMillis", timingWheel.getTickMillis());
+            stats.put("wheelSize", timingWheel.getWheelSize());
+            stats.put("activeTimers", timingWheel.getActiveTimers());
+            stats.put("expiredTimers", timingWheel.getExpiredTimers());
+            stats.put("cancelledTimers", timingWheel.getCancelledTimers());
+        }
+        return stats;
+    }
+}
@@ -13,6 +13,8 @@ import org.springframework.stereotype.Service;
 
 import javax.servlet.http.HttpServletRequest;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -80,145 +82,270 @@ public class RateLimitingService {
      * Check if request is allowed based on IP address.
      */
     public boolean isAllowedByIp(String clientIp) {
+        return isAllowedByIp(clientIp, 0);
+    }
+    
+    /**
+     * Check if a request submitting the given number of batch jobs is allowed based on IP address.
+     */
+    public boolean isAllowedByIp(String clientIp, long batchJobs) {
         if (!rateLimitingConfig.isEnabled()) {
             return true;
         }
         
-        Bucket bucket = ipBuckets.get(clientIp, k -> rateLimitingConfig.getBucket(k));
-        boolean allowed = bucket.tryConsume(1);
-        
-        if (!allowed) {
-            logger.warn("Rate limit exceeded for IP: {}", clientIp);
-        }
-        
-        return allowed;
+        List<Charge> charges = new ArrayList<>();
+        addIpCharge(charges, clientIp, 1);
+        return consume(charges, "ip:" + clientIp, batchJobs);
     }
     
     /**
      * Check if request is allowed based on app server ID.
      */
     public boolean isAllowedByAppServer(String appServerId) {
+        return isAllowedByAppServer(appServerId, 0);
+    }
+    
+    /**
+     * Check if a request submitting the given number of batch jobs is allowed based on app server ID.
+     */
+    public boolean isAllowedByAppServer(String appServerId, long batchJobs) {
         if (!rateLimitingConfig.isEnabled() || appServerId == null) {
             return true;
         }
         
-        Bucket bucket = appServerBuckets.get(appServerId, k -> rateLimitingConfig.getBucket(k));
-        boolean allowed = bucket.tryConsume(1);
-        
-        if (!allowed) {
-            logger.warn("Rate limit exceeded for app server: {}", appServerId);
-        }
-        
-        return allowed;
+        List<Charge> charges = new ArrayList<>();
+        addAppServerCharge(charges, appServerId, 1);
+        return consume(charges, "app-server:" + appServerId, batchJobs);
     }
     
     /**
      * Check if request is allowed based on API key ID.
      */
     public boolean isAllowedByApiKey(String apiKeyId) {
+        return isAllowedByApiKey(apiKeyId, 0);
+    }
+    
+    /**
+     * Check if a request submitting the given number of batch jobs is allowed based on API key ID.
+     */
+    public boolean isAllowedByApiKey(String apiKeyId, long batchJobs) {
         if (!rateLimitingConfig.isEnabled() || apiKeyId == null) {
             return true;
         }
         
-        Bucket bucket = apiKeyBuckets.get(apiKeyId, k -> rateLimitingConfig.getBucket(k));
-        boolean allowed = bucket.tryConsume(1);
-        
-        if (!allowed) {
-            logger.warn("Rate limit exceeded for API key: {}", apiKeyId);
-        }
-        
-        return allowed;
+        List<Charge> charges = new ArrayList<>();
+        addApiKeyCharge(charges, apiKeyId, 1);
+        return consume(charges, "api-key:" + apiKeyId, batchJobs);
     }
     
     /**
      * Check if request is allowed based on user ID.
      */
     public boolean isAllowedByUser(String userId, String userTier) {
+        return isAllowedByUser(userId, userTier, 0);
+    }
+    
+    /**
+     * Check if a request submitting the given number of batch jobs is allowed based on user ID.
+     */
+    public boolean isAllowedByUser(String userId, String userTier, long batchJobs) {
         if (!rateLimitingConfig.isEnabled()) {
             return true;
         }
         
-        Bucket bucket = getUserBucket(userId, userTier);
-        boolean allowed = bucket.tryConsume(1);
-        
-        if (!allowed) {
-            logger.warn("Rate limit exceeded for user: {} (tier: {})", userId, userTier);
-        }
-        
-        return allowed;
+        List<Charge> charges = new ArrayList<>();
+        addUserCharge(charges, userId, userTier, 1);
+        return consume(charges, "user:" + userId, batchJobs);
     }
     
     /**
      * Check if request is allowed based on job type.
      */
     public boolean isAllowedByJobType(String jobType) {
+        return isAllowedByJobType(jobType, 0);
+    }
+    
+    /**
+     * Check if a request submitting the given number of batch jobs is allowed based on job type.
+     */
+    public boolean isAllowedByJobType(String jobType, long batchJobs) {
         if (!rateLimitingConfig.isEnabled()) {
             return true;
         }
         
-        Bucket bucket = getJobTypeBucket(jobType);
-        boolean allowed = bucket.tryConsume(1);
-        
-        if (!allowed) {
-            logger.warn("Rate limit exceeded for job type: {}", jobType);
-        }
-        
-        return allowed;
+        List<Charge> charges = new ArrayList<>();
+        addJobTypeCharge(charges, jobType, 1);
+        return consume(charges, "job-type:" + jobType, batchJobs);
     }
     
     /**
      * Check if request is allowed based on JWT token information.
      */
     public boolean isAllowedByJwt(String appServerId, String apiKeyId, String jobType) {
+        return isAllowedByJwt(appServerId, apiKeyId, jobType, 0);
+    }
+    
+    /**
+     * Check if a request submitting the given number of batch jobs is allowed based on JWT token information.
+     * A batch only consumes tokens if the app server, API key, job type and batch buckets all have enough.
+     */
+    public boolean isAllowedByJwt(String appServerId, String apiKeyId, String jobType, long batchJobs) {
         if (!rateLimitingConfig.isEnabled()) {
             return true;
         }
         
-        // Check app server rate limit
-        if (appServerId != null && !isAllowedByAppServer(appServerId)) {
-            return false;
+        List<Charge> charges = new ArrayList<>();
+        if (appServerId != null) {
+            addAppServerCharge(charges, appServerId, 1);
         }
-        
-        // Check API key rate limit
-        if (apiKeyId != null && !isAllowedByApiKey(apiKeyId)) {
-            return false;
+        if (apiKeyId != null) {
+            addApiKeyCharge(charges, apiKeyId, 1);
         }
-        
-        // Check job type rate limit
-        if (jobType != null && !isAllowedByJobType(jobType)) {
-            return false;
+        if (jobType != null) {
+            addJobTypeCharge(charges, jobType, 1);
         }
-        
-        return true;
+        return consume(charges, getBatchCaller(appServerId, apiKeyId, null, null), batchJobs);
     }
     
     /**
      * Check if request is allowed based on multiple criteria.
      */
     public boolean isAllowed(String clientIp, String userId, String userTier, String jobType) {
+        return isAllowed(clientIp, userId, userTier, jobType, 0);
+    }
+    
+    /**
+     * Check if a request submitting the given number of batch jobs is allowed based on multiple criteria.
+     * A batch only consumes tokens if the IP, user, job type and batch buckets all have enough.
+     */
+    public boolean isAllowed(String clientIp, String userId, String userTier, String jobType, long batchJobs) {
         if (!rateLimitingConfig.isEnabled()) {
             return true;
         }
         
-        // Check IP rate limit
-        if (!isAllowedByIp(clientIp)) {
-            return false;
+        List<Charge> charges = new ArrayList<>();
+        addIpCharge(charges, clientIp, 1);
+        if (userId != null && !userId.trim().isEmpty()) {
+            addUserCharge(charges, userId, userTier, 1);
+        }
+        if (jobType != null && !jobType.trim().isEmpty()) {
+            addJobTypeCharge(charges, jobType, 1);
+        }
+        return consume(charges, getBatchCaller(null, null, clientIp, userId), batchJobs);
+    }
+    
+    /**
+     * Get the key of the batch bucket of a caller: the API key or app server for JWT requests,
+     * otherwise the user or IP address.
+     */
+    public String getBatchCaller(String appServerId, String apiKeyId, String clientIp, String userId) {
+        if (apiKeyId != null) {
+            return "api-key:" + apiKeyId;
+        }
+        if (appServerId != null) {
+            return "app-server:" + appServerId;
         }
-        
-        // Check user rate limit (if userId provided)
         if (userId != null && !userId.trim().isEmpty()) {
-            if (!isAllowedByUser(userId, userTier)) {
+            return "user:" + userId;
+        }
+        return "ip:" + clientIp;
+    }
+    
+    /**
+     * Take as many of the given number of batch job tokens as a caller's batch bucket holds, for streams
+     * that dispatch jobs as tokens become available. Returns the number of tokens taken.
+     */
+    public long acquireBatchJobs(String batchCaller, long jobs) {
+        if (!rateLimitingConfig.isEnabled()) {
+            return jobs;
+        }
+        
+        long granted = rateLimitingConfig.getBatchBucket(batchCaller).tryConsumeAsMuchAsPossible(jobs);
+        if (granted < jobs) {
+            logger.debug("Batch jobs of {} limited to {} of {}", batchCaller, granted, jobs);
+        }
+        return granted;
+    }
+    
+    /**
+     * Get remaining batch job tokens for a caller.
+     */
+    public long getRemainingBatchJobs(String batchCaller) {
+        return rateLimitingConfig.getBatchBucket(batchCaller).getAvailableTokens();
+    }
+    
+    private void addIpCharge(List<Charge> charges, String clientIp, long tokens) {
+        charges.add(new Charge(ipBuckets.get(clientIp, k -> rateLimitingConfig.getBucket(k)), tokens, "IP: " + clientIp));
+    }
+    
+    private void addAppServerCharge(List<Charge> charges, String appServerId, long tokens) {
+        charges.add(new Charge(appServerBuckets.get(appServerId, k -> rateLimitingConfig.getBucket(k)), tokens,
+                               "app server: " + appServerId));
+    }
+    
+    private void addApiKeyCharge(List<Charge> charges, String apiKeyId, long tokens) {
+        charges.add(new Charge(apiKeyBuckets.get(apiKeyId, k -> rateLimitingConfig.getBucket(k)), tokens,
+                               "API key: " + apiKeyId));
+    }
+    
+    private void addUserCharge(List<Charge> charges, String userId, String userTier, long tokens) {
+        charges.add(new Charge(getUserBucket(userId, userTier), tokens, "user: " + userId + " (tier: " + userTier + ")"));
+    }
+    
+    private void addJobTypeCharge(List<Charge> charges, String jobType, long tokens) {
+        charges.add(new Charge(getJobTypeBucket(jobType), tokens, "job type: " + jobType));
+    }
+    
+    /**
+     * Check whether a batch is larger than the batch bucket, so it can never be accepted.
+     */
+    public boolean exceedsBatchLimit(long batchJobs) {
+        return rateLimitingConfig.isEnabled() && batchJobs > rateLimitingConfig.getBatchJobsPerMinute();
+    }
+    
+    /**
+     * Charge a request. Single requests are checked bucket by bucket; a batch also charges one token
+     * per job to the caller's batch bucket, and is charged all buckets or none.
+     */
+    private boolean consume(List<Charge> charges, String batchCaller, long batchJobs) {
+        if (batchJobs <= 0) {
+            return tryConsumeEach(charges);
+        }
+        if (exceedsBatchLimit(batchJobs)) {
+            logger.warn("Batch of {} jobs from {} exceeds the limit of {} batch jobs per minute",
+                       batchJobs, batchCaller, rateLimitingConfig.getBatchJobsPerMinute());
+            return false;
+        }
+        charges.add(new Charge(rateLimitingConfig.getBatchBucket(batchCaller), batchJobs, "batch jobs of " + batchCaller));
+        return tryConsumeAll(charges);
+    }
+    
+    // Buckets before the rejecting one keep their tokens
+    private boolean tryConsumeEach(List<Charge> charges) {
+        for (Charge charge : charges) {
+            if (!charge.bucket.tryConsume(charge.tokens)) {
+                logger.warn("Rate limit exceeded for {}", charge.description);
                 return false;
             }
         }
-        
-        // Check job type rate limit
-        if (jobType != null && !jobType.trim().isEmpty()) {
-            if (!isAllowedByJobType(jobType)) {
+        return true;
+    }
+    
+    /**
+     * Consume every charge, or none: when a bucket rejects, the tokens already taken from the
+     * buckets before it are given back, so a rejected batch costs the caller nothing.
+     */
+    private boolean tryConsumeAll(List<Charge> charges) {
+        for (int i = 0; i < charges.size(); i++) {
+            Charge charge = charges.get(i);
+            if (!charge.bucket.tryConsume(charge.tokens)) {
+                for (int j = 0; j < i; j++) {
+                    charges.get(j).bucket.addTokens(charges.get(j).tokens);
+                }
+                logger.warn("Rate limit exceeded for {}", charge.description);
                 return false;
             }
         }
-        
         return true;
     }
     
@@ -307,4 +434,16 @@ public class RateLimitingService {
             "timestamp", System.currentTimeMillis()
         );
     }
+    
+    private static class Charge {
+        final Bucket bucket;
+        final long tokens;
+        final String description;
+        
+        Charge(Bucket bucket, long tokens, String description) {
+            this.bucket = bucket;
+            this.tokens = tokens;
+            this.description = description;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.ReferenceCacheConfig;
+import com.example.jobdispatcher.entity.ApiKey;
+import com.example.jobdispatcher.entity.AppServer;
+import com.example.jobdispatcher.entity.ThreadPool;
+import com.example.jobdispatcher.repository.ApiKeyRepository;
+import com.example.jobdispatcher.repository.AppServerRepository;
+import com.example.jobdispatcher.repository.ThreadPoolRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for thread pool, app server and API key rows, which are read on every request
+ * or submission but rarely change. Missing rows are cached too. Every write through the services
+ * invalidates the whole cache of that entity type; expire-after-write bounds how long changes made
+ * by other instances stay invisible. API keys get a much shorter expiry, since a key revoked on another
+ * instance must stop authenticating quickly. Cached entities are detached and must not be modified.
+ */
+@Service
+public class ReferenceDataCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+    
+    @Autowired
+    private ReferenceCacheConfig cacheConfig;
+    
+    @Autowired
+    private ThreadPoolRepository threadPoolRepository;
+    
+    @Autowired
+    private AppServerRepository appServerRepository;
+    
+    @Autowired
+    private ApiKeyRepository apiKeyRepository;
+    
+    private Cache<String, Optional<ThreadPool>> threadPoolsByName;
+    private Cache<String, Optional<AppServer>> appServersById;
+    private Cache<String, Optional<ApiKey>> apiKeysByValue;
+    
+    @PostConstruct
+    public void initialize() {
+        threadPoolsByName = newCache(cacheConfig.getExpireAfterWriteSeconds());
+        appServersById = newCache(cacheConfig.getExpireAfterWriteSeconds());
+        apiKeysByValue = newCache(cacheConfig.getApiKeyExpireAfterWriteSeconds());
+        logger.info("Reference data cache {} (expire after {}s, API keys after {}s, maximum {} entries per cache)",
+                   cacheConfig.isEnabled() ? "enabled" : "disabled", cacheConfig.getExpireAfterWriteSeconds(),
+                   cacheConfig.getApiKeyExpireAfterWriteSeconds(), cacheConfig.getMaximumSize());
+    }
+    
+    private <V> Cache<String, V> newCache(long expireAfterWriteSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(cacheConfig.getMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+    }
+    
+    private <V> Optional<V> get(Cache<String, Optional<V>> cache, String key, Function<String, Optional<V>> loader) {
+        if (!cacheConfig.isEnabled() || key == null) {
+            return key != null ? loader.apply(key) : Optional.empty();
+        }
+        return cache.get(key, loader);
+    }
+    
+    public Optional<ThreadPool> getThreadPool(String name) {
+        return get(threadPoolsByName, name, threadPoolRepository::findByName);
+    }
+    
+    public Optional<AppServer> getAppServer(String appServerId) {
+        return get(appServersById, appServerId, appServerRepository::findByAppServerId);
+    }
+    
+    public Optional<ApiKey> getApiKey(String apiKeyValue) {
+        return get(apiKeysByValue, apiKeyValue, apiKeyRepository::findByApiKey);
+    }
+    
+    public void invalidateThreadPools() {
+        invalidate(threadPoolsByName);
+    }
+    
+    public void invalidateAppServers() {
+        invalidate(appServersById);
+    }
+    
+    public void invalidateApiKeys() {
+        invalidate(apiKeysByValue);
+    }
+    
+    /**
+     * Invalidate now and again after commit, so a concurrent read of the old row cannot be cached
+     * while the change is still uncommitted.
+     */
+    private void invalidate(Cache<String, ?> cache) {
+        cache.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Get hit, miss and eviction counts for each cache.
+     */
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", cacheConfig.isEnabled());
+        stats.put("threadPools", statsOf(threadPoolsByName));
+        stats.put("appServers", statsOf(appServersById));
+        stats.put("apiKeys", statsOf(apiKeysByValue));
+        return stats;
+    }
+    
+    private static Map<String, Object> statsOf(Cache<String, ?> cache) {
+        CacheStats cacheStats = cache.stats();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", cache.estimatedSize());
+        stats.put("hits", cacheStats.hitCount());
+        stats.put("misses", cacheStats.missCount());
+        stats.put("hitRate", cacheStats.hitRate());
+        stats.put("evictions", cacheStats.evictionCount());
+        stats.put("averageLoadMillis", cacheStats.averageLoadPenalty() / 1_000_000.0);
+        return stats;
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.job.RepetitiveJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs repetitive job executions on a dedicated worker pool.
+ * Scheduler threads only fire triggers, so a slow job cannot delay other schedules or grouping
+ * timers. Each job's overlap policy decides what happens to a trigger while it is still running,
+ * and the lag between trigger and start is recorded per job.
+ */
+@Service
+public class RepetitiveJobExecutionService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RepetitiveJobExecutionService.class);
+    
+    @Autowired
+    @Qualifier("repetitiveJobWorkerExecutor")
+    private ThreadPoolTaskExecutor workerExecutor;
+    
+    @Autowired
+    private JobTimerService jobTimerService;
+    
+    private final ConcurrentHashMap<String, JobExecutionState> jobStates = new ConcurrentHashMap<>();
+    
+    private final AtomicLong totalTriggers = new AtomicLong();
+    private final AtomicLong totalSkipped = new AtomicLong();
+    private final AtomicLong totalRejected = new AtomicLong();
+    
+    /**
+     * Trigger executions at a fixed rate on the scheduler.
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(String jobId, RepetitiveJob.OverlapPolicy overlapPolicy, Runnable execution,
+                                                  long initialDelayMillis, long periodMillis, ThreadPoolTaskScheduler scheduler) {
+        JobExecutionState state = register(jobId, overlapPolicy, execution);
+        return jobTimerService.scheduleAtFixedRate(() -> onTrigger(state), initialDelayMillis, periodMillis, scheduler);
+    }
+    
+    /**
+     * Trigger executions by a trigger such as a cron expression.
+     */
+    public ScheduledFuture<?> schedule(String jobId, RepetitiveJob.OverlapPolicy overlapPolicy, Runnable execution,
+                                       Trigger trigger, ThreadPoolTaskScheduler scheduler) {
+        JobExecutionState state = register(jobId, overlapPolicy, execution);
+        return jobTimerService.schedule(() -> onTrigger(state), trigger, scheduler);
+    }
+    
+    /**
+     * Trigger executions with a fixed delay between the end of one execution and the next trigger.
+     * The next one-shot trigger is scheduled when an execution finishes, so executions never overlap.
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(String jobId, Runnable execution, long initialDelayMillis,
+                                                     long delayMillis, ThreadPoolTaskScheduler scheduler) {
+        JobExecutionState state = register(jobId, RepetitiveJob.OverlapPolicy.SKIP, execution);
+        FixedDelaySchedule schedule = new FixedDelaySchedule(() -> onTrigger(state), delayMillis, scheduler);
+        state.fixedDelaySchedule = schedule;
+        schedule.scheduleNext(initialDelayMillis);
+        return schedule;
+    }
+    
+    /**
+     * Replaces the execution state of an earlier schedule with the same job ID.
+     */
+    private JobExecutionState register(String jobId, RepetitiveJob.OverlapPolicy overlapPolicy, Runnable execution) {
+        JobExecutionState state = new JobExecutionState(jobId,
+                overlapPolicy != null ? overlapPolicy : RepetitiveJob.OverlapPolicy.SKIP, execution);
+        jobStates.put(jobId, state);
+        return state;
+    }
+    
+    /**
+     * Forget a job's execution state once its schedule is cancelled. A running execution finishes.
+     */
+    public void unregister(String jobId) {
+        JobExecutionState state = jobStates.remove(jobId);
+        if (state != null) {
+            state.cancelled = true;
+        }
+    }
+    
+    /**
+     * Parse a stored overlap policy, falling back to SKIP.
+     */
+    public RepetitiveJob.OverlapPolicy parseOverlapPolicy(String overlapPolicy) {
+        if (overlapPolicy == null || overlapPolicy.trim().isEmpty()) {
+            return RepetitiveJob.OverlapPolicy.SKIP;
+        }
+        try {
+            return RepetitiveJob.OverlapPolicy.valueOf(overlapPolicy.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown overlap policy: {}, using SKIP", overlapPolicy);
+            return RepetitiveJob.OverlapPolicy.SKIP;
+        }
+    }
+    
+    private void onTrigger(JobExecutionState state) {
+        if (state.cancelled) {
+            return;
+        }
+        long triggeredAt = System.nanoTime();
+        totalTriggers.incrementAndGet();
+        state.triggers.incrementAndGet();
+        
+        synchronized (state) {
+            if (state.running > 0 && state.overlapPolicy != RepetitiveJob.OverlapPolicy.ALLOW_CONCURRENT) {
+                if (state.overlapPolicy == RepetitiveJob.OverlapPolicy.QUEUE_ONE && state.queuedTriggeredAt == 0) {
+                    state.queuedTriggeredAt = triggeredAt;
+                    state.queued.incrementAndGet();
+                } else {
+                    state.skipped.incrementAndGet();
+                    totalSkipped.incrementAndGet();
+                    logger.debug("Skipped trigger of repetitive job {}, previous execution still running", state.jobId);
+                }
+                return;
+            }
+            state.running++;
+        }
+        
+        submit(state, triggeredAt);
+    }
+    
+    private void submit(JobExecutionState state, long triggeredAt) {
+        try {
+            workerExecutor.execute(() -> execute(state, triggeredAt));
+        } catch (RejectedExecutionException e) {
+            synchronized (state) {
+                state.running--;
+            }
+            state.rejected.incrementAndGet();
+            totalRejected.incrementAndGet();
+            logger.warn("Repetitive job worker pool is full, dropped execution of job {}", state.jobId);
+            if (state.fixedDelaySchedule != null) {
+                state.fixedDelaySchedule.scheduleNext(state.fixedDelaySchedule.delayMillis);
+            }
+        }
+    }
+    
+    private void execute(JobExecutionState state, long triggeredAt) {
+        state.recordLag(System.nanoTime() - triggeredAt);
+        try {
+            state.execution.run();
+        } catch (Exception e) {
+            logger.error("Error executing repetitive job {}", state.jobId, e);
+        } finally {
+            long queuedTriggeredAt;
+            synchronized (state) {
+                queuedTriggeredAt = state.cancelled ? 0 : state.queuedTriggeredAt;
+                state.queuedTriggeredAt = 0;
+                if (queuedTriggeredAt == 0) {
+                    state.running--;
+                }
+            }
+            // The queued execution keeps this execution's running slot
+            if (queuedTriggeredAt != 0) {
+                submit(state, queuedTriggeredAt);
+            } else if (state.fixedDelaySchedule != null) {
+                state.fixedDelaySchedule.scheduleNext(state.fixedDelaySchedule.delayMillis);
+            }
+        }
+    }
+    
+    /**
+     * Get trigger and execution statistics, overall and per job.
+     */
+    public Map<String, Object> getExecutionStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("registeredJobs", jobStates.size());
+        stats.put("totalTriggers", totalTriggers.get());
+        stats.put("totalSkipped", totalSkipped.get());
+        stats.put("totalRejected", totalRejected.get());
+        
+        Map<String, Object> jobs = new HashMap<>();
+        jobStates.forEach((jobId, state) -> jobs.put(jobId, state.getStats()));
+        stats.put("jobs", jobs);
+        return stats;
+    }
+    
+    /**
+     * Get trigger and execution statistics for one job, or null if it is not registered.
+     */
+    public Map<String, Object> getJobExecutionStats(String jobId) {
+        JobExecutionState state = jobStates.get(jobId);
+        return state != null ? state.getStats() : null;
+    }
+    
+    /**
+     * Execution state of one scheduled repetitive job.
+     */
+    private static class JobExecutionState {
+        private final String jobId;
+        private final RepetitiveJob.OverlapPolicy overlapPolicy;
+        private final Runnable execution;
+        private volatile FixedDelaySchedule fixedDelaySchedule;
+        private volatile boolean cancelled;
+        
+        // Guarded by this
+        private int running;
+        private long queuedTriggeredAt; // 0 when no execution is queued
+        
+        private final AtomicLong triggers = new AtomicLong();
+        private final AtomicLong executions = new AtomicLong(); // Started executions
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong queued = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong totalLagNanos = new AtomicLong();
+        private final AtomicLong maxLagNanos = new AtomicLong();
+        private volatile long lastLagNanos;
+        
+        public JobExecutionState(String jobId, RepetitiveJob.OverlapPolicy overlapPolicy, Runnable execution) {
+            this.jobId = jobId;
+            this.overlapPolicy = overlapPolicy;
+            this.execution = execution;
+        }
+        
+        public void recordLag(long lagNanos) {
+            executions.incrementAndGet();
+            lastLagNanos = lagNanos;
+            totalLagNanos.addAndGet(lagNanos);
+            maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+        }
+        
+        public Map<String, Object> getStats() {
+            Map<String, Object> stats = new HashMap<>();
+            long started = executions.get();
+            int runningNow;
+            synchronized (this) {
+                runningNow = running;
+            }
+            stats.put("overlapPolicy", overlapPolicy.name());
+            stats.put("running", runningNow);
+            stats.put("triggers", triggers.get());
+            stats.put("executions", started);
+            stats.put("skipped", skipped.get());
+            stats.put("queued", queued.get());
+            stats.put("rejected", rejected.get());
+            stats.put("lastTriggerLagMillis", TimeUnit.NANOSECONDS.toMillis(lastLagNanos));
+            stats.put("maxTriggerLagMillis", TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get()));
+            stats.put("averageTriggerLagMillis", started > 0 ? TimeUnit.NANOSECONDS.toMillis(totalLagNanos.get() / started) : 0);
+            return stats;
+        }
+    }
+    
+    /**
+     * Chain of one-shot triggers for a FIXED_DELAY job, cancelled as a whole.
+     */
+    private class FixedDelaySchedule implements ScheduledFuture<Object> {
+        private final Runnable trigger;
+        private final long delayMillis;
+        private final ThreadPoolTaskScheduler scheduler;
+        private volatile ScheduledFuture<?> current;
+        private volatile boolean cancelled;
+        
+        public FixedDelaySchedule(Runnable trigger, long delayMillis, ThreadPoolTaskScheduler scheduler) {
+            this.trigger = trigger;
+            this.delayMillis = delayMillis;
+            this.scheduler = scheduler;
+        }
+        
+        public synchronized void scheduleNext(long delay) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                current = jobTimerService.schedule(trigger, delay, scheduler);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Scheduler rejected next trigger of a fixed delay job, scheduler is shutting down");
+            }
+        }
+        
+        @Override
+        public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+            if (current != null) {
+                current.cancel(mayInterruptIfRunning);
+            }
+            return true;
+        }
+        
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+        
+        @Override
+        public boolean isDone() {
+            return cancelled;
+        }
+        
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            return current.get();
+        }
+        
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return current.get(timeout, unit);
+        }
+        
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return current != null ? current.getDelay(unit) : 0;
+        }
+        
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.jobdispatcher.service;
+
+import com.example.jobdispatcher.config.RetryConfig;
+import com.example.jobdispatcher.entity.ScheduledJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs claimed retries on the dedicated retryJobExecutor pool.
+ * Retries of one job class beyond its concurrency limit wait in a per-class backlog,
+ * which the threads running retries of that class work off as they finish.
+ */
+@Service
+public class RetryExecutionService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RetryExecutionService.class);
+    
+    public static final String POOL_NAME = "retryJobExecutor";
+    
+    @Autowired
+    @Qualifier("retryJobExecutor")
+    private ThreadPoolTaskExecutor retryJobExecutor;
+    
+    @Autowired
+    private RetryConfig retryConfig;
+    
+    @Autowired
+    private DatabasePersistenceService databasePersistenceService;
+    
+    @Autowired
+    @Lazy
+    private JobDispatcherService jobDispatcherService;
+    
+    private final Map<String, ClassLimiter> classLimiters = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger retriesInFlight = new AtomicInteger();
+    private final AtomicLong retriesSubmitted = new AtomicLong();
+    private final AtomicLong retriesCompleted = new AtomicLong();
+    private final AtomicLong retriesFailedToStart = new AtomicLong();
+    private final AtomicLong totalLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private final AtomicLong lagSamples = new AtomicLong();
+    
+    /**
+     * Hand a claimed retry to the retry pool.
+     * @param dueAt when the retry was due, null for manually triggered retries
+     */
+    public void submit(String jobId, LocalDateTime dueAt) {
+        retriesSubmitted.incrementAndGet();
+        retryJobExecutor.execute(() -> start(jobId, dueAt));
+    }
+    
+    private void start(String jobId, LocalDateTime dueAt) {
+        try {
+            if (dueAt != null) {
+                recordLag(Duration.between(dueAt, LocalDateTime.now()).toMillis());
+            }
+            
+            ScheduledJob job = databasePersistenceService.findScheduledJobByJobId(jobId).orElse(null);
+            if (job == null) {
+                logger.warn("Claimed retry for unknown job: {}", jobId);
+                return;
+            }
+            
+            logger.info("Executing retry for job: {} (attempt {}/{})",
+                       jobId, job.getRetryCount(), job.getMaxRetryAttempts());
+            
+            if ("REPETITIVE".equals(job.getJobType())) {
+                // Only restarts the schedule, executions run on the repetitive job workers
+                jobDispatcherService.redispatchRepetitiveJob(job);
+                retriesCompleted.incrementAndGet();
+                return;
+            }
+            
+            int limit = retryConfig.resolveClassConcurrency(job.getJobClassName());
+            if (limit == 0) {
+                run(job);
+                return;
+            }
+            
+            ClassLimiter limiter = classLimiters.computeIfAbsent(job.getJobClassName(), k -> new ClassLimiter());
+            limiter.backlog.add(job);
+            drain(limiter, limit);
+        } catch (Exception e) {
+            retriesFailedToStart.incrementAndGet();
+            logger.error("Error starting retry for job: {}", jobId, e);
+        }
+    }
+    
+    /**
+     * Run backlogged retries of a class on this thread while the class is below its limit.
+     * A thread holding a slot keeps taking retries from the backlog until it is empty.
+     */
+    private void drain(ClassLimiter limiter, int limit) {
+        while (!limiter.backlog.isEmpty() && limiter.tryAcquire(limit)) {
+            try {
+                ScheduledJob next;
+                while ((next = limiter.backlog.poll()) != null) {
+                    run(next);
+                }
+            } finally {
+                limiter.running.decrementAndGet();
+            }
+        }
+    }
+    
+    private void run(ScheduledJob job) {
+        retriesInFlight.incrementAndGet();
+        try {
+            jobDispatcherService.executeOneTimeRetry(job, POOL_NAME);
+        } catch (Exception e) {
+            retriesFailedToStart.incrementAndGet();
+            logger.error("Error executing retry for job: {}", job.getJobId(), e);
+        } finally {
+            retriesInFlight.decrementAndGet();
+            retriesCompleted.incrementAndGet();
+        }
+    }
+    
+    private void recordLag(long lagMillis) {
+        lagMillis = Math.max(lagMillis, 0);
+        totalLagMillis.addAndGet(lagMillis);
+        lagSamples.incrementAndGet();
+        maxLagMillis.accumulateAndGet(lagMillis, Math::max);
+    }
+    
+    /**
+     * Number of retries waiting in the retry pool queue or a class backlog.
+     */
+    public int getQueueDepth() {
+        int depth = retryJobExecutor.getThreadPoolExecutor().getQueue().size();
+        for (ClassLimiter limiter : classLimiters.values()) {
+            depth += limiter.backlog.size();
+        }
+        return depth;
+    }
+    
+    /**
+     * Get retry execution statistics.
+     */
+    public Map<String, Object> getExecutionStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("retriesInFlight", retriesInFlight.get());
+        stats.put("queueDepth", getQueueDepth());
+        stats.put("poolQueueSize", retryJobExecutor.getThreadPoolExecutor().getQueue().size());
+        stats.put("activeThreads", retryJobExecutor.getActiveCount());
+        stats.put("retriesSubmitted", retriesSubmitted.get());
+        stats.put("retriesCompleted", retriesCompleted.get());
+        stats.put("retriesFailedToStart", retriesFailedToStart.get());
+        
+        long samples = lagSamples.get();
+        stats.put("averageSchedulingLagMillis", samples > 0 ? totalLagMillis.get() / samples : 0);
+        stats.put("maxSchedulingLagMillis", maxLagMillis.get());
+        
+        Map<String, Object> classes = new HashMap<>();
+        classLimiters.forEach((className, limiter) -> {
+            Map<String, Object> classStats = new HashMap<>();
+            classStats.put("running", limiter.running.get());
+            classStats.put("backlog", limiter.backlog.size());
+            classStats.put("limit", retryConfig.resolveClassConcurrency(className));
+            classes.put(className, classStats);
+        });
+        stats.put("classes", classes);
+        return stats;
+    }
+    
+    /**
+     * Running retries and backlog of one job class.
+     */
+    private static class ClassLimiter {
+        private final AtomicInteger running = new AtomicInteger();
+        private final ConcurrentLinkedQueue<ScheduledJob> backlog = new ConcurrentLinkedQueue<>();
+        
+        boolean tryAcquire(int limit) {
+            while (true) {
+                int current = running.get();
+                if (limit > 0 && current >= limit) {
+                    return false;
+                }
+                if (running.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.jobdispatcher.service;
 
+import com.example.jobdispatcher.executor.PriorityTaskQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,6 +29,20 @@ public class ThreadPoolMonitorService {
     @Qualifier("repetitiveJobScheduler")
     private ThreadPoolTaskScheduler repetitiveJobScheduler;
     
+    @Autowired
+    @Qualifier("repetitiveJobWorkerExecutor")
+    private ThreadPoolTaskExecutor repetitiveJobWorkerExecutor;
+    
+    @Autowired
+    @Qualifier("retryJobExecutor")
+    private ThreadPoolTaskExecutor retryJobExecutor;
+    
+    @Autowired
+    private ExecutorRegistry executorRegistry;
+    
+    @Autowired
+    private JobTimeoutWatchdog jobTimeoutWatchdog;
+    
     /**
      * Get comprehensive thread pool statistics.
      */
@@ -36,15 +51,61 @@ public class ThreadPoolMonitorService {
         
         // One-time job executor stats
         Map<String, Object> oneTimeStats = getExecutorStats(oneTimeJobExecutor, "One-Time Jobs");
+        Map<String, Object> priorityStats = getPriorityQueueStats();
+        if (!priorityStats.isEmpty()) {
+            oneTimeStats.put("priorityQueues", priorityStats);
+        }
         stats.put("oneTimeJobExecutor", oneTimeStats);
         
         // Repetitive job scheduler stats
         Map<String, Object> repetitiveStats = getSchedulerStats(repetitiveJobScheduler, "Repetitive Jobs");
         stats.put("repetitiveJobScheduler", repetitiveStats);
+        stats.put("repetitiveJobWorkerExecutor", getExecutorStats(repetitiveJobWorkerExecutor, "Repetitive Job Workers"));
+        
+        // Retry executor stats
+        Map<String, Object> retryStats = getExecutorStats(retryJobExecutor, "Job Retries");
+        retryStats.put("stuckThreads", jobTimeoutWatchdog.getStuckThreads(RetryExecutionService.POOL_NAME));
+        stats.put("retryJobExecutor", retryStats);
+        
+        // Named pools from the thread_pools table
+        stats.put("namedPools", getNamedPoolStats());
         
         return stats;
     }
     
+    /**
+     * Get statistics for every named pool in the executor registry.
+     */
+    public Map<String, Object> getNamedPoolStats() {
+        Map<String, Object> stats = new HashMap<>();
+        executorRegistry.getExecutors().forEach((name, executor) -> {
+            Map<String, Object> poolStats;
+            if (executor instanceof ThreadPoolTaskScheduler) {
+                poolStats = getSchedulerStats((ThreadPoolTaskScheduler) executor, name);
+            } else if (executor instanceof ThreadPoolTaskExecutor) {
+                poolStats = getExecutorStats((ThreadPoolTaskExecutor) executor, name);
+            } else {
+                return;
+            }
+            // Threads still running an execution the timeout watchdog gave up on
+            poolStats.put("stuckThreads", jobTimeoutWatchdog.getStuckThreads(name));
+            stats.put(name, poolStats);
+        });
+        return stats;
+    }
+    
+    /**
+     * Get per-priority queue depth and wait time statistics for the one-time job executor.
+     * Empty when priority queues are disabled.
+     */
+    public Map<String, Object> getPriorityQueueStats() {
+        ThreadPoolExecutor threadPoolExecutor = oneTimeJobExecutor.getThreadPoolExecutor();
+        if (threadPoolExecutor != null && threadPoolExecutor.getQueue() instanceof PriorityTaskQueue) {
+            return ((PriorityTaskQueue) threadPoolExecutor.getQueue()).getPriorityStats();
+        }
+        return new HashMap<>();
+    }
+    
     /**
      * Get statistics for a ThreadPoolTaskExecutor.
      */
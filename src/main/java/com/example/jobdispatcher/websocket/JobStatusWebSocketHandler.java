@@ -1,33 +1,42 @@
 package com.example.jobdispatcher.websocket;
 
 import com.example.jobdispatcher.entity.ScheduledJob;
+import com.example.jobdispatcher.model.JobEvent;
+import com.example.jobdispatcher.service.JobEventListener;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * WebSocket handler for real-time job status updates.
  * This provides OPTIONAL real-time updates - HTTPS is still the primary method.
+ * Updates come from the job event outbox; clients that reconnect can catch up via /api/jobs/events.
  */
 @Component
-public class JobStatusWebSocketHandler implements WebSocketHandler {
+public class JobStatusWebSocketHandler implements WebSocketHandler, JobEventListener {
     
     private static final Logger logger = LoggerFactory.getLogger(JobStatusWebSocketHandler.class);
     
+    private static final int SEND_TIME_LIMIT_MILLIS = 10000;
+    private static final int SEND_BUFFER_SIZE_LIMIT = 512 * 1024;
+    
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         String sessionId = session.getId();
-        sessions.put(sessionId, session);
+        // Sends come from both the client's thread and the event relay, so they must be serialized
+        sessions.put(sessionId, new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MILLIS, SEND_BUFFER_SIZE_LIMIT));
         
         logger.info("WebSocket connection established: {}", sessionId);
         
@@ -114,6 +123,32 @@ public class JobStatusWebSocketHandler implements WebSocketHandler {
         }
     }
     
+    /**
+     * Send job events from the outbox relay to the clients subscribed to the job, or to all jobs.
+     * Clients that miss events while disconnected are not replayed to, so this listener is not durable.
+     */
+    @Override
+    public void onEvents(List<JobEvent> events) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        
+        for (JobEvent event : events) {
+            String message = createJobEventMessage(event);
+            for (WebSocketSession session : sessions.values()) {
+                Object subscribedJobId = session.getAttributes().get("subscribedJobId");
+                if (subscribedJobId == null || subscribedJobId.equals(event.getJobId())) {
+                    sendMessage(session, message);
+                }
+            }
+        }
+    }
+    
+    @Override
+    public boolean isDurable() {
+        return false;
+    }
+    
     /**
      * Send job update to specific client (if they're subscribed).
      */
@@ -152,11 +187,12 @@ public class JobStatusWebSocketHandler implements WebSocketHandler {
      * Send message to WebSocket session.
      */
     private void sendMessage(WebSocketSession session, String message) {
+        WebSocketSession target = sessions.getOrDefault(session.getId(), session);
         try {
-            if (session.isOpen()) {
-                session.sendMessage(new TextMessage(message));
+            if (target.isOpen()) {
+                target.sendMessage(new TextMessage(message));
             }
-        } catch (IOException e) {
+        } catch (IOException | RuntimeException e) {
             logger.error("Error sending WebSocket message", e);
         }
     }
@@ -204,6 +240,30 @@ public class JobStatusWebSocketHandler implements WebSocketHandler {
         }
     }
     
+    /**
+     * Create job update message from an outbox event.
+     */
+    private String createJobEventMessage(JobEvent event) {
+        try {
+            Map<String, Object> messageMap = new HashMap<>();
+            messageMap.put("type", "JOB_UPDATE");
+            messageMap.put("eventId", event.getId());
+            messageMap.put("eventType", event.getEventType());
+            messageMap.put("jobId", event.getJobId());
+            messageMap.put("jobName", event.getJobName());
+            messageMap.put("status", event.getStatus());
+            messageMap.put("jobType", event.getJobType());
+            messageMap.put("executionTimeMs", event.getExecutionTimeMs());
+            messageMap.put("errorMessage", event.getErrorMessage() != null ? event.getErrorMessage() : "");
+            messageMap.put("retryCount", event.getRetryCount());
+            messageMap.put("timestamp", System.currentTimeMillis());
+            return objectMapper.writeValueAsString(messageMap);
+        } catch (Exception e) {
+            logger.error("Error creating job event message", e);
+            return "{\"error\":\"Job update message creation failed\"}";
+        }
+    }
+    
     /**
      * Get number of active WebSocket connections.
      */
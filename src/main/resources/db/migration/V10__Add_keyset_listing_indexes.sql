@@ -0,0 +1,8 @@
+-- V10__Add_keyset_listing_indexes.sql
+-- Keyset pagination of job listings seeks on (status|job_type, submitted_at, id).
+-- They replace the single-column status and job_type indexes, which are their prefixes.
+CREATE INDEX idx_scheduled_jobs_status_submitted ON scheduled_jobs(status, submitted_at, id);
+CREATE INDEX idx_scheduled_jobs_type_submitted ON scheduled_jobs(job_type, submitted_at, id);
+
+DROP INDEX idx_scheduled_jobs_status ON scheduled_jobs;
+DROP INDEX idx_scheduled_jobs_job_type ON scheduled_jobs;
@@ -0,0 +1,23 @@
+-- V11__Create_job_outbox_tables.sql
+-- Job lifecycle events, inserted in the same transaction as the change to scheduled_jobs.
+-- JobEventRelay tails job_outbox by id and delivers the events to in-process listeners,
+-- whose last delivered id is kept in job_outbox_offsets so they resume after a restart.
+CREATE TABLE job_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_id VARCHAR(100) NOT NULL,
+    event_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    job_name VARCHAR(255) NOT NULL,
+    job_type VARCHAR(50) NOT NULL,
+    retry_count INT NOT NULL DEFAULT 0,
+    execution_time_ms BIGINT,
+    error_message TEXT,
+    created_at TIMESTAMP(3) NOT NULL,
+    INDEX idx_job_outbox_created_at (created_at)
+);
+
+CREATE TABLE job_outbox_offsets (
+    consumer VARCHAR(200) NOT NULL PRIMARY KEY,
+    last_event_id BIGINT NOT NULL,
+    updated_at TIMESTAMP(3) NOT NULL
+);
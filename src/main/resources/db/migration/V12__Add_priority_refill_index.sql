@@ -0,0 +1,4 @@
+-- V12__Add_priority_refill_index.sql
+-- Overflow refill reads the oldest jobs of each priority level in turn, one seek per level
+-- on (status, job_type, job_priority, submitted_at).
+CREATE INDEX idx_scheduled_jobs_status_type_priority ON scheduled_jobs(status, job_type, job_priority, submitted_at);
@@ -0,0 +1,8 @@
+-- V13__Keep_archived_job_ids_reserved.sql
+-- Archived jobs keep their job_id reserved in scheduled_job_ids: JobArchiveService re-inserts the ids the
+-- scheduled_jobs delete trigger removes, and they are released when retention deletes the history row.
+INSERT IGNORE INTO scheduled_job_ids (job_id, submitted_at)
+SELECT job_id, MAX(submitted_at) FROM scheduled_jobs_history GROUP BY job_id;
+
+CREATE TRIGGER trg_scheduled_jobs_history_job_id_delete AFTER DELETE ON scheduled_jobs_history
+FOR EACH ROW DELETE FROM scheduled_job_ids WHERE job_id = OLD.job_id AND submitted_at = OLD.submitted_at;
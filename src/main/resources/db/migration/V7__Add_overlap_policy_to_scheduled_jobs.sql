@@ -0,0 +1,3 @@
+-- Add overlap_policy column to scheduled_jobs for repetitive jobs (SKIP, QUEUE_ONE, ALLOW_CONCURRENT)
+ALTER TABLE scheduled_jobs
+ADD COLUMN IF NOT EXISTS overlap_policy VARCHAR(20);
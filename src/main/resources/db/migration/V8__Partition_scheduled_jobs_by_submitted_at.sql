@@ -0,0 +1,35 @@
+-- V8__Partition_scheduled_jobs_by_submitted_at.sql
+-- Range-partition scheduled_jobs by submitted_at so that retention can drop whole partitions.
+-- MySQL requires the partitioning column in every unique key and does not allow foreign keys
+-- on partitioned tables. JobRetentionService splits p_future into daily or weekly partitions.
+
+-- job_id stays globally unique through this unpartitioned table, kept in step by triggers
+CREATE TABLE scheduled_job_ids (
+    job_id VARCHAR(100) NOT NULL PRIMARY KEY,
+    submitted_at TIMESTAMP NOT NULL,
+
+    INDEX idx_scheduled_job_ids_submitted_at (submitted_at)
+);
+
+INSERT INTO scheduled_job_ids (job_id, submitted_at)
+SELECT job_id, submitted_at FROM scheduled_jobs;
+
+CREATE TRIGGER trg_scheduled_jobs_job_id_insert BEFORE INSERT ON scheduled_jobs
+FOR EACH ROW INSERT INTO scheduled_job_ids (job_id, submitted_at) VALUES (NEW.job_id, COALESCE(NEW.submitted_at, CURRENT_TIMESTAMP));
+
+CREATE TRIGGER trg_scheduled_jobs_job_id_delete AFTER DELETE ON scheduled_jobs
+FOR EACH ROW DELETE FROM scheduled_job_ids WHERE job_id = OLD.job_id;
+
+ALTER TABLE scheduled_jobs
+DROP FOREIGN KEY scheduled_jobs_ibfk_1,
+DROP FOREIGN KEY scheduled_jobs_ibfk_2;
+
+ALTER TABLE scheduled_jobs
+DROP INDEX job_id,
+DROP PRIMARY KEY,
+ADD PRIMARY KEY (id, submitted_at);
+
+ALTER TABLE scheduled_jobs
+PARTITION BY RANGE (UNIX_TIMESTAMP(submitted_at)) (
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
@@ -0,0 +1,50 @@
+-- V9__Create_scheduled_jobs_history_table.sql
+-- Finished jobs are moved here by JobArchiveService so scheduled_jobs only holds live and recent jobs.
+-- Same columns as scheduled_jobs, but only the indexes needed for lookups by job ID and retention.
+CREATE TABLE scheduled_jobs_history (
+    id BIGINT NOT NULL PRIMARY KEY,
+    job_id VARCHAR(100) NOT NULL,
+    job_name VARCHAR(255) NOT NULL,
+    job_class_name VARCHAR(500) NOT NULL,
+    job_type VARCHAR(50) NOT NULL,
+    group_key VARCHAR(100),
+    can_group BOOLEAN NOT NULL DEFAULT FALSE,
+    group_buffer_millis BIGINT,
+    interval_millis BIGINT,
+    initial_delay_millis BIGINT,
+    repetition_type VARCHAR(50),
+    cron_expression VARCHAR(255),
+    overlap_policy VARCHAR(20),
+    status VARCHAR(20) NOT NULL,
+    submitted_at TIMESTAMP NOT NULL,
+    started_at TIMESTAMP NULL,
+    completed_at TIMESTAMP NULL,
+    execution_time_ms BIGINT,
+    error_message TEXT,
+    retry_count INT NOT NULL DEFAULT 0,
+    max_retries INT NOT NULL DEFAULT 3,
+    priority INT NOT NULL DEFAULT 5,
+    job_priority VARCHAR(20),
+    timeout_millis BIGINT,
+    retry_enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    max_retry_attempts INT NOT NULL DEFAULT 3,
+    retry_delay_millis BIGINT,
+    retry_multiplier DOUBLE,
+    retry_max_delay_millis BIGINT,
+    last_retry_at TIMESTAMP NULL,
+    next_retry_at TIMESTAMP NULL,
+    retry_reason TEXT,
+    metadata TEXT,
+    thread_pool_id BIGINT,
+    app_server_id BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    INDEX idx_scheduled_jobs_history_job_id (job_id),
+    INDEX idx_scheduled_jobs_history_submitted_at (submitted_at)
+);
+
+-- Exact duplicates of idx_scheduled_jobs_submitted_at and idx_scheduled_jobs_completed_at
+DROP INDEX idx_scheduled_jobs_submitted_today ON scheduled_jobs;
+DROP INDEX idx_scheduled_jobs_completed_today ON scheduled_jobs;
@@ -0,0 +1,182 @@
+package com.example.jobdispatcher.test;
+
+import com.example.jobdispatcher.config.AcceptanceJournalConfig;
+import com.example.jobdispatcher.job.sample.SampleOneTimeJob;
+import com.example.jobdispatcher.journal.AcceptanceJournal;
+import com.example.jobdispatcher.journal.JournalEntry;
+import com.example.jobdispatcher.model.OneTimeJobRequest;
+import com.example.jobdispatcher.service.AcceptanceJournalService;
+import com.example.jobdispatcher.service.DatabasePersistenceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recovery and duplicate job ID tests and a concurrent acknowledged-submission benchmark for the acceptance journal.
+ * Runs without a database; the benchmark only runs with -Pbenchmark.
+ */
+public class AcceptanceJournalBenchmarkTest {
+    
+    private static final int SEGMENT_SIZE = 1024 * 1024;
+    
+    @TempDir
+    Path journalDirectory;
+    
+    @Test
+    public void testEntriesAreReplayedAfterReopen() throws Exception {
+        AcceptanceJournal journal = new AcceptanceJournal(journalDirectory, SEGMENT_SIZE, 0);
+        for (int i = 1; i <= 100; i++) {
+            journal.append(payload(i));
+        }
+        journal.checkpoint(40);
+        journal.close();
+        
+        AcceptanceJournal reopened = new AcceptanceJournal(journalDirectory, SEGMENT_SIZE, 0);
+        List<JournalEntry> entries = reopened.read(reopened.getCheckpointSequence(), 1000);
+        
+        assertEquals(60, entries.size());
+        assertEquals(41, entries.get(0).getSequence());
+        assertEquals("job-41", new String(entries.get(0).getPayload(), StandardCharsets.UTF_8));
+        assertEquals(101, reopened.append(payload(101)));
+        reopened.close();
+    }
+    
+    @Test
+    public void testSegmentsRotateAndReplicatedSegmentsAreDeleted() throws Exception {
+        AcceptanceJournal journal = new AcceptanceJournal(journalDirectory, 4096, 0);
+        for (int i = 1; i <= 500; i++) {
+            journal.append(payload(i));
+        }
+        assertTrue(journal.getSegmentCount() > 1);
+        
+        List<JournalEntry> entries = journal.read(0, 1000);
+        assertEquals(500, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i + 1, entries.get(i).getSequence());
+        }
+        
+        journal.checkpoint(500);
+        assertEquals(1, journal.getSegmentCount());
+        assertEquals(0, journal.getPendingEntries());
+        journal.close();
+    }
+    
+    @Test
+    public void testTornEntryIsDiscardedOnRecovery() throws Exception {
+        AcceptanceJournal journal = new AcceptanceJournal(journalDirectory, SEGMENT_SIZE, 0);
+        for (int i = 1; i <= 10; i++) {
+            journal.append(payload(i));
+        }
+        journal.close();
+        
+        // Corrupt one payload byte of the last entry so its checksum no longer matches
+        Path segment;
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            segment = files.filter(file -> file.getFileName().toString().startsWith("segment-"))
+                    .collect(Collectors.toList()).get(0);
+        }
+        int lastEntryPayloadOffset = 9 * (16 + payload(1).length) + 16;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(lastEntryPayloadOffset);
+            file.write('X');
+        }
+        
+        AcceptanceJournal reopened = new AcceptanceJournal(journalDirectory, SEGMENT_SIZE, 0);
+        assertEquals(9, reopened.getWrittenSequence());
+        assertEquals(10, reopened.append(payload(10)));
+        assertEquals(10, reopened.read(0, 100).size());
+        reopened.close();
+    }
+    
+    @Test
+    @Tag("benchmark")
+    public void benchmarkConcurrentSubmissionsShareFsyncs() throws Exception {
+        int threads = 16;
+        int appendsPerThread = 2000;
+        byte[] payload = new byte[256];
+        
+        AcceptanceJournal journal = new AcceptanceJournal(journalDirectory, 64 * 1024 * 1024, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < appendsPerThread; i++) {
+                    journal.append(payload);
+                }
+                return null;
+            }));
+        }
+        
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        
+        // Every append is acknowledged after an fsync, and concurrent appends share one
+        long total = (long) threads * appendsPerThread;
+        assertEquals(total, journal.getWrittenSequence());
+        assertEquals(total, journal.getAppendCount());
+        assertTrue(journal.getSyncCount() > 0);
+        assertTrue(journal.getSyncCount() < total,
+                   journal.getSyncCount() + " fsyncs for " + total + " acknowledged submissions");
+        journal.close();
+    }
+    
+    @Test
+    public void testStoredAndPendingJobIdsAreRejected() {
+        AcceptanceJournalConfig journalConfig = new AcceptanceJournalConfig();
+        journalConfig.setEnabled(true);
+        journalConfig.setDirectory(journalDirectory.toString());
+        journalConfig.setSegmentSizeBytes(SEGMENT_SIZE);
+        journalConfig.setGroupCommitDelayMicros(0);
+        
+        DatabasePersistenceService databasePersistenceService = new DatabasePersistenceService() {
+            @Override
+            public boolean scheduledJobExists(String jobId) {
+                return "stored-job".equals(jobId);
+            }
+        };
+        AcceptanceJournalService journalService = new AcceptanceJournalService();
+        ReflectionTestUtils.setField(journalService, "journalConfig", journalConfig);
+        ReflectionTestUtils.setField(journalService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(journalService, "databasePersistenceService", databasePersistenceService);
+        journalService.start();
+        
+        try {
+            assertThrows(IllegalArgumentException.class, () -> journalService.acceptOneTimeJob(
+                    new OneTimeJobRequest("stored-job", "Stored", SampleOneTimeJob.class.getName()), null, false));
+            assertTrue(journalService.acceptOneTimeJob(
+                    new OneTimeJobRequest("new-job", "New", SampleOneTimeJob.class.getName()), null, false));
+            assertThrows(IllegalArgumentException.class, () -> journalService.acceptOneTimeJob(
+                    new OneTimeJobRequest("new-job", "New", SampleOneTimeJob.class.getName()), null, false));
+        } finally {
+            journalService.shutdown();
+        }
+    }
+    
+    private static byte[] payload(int i) {
+        return String.format("job-%d", i).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.jobdispatcher.test;
+
+import com.example.jobdispatcher.entity.ApiKey;
+import com.example.jobdispatcher.service.ApiKeyService;
+import com.example.jobdispatcher.service.ReferenceDataCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that API key usage counted in memory reaches the api_keys table, against an embedded H2 database.
+ */
+public class ApiKeyUsageFlushTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ApiKeyService apiKeyService;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:api-keys-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE api_keys (id BIGINT PRIMARY KEY, usage_count BIGINT NOT NULL DEFAULT 0, "
+                + "last_used_at TIMESTAMP NULL)");
+        jdbcTemplate.update("INSERT INTO api_keys (id) VALUES (1), (2)");
+
+        ReferenceDataCache referenceDataCache = new ReferenceDataCache() {
+            @Override
+            public Optional<ApiKey> getApiKey(String apiKeyValue) {
+                ApiKey apiKey = new ApiKey(apiKeyValue, null, "test");
+                apiKey.setId(apiKeyValue.equals("key-1") ? 1L : 2L);
+                return Optional.of(apiKey);
+            }
+        };
+        apiKeyService = new ApiKeyService();
+        ReflectionTestUtils.setField(apiKeyService, "referenceDataCache", referenceDataCache);
+        ReflectionTestUtils.setField(apiKeyService, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @Test
+    public void testUsageIsWrittenOnFlush() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(apiKeyService.validateApiKey("key-1").isPresent());
+        }
+        apiKeyService.validateApiKey("key-2");
+        assertEquals(0L, usageCount(1));
+
+        apiKeyService.flushUsage();
+        assertEquals(5L, usageCount(1));
+        assertEquals(1L, usageCount(2));
+        assertNotNull(jdbcTemplate.queryForObject("SELECT last_used_at FROM api_keys WHERE id = 1", Object.class));
+
+        // Flushed counts are not written twice
+        apiKeyService.validateApiKey("key-1");
+        apiKeyService.flushUsage();
+        assertEquals(6L, usageCount(1));
+        assertEquals(1L, usageCount(2));
+    }
+
+    @Test
+    public void testUsageIsFlushedOnShutdown() {
+        apiKeyService.validateApiKey("key-2");
+        apiKeyService.shutdown();
+        assertEquals(1L, usageCount(2));
+    }
+
+    @Test
+    public void testUsageIsKeptWhenTheWriteFails() {
+        apiKeyService.validateApiKey("key-1");
+        jdbcTemplate.execute("ALTER TABLE api_keys RENAME TO api_keys_moved");
+        apiKeyService.flushUsage();
+
+        jdbcTemplate.execute("ALTER TABLE api_keys_moved RENAME TO api_keys");
+        apiKeyService.flushUsage();
+        assertEquals(1L, usageCount(1));
+    }
+
+    private long usageCount(long id) {
+        return jdbcTemplate.queryForObject("SELECT usage_count FROM api_keys WHERE id = ?", Long.class, id);
+    }
+}
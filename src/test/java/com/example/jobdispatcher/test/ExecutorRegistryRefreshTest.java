@@ -0,0 +1,111 @@
+package com.example.jobdispatcher.test;
+
+import com.example.jobdispatcher.config.ExecutorConfig;
+import com.example.jobdispatcher.entity.ThreadPool;
+import com.example.jobdispatcher.service.DatabasePersistenceService;
+import com.example.jobdispatcher.service.ExecutorRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that refreshing the thread_pools rows keeps repetitive jobs running on their schedulers.
+ * Runs without a database; the rows come from a stub persistence service.
+ */
+public class ExecutorRegistryRefreshTest {
+
+    private final List<ThreadPool> rows = new ArrayList<>();
+
+    private ThreadPoolTaskExecutor oneTimeJobExecutor;
+    private ThreadPoolTaskScheduler repetitiveJobScheduler;
+    private ExecutorRegistry executorRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        oneTimeJobExecutor = new ThreadPoolTaskExecutor();
+        oneTimeJobExecutor.initialize();
+        repetitiveJobScheduler = new ThreadPoolTaskScheduler();
+        repetitiveJobScheduler.initialize();
+
+        DatabasePersistenceService databasePersistenceService = new DatabasePersistenceService() {
+            @Override
+            public List<ThreadPool> findAllActiveThreadPools() {
+                return new ArrayList<>(rows);
+            }
+        };
+        executorRegistry = new ExecutorRegistry();
+        ReflectionTestUtils.setField(executorRegistry, "oneTimeJobExecutor", oneTimeJobExecutor);
+        ReflectionTestUtils.setField(executorRegistry, "repetitiveJobScheduler", repetitiveJobScheduler);
+        ReflectionTestUtils.setField(executorRegistry, "executorConfig", new ExecutorConfig());
+        ReflectionTestUtils.setField(executorRegistry, "databasePersistenceService", databasePersistenceService);
+
+        rows.add(schedulerRow(1));
+        executorRegistry.refresh();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executorRegistry.shutdown();
+        oneTimeJobExecutor.shutdown();
+        repetitiveJobScheduler.shutdown();
+    }
+
+    @Test
+    public void testChangedSchedulerIsResizedAndKeepsItsJobs() throws Exception {
+        ThreadPoolTaskScheduler scheduler = executorRegistry.getScheduler("reports-scheduler");
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?> job = scheduler.scheduleAtFixedRate(runs::incrementAndGet, new Date(), 10);
+
+        rows.set(0, schedulerRow(3));
+        executorRegistry.refresh();
+
+        assertSame(scheduler, executorRegistry.getScheduler("reports-scheduler"));
+        assertEquals(3, scheduler.getScheduledThreadPoolExecutor().getCorePoolSize());
+        assertKeepsRunning(job, runs);
+        job.cancel(false);
+    }
+
+    @Test
+    public void testRemovedSchedulerKeepsItsJobs() throws Exception {
+        ThreadPoolTaskScheduler scheduler = executorRegistry.getScheduler("reports-scheduler");
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?> job = scheduler.scheduleAtFixedRate(runs::incrementAndGet, new Date(), 10);
+
+        rows.clear();
+        executorRegistry.refresh();
+
+        assertSame(repetitiveJobScheduler, executorRegistry.getScheduler("reports-scheduler"));
+        assertThrows(IllegalArgumentException.class,
+                () -> executorRegistry.resolveRepetitivePool("reports-scheduler", null));
+        assertKeepsRunning(job, runs);
+
+        executorRegistry.shutdown();
+        assertTrue(scheduler.getScheduledExecutor().isShutdown());
+    }
+
+    private static void assertKeepsRunning(ScheduledFuture<?> job, AtomicInteger runs) throws InterruptedException {
+        int before = runs.get();
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertFalse(job.isDone());
+        assertTrue(runs.get() > before, "job stopped running after the refresh");
+    }
+
+    private static ThreadPool schedulerRow(int poolSize) {
+        ThreadPool row = new ThreadPool("reports-scheduler", "REPETITIVE", poolSize, poolSize, 60L, 100,
+                                        "reports-", "LINKED_BLOCKING_QUEUE");
+        row.setId(10L);
+        return row;
+    }
+}
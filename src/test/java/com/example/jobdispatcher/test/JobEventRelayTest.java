@@ -0,0 +1,126 @@
+package com.example.jobdispatcher.test;
+
+import com.example.jobdispatcher.config.OutboxConfig;
+import com.example.jobdispatcher.model.JobEvent;
+import com.example.jobdispatcher.repository.JobOutboxDao;
+import com.example.jobdispatcher.service.JobEventListener;
+import com.example.jobdispatcher.service.JobEventRelay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Gap handling tests for the outbox relay, with job_outbox kept in memory.
+ * Runs without a database.
+ */
+public class JobEventRelayTest {
+    
+    private final TreeMap<Long, JobEvent> outbox = new TreeMap<>();
+    private final Map<String, Long> storedOffsets = new HashMap<>();
+    private final List<Long> delivered = new ArrayList<>();
+    
+    private JobEventRelay relay;
+    
+    @BeforeEach
+    public void setUp() {
+        OutboxConfig outboxConfig = new OutboxConfig();
+        outboxConfig.setGapTimeoutMillis(0);
+        
+        JobEventListener listener = events -> events.forEach(event -> delivered.add(event.getId()));
+        relay = new JobEventRelay();
+        ReflectionTestUtils.setField(relay, "outboxConfig", outboxConfig);
+        ReflectionTestUtils.setField(relay, "jobOutboxDao", new InMemoryOutboxDao());
+        ReflectionTestUtils.setField(relay, "listeners", Collections.singletonMap("listener", listener));
+        ReflectionTestUtils.setField(relay, "running", true);
+        ReflectionTestUtils.invokeMethod(relay, "subscribe");
+    }
+    
+    @Test
+    public void testSkippedIdIsDeliveredWhenItCommitsLate() {
+        append(1);
+        append(3);
+        append(4);
+        relay();
+        assertEquals(List.of(1L, 3L, 4L), delivered);
+        assertEquals(1L, relay.getRelayStats().get("skippedGaps"));
+        // Kept below the skipped id so a restart reads it again
+        assertEquals(1L, storedOffsets.get("default:listener"));
+        
+        // The transaction of id 2 commits long after its successor
+        append(2);
+        append(5);
+        relay();
+        assertEquals(List.of(1L, 3L, 4L, 2L, 5L), delivered);
+        assertEquals(1L, relay.getRelayStats().get("lateEvents"));
+        assertEquals(0, relay.getRelayStats().get("watchedGapIds"));
+        assertEquals(5L, storedOffsets.get("default:listener"));
+    }
+    
+    @Test
+    public void testRolledBackIdIsGivenUpAfterTheLateEventWindow() {
+        OutboxConfig outboxConfig = (OutboxConfig) ReflectionTestUtils.getField(relay, "outboxConfig");
+        append(1);
+        append(3);
+        relay();
+        
+        outboxConfig.setLateEventWindowMillis(-1);
+        append(4);
+        relay();
+        assertEquals(List.of(1L, 3L, 4L), delivered);
+        assertEquals(0, relay.getRelayStats().get("watchedGapIds"));
+        assertEquals(1L, relay.getRelayStats().get("abandonedGaps"));
+        assertEquals(4L, storedOffsets.get("default:listener"));
+    }
+    
+    private void relay() {
+        ReflectionTestUtils.invokeMethod(relay, "relay");
+    }
+    
+    private void append(long id) {
+        JobEvent event = new JobEvent();
+        event.setId(id);
+        event.setJobId("job-" + id);
+        event.setEventType("COMPLETED");
+        event.setCreatedAt(LocalDateTime.now().minusSeconds(10));
+        outbox.put(id, event);
+    }
+    
+    private class InMemoryOutboxDao extends JobOutboxDao {
+        @Override
+        public List<JobEvent> findEvents(long after, long upTo, int limit) {
+            return outbox.subMap(after, false, upTo, true).values().stream().limit(limit).collect(Collectors.toList());
+        }
+        
+        @Override
+        public List<JobEvent> findEventsByIds(Collection<Long> ids) {
+            return ids.stream().sorted().map(outbox::get).filter(event -> event != null).collect(Collectors.toList());
+        }
+        
+        @Override
+        public long findHeadId() {
+            return outbox.isEmpty() ? 0 : outbox.lastKey();
+        }
+        
+        @Override
+        public Map<String, Long> findOffsets() {
+            return new HashMap<>(storedOffsets);
+        }
+        
+        @Override
+        public void saveOffset(String consumer, long lastEventId) {
+            storedOffsets.put(consumer, lastEventId);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.jobdispatcher.test;
+
+import com.example.jobdispatcher.controller.JobController;
+import com.example.jobdispatcher.entity.ScheduledJob;
+import com.example.jobdispatcher.export.JobExportWriter;
+import com.example.jobdispatcher.service.JobExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Format and failure tests for the streaming job export and a throughput benchmark against serializing a
+ * materialized entity list, as the list endpoints did. The benchmarks also check that streaming retains
+ * constant memory. Runs without a database; the benchmarks only run with -Pbenchmark.
+ */
+public class JobExportBenchmarkTest {
+    
+    private static final String[] COLUMNS = {
+        "id", "job_id", "job_name", "job_class_name", "job_type", "status", "submitted_at", "completed_at",
+        "execution_time_ms", "retry_count", "error_message"
+    };
+    
+    private static final LocalDateTime SUBMITTED_AT = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+    
+    @Test
+    public void testNdjsonWritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JobExportWriter writer = new JobExportWriter(output, "ndjson")) {
+            ResultSet rs = resultSet(3);
+            while (rs.next()) {
+                writer.writeRow(rs);
+            }
+            assertEquals(3, writer.getRows());
+        }
+        
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("job-1", first.get("job_id").asText());
+        assertEquals("2024-01-15T10:30:01", first.get("submitted_at").asText());
+        assertTrue(first.get("completed_at").isNull());
+    }
+    
+    @Test
+    public void testCsvWritesHeaderAndQuotesValues() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JobExportWriter writer = new JobExportWriter(output, "csv")) {
+            ResultSet rs = resultSet(1);
+            writer.begin(rs.getMetaData());
+            while (rs.next()) {
+                writer.writeRow(rs);
+            }
+        }
+        
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(String.join(",", COLUMNS), lines[0]);
+        assertTrue(lines[1].startsWith("1,job-1,"));
+        assertTrue(lines[1].endsWith(",\"failed, \"\"retrying\"\"\""));
+    }
+    
+    @Test
+    public void testHeaderIsWrittenForEmptyExport() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JobExportWriter writer = new JobExportWriter(output, "csv")) {
+            writer.begin(resultSet(0).getMetaData());
+        }
+        assertEquals(String.join(",", COLUMNS) + "\r\n", output.toString(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    public void testUnsupportedFormatIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new JobExportWriter(new ByteArrayOutputStream(), "xml"));
+    }
+    
+    @Test
+    public void testCompletedGzipExportHasTrailer() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        exportController(-1).exportJobs(SUBMITTED_AT, SUBMITTED_AT.plusDays(1), "ndjson", true, response);
+        
+        byte[] body = readGzip(response.getContentAsByteArray());
+        assertEquals(5, new String(body, StandardCharsets.UTF_8).split("\n").length);
+    }
+    
+    @Test
+    public void testFailedGzipExportIsLeftUnfinished() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThrows(QueryTimeoutException.class, () ->
+                exportController(3).exportJobs(SUBMITTED_AT, SUBMITTED_AT.plusDays(1), "ndjson", true, response));
+        
+        // The rows written before the failure are there, but the stream has no gzip trailer
+        assertTrue(response.getContentAsByteArray().length > 0);
+        assertThrows(EOFException.class, () -> readGzip(response.getContentAsByteArray()));
+    }
+    
+    @Test
+    public void testFailedPlainExportIsRethrown() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThrows(QueryTimeoutException.class, () ->
+                exportController(3).exportJobs(SUBMITTED_AT, SUBMITTED_AT.plusDays(1), "csv", false, response));
+        assertEquals(200, response.getStatus());
+    }
+    
+    @Test
+    @Tag("benchmark")
+    public void benchmarkStreamingExportVersusEntityList() throws Exception {
+        int rows = 200_000;
+        
+        // Streaming: each row goes from the cursor straight to the output
+        CountingOutputStream streamed = new CountingOutputStream();
+        long startedAt = System.nanoTime();
+        try (JobExportWriter writer = new JobExportWriter(streamed, "ndjson")) {
+            ResultSet rs = resultSet(rows);
+            while (rs.next()) {
+                writer.writeRow(rs);
+            }
+            assertEquals(rows, writer.getRows());
+        }
+        long streamingNanos = System.nanoTime() - startedAt;
+        assertTrue(streamed.count > 0);
+        
+        // List endpoint: every row is materialized as an entity before the response is serialized
+        CountingOutputStream listed = new CountingOutputStream();
+        startedAt = System.nanoTime();
+        List<ScheduledJob> jobs = new ArrayList<>(rows);
+        ResultSet rs = resultSet(rows);
+        while (rs.next()) {
+            jobs.add(toEntity(rs));
+        }
+        new ObjectMapper().findAndRegisterModules().writeValue(listed, jobs);
+        long listNanos = System.nanoTime() - startedAt;
+        assertEquals(rows, jobs.size());
+        jobs = null;
+        
+        assertTrue(streamingNanos < listNanos,
+                   "Streaming took " + TimeUnit.NANOSECONDS.toMillis(streamingNanos) + " ms, entity list "
+                   + TimeUnit.NANOSECONDS.toMillis(listNanos) + " ms");
+    }
+    
+    @Test
+    @Tag("benchmark")
+    public void benchmarkStreamingExportRetainsConstantMemory() throws Exception {
+        int rows = 200_000;
+        long maxRetainedGrowth = 8L * 1024 * 1024;
+        
+        long baseline = retainedHeap();
+        long streamingGrowth = 0;
+        try (JobExportWriter writer = new JobExportWriter(new CountingOutputStream(), "ndjson")) {
+            ResultSet rs = resultSet(rows);
+            while (rs.next()) {
+                writer.writeRow(rs);
+                if (writer.getRows() % 50_000 == 0) {
+                    streamingGrowth = Math.max(streamingGrowth, retainedHeap() - baseline);
+                }
+            }
+        }
+        assertTrue(streamingGrowth < maxRetainedGrowth,
+                   "Streaming " + rows + " rows retained " + streamingGrowth / 1024 + " KB");
+        
+        // The same measurement sees the entity list grow with the export
+        baseline = retainedHeap();
+        List<ScheduledJob> jobs = new ArrayList<>(rows);
+        ResultSet rs = resultSet(rows);
+        while (rs.next()) {
+            jobs.add(toEntity(rs));
+        }
+        long listGrowth = retainedHeap() - baseline;
+        assertEquals(rows, jobs.size());
+        assertTrue(listGrowth > 4 * maxRetainedGrowth,
+                   "Entity list of " + rows + " rows retained " + listGrowth / 1024 + " KB");
+    }
+    
+    private static ScheduledJob toEntity(ResultSet rs) throws Exception {
+        ScheduledJob job = new ScheduledJob();
+        job.setId(rs.getLong("id"));
+        job.setJobId(rs.getString("job_id"));
+        job.setJobName(rs.getString("job_name"));
+        job.setJobClassName(rs.getString("job_class_name"));
+        job.setJobType(rs.getString("job_type"));
+        job.setStatus(rs.getString("status"));
+        job.setSubmittedAt(rs.getTimestamp("submitted_at").toLocalDateTime());
+        job.setExecutionTimeMs(rs.getLong("execution_time_ms"));
+        job.setRetryCount(rs.getInt("retry_count"));
+        job.setErrorMessage(rs.getString("error_message"));
+        return job;
+    }
+    
+    // Heap still in use after a full collection, i.e. what the export holds on to
+    private static long retainedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+    
+    /**
+     * A forward-only result set of synthetic job rows, generated as they are read.
+     */
+    /**
+     * A controller whose export writes five rows, or fails with a query timeout after failAfterRows rows.
+     */
+    private static JobController exportController(int failAfterRows) {
+        JobExportService exportService = new JobExportService() {
+            @Override
+            public void validate(LocalDateTime from, LocalDateTime to, String format) {
+            }
+            
+            @Override
+            public long export(LocalDateTime from, LocalDateTime to, String format, OutputStream output) throws IOException {
+                try (JobExportWriter writer = new JobExportWriter(output, format)) {
+                    ResultSet rs = resultSet(5);
+                    writer.begin(rs.getMetaData());
+                    while (rs.next()) {
+                        if (writer.getRows() == failAfterRows) {
+                            throw new QueryTimeoutException("cursor read timed out");
+                        }
+                        writer.writeRow(rs);
+                    }
+                    return writer.getRows();
+                } catch (SQLException e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+        JobController controller = new JobController();
+        ReflectionTestUtils.setField(controller, "jobExportService", exportService);
+        return controller;
+    }
+    
+    private static byte[] readGzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return input.readAllBytes();
+        }
+    }
+    
+    private static ResultSet resultSet(int rows) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                JobExportBenchmarkTest.class.getClassLoader(), new Class<?>[] {ResultSetMetaData.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount": return COLUMNS.length;
+                        case "getColumnLabel":
+                        case "getColumnName": return COLUMNS[(Integer) args[0] - 1];
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        
+        int[] row = {0};
+        return (ResultSet) Proxy.newProxyInstance(
+                JobExportBenchmarkTest.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next": return ++row[0] <= rows;
+                        case "getMetaData": return metaData;
+                        case "getObject": return value(row[0], (Integer) args[0] - 1);
+                        case "getString": return (String) value(row[0], indexOf((String) args[0]));
+                        case "getLong": return (Long) value(row[0], indexOf((String) args[0]));
+                        case "getInt": return (Integer) value(row[0], indexOf((String) args[0]));
+                        case "getTimestamp": return (Timestamp) value(row[0], indexOf((String) args[0]));
+                        case "close": return null;
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+    
+    private static int indexOf(String column) {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (COLUMNS[i].equals(column)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(column);
+    }
+    
+    private static Object value(int row, int column) {
+        switch (column) {
+            case 0: return (long) row;
+            case 1: return "job-" + row;
+            case 2: return "Process Data";
+            case 3: return "com.example.jobdispatcher.job.sample.DataProcessingJob";
+            case 4: return "ONE_TIME";
+            case 5: return "FAILED";
+            case 6: return Timestamp.valueOf(SUBMITTED_AT.plusSeconds(row));
+            case 7: return null;
+            case 8: return 1500L + row % 100;
+            case 9: return row % 4;
+            default: return "failed, \"retrying\"";
+        }
+    }
+    
+    private static class CountingOutputStream extends OutputStream {
+        private long count = 0;
+        
+        @Override
+        public void write(int b) {
+            count++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.jobdispatcher.test;
+
+import com.example.jobdispatcher.config.JobFactoryConfig;
+import com.example.jobdispatcher.job.Job;
+import com.example.jobdispatcher.job.OneTimeJob;
+import com.example.jobdispatcher.job.RepetitiveJob;
+import com.example.jobdispatcher.job.sample.SampleOneTimeJob;
+import com.example.jobdispatcher.service.JobFactoryRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the job factory registry, and a comparison of precompiled factories against the
+ * Class.forName and reflective constructor call they replace. Runs without a database.
+ */
+public class JobFactoryRegistryTest {
+    
+    private static final String SAMPLE_JOB = SampleOneTimeJob.class.getName();
+    
+    private AnnotationConfigApplicationContext context;
+    private JobFactoryRegistry registry;
+    
+    @BeforeEach
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(JobFactoryConfig.class, JobFactoryRegistry.class);
+        registry = context.getBean(JobFactoryRegistry.class);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Test
+    public void testScannedJobsAreCompiledAtStartup() {
+        assertTrue(registry.isRegistered(SAMPLE_JOB));
+        
+        Job first = registry.createJob(SAMPLE_JOB);
+        Job second = registry.createJob(SAMPLE_JOB);
+        assertTrue(first instanceof SampleOneTimeJob);
+        assertNotSame(first, second);
+        
+        @SuppressWarnings("unchecked")
+        Map<String, String> factories = (Map<String, String>) registry.getRegistryStats().get("factories");
+        assertEquals("LAMBDA", factories.get(SAMPLE_JOB));
+    }
+    
+    @Test
+    public void testUnknownClassIsRejectedAndCached() {
+        IllegalArgumentException first = assertThrows(IllegalArgumentException.class,
+                () -> registry.createJob("com.example.Missing"));
+        IllegalArgumentException second = assertThrows(IllegalArgumentException.class,
+                () -> registry.createJob("com.example.Missing"));
+        assertEquals(first.getMessage(), second.getMessage());
+        assertEquals(1L, registry.getRegistryStats().get("cachedMisses"));
+        assertEquals(2L, registry.getRegistryStats().get("misses"));
+    }
+    
+    @Test
+    public void testValidateChecksTheJobType() {
+        registry.validate(SAMPLE_JOB, OneTimeJob.class);
+        assertThrows(IllegalArgumentException.class, () -> registry.validate(SAMPLE_JOB, RepetitiveJob.class));
+        assertThrows(IllegalArgumentException.class, () -> registry.validate(String.class.getName(), Job.class));
+    }
+    
+    @Test
+    @Tag("benchmark")
+    public void benchmarkPrecompiledAgainstReflectiveInstantiation() throws Exception {
+        int jobs = 200_000;
+        long reflectiveNanos = Long.MAX_VALUE;
+        long precompiledNanos = Long.MAX_VALUE;
+        
+        // Best of five rounds, so the first rounds serve as warm-up
+        for (int round = 0; round < 5; round++) {
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < jobs; i++) {
+                Class<?> jobClass = Class.forName(SAMPLE_JOB);
+                assertNotNull(jobClass.getDeclaredConstructor().newInstance());
+            }
+            reflectiveNanos = Math.min(reflectiveNanos, System.nanoTime() - startedAt);
+            
+            startedAt = System.nanoTime();
+            for (int i = 0; i < jobs; i++) {
+                assertNotNull(registry.createJob(SAMPLE_JOB));
+            }
+            precompiledNanos = Math.min(precompiledNanos, System.nanoTime() - startedAt);
+        }
+        
+        assertTrue(precompiledNanos < reflectiveNanos,
+                   "Precompiled factories took " + precompiledNanos / jobs + " ns/job, reflection "
+                   + reflectiveNanos / jobs + " ns/job");
+    }
+}
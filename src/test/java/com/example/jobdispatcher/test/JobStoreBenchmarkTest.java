@@ -0,0 +1,194 @@
+package com.example.jobdispatcher.test;
+
+import com.example.jobdispatcher.config.PersistenceConfig;
+import com.example.jobdispatcher.entity.ScheduledJob;
+import com.example.jobdispatcher.persistence.FileJobStore;
+import com.example.jobdispatcher.persistence.InMemoryJobStore;
+import com.example.jobdispatcher.persistence.JobStore;
+import com.example.jobdispatcher.persistence.JobTransition;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transition, recovery and throughput tests for the in-memory and file job stores.
+ * Runs without a database; the throughput benchmark only runs with -Pbenchmark.
+ */
+public class JobStoreBenchmarkTest {
+    
+    private static final int BENCHMARK_THREADS = 16;
+    private static final int BENCHMARK_JOBS_PER_THREAD = 2000;
+    
+    @TempDir
+    Path storeDirectory;
+    
+    @Test
+    public void testTransitionsAreCompareAndSet() {
+        InMemoryJobStore store = new InMemoryJobStore();
+        store.save(job("job-1", "group-a"));
+        
+        assertTrue(store.compareAndSetStatus("job-1", "PENDING", "CANCELLED"));
+        assertFalse(store.compareAndSetStatus("job-1", "PENDING", "RUNNING"));
+        
+        List<JobTransition> rejected = store.applyTransitions(Arrays.asList(
+                new JobTransition("job-1", "COMPLETED", "COMPLETED", null, LocalDateTime.now(), 10L, null),
+                new JobTransition("missing", "RUNNING", "RUNNING", LocalDateTime.now(), null, null, null)));
+        
+        assertEquals(2, rejected.size());
+        assertEquals("CANCELLED", store.findByJobId("job-1").get().getStatus());
+        assertEquals(1, store.countByStatus("CANCELLED"));
+        assertEquals(0, store.countByStatus("PENDING"));
+        assertEquals(1, store.countByGroupKey("group-a"));
+    }
+    
+    @Test
+    public void testDuplicateBatchInsertsNothing() {
+        InMemoryJobStore store = new InMemoryJobStore();
+        store.save(job("job-1", null));
+        
+        assertThrows(DuplicateKeyException.class,
+                () -> store.insertAll(Arrays.asList(job("job-2", null), job("job-1", null))));
+        assertFalse(store.existsByJobId("job-2"));
+        assertEquals(1, store.countByStatus("PENDING"));
+    }
+    
+    @Test
+    public void testFileStoreIsRestoredAfterCompaction() throws Exception {
+        FileJobStore store = openFileStore(true);
+        for (int i = 1; i <= 100; i++) {
+            store.save(job("job-" + i, "group-" + (i % 4)));
+        }
+        store.compact();
+        for (int i = 1; i <= 10; i++) {
+            store.applyTransitions(Collections.singletonList(
+                    new JobTransition("job-" + i, "RUNNING", "RUNNING", LocalDateTime.now(), null, null, null)));
+        }
+        store.deleteByJobId("job-100");
+        store.close();
+        
+        FileJobStore reopened = openFileStore(true);
+        assertEquals(89, reopened.countByStatus("PENDING"));
+        assertEquals(10, reopened.countByStatus("RUNNING"));
+        assertFalse(reopened.existsByJobId("job-100"));
+        assertEquals(25, reopened.countByGroupKey("group-1"));
+        assertEquals("RUNNING", reopened.findByJobId("job-1").get().getStatus());
+        reopened.close();
+    }
+    
+    @Test
+    @Tag("benchmark")
+    public void benchmarkTransitionsPerSecond() throws Exception {
+        long total = (long) BENCHMARK_THREADS * BENCHMARK_JOBS_PER_THREAD;
+        double memoryPerSecond = runBenchmark(new InMemoryJobStore());
+        
+        FileJobStore fileStore = openFileStore(false);
+        double filePerSecond = runBenchmark(fileStore);
+        Map<String, Object> fileStats = fileStore.getStoreStats();
+        fileStore.close();
+        
+        FileJobStore syncedFileStore = openFileStore(true);
+        runBenchmark(syncedFileStore);
+        Map<String, Object> syncedStats = syncedFileStore.getStoreStats();
+        syncedFileStore.close();
+        
+        // Every change is appended to the log; with sync-on-write, concurrent appends share an fsync
+        assertEquals(total * 3, count(fileStats, "appendCount"));
+        assertEquals(0, count(fileStats, "syncCount"));
+        assertEquals(total * 3, count(syncedStats, "appendCount"));
+        assertTrue(count(syncedStats, "syncCount") > 0);
+        assertTrue(count(syncedStats, "syncCount") < total * 3,
+                   count(syncedStats, "syncCount") + " fsyncs for " + total * 3 + " appends");
+        
+        assertTrue(memoryPerSecond > filePerSecond,
+                   String.format("memory %.0f changes/s, file %.0f changes/s", memoryPerSecond, filePerSecond));
+    }
+    
+    /**
+     * Save, start and complete every job, three changes per job, and return the changes per second.
+     */
+    private double runBenchmark(JobStore store) throws Exception {
+        int threads = BENCHMARK_THREADS;
+        int jobsPerThread = BENCHMARK_JOBS_PER_THREAD;
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < jobsPerThread; i++) {
+                    String jobId = "job-" + thread + "-" + i;
+                    store.save(job(jobId, "group-" + (i % 16)));
+                    store.applyTransitions(Collections.singletonList(
+                            new JobTransition(jobId, "RUNNING", "RUNNING", LocalDateTime.now(), null, null, null)));
+                    store.applyTransitions(Collections.singletonList(
+                            new JobTransition(jobId, "COMPLETED", "COMPLETED", null, LocalDateTime.now(), 1L, null)));
+                }
+                return null;
+            }));
+        }
+        
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        
+        long total = (long) threads * jobsPerThread;
+        assertEquals(total, store.countByStatus("COMPLETED"));
+        return total * 3 / (elapsedNanos / 1_000_000_000.0);
+    }
+    
+    private static long count(Map<String, Object> stats, String key) {
+        return ((Number) stats.get(key)).longValue();
+    }
+    
+    private FileJobStore openFileStore(boolean syncOnWrite) {
+        PersistenceConfig config = new PersistenceConfig();
+        config.setBackend(PersistenceConfig.BACKEND_FILE);
+        config.setFileDirectory(storeDirectory.resolve(syncOnWrite ? "synced" : "unsynced").toString());
+        config.setFileSyncOnWrite(syncOnWrite);
+        
+        FileJobStore store = new FileJobStore();
+        ReflectionTestUtils.setField(store, "persistenceConfig", config);
+        ReflectionTestUtils.setField(store, "objectMapper",
+                new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        store.open();
+        return store;
+    }
+    
+    private static ScheduledJob job(String jobId, String groupKey) {
+        ScheduledJob job = new ScheduledJob();
+        job.setJobId(jobId);
+        job.setJobName(jobId);
+        job.setJobType("ONE_TIME");
+        job.setJobClassName("com.example.jobs.SampleJob");
+        job.setStatus("PENDING");
+        job.setGroupKey(groupKey);
+        job.setSubmittedAt(LocalDateTime.now());
+        return job;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.jobdispatcher.test;
+
+import com.example.jobdispatcher.config.JobPriorityConfig;
+import com.example.jobdispatcher.enums.JobPriority;
+import com.example.jobdispatcher.executor.PrioritizedTask;
+import com.example.jobdispatcher.executor.PriorityTaskQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Capacity, queue share, weighting and aging tests for the priority task queue.
+ * Runs without a database.
+ */
+public class PriorityTaskQueueTest {
+    
+    @Test
+    public void testQueueSharesBoundEachPriority() {
+        PriorityTaskQueue queue = new PriorityTaskQueue(new JobPriorityConfig(), 100);
+        
+        assertEquals(25, offer(queue, JobPriority.BACKGROUND, 100));
+        assertEquals(0, queue.getRemainingCapacity(JobPriority.BACKGROUND));
+        assertEquals(75, queue.getRemainingCapacity(JobPriority.CRITICAL));
+        
+        assertEquals(50, offer(queue, JobPriority.LOW, 100));
+        
+        // NORMAL may take 80, but only 25 of the total capacity is left
+        assertEquals(25, offer(queue, JobPriority.NORMAL, 100));
+        assertEquals(100, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        assertEquals(0, offer(queue, JobPriority.CRITICAL, 1));
+        
+        assertNotNull(queue.poll());
+        assertEquals(1, offer(queue, JobPriority.CRITICAL, 5));
+    }
+    
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedLimitReplacesTheQueueShare() {
+        JobPriorityConfig config = new JobPriorityConfig();
+        config.setNormalLimit(20);
+        config.setLowLimit(500);
+        
+        assertEquals(20, config.getQueueLimit(JobPriority.NORMAL, 100));
+        assertEquals(100, config.getQueueLimit(JobPriority.LOW, 100));
+        assertEquals(25, config.getQueueLimit(JobPriority.BACKGROUND, 100));
+        
+        PriorityTaskQueue queue = new PriorityTaskQueue(config, 100);
+        assertEquals(20, offer(queue, JobPriority.NORMAL, 30));
+    }
+    
+    @Test
+    public void testDequeuesFollowTheWeights() {
+        PriorityTaskQueue queue = new PriorityTaskQueue(new JobPriorityConfig(), 1000);
+        offer(queue, JobPriority.CRITICAL, 100);
+        offer(queue, JobPriority.BACKGROUND, 100);
+        
+        // One schedule round has 16 + 8 + 4 + 2 + 1 slots; empty priorities give theirs to CRITICAL
+        int background = 0;
+        for (int i = 0; i < 31; i++) {
+            PrioritizedTask task = (PrioritizedTask) queue.poll();
+            if (task.getPriority() == JobPriority.BACKGROUND) {
+                background++;
+            }
+        }
+        assertEquals(1, background);
+    }
+    
+    @Test
+    public void testAgedJobsAreDequeuedFirst() throws Exception {
+        JobPriorityConfig config = new JobPriorityConfig();
+        config.setAgingThresholdMillis(20);
+        PriorityTaskQueue queue = new PriorityTaskQueue(config, 100);
+        
+        offer(queue, JobPriority.BACKGROUND, 1);
+        Thread.sleep(40);
+        offer(queue, JobPriority.CRITICAL, 1);
+        
+        assertEquals(JobPriority.BACKGROUND, ((PrioritizedTask) queue.poll()).getPriority());
+        assertEquals(JobPriority.CRITICAL, ((PrioritizedTask) queue.poll()).getPriority());
+        assertNull(queue.poll());
+    }
+    
+    @Test
+    public void testConcurrentOffersNeverExceedTheCapacity() throws Exception {
+        PriorityTaskQueue queue = new PriorityTaskQueue(new JobPriorityConfig(), 100);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            JobPriority priority = JobPriority.values()[t % JobPriority.values().length];
+            futures.add(executor.submit(() -> {
+                start.await();
+                return offer(queue, priority, 1000);
+            }));
+        }
+        start.countDown();
+        
+        int accepted = 0;
+        for (Future<Integer> future : futures) {
+            accepted += future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        
+        assertEquals(100, accepted);
+        assertEquals(100, queue.size());
+        for (JobPriority priority : JobPriority.values()) {
+            assertTrue(queue.getDepth(priority) <= new JobPriorityConfig().getQueueLimit(priority, 100));
+        }
+    }
+    
+    private static int offer(PriorityTaskQueue queue, JobPriority priority, int tasks) {
+        AtomicInteger accepted = new AtomicInteger();
+        for (int i = 0; i < tasks; i++) {
+            if (queue.offer(new PrioritizedTask(priority, priority + "-" + i, () -> { }))) {
+                accepted.incrementAndGet();
+            }
+        }
+        return accepted.get();
+    }
+}
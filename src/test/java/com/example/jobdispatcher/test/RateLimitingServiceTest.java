@@ -0,0 +1,137 @@
+package com.example.jobdispatcher.test;
+
+import com.example.jobdispatcher.annotation.RateLimited;
+import com.example.jobdispatcher.aspect.RateLimitingAspect;
+import com.example.jobdispatcher.config.RateLimitingConfig;
+import com.example.jobdispatcher.service.RateLimitingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Token accounting tests for the rate limiting service and aspect, with the default bucket sizes.
+ * Runs without a database.
+ */
+public class RateLimitingServiceTest {
+    
+    private AnnotationConfigApplicationContext context;
+    private RateLimitingService rateLimitingService;
+    private BatchEndpoint batchEndpoint;
+    
+    @BeforeEach
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(RateLimitingConfig.class, RateLimitingService.class,
+                                                         RateLimitingAspect.class);
+        rateLimitingService = context.getBean(RateLimitingService.class);
+        
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new BatchEndpoint());
+        proxyFactory.addAspect(context.getBean(RateLimitingAspect.class));
+        batchEndpoint = proxyFactory.getProxy();
+        
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("appServerId", "server-1");
+        request.setAttribute("apiKeyId", "key-1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        context.close();
+    }
+    
+    @Test
+    public void testBatchLargerThanRequestsPerMinuteIsAccepted() {
+        // One-time jobs allow 30 requests per minute; each batch is one request plus 1000 batch jobs
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.ACCEPTED, batchEndpoint.submit(jobs(1000)).getStatusCode());
+        }
+        assertEquals(25, rateLimitingService.getRemainingTokensForJobType("ONE_TIME"));
+        assertEquals(0, rateLimitingService.getRemainingBatchJobs("api-key:key-1"));
+        
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, batchEndpoint.submit(jobs(1)).getStatusCode());
+    }
+    
+    @Test
+    public void testBatchLargerThanBatchBucketIsRejected() {
+        assertFalse(rateLimitingService.isAllowedByJwt("server-1", "key-1", "ONE_TIME", 5001));
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, batchEndpoint.submit(jobs(8000)).getStatusCode());
+        
+        assertEquals(5000, rateLimitingService.getRemainingBatchJobs("api-key:key-1"));
+        assertEquals(30, rateLimitingService.getRemainingTokensForJobType("ONE_TIME"));
+        assertEquals(HttpStatus.ACCEPTED, batchEndpoint.submit(jobs(5000)).getStatusCode());
+    }
+    
+    @Test
+    public void testRejectedSingleRequestKeepsEarlierBucketCharges() {
+        for (int i = 0; i < 30; i++) {
+            assertTrue(rateLimitingService.isAllowedByJobType("ONE_TIME"));
+        }
+        
+        // Single requests check the app server, API key and job type buckets in turn, as before batches
+        assertFalse(rateLimitingService.isAllowedByJwt("server-1", "key-1", "ONE_TIME"));
+        for (int i = 0; i < 59; i++) {
+            assertTrue(rateLimitingService.isAllowedByAppServer("server-1"));
+            assertTrue(rateLimitingService.isAllowedByApiKey("key-1"));
+        }
+        assertFalse(rateLimitingService.isAllowedByAppServer("server-1"));
+        assertFalse(rateLimitingService.isAllowedByApiKey("key-1"));
+    }
+    
+    @Test
+    public void testRejectedBatchDoesNotChargeOtherBuckets() {
+        for (int i = 0; i < 30; i++) {
+            assertTrue(rateLimitingService.isAllowedByJobType("ONE_TIME"));
+        }
+        
+        // The job type bucket is empty, so this is rejected after the app server and API key buckets
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, batchEndpoint.submit(jobs(100)).getStatusCode());
+        
+        assertEquals(5000, rateLimitingService.getRemainingBatchJobs("api-key:key-1"));
+        for (int i = 0; i < 60; i++) {
+            assertTrue(rateLimitingService.isAllowedByAppServer("server-1"));
+            assertTrue(rateLimitingService.isAllowedByApiKey("key-1"));
+        }
+    }
+    
+    @Test
+    public void testRejectedCombinedRequestDoesNotChargeIp() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimitingService.isAllowedByUser("user-1", "free"));
+        }
+        
+        assertFalse(rateLimitingService.isAllowed("10.0.0.1", "user-1", "free", "ONE_TIME", 50));
+        
+        assertEquals(60, rateLimitingService.getRemainingTokensForIp("10.0.0.1"));
+        assertEquals(30, rateLimitingService.getRemainingTokensForJobType("ONE_TIME"));
+        assertEquals(5000, rateLimitingService.getRemainingBatchJobs("user:user-1"));
+    }
+    
+    private static List<String> jobs(int count) {
+        List<String> jobs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            jobs.add("job-" + i);
+        }
+        return jobs;
+    }
+    
+    public static class BatchEndpoint {
+        
+        @RateLimited(value = RateLimited.RateLimitType.COMBINED, jobType = "ONE_TIME", perItem = true)
+        public ResponseEntity<Object> submit(List<String> jobs) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobs.size());
+        }
+    }
+}
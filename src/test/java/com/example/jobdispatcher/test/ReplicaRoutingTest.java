@@ -0,0 +1,124 @@
+package com.example.jobdispatcher.test;
+
+import com.example.jobdispatcher.config.ReplicaConfig;
+import com.example.jobdispatcher.persistence.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing tests for the read replica datasource, against two embedded H2 databases.
+ * The replica's lag is read from a replica_status table standing in for SHOW REPLICA STATUS.
+ */
+public class ReplicaRoutingTest {
+    
+    private final AtomicBoolean replicaDown = new AtomicBoolean(false);
+    
+    private JdbcTemplate replicaStatus;
+    private ReplicaRoutingDataSource routingDataSource;
+    private DataSource dataSource;
+    private DataSourceTransactionManager transactionManager;
+    
+    @BeforeEach
+    public void setUp() {
+        DataSource primary = embeddedDatabase("primary");
+        DataSource replica = embeddedDatabase("replica");
+        replicaStatus = new JdbcTemplate(replica);
+        replicaStatus.execute("CREATE TABLE replica_status (Seconds_Behind_Source VARCHAR(20))");
+        replicaStatus.update("INSERT INTO replica_status VALUES ('0')");
+        
+        ReplicaConfig replicaConfig = new ReplicaConfig();
+        replicaConfig.setMaxLagSeconds(5);
+        replicaConfig.setLagQuery("SELECT Seconds_Behind_Source FROM replica_status");
+        
+        DataSource unreachableReplica = new DelegatingDataSource(replica) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (replicaDown.get()) {
+                    throw new SQLException("replica is down");
+                }
+                return super.getConnection();
+            }
+        };
+        routingDataSource = new ReplicaRoutingDataSource(primary, unreachableReplica, replicaConfig);
+        routingDataSource.afterPropertiesSet();
+        dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+    
+    @Test
+    public void testReadOnlyTransactionsUseTheReplica() {
+        assertEquals("replica", connectedDatabase(true));
+        assertEquals("primary", connectedDatabase(false));
+        assertEquals(1L, routingDataSource.getRoutingStats().get("replicaConnections"));
+    }
+    
+    @Test
+    public void testLaggingReplicaFallsBackToPrimary() {
+        setReplicaLag("30");
+        routingDataSource.checkReplica();
+        assertFalse(routingDataSource.isReplicaAvailable());
+        assertEquals("primary", connectedDatabase(true));
+        assertEquals(1L, routingDataSource.getRoutingStats().get("fallbackConnections"));
+        
+        setReplicaLag("2");
+        routingDataSource.checkReplica();
+        assertEquals("replica", connectedDatabase(true));
+    }
+    
+    @Test
+    public void testStoppedOrUnreachableReplicaFallsBackToPrimary() {
+        setReplicaLag(null);
+        routingDataSource.checkReplica();
+        assertEquals("primary", connectedDatabase(true));
+        
+        setReplicaLag("0");
+        replicaDown.set(true);
+        routingDataSource.checkReplica();
+        assertEquals("primary", connectedDatabase(true));
+        assertEquals(1L, routingDataSource.getRoutingStats().get("failedChecks"));
+    }
+    
+    @Test
+    public void testServerThatIsNotAReplicaFallsBackToPrimary() {
+        replicaStatus.update("DELETE FROM replica_status");
+        routingDataSource.checkReplica();
+        assertFalse(routingDataSource.isReplicaAvailable());
+        assertEquals("primary", connectedDatabase(true));
+    }
+    
+    private void setReplicaLag(String lag) {
+        replicaStatus.update("UPDATE replica_status SET Seconds_Behind_Source = ?", lag);
+    }
+    
+    // Name of the database the transaction's first statement ran on
+    private String connectedDatabase(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM database_name", String.class));
+    }
+    
+    // A private in-memory database per test, kept open until the JVM exits
+    private static DataSource embeddedDatabase(String name) {
+        DriverManagerDataSource database = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE database_name (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO database_name VALUES (?)", name);
+        return database;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.jobdispatcher.test;
+
+import com.example.jobdispatcher.executor.HashedTimingWheel;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.support.CronTrigger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Correctness tests for the hashed timing wheel and a schedule/cancel benchmark against
+ * the delay-queue based scheduler at 10k, 100k and 1M timers. Runs without a database.
+ * The benchmark is tagged "benchmark" and only runs with -Pbenchmark.
+ */
+public class TimingWheelBenchmarkTest {
+    
+    private static final Executor DIRECT = Runnable::run;
+    
+    @Test
+    public void testTimersFireAfterTheirDelay() throws Exception {
+        HashedTimingWheel wheel = new HashedTimingWheel(5, 64, "test-wheel");
+        wheel.start();
+        
+        CountDownLatch fired = new CountDownLatch(3);
+        long startedAt = System.nanoTime();
+        List<Long> firedAfterMillis = new ArrayList<>();
+        for (long delay : new long[] {20, 100, 300}) {
+            wheel.schedule(() -> {
+                synchronized (firedAfterMillis) {
+                    firedAfterMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                }
+                fired.countDown();
+            }, delay, DIRECT);
+        }
+        
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(firedAfterMillis.get(0) >= 20);
+        assertTrue(firedAfterMillis.get(2) >= 300);
+        // A timer stops counting as active just after its task returns
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (wheel.getActiveTimers() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, wheel.getActiveTimers());
+        wheel.stop();
+    }
+    
+    @Test
+    public void testTimersCascadeFromHigherLevels() throws Exception {
+        // With 1ms ticks and 4 buckets per level, 200ms spans levels 0 to 3
+        HashedTimingWheel wheel = new HashedTimingWheel(1, 4, "test-wheel");
+        wheel.start();
+        
+        CountDownLatch fired = new CountDownLatch(4);
+        long startedAt = System.nanoTime();
+        AtomicInteger early = new AtomicInteger();
+        for (long delay : new long[] {3, 17, 70, 200}) {
+            wheel.schedule(() -> {
+                if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) < delay) {
+                    early.incrementAndGet();
+                }
+                fired.countDown();
+            }, delay, DIRECT);
+        }
+        
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertEquals(0, early.get());
+        wheel.stop();
+    }
+    
+    @Test
+    public void testCancelledTimersDoNotFire() throws Exception {
+        HashedTimingWheel wheel = new HashedTimingWheel(5, 64, "test-wheel");
+        wheel.start();
+        
+        AtomicInteger fired = new AtomicInteger();
+        ScheduledFuture<?> cancelled = wheel.schedule(fired::incrementAndGet, 50, DIRECT);
+        CountDownLatch kept = new CountDownLatch(1);
+        wheel.schedule(kept::countDown, 100, DIRECT);
+        
+        assertTrue(cancelled.cancel(false));
+        assertTrue(cancelled.isCancelled());
+        assertTrue(kept.await(1, TimeUnit.SECONDS));
+        assertEquals(0, fired.get());
+        assertEquals(1, wheel.getCancelledTimers());
+        wheel.stop();
+    }
+    
+    @Test
+    public void testPeriodicTimersRepeatUntilCancelled() throws Exception {
+        HashedTimingWheel wheel = new HashedTimingWheel(5, 64, "test-wheel");
+        wheel.start();
+        
+        CountDownLatch rate = new CountDownLatch(5);
+        CountDownLatch delay = new CountDownLatch(5);
+        ScheduledFuture<?> fixedRate = wheel.scheduleAtFixedRate(rate::countDown, 0, 20, DIRECT);
+        ScheduledFuture<?> fixedDelay = wheel.scheduleWithFixedDelay(delay::countDown, 0, 20, DIRECT);
+        
+        assertTrue(rate.await(2, TimeUnit.SECONDS));
+        assertTrue(delay.await(2, TimeUnit.SECONDS));
+        assertTrue(fixedRate.cancel(false));
+        assertTrue(fixedDelay.cancel(false));
+        assertEquals(0, wheel.getActiveTimers());
+        wheel.stop();
+    }
+    
+    @Test
+    public void testCronTriggerFires() throws Exception {
+        HashedTimingWheel wheel = new HashedTimingWheel(10, 64, "test-wheel");
+        wheel.start();
+        
+        CountDownLatch fired = new CountDownLatch(2);
+        ScheduledFuture<?> timer = wheel.schedule(fired::countDown, new CronTrigger("* * * * * *"), DIRECT);
+        
+        assertTrue(fired.await(4, TimeUnit.SECONDS));
+        timer.cancel(false);
+        wheel.stop();
+    }
+    
+    @Test
+    @Tag("benchmark")
+    public void benchmarkScheduleAndCancel() throws Exception {
+        double fastestWheelNanosPerTimer = Double.MAX_VALUE;
+        for (int timers : new int[] {10_000, 100_000, 1_000_000}) {
+            long[] delays = new long[timers];
+            Random random = new Random(timers);
+            for (int i = 0; i < timers; i++) {
+                delays[i] = 1000 + random.nextInt(3_600_000);
+            }
+            
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+            scheduler.setRemoveOnCancelPolicy(true);
+            long schedulerNanos = scheduleAndCancel(timers, delays,
+                    delay -> scheduler.schedule(() -> { }, delay, TimeUnit.MILLISECONDS));
+            assertEquals(0, scheduler.getQueue().size());
+            scheduler.shutdownNow();
+            
+            HashedTimingWheel wheel = new HashedTimingWheel(10, 512, "benchmark-wheel");
+            wheel.start();
+            long wheelNanos = scheduleAndCancel(timers, delays,
+                    delay -> wheel.schedule(() -> { }, delay, DIRECT));
+            assertEquals(0, wheel.getActiveTimers());
+            wheel.stop();
+            
+            // Schedule and cancel are O(1), so the cost per timer must not grow with the number of timers
+            double wheelNanosPerTimer = (double) wheelNanos / timers;
+            assertTrue(wheelNanosPerTimer < 3 * fastestWheelNanosPerTimer,
+                       String.format("%,d timers: timing wheel %.0f ns/timer, scheduler %.0f ns/timer, fastest so far %.0f ns/timer",
+                                     timers, wheelNanosPerTimer, (double) schedulerNanos / timers, fastestWheelNanosPerTimer));
+            fastestWheelNanosPerTimer = Math.min(fastestWheelNanosPerTimer, wheelNanosPerTimer);
+        }
+    }
+    
+    /**
+     * Schedule all timers, then cancel them, returning the elapsed time of both phases.
+     */
+    private static long scheduleAndCancel(int timers, long[] delays, TimerFactory factory) {
+        ScheduledFuture<?>[] futures = new ScheduledFuture<?>[timers];
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < timers; i++) {
+            futures[i] = factory.schedule(delays[i]);
+        }
+        for (int i = 0; i < timers; i++) {
+            futures[i].cancel(false);
+        }
+        return System.nanoTime() - startedAt;
+    }
+    
+    private interface TimerFactory {
+        ScheduledFuture<?> schedule(long delayMillis);
+    }
+}